@@ -0,0 +1,30 @@
+package com.rethink.api.config;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+
+/**
+ * Requisições GET usam a sessão da requisição em modo somente leitura e sem flush: as entidades
+ * carregadas não guardam cópia do estado original e nunca passam por dirty checking.
+ * <p>
+ * Transações abertas pelos serviços têm sessão própria e não são afetadas.
+ */
+@ApplicationScoped
+public class ReadOnlyGetFilter {
+    
+    @Inject
+    Session session;
+    
+    @ServerRequestFilter
+    public void markReadOnly(ContainerRequestContext requestContext) {
+        if (HttpMethod.GET.equals(requestContext.getMethod())) {
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.rethink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Situação de um relatório analítico; as linhas vêm só depois de concluído.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalyticsReportJob {
+    
+    public enum State {
+        RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+    
+    public String id;
+    public State state;
+    public AnalyticsReportRequest request;
+    public int chunks;
+    public int completedChunks;
+    public LocalDateTime startedAt;
+    public LocalDateTime finishedAt;
+    public long elapsedMillis;
+    public String error;
+    public List<AnalyticsReportRow> rows;
+}
\ No newline at end of file
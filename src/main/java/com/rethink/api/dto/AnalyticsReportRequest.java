@@ -0,0 +1,29 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnalyticsReportRequest {
+    
+    @NotNull(message = "Data inicial é obrigatória")
+    public LocalDate from;
+    
+    /** Último dia, inclusive. */
+    @NotNull(message = "Data final é obrigatória")
+    public LocalDate to;
+    
+    /** Agrupamentos: day, month, state, status, customer, product. */
+    public List<String> groupBy = new ArrayList<>();
+    
+    /** Status a considerar; todos quando vazio. */
+    public List<Order.OrderStatus> statuses = new ArrayList<>();
+    
+    /** Dias por consulta; o padrão vem de {@code report.chunk-days}. */
+    @Positive(message = "Dias por consulta deve ser maior que zero")
+    public Integer chunkDays;
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.rethink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rethink.api.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de um grupo do relatório analítico; só os campos agrupados vêm preenchidos. A receita é a
+ * soma dos subtotais dos itens e as médias são por pedido.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalyticsReportRow {
+    
+    public LocalDate day;
+    /** Mês no formato {@code AAAA-MM}. */
+    public String month;
+    /** Estado de entrega; vazio para pedidos sem estado. */
+    public String state;
+    public String city;
+    public Order.OrderStatus status;
+    public Long customerId;
+    public Long productId;
+    public long orderCount;
+    public long itemCount;
+    public BigDecimal revenue;
+    public BigDecimal averageBasket;
+    public BigDecimal averageItems;
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BulkStatusUpdateRequest {
+    
+    @NotEmpty(message = "Informe pelo menos um pedido")
+    public List<Long> orderIds;
+    
+    @NotNull(message = "Status é obrigatório")
+    public Order.OrderStatus status;
+}
\ No newline at end of file
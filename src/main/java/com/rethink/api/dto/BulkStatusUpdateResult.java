@@ -0,0 +1,20 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+
+import java.util.List;
+
+public class BulkStatusUpdateResult {
+    
+    public Order.OrderStatus status;
+    public int requested;
+    public int updated;
+    public List<Long> rejectedIds;
+    
+    public BulkStatusUpdateResult(Order.OrderStatus status, int requested, int updated, List<Long> rejectedIds) {
+        this.status = status;
+        this.requested = requested;
+        this.updated = updated;
+        this.rejectedIds = rejectedIds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.rethink.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Cart {
+    
+    public String id;
+    
+    @NotNull(message = "ID do cliente é obrigatório")
+    public Long customerId;
+    
+    public List<@NotNull(message = "Item não pode ser nulo") @Valid CartItem> items = new ArrayList<>();
+    
+    public String notes;
+    public String shippingAddress;
+    public String shippingCity;
+    public String shippingState;
+    public String shippingZipCode;
+    
+    public LocalDateTime createdAt;
+    public LocalDateTime updatedAt;
+    
+    public CartItem findItem(Long productId) {
+        for (CartItem item : items) {
+            if (item.productId.equals(productId)) {
+                return item;
+            }
+        }
+        return null;
+    }
+    
+    public static class CartItem {
+        @NotNull(message = "ID do produto é obrigatório")
+        public Long productId;
+        
+        @NotNull(message = "Quantidade é obrigatória")
+        @Positive(message = "Quantidade deve ser maior que zero")
+        public Integer quantity;
+        
+        public CartItem() {
+        }
+        
+        public CartItem(Long productId, Integer quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.rethink.api.dto;
+
+public record CustomerSummary(Long id, String name, String email, String city, String state) {
+}
\ No newline at end of file
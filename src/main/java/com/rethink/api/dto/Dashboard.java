@@ -0,0 +1,22 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Painel administrativo. Partes que não responderam a tempo ficam nulas e são listadas em
+ * {@code unavailable}.
+ */
+public class Dashboard {
+    
+    public Long totalOrders;
+    public Map<Order.OrderStatus, Long> ordersByStatus;
+    public Long totalProducts;
+    public Long availableProducts;
+    public Long totalCustomers;
+    public List<OrderSummary> recentOrders;
+    public List<CustomerSummary> recentCustomers;
+    public List<String> unavailable;
+}
\ No newline at end of file
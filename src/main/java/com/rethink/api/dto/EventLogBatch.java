@@ -0,0 +1,19 @@
+package com.rethink.api.dto;
+
+import java.util.List;
+
+public class EventLogBatch {
+    
+    public String consumer;
+    public List<EventLogRecord> records;
+    /** Offset a confirmar depois de processar os registros. */
+    public long nextOffset;
+    public long endOffset;
+    
+    public EventLogBatch(String consumer, List<EventLogRecord> records, long nextOffset, long endOffset) {
+        this.consumer = consumer;
+        this.records = records;
+        this.nextOffset = nextOffset;
+        this.endOffset = endOffset;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.rethink.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+public class EventLogCommit {
+    
+    @NotNull(message = "Offset é obrigatório")
+    @PositiveOrZero(message = "Offset não pode ser negativo")
+    public Long offset;
+}
\ No newline at end of file
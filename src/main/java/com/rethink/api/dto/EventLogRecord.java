@@ -0,0 +1,17 @@
+package com.rethink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+public class EventLogRecord {
+    
+    public long offset;
+    
+    /** O evento como foi gravado no log, sem nova serialização. */
+    @JsonRawValue
+    public String event;
+    
+    public EventLogRecord(long offset, String event) {
+        this.offset = offset;
+        this.event = event;
+    }
+}
\ No newline at end of file
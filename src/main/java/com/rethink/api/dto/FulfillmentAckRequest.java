@@ -0,0 +1,18 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class FulfillmentAckRequest {
+    
+    @NotBlank(message = "ID do worker é obrigatório")
+    public String workerId;
+    
+    @NotEmpty(message = "Informe pelo menos um pedido")
+    public List<Long> orderIds;
+    
+    public Order.OrderStatus status;
+}
\ No newline at end of file
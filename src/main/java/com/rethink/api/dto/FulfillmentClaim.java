@@ -0,0 +1,19 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class FulfillmentClaim {
+    
+    public String workerId;
+    public LocalDateTime leaseExpiresAt;
+    public List<Order> orders;
+    
+    public FulfillmentClaim(String workerId, LocalDateTime leaseExpiresAt, List<Order> orders) {
+        this.workerId = workerId;
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.orders = orders;
+    }
+}
\ No newline at end of file
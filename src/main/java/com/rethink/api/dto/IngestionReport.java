@@ -0,0 +1,18 @@
+package com.rethink.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IngestionReport {
+    
+    public String jobId;
+    public long resumedFrom;
+    public long checkpoint;
+    public long linesRead;
+    public long skipped;
+    public long ordersCreated;
+    public long rejected;
+    public long elapsedMillis;
+    public double rowsPerSecond;
+    public List<String> errors = new ArrayList<>();
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.rethink.api.dto;
+
+import jakarta.ws.rs.BadRequestException;
+
+/**
+ * Formato das listagens: {@code full} devolve as entidades completas e {@code summary} só as
+ * colunas de resumo, projetadas direto da consulta.
+ */
+public enum ListView {
+    FULL,
+    SUMMARY;
+    
+    public static ListView fromString(String value) {
+        for (ListView view : values()) {
+            if (view.name().equalsIgnoreCase(value)) {
+                return view;
+            }
+        }
+        throw new BadRequestException("Visão inválida: " + value + " (use full ou summary)");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.rethink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Uma linha do arquivo NDJSON de pedidos enviado pelos marketplaces.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MarketplaceOrderLine {
+    
+    public String externalId;
+    public String customerEmail;
+    public String customerCpf;
+    
+    public String notes;
+    public String shippingAddress;
+    public String shippingCity;
+    public String shippingState;
+    public String shippingZipCode;
+    
+    public List<Item> items;
+    
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        public Long productId;
+        public Integer quantity;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Evento do feed de pedidos. O {@code id} é sequencial: um salto entre dois eventos recebidos
+ * indica eventos descartados para o assinante.
+ */
+public class OrderFeedEvent {
+    
+    public long id;
+    public OrderEvent.Type type;
+    public Long orderId;
+    public Long customerId;
+    public Order.OrderStatus previousStatus;
+    public Order.OrderStatus status;
+    public BigDecimal totalAmount;
+    public LocalDateTime occurredAt;
+    
+    public OrderFeedEvent(long id, OrderEvent event) {
+        this.id = id;
+        this.type = event.type;
+        this.orderId = event.orderId;
+        this.customerId = event.customerId;
+        this.previousStatus = event.previousStatus;
+        this.status = event.status;
+        this.totalAmount = event.totalAmount;
+        this.occurredAt = event.occurredAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.QueryParam;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderSearchCriteria {
+    
+    @Parameter(description = "ID do cliente")
+    @QueryParam("customerId")
+    public Long customerId;
+    
+    @Parameter(description = "Status do pedido")
+    @QueryParam("status")
+    public Order.OrderStatus status;
+    
+    @Parameter(description = "Data inicial do pedido (ISO-8601)")
+    @QueryParam("from")
+    public LocalDateTime from;
+    
+    @Parameter(description = "Data final do pedido (ISO-8601)")
+    @QueryParam("to")
+    public LocalDateTime to;
+    
+    @Parameter(description = "UF de entrega")
+    @QueryParam("shippingState")
+    public String shippingState;
+    
+    @Parameter(description = "Total mínimo")
+    @QueryParam("minTotal")
+    public BigDecimal minTotal;
+    
+    @Parameter(description = "Total máximo")
+    @QueryParam("maxTotal")
+    public BigDecimal maxTotal;
+    
+    @Parameter(description = "Cursor retornado pela página anterior")
+    @QueryParam("cursor")
+    public String cursor;
+    
+    @Parameter(description = "Número de pedidos por página")
+    @QueryParam("limit")
+    @DefaultValue("50")
+    public int limit = 50;
+}
\ No newline at end of file
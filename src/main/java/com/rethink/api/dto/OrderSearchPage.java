@@ -0,0 +1,14 @@
+package com.rethink.api.dto;
+
+import java.util.List;
+
+public class OrderSearchPage {
+    
+    public List<OrderSummary> items;
+    public String nextCursor;
+    
+    public OrderSearchPage(List<OrderSummary> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+}
\ No newline at end of file
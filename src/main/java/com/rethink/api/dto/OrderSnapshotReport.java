@@ -0,0 +1,18 @@
+package com.rethink.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderSnapshotReport {
+    
+    /** Última atualização do snapshot com as alterações confirmadas. */
+    public LocalDateTime refreshedAt;
+    public List<String> groupBy;
+    public List<AnalyticsReportRow> rows;
+    public long orderCount;
+    public long itemCount;
+    public BigDecimal revenue;
+    public long scannedLines;
+    public long elapsedMicros;
+}
\ No newline at end of file
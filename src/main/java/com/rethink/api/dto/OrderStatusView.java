@@ -0,0 +1,22 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+
+import java.time.LocalDateTime;
+
+public class OrderStatusView {
+    
+    public Long id;
+    public Long customerId;
+    public Order.OrderStatus status;
+    public LocalDateTime orderDate;
+    
+    public OrderStatusView(Long id, @ProjectedFieldName("customer.id") Long customerId,
+                           Order.OrderStatus status, LocalDateTime orderDate) {
+        this.id = id;
+        this.customerId = customerId;
+        this.status = status;
+        this.orderDate = orderDate;
+    }
+}
\ No newline at end of file
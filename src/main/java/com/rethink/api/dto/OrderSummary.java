@@ -0,0 +1,16 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import io.quarkus.hibernate.orm.panache.common.ProjectedFieldName;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record OrderSummary(
+        Long id,
+        @ProjectedFieldName("customer.id") Long customerId,
+        @ProjectedFieldName("customer.name") String customerName,
+        Order.OrderStatus status,
+        BigDecimal totalAmount,
+        LocalDateTime orderDate) {
+}
\ No newline at end of file
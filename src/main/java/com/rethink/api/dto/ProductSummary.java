@@ -0,0 +1,6 @@
+package com.rethink.api.dto;
+
+import java.math.BigDecimal;
+
+public record ProductSummary(Long id, String name, BigDecimal price, Integer quantity) {
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.rethink.api.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class RevenueReport {
+    
+    public LocalDate from;
+    public LocalDate to;
+    public List<String> groupBy;
+    public List<RevenueReportRow> rows;
+    public long orderCount;
+    public BigDecimal revenue;
+    public long itemCount;
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.rethink.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rethink.api.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais de um grupo do relatório; só os campos agrupados vêm preenchidos.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RevenueReportRow {
+    
+    public LocalDate day;
+    /** Mês no formato {@code AAAA-MM}. */
+    public String month;
+    /** Estado de entrega; vazio para pedidos sem estado. */
+    public String state;
+    public Order.OrderStatus status;
+    public long orderCount;
+    public BigDecimal revenue;
+    public long itemCount;
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.rethink.api.dto;
+
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Corpo de cada evento enviado aos webhooks.
+ */
+public class WebhookEvent {
+    
+    public Long orderId;
+    public Long customerId;
+    public Order.OrderStatus previousStatus;
+    public Order.OrderStatus status;
+    public BigDecimal totalAmount;
+    public LocalDateTime occurredAt;
+    
+    public WebhookEvent(OrderEvent event) {
+        this.orderId = event.orderId;
+        this.customerId = event.customerId;
+        this.previousStatus = event.previousStatus;
+        this.status = event.status;
+        this.totalAmount = event.totalAmount;
+        this.occurredAt = event.occurredAt;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.rethink.api.dto;
+
+import java.util.List;
+
+public class WebhookMetrics {
+    
+    /** Entregas confirmadas pelos parceiros desde a inicialização. */
+    public long delivered;
+    /** Tentativas que falharam (erro, timeout ou status diferente de 2xx) desde a inicialização. */
+    public long failedAttempts;
+    /** Lotes enviados desde a inicialização. */
+    public long batches;
+    public long pending;
+    /** Entregas que esgotaram as tentativas. */
+    public long failed;
+    public List<Long> openCircuits;
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.rethink.api.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * Última linha confirmada de um job de importação; gravada na mesma transação do lote.
+ */
+@Entity
+public class IngestionCheckpoint extends PanacheEntityBase {
+    
+    @Id
+    @Column(length = 100)
+    public String jobId;
+    
+    @Column(nullable = false)
+    public long lineNumber;
+    
+    @Column(nullable = false)
+    public long ordersCreated;
+    
+    @Column(nullable = false)
+    public long rejected;
+    
+    @Column(nullable = false)
+    public LocalDateTime updatedAt;
+}
\ No newline at end of file
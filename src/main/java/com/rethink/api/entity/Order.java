@@ -1,9 +1,11 @@
 package com.rethink.api.entity;
 
+import com.rethink.api.util.Money;
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,9 +14,23 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "customer_order")
+// Índices da busca de pedidos: critério de igualdade seguido da ordenação por data e ID. Status
+// fica de fora: tem poucos valores e um índice nele faria o H2 travar todas as linhas lidas pela
+// fila de expedição (FOR UPDATE SKIP LOCKED)
+@Table(name = "customer_order", indexes = {
+    @Index(name = "idx_customer_order_customer_date", columnList = "customer_id, orderDate, id"),
+    @Index(name = "idx_customer_order_state_date", columnList = "shippingState, orderDate, id"),
+    @Index(name = "idx_customer_order_date", columnList = "orderDate, id")
+})
+@NamedEntityGraph(name = Order.GRAPH_DETAILS, attributeNodes = {
+    @NamedAttributeNode("customer"),
+    @NamedAttributeNode(value = "items", subgraph = "items")
+}, subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 public class Order extends PanacheEntity {
     
+    /** Plano de busca com cliente, itens e produtos, tudo o que a serialização completa percorre. */
+    public static final String GRAPH_DETAILS = "Order.details";
+    
     @NotNull(message = "Cliente é obrigatório")
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
@@ -41,6 +57,9 @@ public class Order extends PanacheEntity {
     @Column
     public LocalDateTime deliveryDate;
     
+    @Column
+    public LocalDateTime cancellationDate;
+    
     @Column(length = 500)
     public String notes;
     
@@ -56,9 +75,25 @@ public class Order extends PanacheEntity {
     @Column(length = 9)
     public String shippingZipCode;
     
+    @Column(length = 100)
+    @JsonIgnore
+    public String claimedBy;
+    
+    @Column
+    @JsonIgnore
+    public LocalDateTime leaseExpiresAt;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     public List<OrderItem> items = new ArrayList<>();
     
+    // Total em centavos, válido enquanto totalAmount for a instância de onde ele foi derivado
+    @Transient
+    private BigDecimal centsSource;
+    
+    @Transient
+    private long totalCents;
+    
     public Order() {
         this.orderDate = LocalDateTime.now();
     }
@@ -71,19 +106,51 @@ public class Order extends PanacheEntity {
     public void addItem(OrderItem item) {
         items.add(item);
         item.order = this;
-        recalculateTotal();
+        adjustTotal(item.subtotalCents());
     }
     
     public void removeItem(OrderItem item) {
-        items.remove(item);
-        
-        recalculateTotal();
+        if (items.remove(item)) {
+            adjustTotal(-item.subtotalCents());
+        }
+    }
+    
+    public void changeItemQuantity(OrderItem item, int quantity) {
+        long delta = Money.multiply(item.unitPriceCents(), (long) quantity - item.quantity);
+        item.quantity = quantity;
+        item.calculateSubtotal();
+        adjustTotal(delta);
+    }
+    
+    public void clearItems() {
+        items.clear();
+        setTotalCents(0);
     }
     
     public void recalculateTotal() {
-        this.totalAmount = items.stream()
-                .map(item -> item.unitPrice.multiply(BigDecimal.valueOf(item.quantity)))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long cents = 0;
+        for (OrderItem item : items) {
+            cents = Money.add(cents, item.subtotalCents());
+        }
+        setTotalCents(cents);
+    }
+    
+    public long totalCents() {
+        if (totalAmount != centsSource) {
+            totalCents = Money.toCents(totalAmount);
+            centsSource = totalAmount;
+        }
+        return totalCents;
+    }
+    
+    private void adjustTotal(long deltaCents) {
+        setTotalCents(Money.add(totalCents(), deltaCents));
+    }
+    
+    private void setTotalCents(long cents) {
+        totalCents = cents;
+        totalAmount = Money.fromCents(cents);
+        centsSource = totalAmount;
     }
     
     public enum OrderStatus {
@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
+import com.rethink.api.util.Money;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
@@ -13,7 +16,7 @@ public class OrderItem extends PanacheEntity {
     
     @NotNull(message = "Pedido é obrigatório")
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(name = "fk_orderitem_order"))
     @JsonIgnore
     public Order order;
     
@@ -35,6 +38,21 @@ public class OrderItem extends PanacheEntity {
     @Column(precision = 10, scale = 2)
     public BigDecimal subtotal;
     
+    /** Cópia da data do pedido: no PostgreSQL a tabela é particionada por ela, como a de pedidos. */
+    @Column
+    @JsonIgnore
+    public LocalDateTime orderDate;
+    
+    // Preço em centavos e os valores usados no último cálculo do subtotal
+    @Transient
+    private BigDecimal pricedUnitPrice;
+    
+    @Transient
+    private long unitPriceCents;
+    
+    @Transient
+    private Integer pricedQuantity;
+    
     public OrderItem() {
     }
     
@@ -45,15 +63,41 @@ public class OrderItem extends PanacheEntity {
         calculateSubtotal();
     }
     
+    public long unitPriceCents() {
+        if (unitPrice != pricedUnitPrice) {
+            unitPriceCents = Money.toCents(unitPrice);
+            pricedUnitPrice = unitPrice;
+        }
+        return unitPriceCents;
+    }
+    
+    public long subtotalCents() {
+        if (quantity == null || unitPrice == null) {
+            return 0;
+        }
+        return Money.multiply(unitPriceCents(), quantity);
+    }
+    
+    /**
+     * Recalcula o subtotal só quando preço ou quantidade mudaram desde o último cálculo.
+     */
     public void calculateSubtotal() {
-        if (quantity != null && unitPrice != null) {
-            this.subtotal = unitPrice.multiply(BigDecimal.valueOf(quantity));
+        if (quantity == null || unitPrice == null) {
+            return;
+        }
+        if (subtotal != null && unitPrice == pricedUnitPrice && quantity.equals(pricedQuantity)) {
+            return;
         }
+        this.subtotal = Money.fromCents(subtotalCents());
+        this.pricedQuantity = quantity;
     }
     
     @PrePersist
     @PreUpdate
     public void prePersist() {
+        if (orderDate == null && order != null) {
+            orderDate = order.orderDate;
+        }
         calculateSubtotal();
     }
 }
\ No newline at end of file
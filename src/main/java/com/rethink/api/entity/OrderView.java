@@ -0,0 +1,40 @@
+package com.rethink.api.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de leitura de um pedido: o JSON completo (cliente, itens e produtos) como a API o devolve,
+ * gravado na mesma transação de cada alteração do pedido.
+ */
+@Entity
+@Table(name = "order_view", indexes = @Index(name = "idx_order_view_customer", columnList = "customerId, orderId"))
+public class OrderView extends PanacheEntityBase {
+    
+    @Id
+    public Long orderId;
+    
+    @Column(nullable = false)
+    public Long customerId;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    public Order.OrderStatus status;
+    
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false)
+    public String document;
+    
+    @Column(nullable = false)
+    public LocalDateTime updatedAt;
+}
\ No newline at end of file
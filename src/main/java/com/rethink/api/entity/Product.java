@@ -7,10 +7,12 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 
 @Entity
+@BatchSize(size = 100)
 public class Product extends PanacheEntity {
     
     @NotBlank(message = "Nome do produto é obrigatório")
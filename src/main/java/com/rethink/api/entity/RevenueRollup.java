@@ -0,0 +1,64 @@
+package com.rethink.api.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Totais de pedidos por dia, estado de entrega e status, mantidos na mesma transação de cada
+ * alteração de pedido. Pedidos sem estado ficam com {@code shippingState} vazio.
+ */
+@Entity
+@Table(name = "revenue_rollup")
+@IdClass(RevenueRollup.Key.class)
+public class RevenueRollup extends PanacheEntityBase {
+    
+    @Id
+    public LocalDate orderDay;
+    
+    @Id
+    @Column(length = 2)
+    public String shippingState;
+    
+    @Id
+    @Column(length = 20)
+    @Enumerated(EnumType.STRING)
+    public Order.OrderStatus status;
+    
+    @Column(nullable = false)
+    public long orderCount;
+    
+    @Column(nullable = false, precision = 15, scale = 2)
+    public BigDecimal revenue;
+    
+    @Column(nullable = false)
+    public long itemCount;
+    
+    public static class Key implements Serializable {
+        
+        public LocalDate orderDay;
+        public String shippingState;
+        public Order.OrderStatus status;
+        
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(orderDay, key.orderDay)
+                    && Objects.equals(shippingState, key.shippingState) && status == key.status;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderDay, shippingState, status);
+        }
+    }
+}
\ No newline at end of file
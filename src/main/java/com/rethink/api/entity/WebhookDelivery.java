@@ -0,0 +1,64 @@
+package com.rethink.api.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox de webhooks: uma linha por evento e endpoint, gravada na transação que alterou o pedido.
+ * <p>
+ * {@code nextAttemptAt} só é preenchido enquanto a entrega está pendente, então o índice sobre
+ * ele cobre apenas o que ainda falta entregar. O índice por status atende às métricas e à remoção
+ * das entregas antigas.
+ */
+@Entity
+@Table(name = "webhook_delivery", indexes = {
+    @Index(name = "idx_webhook_delivery_due", columnList = "nextAttemptAt, id"),
+    @Index(name = "idx_webhook_delivery_endpoint", columnList = "endpointId"),
+    @Index(name = "idx_webhook_delivery_status", columnList = "status, createdAt")
+})
+public class WebhookDelivery extends PanacheEntity {
+    
+    @Column(nullable = false)
+    public Long endpointId;
+    
+    @Column(nullable = false)
+    public Long orderId;
+    
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false)
+    public String payload;
+    
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    public Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    public int attempts;
+    
+    @Column
+    public LocalDateTime nextAttemptAt;
+    
+    @Column(nullable = false)
+    public LocalDateTime createdAt;
+    
+    @Column
+    public LocalDateTime deliveredAt;
+    
+    @Column(length = 500)
+    public String lastError;
+    
+    public enum Status {
+        PENDING,
+        DELIVERED,
+        FAILED
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.rethink.api.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+
+/**
+ * URL de um parceiro que recebe as mudanças de status dos pedidos.
+ */
+@Entity
+@Table(name = "webhook_endpoint")
+public class WebhookEndpoint extends PanacheEntity {
+    
+    @NotBlank(message = "URL é obrigatória")
+    @Size(max = 500, message = "URL deve ter no máximo 500 caracteres")
+    @Pattern(regexp = "https?://\\S+", message = "URL deve começar com http:// ou https://")
+    @Column(nullable = false, length = 500)
+    public String url;
+    
+    /** Restringe aos pedidos deste cliente; nulo recebe os de todos. */
+    @Column
+    public Long customerId;
+    
+    @Column(nullable = false)
+    public LocalDateTime createdAt;
+}
\ No newline at end of file
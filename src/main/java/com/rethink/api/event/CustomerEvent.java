@@ -0,0 +1,43 @@
+package com.rethink.api.event;
+
+import com.rethink.api.entity.Customer;
+
+import java.time.LocalDateTime;
+
+public class CustomerEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+    
+    public final Type type;
+    public final Long customerId;
+    /** Cópia desanexada do cliente no momento do evento. */
+    public final Customer customer;
+    public final LocalDateTime occurredAt;
+    
+    private CustomerEvent(Type type, Customer customer) {
+        this.type = type;
+        this.customerId = customer.id;
+        this.customer = snapshot(customer);
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public static CustomerEvent of(Type type, Customer customer) {
+        return new CustomerEvent(type, customer);
+    }
+    
+    private static Customer snapshot(Customer customer) {
+        Customer copy = new Customer(customer.name, customer.email, customer.phone, customer.cpf);
+        copy.id = customer.id;
+        copy.address = customer.address;
+        copy.city = customer.city;
+        copy.state = customer.state;
+        copy.zipCode = customer.zipCode;
+        copy.createdAt = customer.createdAt;
+        copy.updatedAt = customer.updatedAt;
+        return copy;
+    }
+}
\ No newline at end of file
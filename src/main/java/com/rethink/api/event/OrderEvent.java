@@ -0,0 +1,68 @@
+package com.rethink.api.event;
+
+import com.rethink.api.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class OrderEvent {
+    
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        ITEM_ADDED,
+        ITEM_REMOVED,
+        DELETED,
+        /** Pedido movido para o {@code OrderArchive}: sai do banco, mas continua contado. */
+        ARCHIVED
+    }
+    
+    public final Type type;
+    public final Long orderId;
+    public final Long customerId;
+    public final Order.OrderStatus previousStatus;
+    public final Order.OrderStatus status;
+    public final LocalDateTime orderDate;
+    /** Nulo nas transições em lote, que não carregam os pedidos. */
+    public final BigDecimal totalAmount;
+    /** Preenchido só em {@link Type#CREATED}, quando o cliente já está carregado. */
+    public final String customerName;
+    public final LocalDateTime occurredAt;
+    
+    public OrderEvent(Type type, Long orderId, Long customerId, Order.OrderStatus previousStatus,
+                      Order.OrderStatus status, LocalDateTime orderDate) {
+        this(type, orderId, customerId, previousStatus, status, orderDate, null, null);
+    }
+    
+    public OrderEvent(Type type, Long orderId, Long customerId, Order.OrderStatus previousStatus,
+                      Order.OrderStatus status, LocalDateTime orderDate, BigDecimal totalAmount, String customerName) {
+        this.type = type;
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.orderDate = orderDate;
+        this.totalAmount = totalAmount;
+        this.customerName = customerName;
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public static OrderEvent of(Type type, Order order) {
+        return new OrderEvent(type, order.id, customerIdOf(order), order.status, order.status, order.orderDate,
+                order.totalAmount, null);
+    }
+    
+    public static OrderEvent created(Order order) {
+        return new OrderEvent(Type.CREATED, order.id, customerIdOf(order), order.status, order.status, order.orderDate,
+                order.totalAmount, order.customer != null ? order.customer.name : null);
+    }
+    
+    public static OrderEvent statusChanged(Order order, Order.OrderStatus previousStatus) {
+        return new OrderEvent(Type.STATUS_CHANGED, order.id, customerIdOf(order), previousStatus, order.status,
+                order.orderDate, order.totalAmount, null);
+    }
+    
+    private static Long customerIdOf(Order order) {
+        return order.customer != null ? order.customer.id : null;
+    }
+}
\ No newline at end of file
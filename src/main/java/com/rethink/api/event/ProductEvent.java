@@ -0,0 +1,49 @@
+package com.rethink.api.event;
+
+import com.rethink.api.entity.Product;
+
+import java.time.LocalDateTime;
+
+public class ProductEvent {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /**
+         * Estoque alterado por pedidos. Leva só a variação: transações concorrentes no mesmo produto
+         * podem ser entregues fora da ordem de commit, e variações somam em qualquer ordem.
+         */
+        STOCK_CHANGED
+    }
+    
+    public final Type type;
+    public final Long productId;
+    /** Cópia desanexada do produto no momento do evento; nula em {@link Type#STOCK_CHANGED}. */
+    public final Product product;
+    /** Variação do estoque em {@link Type#STOCK_CHANGED}; nula nos demais. */
+    public final Long quantityDelta;
+    public final LocalDateTime occurredAt;
+    
+    private ProductEvent(Type type, Long productId, Product product, Long quantityDelta) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+        this.quantityDelta = quantityDelta;
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public static ProductEvent of(Type type, Product product) {
+        return new ProductEvent(type, product.id, snapshot(product), null);
+    }
+    
+    public static ProductEvent stockChanged(Long productId, long quantityDelta) {
+        return new ProductEvent(Type.STOCK_CHANGED, productId, null, quantityDelta);
+    }
+    
+    private static Product snapshot(Product product) {
+        Product copy = new Product(product.name, product.description, product.price, product.quantity);
+        copy.id = product.id;
+        return copy;
+    }
+}
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.rethink.api.repository;
 
+import com.rethink.api.dto.CustomerSummary;
 import com.rethink.api.entity.Customer;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,4 +43,25 @@ public class CustomerRepository implements PanacheRepository<Customer> {
     public List<Customer> findRecentCustomers(int limit) {
         return find("ORDER BY createdAt DESC").page(0, limit).list();
     }
+    
+    public List<Customer> findByEmailsOrCpfs(Collection<String> emails, Collection<String> cpfs) {
+        if (emails.isEmpty() && cpfs.isEmpty()) {
+            return List.of();
+        }
+        if (cpfs.isEmpty()) {
+            return list("email in ?1", emails);
+        }
+        if (emails.isEmpty()) {
+            return list("cpf in ?1", cpfs);
+        }
+        return list("email in ?1 or cpf in ?2", emails, cpfs);
+    }
+    
+    public List<CustomerSummary> findAllSummaries() {
+        return find("ORDER BY id").project(CustomerSummary.class).list();
+    }
+    
+    public List<CustomerSummary> findRecentSummaries(int limit) {
+        return find("ORDER BY createdAt DESC, id DESC").project(CustomerSummary.class).page(0, limit).list();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.rethink.api.repository;
+
+import com.rethink.api.entity.IngestionCheckpoint;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class IngestionCheckpointRepository implements PanacheRepositoryBase<IngestionCheckpoint, String> {
+}
\ No newline at end of file
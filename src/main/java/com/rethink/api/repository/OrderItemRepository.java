@@ -4,7 +4,10 @@ import com.rethink.api.entity.OrderItem;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @ApplicationScoped
 public class OrderItemRepository implements PanacheRepository<OrderItem> {
@@ -20,4 +23,20 @@ public class OrderItemRepository implements PanacheRepository<OrderItem> {
     public void deleteByOrderId(Long orderId) {
         delete("order.id", orderId);
     }
+    
+    public long deleteByOrderIds(Collection<Long> orderIds) {
+        return delete("order.id in ?1", orderIds);
+    }
+    
+    public Map<Long, Long> sumQuantityByProductForOrders(Collection<Long> orderIds) {
+        List<Object[]> rows = getEntityManager()
+                .createQuery("SELECT i.product.id, SUM(i.quantity) FROM OrderItem i WHERE i.order.id IN ?1 GROUP BY i.product.id", Object[].class)
+                .setParameter(1, orderIds)
+                .getResultList();
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (Object[] row : rows) {
+            quantities.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return quantities;
+    }
 }
\ No newline at end of file
@@ -1,22 +1,96 @@
 package com.rethink.api.repository;
 
+import com.rethink.api.dto.OrderSearchCriteria;
+import com.rethink.api.dto.OrderStatusView;
+import com.rethink.api.dto.OrderSummary;
 import com.rethink.api.entity.Order;
+import com.rethink.api.util.FieldSelection;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Parameters;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import org.hibernate.jpa.AvailableHints;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class OrderRepository implements PanacheRepository<Order> {
     
+    /** Campos aceitos em {@code ?fields=}; os do cliente geram o join só quando pedidos. */
+    public static final Map<String, String> FIELDS = Map.ofEntries(
+            Map.entry("id", "o.id"),
+            Map.entry("customerId", "o.customer.id"),
+            Map.entry("customerName", "o.customer.name"),
+            Map.entry("status", "o.status"),
+            Map.entry("totalAmount", "o.totalAmount"),
+            Map.entry("orderDate", "o.orderDate"),
+            Map.entry("paymentDate", "o.paymentDate"),
+            Map.entry("shippingDate", "o.shippingDate"),
+            Map.entry("deliveryDate", "o.deliveryDate"),
+            Map.entry("cancellationDate", "o.cancellationDate"),
+            Map.entry("notes", "o.notes"),
+            Map.entry("shippingAddress", "o.shippingAddress"),
+            Map.entry("shippingCity", "o.shippingCity"),
+            Map.entry("shippingState", "o.shippingState"),
+            Map.entry("shippingZipCode", "o.shippingZipCode"));
+    
+    /** Linhas de item com os dados do pedido, para {@link #streamLines} e {@link #findLines}. */
+    private static final String LINES = "SELECT o.id, o.customer.id, i.product.id, o.status, o.orderDate, "
+            + "o.shippingState, o.shippingCity, i.quantity, i.subtotal FROM Order o LEFT JOIN o.items i";
+    
+    public Optional<Order> findByIdForUpdate(Long id) {
+        return findByIdOptional(id, LockModeType.PESSIMISTIC_WRITE);
+    }
+    
+    public List<Long> lockByIds(Collection<Long> ids) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM Order o WHERE o.id IN ?1 ORDER BY o.id", Long.class)
+                .setParameter(1, ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+    
+    /**
+     * Trava até {@code limit} pedidos nos status terminais informados que chegaram a eles antes de
+     * {@code cutoff}, os mais antigos primeiro. Pedidos sem a data de entrega ou de cancelamento
+     * (gravados antes de ela existir) usam a data do pedido.
+     */
+    public List<Long> lockArchivableIds(Collection<Order.OrderStatus> statuses, LocalDateTime cutoff, int limit) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM Order o "
+                        + "WHERE COALESCE(o.deliveryDate, o.cancellationDate, o.orderDate) < ?1 AND o.status IN ?2 "
+                        + "ORDER BY o.orderDate, o.id", Long.class)
+                .setParameter(1, cutoff)
+                .setParameter(2, statuses)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+    
+    public long countByIds(Collection<Long> ids) {
+        return count("id in ?1", ids);
+    }
+    
+    public List<Order> findAllWithDetails() {
+        return withFetchPlan(find("ORDER BY id"), Order.GRAPH_DETAILS).list();
+    }
+    
     public List<Order> findByCustomerId(Long customerId) {
-        return find("customer.id", customerId).list();
+        return withFetchPlan(find("customer.id = ?1 ORDER BY id", customerId), Order.GRAPH_DETAILS).list();
     }
     
     public List<Order> findByStatus(Order.OrderStatus status) {
-        return find("status", status).list();
+        return withFetchPlan(find("status = ?1 ORDER BY id", status), Order.GRAPH_DETAILS).list();
     }
     
     public List<Order> findByCustomerIdAndStatus(Long customerId, Order.OrderStatus status) {
@@ -27,12 +101,44 @@ public class OrderRepository implements PanacheRepository<Order> {
         return find("orderDate between ?1 and ?2", startDate, endDate).list();
     }
     
+    /**
+     * Início da janela tentada primeiro pelas buscas de pedidos recentes: o mês anterior. Com as
+     * tabelas particionadas por mês, a maioria das buscas lê só as duas partições mais novas.
+     */
+    public static LocalDateTime recentWindowStart() {
+        return YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
+    }
+    
     public List<Order> findRecentOrders(int limit) {
-        return find("ORDER BY orderDate DESC").page(0, limit).list();
+        // Paginar junto com o fetch da coleção faria a paginação em memória; busca os IDs da página primeiro
+        List<Long> ids = findRecentIds(recentWindowStart(), limit);
+        if (ids.size() < limit) {
+            ids = findRecentIds(null, limit);
+        }
+        return findRecentByIds(ids);
+    }
+    
+    private List<Long> findRecentIds(LocalDateTime since, int limit) {
+        var query = getEntityManager()
+                .createQuery("SELECT o.id FROM Order o " + (since != null ? "WHERE o.orderDate >= ?1 " : "")
+                        + "ORDER BY o.orderDate DESC, o.id DESC", Long.class)
+                .setMaxResults(limit);
+        if (since != null) {
+            query.setParameter(1, since);
+        }
+        return query.getResultList();
+    }
+    
+    public List<Order> findRecentByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return withFetchPlan(find("id in ?1 ORDER BY orderDate DESC, id DESC", ids), Order.GRAPH_DETAILS).list();
     }
     
     public List<Order> findPendingOrders() {
-        return find("status = ?1 ORDER BY orderDate", Order.OrderStatus.PENDING).list();
+        return withFetchPlan(find("status = ?1 ORDER BY orderDate, id", Order.OrderStatus.PENDING), Order.GRAPH_DETAILS)
+                .list();
     }
     
     public List<Order> findOrdersToShip() {
@@ -43,6 +149,35 @@ public class OrderRepository implements PanacheRepository<Order> {
         return count("status", status);
     }
     
+    public Map<Order.OrderStatus, Long> countGroupedByStatus() {
+        Map<Order.OrderStatus, Long> counts = new HashMap<>();
+        getEntityManager()
+                .createQuery("SELECT o.status, count(o) FROM Order o GROUP BY o.status", Object[].class)
+                .getResultList()
+                .forEach(row -> counts.put((Order.OrderStatus) row[0], (Long) row[1]));
+        return counts;
+    }
+    
+    /**
+     * Status atual dos pedidos informados que existem.
+     */
+    public Map<Long, Order.OrderStatus> findStatusesByIds(Collection<Long> ids) {
+        Map<Long, Order.OrderStatus> statuses = new HashMap<>();
+        getEntityManager()
+                .createQuery("SELECT o.id, o.status FROM Order o WHERE o.id IN ?1", Object[].class)
+                .setParameter(1, ids)
+                .getResultList()
+                .forEach(row -> statuses.put((Long) row[0], (Order.OrderStatus) row[1]));
+        return statuses;
+    }
+    
+    public List<Long> findOrderIdsByCustomerId(Long customerId) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM Order o WHERE o.customer.id = ?1 ORDER BY o.id", Long.class)
+                .setParameter(1, customerId)
+                .getResultList();
+    }
+    
     public Long countByCustomerId(Long customerId) {
         return count("customer.id", customerId);
     }
@@ -50,4 +185,227 @@ public class OrderRepository implements PanacheRepository<Order> {
     public List<Order> findOrdersWithItems() {
         return find("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.items IS NOT EMPTY").list();
     }
+    
+    public List<OrderStatusView> lockByIdsAndStatus(Collection<Long> ids, Collection<Order.OrderStatus> statuses) {
+        return getEntityManager()
+                .createQuery("SELECT new com.rethink.api.dto.OrderStatusView(o.id, o.customer.id, o.status, o.orderDate) "
+                        + "FROM Order o WHERE o.id IN ?1 AND o.status IN ?2 ORDER BY o.id", OrderStatusView.class)
+                .setParameter(1, ids)
+                .setParameter(2, statuses)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+    
+    public List<OrderStatusView> findStatusViewsByStatus(Order.OrderStatus status) {
+        return find("status", status)
+                .project(OrderStatusView.class)
+                .list();
+    }
+    
+    public int updateStatus(Collection<Long> ids, Collection<Order.OrderStatus> fromStatuses,
+                            Order.OrderStatus newStatus, LocalDateTime now) {
+        String dateColumn = switch (newStatus) {
+            case CONFIRMED -> "paymentDate";
+            case SHIPPED -> "shippingDate";
+            case DELIVERED -> "deliveryDate";
+            case CANCELLED -> "cancellationDate";
+            default -> null;
+        };
+        if (dateColumn == null) {
+            return update("status = ?1 where id in ?2 and status in ?3", newStatus, ids, fromStatuses);
+        }
+        return update("status = ?1, " + dateColumn + " = ?2 where id in ?3 and status in ?4",
+                newStatus, now, ids, fromStatuses);
+    }
+    
+    /**
+     * Trava e retorna até {@code limit} pedidos livres, ignorando os já travados por outra transação.
+     * A ordenação por ID (sequencial, logo por ordem de criação) percorre a chave primária e trava
+     * apenas as linhas retornadas.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> lockClaimableIds(Order.OrderStatus status, LocalDateTime now, int limit) {
+        List<Number> ids = getEntityManager()
+                .createNativeQuery("SELECT id FROM customer_order "
+                        + "WHERE status = ?1 AND (leaseExpiresAt IS NULL OR leaseExpiresAt < ?2) "
+                        + "ORDER BY id LIMIT ?3 FOR UPDATE SKIP LOCKED")
+                .setParameter(1, status.name())
+                .setParameter(2, now)
+                .setParameter(3, limit)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+    
+    public int claim(Collection<Long> ids, String workerId, LocalDateTime leaseExpiresAt) {
+        return update("claimedBy = ?1, leaseExpiresAt = ?2 where id in ?3", workerId, leaseExpiresAt, ids);
+    }
+    
+    public List<Order> findWithDetailsByIds(Collection<Long> ids) {
+        return find("SELECT DISTINCT o FROM Order o JOIN FETCH o.customer LEFT JOIN FETCH o.items i "
+                + "LEFT JOIN FETCH i.product WHERE o.id IN ?1 ORDER BY o.id", ids).list();
+    }
+    
+    public List<Order> findClaimedBy(Collection<Long> ids, String workerId, LocalDateTime now) {
+        return find("id in ?1 and claimedBy = ?2 and leaseExpiresAt >= ?3", ids, workerId, now)
+                .withLock(LockModeType.PESSIMISTIC_WRITE)
+                .list();
+    }
+    
+    /**
+     * Aplica um dos grafos nomeados de {@link Order} como fetch graph: o que está no grafo vem na
+     * mesma consulta, o resto fica preguiçoso.
+     */
+    public PanacheQuery<Order> withFetchPlan(PanacheQuery<Order> query, String graphName) {
+        return query.withHint("jakarta.persistence.fetchgraph", getEntityManager().getEntityGraph(graphName));
+    }
+    
+    public List<OrderSummary> findAllSummaries() {
+        return find("ORDER BY id").project(OrderSummary.class).list();
+    }
+    
+    public List<OrderSummary> findSummariesByCustomerId(Long customerId) {
+        return find("customer.id = ?1 ORDER BY id", customerId).project(OrderSummary.class).list();
+    }
+    
+    public List<OrderSummary> findSummariesByStatus(Order.OrderStatus status) {
+        return find("status = ?1 ORDER BY id", status).project(OrderSummary.class).list();
+    }
+    
+    public List<OrderSummary> findRecentSummaries(int limit) {
+        List<OrderSummary> summaries = find("orderDate >= ?1 ORDER BY orderDate DESC, id DESC", recentWindowStart())
+                .project(OrderSummary.class)
+                .page(0, limit)
+                .list();
+        if (summaries.size() < limit) {
+            summaries = find("ORDER BY orderDate DESC, id DESC").project(OrderSummary.class).page(0, limit).list();
+        }
+        return summaries;
+    }
+    
+    public List<OrderSummary> findPendingSummaries() {
+        return find("status = ?1 ORDER BY orderDate, id", Order.OrderStatus.PENDING).project(OrderSummary.class).list();
+    }
+    
+    /**
+     * Busca pelos critérios informados em ordem decrescente de data e ID, continuando depois de
+     * {@code afterDate}/{@code afterId} quando informados (paginação por cursor).
+     */
+    public List<OrderSummary> search(OrderSearchCriteria criteria, LocalDateTime afterDate, Long afterId, int limit) {
+        List<String> clauses = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        if (criteria.customerId != null) {
+            clauses.add("customer.id = :customerId");
+            params.put("customerId", criteria.customerId);
+        }
+        if (criteria.shippingState != null) {
+            clauses.add("shippingState = :shippingState");
+            params.put("shippingState", criteria.shippingState);
+        }
+        if (criteria.status != null) {
+            clauses.add("status = :status");
+            params.put("status", criteria.status);
+        }
+        if (criteria.from != null) {
+            clauses.add("orderDate >= :from");
+            params.put("from", criteria.from);
+        }
+        if (criteria.to != null) {
+            clauses.add("orderDate <= :to");
+            params.put("to", criteria.to);
+        }
+        if (criteria.minTotal != null) {
+            clauses.add("totalAmount >= :minTotal");
+            params.put("minTotal", criteria.minTotal);
+        }
+        if (criteria.maxTotal != null) {
+            clauses.add("totalAmount <= :maxTotal");
+            params.put("maxTotal", criteria.maxTotal);
+        }
+        if (afterDate != null) {
+            clauses.add("(orderDate < :afterDate or (orderDate = :afterDate and id < :afterId))");
+            params.put("afterDate", afterDate);
+            params.put("afterId", afterId);
+        }
+        String where = clauses.isEmpty() ? "" : String.join(" and ", clauses) + " ";
+        return find(where + "ORDER BY orderDate DESC, id DESC", params)
+                .project(OrderSummary.class)
+                .page(0, limit)
+                .list();
+    }
+    
+    public List<Map<String, Object>> findFields(FieldSelection fields, String where, Object... params) {
+        var query = getEntityManager().createQuery("SELECT " + fields.selectClause() + " FROM Order o"
+                + (where == null ? "" : " WHERE " + where) + " ORDER BY o.id");
+        for (int i = 0; i < params.length; i++) {
+            query.setParameter(i + 1, params[i]);
+        }
+        return fields.toRows(query.getResultList());
+    }
+    
+    /**
+     * Pedidos de {@code from} (inclusive) a {@code to} (exclusive) agrupados pelas expressões
+     * informadas (sobre {@code o} e {@code i}): cada linha traz os valores dos grupos seguidos de
+     * pedidos, itens e receita dos itens. Com {@code itemsByDate}, os itens também são filtrados
+     * pela mesma data, para que no PostgreSQL particionado as duas tabelas só leiam as partições
+     * do intervalo; só vale com as tabelas particionadas, em que a conversão preencheu a data dos
+     * itens antigos.
+     */
+    public List<Object[]> aggregate(List<String> groupBy, LocalDateTime from, LocalDateTime to,
+                                    Collection<Order.OrderStatus> statuses, boolean itemsByDate) {
+        String groups = String.join(", ", groupBy);
+        String jpql = "SELECT " + (groups.isEmpty() ? "" : groups + ", ")
+                + "count(distinct o.id), coalesce(sum(i.quantity), 0), coalesce(sum(i.subtotal), 0) "
+                + "FROM Order o LEFT JOIN o.items i"
+                + (itemsByDate ? " ON i.orderDate >= ?1 AND i.orderDate < ?2" : "")
+                + " WHERE o.orderDate >= ?1 AND o.orderDate < ?2"
+                + (statuses.isEmpty() ? "" : " AND o.status IN ?3")
+                + (groups.isEmpty() ? "" : " GROUP BY " + groups);
+        var query = getEntityManager().createQuery(jpql, Object[].class)
+                .setParameter(1, from)
+                .setParameter(2, to);
+        if (!statuses.isEmpty()) {
+            query.setParameter(3, statuses);
+        }
+        return query.getResultList();
+    }
+    
+    /**
+     * Uma linha por item com os dados do pedido (pedidos sem itens vêm com uma linha de item nulo),
+     * ordenadas por pedido: ID, cliente, produto, status, data, estado, cidade, quantidade e subtotal.
+     */
+    public Stream<Object[]> streamLines(int fetchSize) {
+        return getEntityManager().createQuery(LINES + " ORDER BY o.id, i.id", Object[].class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+    
+    /**
+     * As linhas de {@link #streamLines} só dos pedidos informados.
+     */
+    public List<Object[]> findLines(Collection<Long> ids) {
+        return getEntityManager().createQuery(LINES + " WHERE o.id IN ?1 ORDER BY o.id, i.id", Object[].class)
+                .setParameter(1, ids)
+                .getResultList();
+    }
+    
+    /**
+     * Dia e cliente de cada pedido, sem ordem.
+     */
+    public Stream<Object[]> streamCustomerDays(int fetchSize) {
+        return getEntityManager().createQuery("SELECT cast(o.orderDate as LocalDate), o.customer.id FROM Order o",
+                        Object[].class)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+    
+    /**
+     * Clientes distintos com pedidos de {@code from} a {@code to} (inclusive); sem limite nos lados nulos.
+     */
+    public long countDistinctCustomers(LocalDate from, LocalDate to) {
+        return getEntityManager().createQuery("SELECT count(distinct o.customer.id) FROM Order o "
+                        + "WHERE o.orderDate >= ?1 AND o.orderDate < ?2", Long.class)
+                .setParameter(1, from == null ? LocalDateTime.of(1, 1, 1, 0, 0) : from.atStartOfDay())
+                .setParameter(2, to == null ? LocalDateTime.of(9999, 12, 31, 0, 0) : to.plusDays(1).atStartOfDay())
+                .getSingleResult();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.rethink.api.repository;
+
+import com.rethink.api.entity.OrderView;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@ApplicationScoped
+public class OrderViewRepository implements PanacheRepositoryBase<OrderView, Long> {
+    
+    public Map<Long, String> findDocumentsByCustomerId(Long customerId) {
+        Map<Long, String> documents = new TreeMap<>();
+        getEntityManager()
+                .createQuery("SELECT v.orderId, v.document FROM OrderView v WHERE v.customerId = ?1", Object[].class)
+                .setParameter(1, customerId)
+                .getResultList()
+                .forEach(row -> documents.put((Long) row[0], (String) row[1]));
+        return documents;
+    }
+    
+    public List<Long> findOrderIdsWithoutView(int limit) {
+        return getEntityManager()
+                .createQuery("SELECT o.id FROM Order o WHERE NOT EXISTS "
+                        + "(SELECT 1 FROM OrderView v WHERE v.orderId = o.id) ORDER BY o.id", Long.class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
\ No newline at end of file
@@ -1,14 +1,27 @@
 package com.rethink.api.repository;
 
+import com.rethink.api.dto.ProductSummary;
 import com.rethink.api.entity.Product;
+import com.rethink.api.util.FieldSelection;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class ProductRepository implements PanacheRepository<Product> {
     
+    /** Campos aceitos em {@code ?fields=}. */
+    public static final Map<String, String> FIELDS = Map.of(
+            "id", "p.id",
+            "name", "p.name",
+            "description", "p.description",
+            "price", "p.price",
+            "quantity", "p.quantity");
+    
     public List<Product> findByName(String name) {
         return find("name", name).list();
     }
@@ -30,4 +43,29 @@ public class ProductRepository implements PanacheRepository<Product> {
     public long countAvailableProducts() {
         return count("quantity > 0");
     }
+    
+    public int addStock(Long productId, long quantity) {
+        return update("quantity = quantity + ?1 where id = ?2", Math.toIntExact(quantity), productId);
+    }
+    
+    public List<Product> lockByIds(Collection<Long> ids) {
+        return find("id in ?1 order by id", ids).withLock(LockModeType.PESSIMISTIC_WRITE).list();
+    }
+    
+    public List<ProductSummary> findAllSummaries() {
+        return find("ORDER BY id").project(ProductSummary.class).list();
+    }
+    
+    public List<ProductSummary> findAvailableSummaries() {
+        return find("quantity > 0 ORDER BY id").project(ProductSummary.class).list();
+    }
+    
+    public List<Map<String, Object>> findFields(FieldSelection fields, String where, Object... params) {
+        var query = getEntityManager().createQuery("SELECT " + fields.selectClause() + " FROM Product p"
+                + (where == null ? "" : " WHERE " + where) + " ORDER BY p.id");
+        for (int i = 0; i < params.length; i++) {
+            query.setParameter(i + 1, params[i]);
+        }
+        return fields.toRows(query.getResultList());
+    }
 }
\ No newline at end of file
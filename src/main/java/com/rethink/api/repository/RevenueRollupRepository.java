@@ -0,0 +1,156 @@
+package com.rethink.api.repository;
+
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.RevenueRollup;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.PersistenceException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@ApplicationScoped
+public class RevenueRollupRepository implements PanacheRepositoryBase<RevenueRollup, RevenueRollup.Key> {
+    
+    /** Chave da linha de um pedido: dia da data do pedido, estado (vazio se nulo) e status. */
+    private static final String ORDER_KEY = "CAST(o.orderDate AS DATE), COALESCE(o.shippingState, ''), o.status";
+    
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+    
+    /**
+     * Soma os deltas à linha da chave, criando-a se preciso. Transações concorrentes na mesma chave
+     * esperam a trava da linha em vez de falhar na inserção: no PostgreSQL com
+     * {@code ON CONFLICT}; nos outros bancos a linha nova é criada zerada numa transação à parte
+     * (uma inserção concorrente da mesma chave só faz esta ser ignorada) e depois atualizada.
+     */
+    public void addDelta(LocalDate day, String shippingState, Order.OrderStatus status, long orders,
+                         BigDecimal revenue, long items) {
+        if ("postgresql".equals(dbKind)) {
+            getEntityManager()
+                    .createNativeQuery("INSERT INTO revenue_rollup (orderDay, shippingState, status, orderCount, revenue, itemCount) "
+                            + "VALUES (?1, ?2, ?3, ?4, ?5, ?6) ON CONFLICT (orderDay, shippingState, status) DO UPDATE SET "
+                            + "orderCount = revenue_rollup.orderCount + EXCLUDED.orderCount, "
+                            + "revenue = revenue_rollup.revenue + EXCLUDED.revenue, "
+                            + "itemCount = revenue_rollup.itemCount + EXCLUDED.itemCount")
+                    .setParameter(1, day)
+                    .setParameter(2, shippingState)
+                    .setParameter(3, status.name())
+                    .setParameter(4, orders)
+                    .setParameter(5, revenue)
+                    .setParameter(6, items)
+                    .executeUpdate();
+            return;
+        }
+        String update = "orderCount = orderCount + ?1, revenue = revenue + ?2, itemCount = itemCount + ?3 "
+                + "where orderDay = ?4 and shippingState = ?5 and status = ?6";
+        if (update(update, orders, revenue, items, day, shippingState, status) > 0) {
+            return;
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                RevenueRollup row = new RevenueRollup();
+                row.orderDay = day;
+                row.shippingState = shippingState;
+                row.status = status;
+                row.revenue = BigDecimal.ZERO;
+                persistAndFlush(row);
+            });
+        } catch (PersistenceException e) {
+            // Criada por outra transação nesse meio tempo
+        }
+        update(update, orders, revenue, items, day, shippingState, status);
+    }
+    
+    /**
+     * Soma totais à linha da chave numa reconstrução, criando-a na própria transação: a
+     * reconstrução já apagou e travou as linhas do período. Retorna se a linha foi criada.
+     */
+    public boolean mergeRebuilt(LocalDate day, String shippingState, Order.OrderStatus status, long orders,
+                                BigDecimal revenue, long items) {
+        if (update("orderCount = orderCount + ?1, revenue = revenue + ?2, itemCount = itemCount + ?3 "
+                + "where orderDay = ?4 and shippingState = ?5 and status = ?6",
+                orders, revenue, items, day, shippingState, status) > 0) {
+            return false;
+        }
+        RevenueRollup row = new RevenueRollup();
+        row.orderDay = day;
+        row.shippingState = shippingState;
+        row.status = status;
+        row.orderCount = orders;
+        row.revenue = revenue;
+        row.itemCount = items;
+        persist(row);
+        return true;
+    }
+    
+    /**
+     * Totais dos pedidos informados agrupados pela chave da rollup: dia, estado, status,
+     * quantidade de pedidos, receita e itens.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object[]> aggregateOrders(Collection<Long> orderIds) {
+        return getEntityManager()
+                .createNativeQuery("SELECT " + ORDER_KEY + ", COUNT(*), SUM(o.totalAmount), "
+                        + "COALESCE(SUM(i.quantity), 0) FROM customer_order o LEFT JOIN "
+                        + "(SELECT order_id, SUM(quantity) AS quantity FROM orderitem WHERE order_id IN ?1 GROUP BY order_id) i "
+                        + "ON i.order_id = o.id WHERE o.id IN ?1 GROUP BY " + ORDER_KEY)
+                .setParameter(1, orderIds)
+                .getResultList();
+    }
+    
+    /**
+     * Recalcula as linhas dos dias de {@code from} a {@code to} a partir dos pedidos no banco. Com
+     * {@code itemsByDate}, os itens são filtrados pela própria data, o que só as tabelas
+     * particionadas garantem estar preenchida; sem ele, pelos pedidos do período.
+     */
+    public int rebuild(LocalDate from, LocalDate to, boolean itemsByDate) {
+        delete("orderDay >= ?1 and orderDay <= ?2", from, to);
+        String items = itemsByDate ? "orderDate >= ?1 AND orderDate < ?2"
+                : "order_id IN (SELECT id FROM customer_order WHERE orderDate >= ?1 AND orderDate < ?2)";
+        return getEntityManager()
+                .createNativeQuery("INSERT INTO revenue_rollup (orderDay, shippingState, status, orderCount, revenue, itemCount) "
+                        + "SELECT " + ORDER_KEY + ", COUNT(*), SUM(o.totalAmount), COALESCE(SUM(i.quantity), 0) "
+                        + "FROM customer_order o LEFT JOIN "
+                        + "(SELECT order_id, SUM(quantity) AS quantity FROM orderitem "
+                        + "WHERE " + items + " GROUP BY order_id) i "
+                        + "ON i.order_id = o.id WHERE o.orderDate >= ?1 AND o.orderDate < ?2 GROUP BY " + ORDER_KEY)
+                .setParameter(1, from.atStartOfDay())
+                .setParameter(2, to.plusDays(1).atStartOfDay())
+                .executeUpdate();
+    }
+    
+    /**
+     * Soma as linhas dos dias de {@code from} a {@code to} agrupadas pelas expressões informadas
+     * (sobre {@code r}); cada linha traz os valores dos grupos seguidos de pedidos, receita e itens.
+     */
+    public List<Object[]> sum(List<String> groupBy, LocalDate from, LocalDate to, Collection<Order.OrderStatus> statuses) {
+        String groups = String.join(", ", groupBy);
+        String jpql = "SELECT " + (groups.isEmpty() ? "" : groups + ", ")
+                + "sum(r.orderCount), sum(r.revenue), sum(r.itemCount) FROM RevenueRollup r "
+                + "WHERE r.orderDay >= ?1 AND r.orderDay <= ?2"
+                + (statuses.isEmpty() ? "" : " AND r.status IN ?3")
+                + (groups.isEmpty() ? "" : " GROUP BY " + groups + " ORDER BY " + groups);
+        var query = getEntityManager().createQuery(jpql, Object[].class)
+                .setParameter(1, from)
+                .setParameter(2, to);
+        if (!statuses.isEmpty()) {
+            query.setParameter(3, statuses);
+        }
+        return query.getResultList();
+    }
+    
+    /**
+     * Dias do primeiro e do último pedido no banco, ou nulos sem pedidos.
+     */
+    public Object[] orderDayRange() {
+        return getEntityManager()
+                .createQuery("SELECT CAST(min(o.orderDate) AS LocalDate), CAST(max(o.orderDate) AS LocalDate) "
+                        + "FROM Order o", Object[].class)
+                .getSingleResult();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.rethink.api.repository;
+
+import com.rethink.api.entity.WebhookDelivery;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ApplicationScoped
+public class WebhookDeliveryRepository implements PanacheRepository<WebhookDelivery> {
+    
+    /**
+     * Trava e retorna até {@code limit} entregas vencidas, ignorando as já travadas por outro
+     * dispatcher e as dos endpoints em {@code excludedEndpointIds}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> lockDueIds(LocalDateTime now, Collection<Long> excludedEndpointIds, int limit) {
+        String excluded = excludedEndpointIds.isEmpty() ? ""
+                : " AND endpointId NOT IN (" + excludedEndpointIds.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")";
+        List<Number> ids = getEntityManager()
+                .createNativeQuery("SELECT id FROM webhook_delivery WHERE nextAttemptAt <= ?1" + excluded
+                        + " ORDER BY nextAttemptAt, id LIMIT ?2 FOR UPDATE SKIP LOCKED")
+                .setParameter(1, now)
+                .setParameter(2, limit)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+    
+    public int lease(Collection<Long> ids, LocalDateTime leaseExpiresAt) {
+        return update("nextAttemptAt = ?1 where id in ?2", leaseExpiresAt, ids);
+    }
+    
+    public List<WebhookDelivery> findByIds(Collection<Long> ids) {
+        return find("id in ?1 order by id", ids).list();
+    }
+    
+    public long deleteByEndpointId(Long endpointId) {
+        return delete("endpointId", endpointId);
+    }
+    
+    public long countByStatus(WebhookDelivery.Status status) {
+        return count("status", status);
+    }
+    
+    /**
+     * Remove até {@code limit} entregas entregues ou esgotadas criadas antes de {@code before}.
+     */
+    public int deleteFinishedBefore(LocalDateTime before, int limit) {
+        return getEntityManager()
+                .createNativeQuery("DELETE FROM webhook_delivery WHERE id IN (SELECT id FROM webhook_delivery"
+                        + " WHERE status IN ('DELIVERED', 'FAILED') AND createdAt < ?1 ORDER BY id LIMIT ?2)")
+                .setParameter(1, before)
+                .setParameter(2, limit)
+                .executeUpdate();
+    }
+}
\ No newline at end of file
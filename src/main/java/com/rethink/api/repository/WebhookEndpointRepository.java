@@ -0,0 +1,9 @@
+package com.rethink.api.repository;
+
+import com.rethink.api.entity.WebhookEndpoint;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class WebhookEndpointRepository implements PanacheRepository<WebhookEndpoint> {
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.Cart;
+import com.rethink.api.entity.Order;
+import com.rethink.api.service.CartService;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.net.URI;
+
+@Path("/carts")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Carts", description = "Carrinhos de compra em memória")
+public class CartResource {
+    
+    @Inject
+    CartService cartService;
+    
+    @GET
+    @Path("/{id}")
+    @Operation(summary = "Buscar carrinho por ID", description = "Retorna um carrinho ativo pelo seu ID")
+    @APIResponse(responseCode = "200", description = "Carrinho encontrado")
+    @APIResponse(responseCode = "404", description = "Carrinho não encontrado ou expirado")
+    public Cart getById(@Parameter(description = "ID do carrinho") @PathParam("id") String id) {
+        return cartService.findById(id);
+    }
+    
+    @POST
+    @Operation(summary = "Criar carrinho", description = "Cria um carrinho vazio para o cliente")
+    @APIResponse(responseCode = "201", description = "Carrinho criado com sucesso")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    public Response create(@Valid Cart cart) {
+        Cart created = cartService.create(cart);
+        return Response.created(URI.create("/api/carts/" + created.id)).entity(created).build();
+    }
+    
+    @POST
+    @Path("/{id}/items")
+    @Operation(summary = "Adicionar item ao carrinho", description = "Adiciona um produto ao carrinho sem acessar o banco de dados")
+    @APIResponse(responseCode = "200", description = "Item adicionado com sucesso")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    @APIResponse(responseCode = "404", description = "Carrinho não encontrado ou expirado")
+    public Cart addItem(
+            @Parameter(description = "ID do carrinho") @PathParam("id") String id,
+            @Parameter(description = "ID do produto") @QueryParam("productId") Long productId,
+            @Parameter(description = "Quantidade") @QueryParam("quantity") Integer quantity) {
+        return cartService.addItem(id, productId, quantity);
+    }
+    
+    @DELETE
+    @Path("/{id}/items/{productId}")
+    @Operation(summary = "Remover item do carrinho", description = "Remove um produto do carrinho")
+    @APIResponse(responseCode = "200", description = "Item removido com sucesso")
+    @APIResponse(responseCode = "404", description = "Carrinho ou item não encontrado")
+    public Cart removeItem(
+            @Parameter(description = "ID do carrinho") @PathParam("id") String id,
+            @Parameter(description = "ID do produto") @PathParam("productId") Long productId) {
+        return cartService.removeItem(id, productId);
+    }
+    
+    @POST
+    @Path("/{id}/checkout")
+    @Operation(summary = "Finalizar carrinho", description = "Converte o carrinho em um pedido numa única transação")
+    @APIResponse(responseCode = "201", description = "Pedido criado com sucesso")
+    @APIResponse(responseCode = "400", description = "Carrinho vazio ou estoque insuficiente")
+    @APIResponse(responseCode = "404", description = "Carrinho, cliente ou produto não encontrado")
+    public Response checkout(@Parameter(description = "ID do carrinho") @PathParam("id") String id) {
+        Order created = cartService.checkout(id);
+        return Response.created(URI.create("/api/orders/" + created.id)).entity(created).build();
+    }
+    
+    @DELETE
+    @Path("/{id}")
+    @Operation(summary = "Excluir carrinho", description = "Descarta um carrinho")
+    @APIResponse(responseCode = "204", description = "Carrinho excluído com sucesso")
+    @APIResponse(responseCode = "404", description = "Carrinho não encontrado ou expirado")
+    public Response delete(@Parameter(description = "ID do carrinho") @PathParam("id") String id) {
+        cartService.delete(id);
+        return Response.noContent().build();
+    }
+    
+    @GET
+    @Path("/count")
+    @Operation(summary = "Contar carrinhos", description = "Retorna o total de carrinhos ativos")
+    @APIResponse(responseCode = "200", description = "Contagem retornada com sucesso")
+    public Response count() {
+        return Response.ok(new CountResponse(cartService.countCarts())).build();
+    }
+    
+    public static class CountResponse {
+        public long total;
+        
+        public CountResponse(long total) {
+            this.total = total;
+        }
+    }
+}
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.rethink.api.resource;
 
+import com.rethink.api.dto.ListView;
 import com.rethink.api.entity.Customer;
+import com.rethink.api.service.CountEstimator;
 import com.rethink.api.service.CustomerService;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -29,8 +31,10 @@ public class CustomerResource {
     @GET
     @Operation(summary = "Listar todos os clientes", description = "Retorna uma lista com todos os clientes cadastrados")
     @APIResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso")
-    public List<Customer> list() {
-        return customerService.listAll();
+    public List<?> list(
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view) {
+        return view == ListView.SUMMARY ? customerService.listSummaries() : customerService.listAll();
     }
     
     @GET
@@ -127,10 +131,12 @@ public class CustomerResource {
     
     @GET
     @Path("/count")
-    @Operation(summary = "Contar clientes", description = "Retorna o total de clientes cadastrados")
+    @Operation(summary = "Contar clientes", description = "Retorna o total de clientes cadastrados; com mode=estimate, pelas estatísticas do banco, sem ler a tabela")
     @APIResponse(responseCode = "200", description = "Contagem retornada com sucesso")
-    public Response count() {
-        return Response.ok(new CountResponse(customerService.countCustomers())).build();
+    @APIResponse(responseCode = "400", description = "Modo inválido")
+    public Response count(@Parameter(description = "exact (padrão) ou estimate") @QueryParam("mode") String mode) {
+        long total = CountEstimator.isEstimate(mode) ? customerService.estimateCustomers() : customerService.countCustomers();
+        return Response.ok(new CountResponse(total)).build();
     }
     
     public static class CountResponse {
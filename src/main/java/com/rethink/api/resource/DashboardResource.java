@@ -0,0 +1,27 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.Dashboard;
+import com.rethink.api.service.DashboardService;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/dashboard")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Dashboard", description = "Painel administrativo")
+public class DashboardResource {
+    
+    @Inject
+    DashboardService dashboardService;
+    
+    @GET
+    @Operation(summary = "Painel administrativo", description = "Retorna contagens de pedidos, produtos e clientes e os pedidos e clientes mais recentes, consultados em paralelo")
+    @APIResponse(responseCode = "200", description = "Painel retornado; partes que não responderam a tempo vêm nulas e listadas em unavailable")
+    public Uni<Dashboard> get() {
+        return dashboardService.load();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.EventLogBatch;
+import com.rethink.api.dto.EventLogCommit;
+import com.rethink.api.service.DomainEventLog;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/event-log")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Event log", description = "Log append-only de eventos de pedidos, produtos e clientes")
+public class EventLogResource {
+    
+    @Inject
+    DomainEventLog domainEventLog;
+    
+    @GET
+    @Path("/consumers/{consumer}")
+    @Operation(summary = "Ler eventos", description = "Retorna os próximos eventos a partir do último offset confirmado pelo consumidor")
+    @APIResponse(responseCode = "200", description = "Eventos e o offset a confirmar depois de processá-los")
+    @APIResponse(responseCode = "400", description = "Consumidor ou limite inválido")
+    @APIResponse(responseCode = "404", description = "Log de eventos desabilitado")
+    public EventLogBatch read(
+            @Parameter(description = "Nome do consumidor") @PathParam("consumer") String consumer,
+            @Parameter(description = "Número máximo de eventos") @QueryParam("limit") @DefaultValue("100") int limit) {
+        return domainEventLog.read(consumer, limit);
+    }
+    
+    @PUT
+    @Path("/consumers/{consumer}")
+    @Operation(summary = "Confirmar offset", description = "Grava o próximo offset a ser lido pelo consumidor")
+    @APIResponse(responseCode = "204", description = "Offset confirmado")
+    @APIResponse(responseCode = "400", description = "Consumidor ou offset inválido")
+    @APIResponse(responseCode = "404", description = "Log de eventos desabilitado")
+    public Response commit(
+            @Parameter(description = "Nome do consumidor") @PathParam("consumer") String consumer,
+            @Valid EventLogCommit request) {
+        domainEventLog.commit(consumer, request.offset);
+        return Response.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.BulkStatusUpdateResult;
+import com.rethink.api.dto.FulfillmentAckRequest;
+import com.rethink.api.dto.FulfillmentClaim;
+import com.rethink.api.entity.Order;
+import com.rethink.api.service.FulfillmentService;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+@Path("/fulfillment")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Fulfillment", description = "Fila de trabalho de pedidos para workers de expedição")
+public class FulfillmentResource {
+    
+    @Inject
+    FulfillmentService fulfillmentService;
+    
+    @POST
+    @Path("/claims")
+    @Operation(summary = "Reservar pedidos", description = "Reserva até N pedidos livres no status informado, ignorando os que outro worker já travou")
+    @APIResponse(responseCode = "200", description = "Pedidos reservados e prazo do lease")
+    @APIResponse(responseCode = "400", description = "Parâmetros inválidos")
+    public FulfillmentClaim claim(
+            @Parameter(description = "ID do worker") @QueryParam("workerId") String workerId,
+            @Parameter(description = "Status dos pedidos") @QueryParam("status") @DefaultValue("CONFIRMED") Order.OrderStatus status,
+            @Parameter(description = "Número máximo de pedidos") @QueryParam("limit") @DefaultValue("10") int limit) {
+        return fulfillmentService.claim(workerId, status, limit);
+    }
+    
+    @POST
+    @Path("/acks")
+    @Operation(summary = "Concluir pedidos reservados", description = "Aplica o novo status aos pedidos cujo lease ainda pertence ao worker e libera a reserva")
+    @APIResponse(responseCode = "200", description = "Pedidos concluídos; os demais são listados como rejeitados")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    public BulkStatusUpdateResult acknowledge(@Valid FulfillmentAckRequest request) {
+        return fulfillmentService.acknowledge(request.workerId, request.orderIds, request.status);
+    }
+    
+    @POST
+    @Path("/releases")
+    @Operation(summary = "Devolver pedidos reservados", description = "Libera a reserva sem alterar o status dos pedidos")
+    @APIResponse(responseCode = "200", description = "Quantidade de pedidos liberados")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    public Response release(@Valid FulfillmentAckRequest request) {
+        return Response.ok(new ReleaseResponse(fulfillmentService.release(request.workerId, request.orderIds))).build();
+    }
+    
+    public static class ReleaseResponse {
+        public int released;
+        
+        public ReleaseResponse(int released) {
+            this.released = released;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.IngestionReport;
+import com.rethink.api.entity.IngestionCheckpoint;
+import com.rethink.api.service.OrderIngestionService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.io.InputStream;
+
+@Path("/ingestions")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Ingestions", description = "Importação em massa de pedidos de marketplaces")
+public class IngestionResource {
+    
+    public static final String NDJSON = "application/x-ndjson";
+    
+    @Inject
+    OrderIngestionService ingestionService;
+    
+    @POST
+    @Path("/orders/{jobId}")
+    @Consumes({NDJSON, MediaType.TEXT_PLAIN, MediaType.APPLICATION_OCTET_STREAM})
+    @Operation(summary = "Importar pedidos",
+            description = "Importa um arquivo NDJSON com um pedido por linha, retomando a partir do checkpoint do job")
+    @APIResponse(responseCode = "200", description = "Importação concluída; linhas rejeitadas constam no relatório")
+    @APIResponse(responseCode = "400", description = "ID da importação inválido ou falha na leitura do arquivo")
+    public IngestionReport ingestOrders(
+            @Parameter(description = "ID do job de importação") @PathParam("jobId") String jobId,
+            InputStream body) {
+        return ingestionService.ingest(jobId, body);
+    }
+    
+    @GET
+    @Path("/orders/{jobId}")
+    @Operation(summary = "Consultar checkpoint", description = "Retorna a última linha confirmada de um job de importação")
+    @APIResponse(responseCode = "200", description = "Checkpoint encontrado")
+    @APIResponse(responseCode = "404", description = "Importação não encontrada")
+    public IngestionCheckpoint getCheckpoint(
+            @Parameter(description = "ID do job de importação") @PathParam("jobId") String jobId) {
+        return ingestionService.findCheckpoint(jobId);
+    }
+}
\ No newline at end of file
@@ -1,16 +1,37 @@
 package com.rethink.api.resource;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.rethink.api.dto.BulkStatusUpdateRequest;
+import com.rethink.api.dto.BulkStatusUpdateResult;
 import com.rethink.api.dto.CreateOrderRequest;
+import com.rethink.api.dto.ListView;
+import com.rethink.api.dto.OrderFeedEvent;
+import com.rethink.api.dto.OrderSearchCriteria;
+import com.rethink.api.dto.OrderSearchPage;
 import com.rethink.api.entity.Customer;
 import com.rethink.api.entity.Order;
 import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.OrderView;
 import com.rethink.api.entity.Product;
+import com.rethink.api.service.CountEstimator;
+import com.rethink.api.service.OrderArchive;
+import com.rethink.api.service.OrderCustomerSketches;
+import com.rethink.api.service.OrderEventFeed;
+import com.rethink.api.service.OrderReadModel;
 import com.rethink.api.service.OrderService;
+import com.rethink.api.service.OrderStatistics;
+import com.rethink.api.service.TerminalOrderCache;
+import com.rethink.api.util.FieldSelection;
+import com.rethink.api.util.OrderArchiveSegment;
+import io.smallrye.mutiny.Multi;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -19,8 +40,11 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Path("/orders")
 @Produces(MediaType.APPLICATION_JSON)
@@ -31,56 +55,169 @@ public class OrderResource {
     @Inject
     OrderService orderService;
     
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    TerminalOrderCache terminalOrderCache;
+    
+    @Inject
+    OrderStatistics orderStatistics;
+    
+    @Inject
+    OrderEventFeed orderEventFeed;
+    
+    @Inject
+    OrderCustomerSketches orderCustomerSketches;
+    
     @GET
     @Operation(summary = "Listar todos os pedidos", description = "Retorna uma lista com todos os pedidos")
     @APIResponse(responseCode = "200", description = "Lista de pedidos retornada com sucesso")
-    public List<Order> list() {
-        return orderService.listAll();
+    @APIResponse(responseCode = "400", description = "Visão ou campos inválidos")
+    public List<?> list(
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,status,totalAmount)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = orderService.selectFields(fields);
+        if (selection != null) {
+            return orderService.listFields(selection);
+        }
+        return view == ListView.SUMMARY ? orderService.listSummaries() : orderService.listAll();
+    }
+    
+    @GET
+    @Path("/search")
+    @Operation(summary = "Pesquisar pedidos", description = "Filtra pedidos por cliente, status, período, UF de entrega e faixa de total, paginando por cursor")
+    @APIResponse(responseCode = "200", description = "Página de pedidos encontrados")
+    @APIResponse(responseCode = "400", description = "Critérios inválidos ou não atendidos por índice")
+    public OrderSearchPage search(@BeanParam OrderSearchCriteria criteria) {
+        return orderService.search(criteria);
+    }
+    
+    @GET
+    @Path("/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Acompanhar eventos de pedidos", description = "Transmite via SSE criações, mudanças de status, itens adicionados ou removidos e exclusões já confirmadas. IDs são sequenciais: um salto indica eventos descartados para um assinante lento ou fora do buffer de replay")
+    @APIResponse(responseCode = "200", description = "Fluxo de eventos")
+    public Multi<OutboundSseEvent> events(
+            @Parameter(description = "Apenas pedidos que ficaram com este status") @QueryParam("status") Order.OrderStatus status,
+            @Parameter(description = "Apenas pedidos deste cliente") @QueryParam("customerId") Long customerId,
+            @Parameter(description = "Retoma após este ID de evento") @QueryParam("lastEventId") Long lastEventId,
+            @HeaderParam("Last-Event-ID") Long lastEventIdHeader,
+            @Context Sse sse) {
+        // O cabeçalho é o que o EventSource envia sozinho ao reconectar
+        Long resumeAfter = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        return orderEventFeed.subscribe(status, customerId, resumeAfter)
+                .map(event -> sse.newEventBuilder()
+                        .id(String.valueOf(event.id))
+                        .name(event.type.name())
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(OrderFeedEvent.class, event)
+                        .build());
     }
     
     @GET
     @Path("/{id}")
-    @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido específico pelo seu ID")
+    @Operation(summary = "Buscar pedido por ID", description = "Retorna um pedido específico pelo seu ID, inclusive arquivado")
     @APIResponse(responseCode = "200", description = "Pedido encontrado")
+    @APIResponse(responseCode = "400", description = "Campos inválidos")
     @APIResponse(responseCode = "404", description = "Pedido não encontrado")
-    public Order getById(@Parameter(description = "ID do pedido") @PathParam("id") Long id) {
-        return orderService.findById(id);
+    public Object getById(
+            @Parameter(description = "ID do pedido") @PathParam("id") Long id,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,status,totalAmount)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = orderService.selectFields(fields);
+        if (selection != null) {
+            return orderService.findFieldsById(id, selection);
+        }
+        // Pedidos entregues ou cancelados não mudam mais: servidos direto do JSON em cache
+        Optional<byte[]> cached = terminalOrderCache.find(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long generation = terminalOrderCache.generation();
+        // O modelo de leitura já guarda o JSON completo: uma busca pela chave primária
+        Optional<OrderView> view = orderReadModel.find(id);
+        if (view.isPresent()) {
+            byte[] json = view.get().document.getBytes(StandardCharsets.UTF_8);
+            terminalOrderCache.offer(id, view.get().status, json, generation);
+            return json;
+        }
+        // Pedidos arquivados saíram do banco: o JSON vem do segmento
+        Optional<OrderArchiveSegment.Document> archived = orderArchive.find(id);
+        if (archived.isPresent()) {
+            terminalOrderCache.offer(id, OrderArchive.statusOf(archived.get()), archived.get().json(), generation);
+            return archived.get().json();
+        }
+        Order order = orderService.findById(id);
+        terminalOrderCache.offer(order, generation);
+        return order;
     }
     
     @GET
     @Path("/customer/{customerId}")
     @Operation(summary = "Listar pedidos por cliente", description = "Retorna todos os pedidos de um cliente")
     @APIResponse(responseCode = "200", description = "Lista de pedidos do cliente")
-    public List<Order> getByCustomer(
-            @Parameter(description = "ID do cliente") @PathParam("customerId") Long customerId) {
-        return orderService.findByCustomerId(customerId);
+    public Object getByCustomer(
+            @Parameter(description = "ID do cliente") @PathParam("customerId") Long customerId,
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,status,totalAmount)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = orderService.selectFields(fields);
+        if (selection != null) {
+            return orderService.findFieldsByCustomerId(customerId, selection);
+        }
+        return view == ListView.SUMMARY
+                ? orderService.findSummariesByCustomerId(customerId)
+                : orderReadModel.findCustomerHistory(customerId).getBytes(StandardCharsets.UTF_8);
     }
     
     @GET
     @Path("/status/{status}")
     @Operation(summary = "Listar pedidos por status", description = "Retorna pedidos com um status específico")
     @APIResponse(responseCode = "200", description = "Lista de pedidos com o status")
-    public List<Order> getByStatus(
-            @Parameter(description = "Status do pedido") @PathParam("status") Order.OrderStatus status) {
-        return orderService.findByStatus(status);
+    public List<?> getByStatus(
+            @Parameter(description = "Status do pedido") @PathParam("status") Order.OrderStatus status,
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,status,totalAmount)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = orderService.selectFields(fields);
+        if (selection != null) {
+            return orderService.findFieldsByStatus(status, selection);
+        }
+        return view == ListView.SUMMARY
+                ? orderService.findSummariesByStatus(status)
+                : orderService.findByStatus(status);
     }
     
     @GET
     @Path("/recent")
     @Operation(summary = "Listar pedidos recentes", description = "Retorna os pedidos mais recentes")
     @APIResponse(responseCode = "200", description = "Lista de pedidos recentes")
-    public List<Order> getRecent(
+    public List<?> getRecent(
             @Parameter(description = "Número de pedidos a retornar") 
-            @QueryParam("limit") @DefaultValue("10") int limit) {
-        return orderService.findRecentOrders(limit);
+            @QueryParam("limit") @DefaultValue("10") int limit,
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view) {
+        return view == ListView.SUMMARY
+                ? orderService.findRecentSummaries(limit)
+                : orderService.findRecentOrders(limit);
     }
     
     @GET
     @Path("/pending")
     @Operation(summary = "Listar pedidos pendentes", description = "Retorna todos os pedidos pendentes")
     @APIResponse(responseCode = "200", description = "Lista de pedidos pendentes")
-    public List<Order> getPending() {
-        return orderService.findPendingOrders();
+    public List<?> getPending(
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view) {
+        return view == ListView.SUMMARY ? orderService.findPendingSummaries() : orderService.findPendingOrders();
     }
     
     @POST
@@ -122,6 +259,15 @@ public class OrderResource {
         return orderService.updateStatus(id, status);
     }
     
+    @PUT
+    @Path("/status")
+    @Operation(summary = "Atualizar status em lote", description = "Aplica a mesma transição de status a vários pedidos com atualizações em conjunto")
+    @APIResponse(responseCode = "200", description = "Pedidos elegíveis atualizados; os demais são listados como rejeitados")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    public BulkStatusUpdateResult bulkUpdateStatus(@Valid BulkStatusUpdateRequest request) {
+        return orderService.bulkUpdateStatus(request.orderIds, request.status);
+    }
+    
     @POST
     @Path("/{id}/items")
     @Operation(summary = "Adicionar item ao pedido", description = "Adiciona um novo item a um pedido pendente")
@@ -160,17 +306,30 @@ public class OrderResource {
     
     @GET
     @Path("/count")
-    @Operation(summary = "Contar pedidos", description = "Retorna estatísticas de pedidos")
+    @Operation(summary = "Contar pedidos", description = "Retorna estatísticas de pedidos, mantidas em memória, e clientes distintos com pedidos no período: com mode=estimate, por esboços HyperLogLog em memória (erro típico de 1,6%); no modo exato, com COUNT(DISTINCT) no banco, só quando o período é informado")
     @APIResponse(responseCode = "200", description = "Contagens retornadas com sucesso")
-    public Response count() {
+    @APIResponse(responseCode = "400", description = "Modo ou período inválido")
+    public Response count(
+            @Parameter(description = "exact (padrão) ou estimate") @QueryParam("mode") String mode,
+            @Parameter(description = "Primeiro dia do período de clientes (AAAA-MM-DD)") @QueryParam("from") LocalDate from,
+            @Parameter(description = "Último dia do período de clientes, inclusive (AAAA-MM-DD)") @QueryParam("to") LocalDate to) {
+        boolean estimate = CountEstimator.isEstimate(mode);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("Data final deve ser posterior à inicial");
+        }
         OrderStats stats = new OrderStats();
-        stats.total = orderService.countOrders();
-        stats.pending = orderService.countByStatus(Order.OrderStatus.PENDING);
-        stats.confirmed = orderService.countByStatus(Order.OrderStatus.CONFIRMED);
-        stats.processing = orderService.countByStatus(Order.OrderStatus.PROCESSING);
-        stats.shipped = orderService.countByStatus(Order.OrderStatus.SHIPPED);
-        stats.delivered = orderService.countByStatus(Order.OrderStatus.DELIVERED);
-        stats.cancelled = orderService.countByStatus(Order.OrderStatus.CANCELLED);
+        if (estimate) {
+            stats.customers = orderCustomerSketches.estimate(from, to);
+        } else if (from != null || to != null) {
+            stats.customers = orderService.countDistinctCustomers(from, to);
+        }
+        stats.total = orderStatistics.total();
+        stats.pending = orderStatistics.count(Order.OrderStatus.PENDING);
+        stats.confirmed = orderStatistics.count(Order.OrderStatus.CONFIRMED);
+        stats.processing = orderStatistics.count(Order.OrderStatus.PROCESSING);
+        stats.shipped = orderStatistics.count(Order.OrderStatus.SHIPPED);
+        stats.delivered = orderStatistics.count(Order.OrderStatus.DELIVERED);
+        stats.cancelled = orderStatistics.count(Order.OrderStatus.CANCELLED);
         return Response.ok(stats).build();
     }
     
@@ -182,5 +341,8 @@ public class OrderResource {
         public long shipped;
         public long delivered;
         public long cancelled;
+        /** Clientes distintos com pedidos no período. */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Long customers;
     }
 }
\ No newline at end of file
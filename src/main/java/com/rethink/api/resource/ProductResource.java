@@ -1,7 +1,10 @@
 package com.rethink.api.resource;
 
+import com.rethink.api.dto.ListView;
 import com.rethink.api.entity.Product;
+import com.rethink.api.service.CountEstimator;
 import com.rethink.api.service.ProductService;
+import com.rethink.api.util.FieldSelection;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
@@ -31,8 +34,16 @@ public class ProductResource {
     @APIResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso",
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = Product.class)))
-    public List<Product> list() {
-        return productService.listAll();
+    public List<?> list(
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,price,quantity)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = productService.selectFields(fields);
+        if (selection != null) {
+            return productService.listFields(selection);
+        }
+        return view == ListView.SUMMARY ? productService.listSummaries() : productService.listAll();
     }
     
     @GET
@@ -42,7 +53,14 @@ public class ProductResource {
             content = @Content(mediaType = MediaType.APPLICATION_JSON,
                     schema = @Schema(implementation = Product.class)))
     @APIResponse(responseCode = "404", description = "Produto não encontrado")
-    public Product getById(@Parameter(description = "ID do produto", required = true) @PathParam("id") Long id) {
+    public Object getById(
+            @Parameter(description = "ID do produto", required = true) @PathParam("id") Long id,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,price,quantity)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = productService.selectFields(fields);
+        if (selection != null) {
+            return productService.findFieldsById(id, selection);
+        }
         return productService.findById(id);
     }
     
@@ -58,8 +76,16 @@ public class ProductResource {
     @Path("/available")
     @Operation(summary = "Listar produtos disponíveis", description = "Retorna apenas produtos com quantidade maior que zero")
     @APIResponse(responseCode = "200", description = "Lista de produtos disponíveis")
-    public List<Product> listAvailable() {
-        return productService.listAvailable();
+    public List<?> listAvailable(
+            @Parameter(description = "Formato da lista: full (padrão) ou summary") 
+            @QueryParam("view") @DefaultValue("full") ListView view,
+            @Parameter(description = "Campos a retornar, separados por vírgula (ex.: id,price,quantity)") 
+            @QueryParam("fields") String fields) {
+        FieldSelection selection = productService.selectFields(fields);
+        if (selection != null) {
+            return productService.listAvailableFields(selection);
+        }
+        return view == ListView.SUMMARY ? productService.listAvailableSummaries() : productService.listAvailable();
     }
     
     @POST
@@ -96,9 +122,14 @@ public class ProductResource {
     
     @GET
     @Path("/count")
-    @Operation(summary = "Contar produtos", description = "Retorna o total de produtos cadastrados")
+    @Operation(summary = "Contar produtos", description = "Retorna o total de produtos cadastrados; com mode=estimate, pelas estatísticas do banco, sem ler a tabela")
     @APIResponse(responseCode = "200", description = "Contagem retornada com sucesso")
-    public Response count() {
+    @APIResponse(responseCode = "400", description = "Modo inválido")
+    public Response count(@Parameter(description = "exact (padrão) ou estimate") @QueryParam("mode") String mode) {
+        if (CountEstimator.isEstimate(mode)) {
+            return Response.ok(new CountResponse(productService.estimateProducts(),
+                    productService.estimateAvailableProducts())).build();
+        }
         return Response.ok(new CountResponse(productService.countProducts(), 
                 productService.countAvailableProducts())).build();
     }
@@ -0,0 +1,135 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.AnalyticsReportJob;
+import com.rethink.api.dto.AnalyticsReportRequest;
+import com.rethink.api.dto.OrderSnapshotReport;
+import com.rethink.api.dto.RevenueReport;
+import com.rethink.api.entity.Order;
+import com.rethink.api.service.AnalyticsReportService;
+import com.rethink.api.service.OrderColumnSnapshot;
+import com.rethink.api.service.RevenueRollupService;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+@Path("/reports")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Relatórios", description = "Relatórios financeiros")
+public class ReportResource {
+    
+    @Inject
+    RevenueRollupService revenueRollupService;
+    
+    @Inject
+    AnalyticsReportService analyticsReportService;
+    
+    @Inject
+    OrderColumnSnapshot orderColumnSnapshot;
+    
+    @GET
+    @Path("/revenue")
+    @Operation(summary = "Receita por período", description = "Soma pedidos, receita e itens por dia, estado e status a partir dos totais diários mantidos a cada alteração de pedido")
+    @APIResponse(responseCode = "200", description = "Totais do período, agrupados quando groupBy é informado")
+    @APIResponse(responseCode = "400", description = "Período ou agrupamento inválido")
+    public RevenueReport revenue(
+            @Parameter(description = "Primeiro dia (AAAA-MM-DD)") @QueryParam("from") LocalDate from,
+            @Parameter(description = "Último dia, inclusive (AAAA-MM-DD)") @QueryParam("to") LocalDate to,
+            @Parameter(description = "Agrupamentos separados por vírgula: day, month, state, status") 
+            @QueryParam("groupBy") String groupBy,
+            @Parameter(description = "Status a considerar (repetível); todos quando omitido") 
+            @QueryParam("status") List<Order.OrderStatus> statuses) {
+        return revenueRollupService.report(from, to, groupBy, statuses);
+    }
+    
+    @POST
+    @Path("/revenue/rebuild")
+    @Operation(summary = "Reconstruir receita do período", description = "Recalcula os totais diários do período a partir dos pedidos no banco e dos pedidos arquivados")
+    @APIResponse(responseCode = "200", description = "Totais do período depois da reconstrução")
+    @APIResponse(responseCode = "400", description = "Período inválido")
+    public RevenueReport rebuildRevenue(
+            @Parameter(description = "Primeiro dia (AAAA-MM-DD)") @QueryParam("from") LocalDate from,
+            @Parameter(description = "Último dia, inclusive (AAAA-MM-DD)") @QueryParam("to") LocalDate to) {
+        revenueRollupService.rebuild(from, to);
+        return revenueRollupService.report(from, to, null, null);
+    }
+    
+    @POST
+    @Path("/analytics")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Iniciar relatório analítico", description = "Agrega pedidos e itens do período por dia, mês, estado, status, cliente ou produto, dividindo o período em faixas consultadas em paralelo")
+    @APIResponse(responseCode = "202", description = "Relatório iniciado; acompanhe pelo ID")
+    @APIResponse(responseCode = "400", description = "Período, agrupamento ou divisão inválidos")
+    public Response startAnalytics(@Valid AnalyticsReportRequest request) {
+        AnalyticsReportJob job = analyticsReportService.submit(request);
+        return Response.accepted(job).location(URI.create("/api/reports/analytics/" + job.id)).build();
+    }
+    
+    @GET
+    @Path("/analytics/{id}")
+    @Operation(summary = "Consultar relatório analítico", description = "Retorna o andamento do relatório e, depois de concluído, as linhas")
+    @APIResponse(responseCode = "200", description = "Relatório encontrado")
+    @APIResponse(responseCode = "404", description = "Relatório não encontrado")
+    public AnalyticsReportJob getAnalytics(@Parameter(description = "ID do relatório") @PathParam("id") String id) {
+        return analyticsReportService.find(id);
+    }
+    
+    @GET
+    @Path("/analytics/{id}/progress")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(summary = "Acompanhar relatório analítico", description = "Transmite via SSE o andamento a cada faixa concluída e termina com o relatório pronto, cancelado ou com falha")
+    @APIResponse(responseCode = "200", description = "Fluxo de andamento")
+    @APIResponse(responseCode = "404", description = "Relatório não encontrado")
+    public Multi<OutboundSseEvent> analyticsProgress(
+            @Parameter(description = "ID do relatório") @PathParam("id") String id,
+            @Context Sse sse) {
+        return analyticsReportService.progress(id)
+                .map(job -> sse.newEventBuilder()
+                        .name(job.state.name())
+                        .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                        .data(AnalyticsReportJob.class, job)
+                        .build());
+    }
+    
+    @DELETE
+    @Path("/analytics/{id}")
+    @Operation(summary = "Cancelar relatório analítico", description = "Descarta as faixas que ainda não começaram; as em andamento terminam e são ignoradas")
+    @APIResponse(responseCode = "200", description = "Situação do relatório depois do cancelamento")
+    @APIResponse(responseCode = "404", description = "Relatório não encontrado")
+    public AnalyticsReportJob cancelAnalytics(@Parameter(description = "ID do relatório") @PathParam("id") String id) {
+        return analyticsReportService.cancel(id);
+    }
+    
+    @GET
+    @Path("/snapshot")
+    @Operation(summary = "Agregar pedidos em memória", description = "Filtra, agrupa e soma as linhas de pedidos no snapshot colunar em memória, atualizado a cada segundo com as alterações confirmadas, sem consultar o banco")
+    @APIResponse(responseCode = "200", description = "Totais por grupo")
+    @APIResponse(responseCode = "400", description = "Período ou agrupamento inválido")
+    @APIResponse(responseCode = "503", description = "Snapshot desligado ou ainda não carregado")
+    public OrderSnapshotReport snapshot(
+            @Parameter(description = "Primeiro dia (AAAA-MM-DD); sem limite quando omitido") @QueryParam("from") LocalDate from,
+            @Parameter(description = "Último dia, inclusive (AAAA-MM-DD); sem limite quando omitido") @QueryParam("to") LocalDate to,
+            @Parameter(description = "Status a considerar (repetível); todos quando omitido") 
+            @QueryParam("status") List<Order.OrderStatus> statuses,
+            @Parameter(description = "UF de entrega") @QueryParam("state") String state,
+            @Parameter(description = "Cidade de entrega") @QueryParam("city") String city,
+            @Parameter(description = "ID do cliente") @QueryParam("customerId") Long customerId,
+            @Parameter(description = "ID do produto") @QueryParam("productId") Long productId,
+            @Parameter(description = "Agrupamentos separados por vírgula: day, month, status, state, city, customer, product") 
+            @QueryParam("groupBy") String groupBy) {
+        return orderColumnSnapshot.query(from, to, statuses, state, city, customerId, productId, groupBy);
+    }
+}
\ No newline at end of file
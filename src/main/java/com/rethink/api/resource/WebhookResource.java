@@ -0,0 +1,74 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.dto.WebhookMetrics;
+import com.rethink.api.entity.WebhookEndpoint;
+import com.rethink.api.service.WebhookDispatcher;
+import com.rethink.api.service.WebhookService;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.net.URI;
+import java.util.List;
+
+@Path("/webhooks")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Webhooks", description = "Notificação de parceiros sobre mudanças de status dos pedidos")
+public class WebhookResource {
+    
+    @Inject
+    WebhookService webhookService;
+    
+    @Inject
+    WebhookDispatcher webhookDispatcher;
+    
+    @GET
+    @Operation(summary = "Listar webhooks", description = "Retorna os endpoints cadastrados")
+    @APIResponse(responseCode = "200", description = "Lista de webhooks")
+    public List<WebhookEndpoint> list() {
+        return webhookService.listAll();
+    }
+    
+    @GET
+    @Path("/metrics")
+    @Operation(summary = "Métricas de entrega", description = "Entregas, falhas, lotes enviados, fila pendente e disjuntores abertos")
+    @APIResponse(responseCode = "200", description = "Métricas do dispatcher")
+    public WebhookMetrics metrics() {
+        return webhookDispatcher.metrics();
+    }
+    
+    @GET
+    @Path("/{id}")
+    @Operation(summary = "Buscar webhook por ID", description = "Retorna um endpoint cadastrado")
+    @APIResponse(responseCode = "200", description = "Webhook encontrado")
+    @APIResponse(responseCode = "404", description = "Webhook não encontrado")
+    public WebhookEndpoint getById(@Parameter(description = "ID do webhook") @PathParam("id") Long id) {
+        return webhookService.findById(id);
+    }
+    
+    @POST
+    @Operation(summary = "Cadastrar webhook", description = "Passa a enviar ao endpoint as mudanças de status dos pedidos, de todos ou de um cliente")
+    @APIResponse(responseCode = "201", description = "Webhook cadastrado")
+    @APIResponse(responseCode = "400", description = "Dados inválidos")
+    public Response register(@Valid WebhookEndpoint endpoint) {
+        WebhookEndpoint created = webhookService.register(endpoint);
+        return Response.created(URI.create("/api/webhooks/" + created.id)).entity(created).build();
+    }
+    
+    @DELETE
+    @Path("/{id}")
+    @Operation(summary = "Excluir webhook", description = "Remove o endpoint e descarta as entregas pendentes para ele")
+    @APIResponse(responseCode = "204", description = "Webhook excluído")
+    @APIResponse(responseCode = "404", description = "Webhook não encontrado")
+    public Response delete(@Parameter(description = "ID do webhook") @PathParam("id") Long id) {
+        webhookService.delete(id);
+        return Response.noContent().build();
+    }
+}
\ No newline at end of file
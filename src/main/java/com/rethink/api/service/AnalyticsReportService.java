@@ -0,0 +1,401 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.AnalyticsReportJob;
+import com.rethink.api.dto.AnalyticsReportRequest;
+import com.rethink.api.dto.AnalyticsReportRow;
+import com.rethink.api.entity.Order;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.Money;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Relatórios analíticos sobre pedidos e itens, calculados em segundo plano.
+ * <p>
+ * O período é dividido em faixas de {@code report.chunk-days} dias, agregadas em paralelo num
+ * fork-join de {@code report.parallelism} threads; cada faixa é uma consulta na sua própria
+ * transação (e conexão). O fork-join pode criar threads extras enquanto outras esperam um
+ * {@code join}, então um semáforo do mesmo tamanho limita as consultas, e as conexões, em
+ * andamento. Os totais parciais são somados ao juntar as faixas. Um relatório pode ser acompanhado e cancelado pelo ID; o
+ * cancelamento descarta as faixas que ainda não começaram.
+ */
+@ApplicationScoped
+public class AnalyticsReportService {
+    
+    private static final Logger LOG = Logger.getLogger(AnalyticsReportService.class);
+    
+    /** Grupos aceitos e as expressões correspondentes sobre pedidos ({@code o}) e itens ({@code i}). */
+    private static final Map<String, String> GROUPS = new LinkedHashMap<>();
+    
+    static {
+        GROUPS.put("day", "cast(o.orderDate as LocalDate)");
+        GROUPS.put("month", "extract(year from o.orderDate) * 100 + extract(month from o.orderDate)");
+        GROUPS.put("state", "coalesce(o.shippingState, '')");
+        GROUPS.put("status", "o.status");
+        GROUPS.put("customer", "o.customer.id");
+        GROUPS.put("product", "i.product.id");
+    }
+    
+    @ConfigProperty(name = "report.parallelism", defaultValue = "4")
+    int parallelism;
+    
+    @ConfigProperty(name = "report.chunk-days", defaultValue = "7")
+    int chunkDays;
+    
+    @ConfigProperty(name = "report.max-chunks", defaultValue = "5000")
+    int maxChunks;
+    
+    @ConfigProperty(name = "report.chunk-timeout", defaultValue = "PT60S")
+    Duration chunkTimeout;
+    
+    @ConfigProperty(name = "report.job-retention", defaultValue = "PT1H")
+    Duration jobRetention;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderPartitionManager orderPartitionManager;
+    
+    private ForkJoinPool pool;
+    private Semaphore queries;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism);
+        queries = new Semaphore(parallelism);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(Job::cancel);
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Valida o pedido de relatório e começa a calculá-lo; devolve a situação inicial.
+     */
+    public AnalyticsReportJob submit(AnalyticsReportRequest request) {
+        if (request.from == null || request.to == null) {
+            throw new BadRequestException("Período é obrigatório (from e to)");
+        }
+        if (request.to.isBefore(request.from)) {
+            throw new BadRequestException("Data final deve ser posterior à inicial");
+        }
+        List<String> groups = new ArrayList<>();
+        for (String group : request.groupBy == null ? List.<String>of() : request.groupBy) {
+            String name = group.trim();
+            if (!GROUPS.containsKey(name)) {
+                throw new BadRequestException("Agrupamento inválido: " + name + " (aceitos: " + GROUPS.keySet() + ")");
+            }
+            if (!groups.contains(name)) {
+                groups.add(name);
+            }
+        }
+        int days = request.chunkDays != null ? request.chunkDays : chunkDays;
+        if (days <= 0) {
+            throw new BadRequestException("Dias por consulta deve ser maior que zero");
+        }
+        List<LocalDate> bounds = new ArrayList<>();
+        for (LocalDate day = request.from; !day.isAfter(request.to); day = day.plusDays(days)) {
+            bounds.add(day);
+            if (bounds.size() > maxChunks) {
+                throw new BadRequestException("Período exige mais de " + maxChunks + " consultas; aumente chunkDays");
+            }
+        }
+        bounds.add(request.to.plusDays(1));
+        
+        purgeFinished();
+        Job job = new Job(UUID.randomUUID().toString(), request, groups, bounds,
+                orderPartitionManager.isPartitioned());
+        jobs.put(job.id, job);
+        pool.execute(job::run);
+        return job.snapshot();
+    }
+    
+    public AnalyticsReportJob find(String id) {
+        return job(id).snapshot();
+    }
+    
+    public AnalyticsReportJob cancel(String id) {
+        Job job = job(id);
+        job.cancel();
+        return job.snapshot();
+    }
+    
+    /**
+     * Situação do relatório agora e a cada faixa concluída, terminando quando ele termina. Um
+     * assinante lento recebe só a situação mais recente.
+     */
+    public Multi<AnalyticsReportJob> progress(String id) {
+        Job job = job(id);
+        return Multi.createFrom().<AnalyticsReportJob>emitter(job::listen, BackPressureStrategy.LATEST);
+    }
+    
+    private Job job(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new NotFoundException("Relatório não encontrado com ID: " + id);
+        }
+        return job;
+    }
+    
+    private void purgeFinished() {
+        LocalDateTime limit = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+    
+    private final class Job {
+        
+        final String id;
+        final AnalyticsReportRequest request;
+        final List<String> groups;
+        final List<String> expressions;
+        // Início de cada faixa, seguido do dia seguinte ao último
+        final List<LocalDate> bounds;
+        // Itens filtrados pela data só com as tabelas particionadas; fora delas a data dos itens
+        // anteriores à coluna é nula
+        final boolean itemsByDate;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final List<MultiEmitter<? super AnalyticsReportJob>> listeners = new CopyOnWriteArrayList<>();
+        volatile AnalyticsReportJob.State state = AnalyticsReportJob.State.RUNNING;
+        int completedChunks;
+        LocalDateTime finishedAt;
+        String error;
+        List<AnalyticsReportRow> rows;
+        
+        Job(String id, AnalyticsReportRequest request, List<String> groups, List<LocalDate> bounds,
+            boolean itemsByDate) {
+            this.id = id;
+            this.request = request;
+            this.groups = groups;
+            this.expressions = groups.stream().map(GROUPS::get).toList();
+            this.bounds = bounds;
+            this.itemsByDate = itemsByDate;
+        }
+        
+        void run() {
+            try {
+                Map<List<Object>, long[]> totals = new Chunk(this, 0, bounds.size() - 1).invoke();
+                finish(AnalyticsReportJob.State.COMPLETED, toRows(totals), null);
+            } catch (CancellationException e) {
+                finish(AnalyticsReportJob.State.CANCELLED, null, null);
+            } catch (RuntimeException e) {
+                LOG.warnf("Relatório %s falhou: %s", id, e.toString());
+                finish(AnalyticsReportJob.State.FAILED, null, e.toString());
+            }
+        }
+        
+        void cancel() {
+            finish(AnalyticsReportJob.State.CANCELLED, null, null);
+        }
+        
+        synchronized void chunkCompleted() {
+            if (state != AnalyticsReportJob.State.RUNNING) {
+                return;
+            }
+            completedChunks++;
+            AnalyticsReportJob snapshot = snapshot();
+            listeners.forEach(listener -> listener.emit(snapshot));
+        }
+        
+        synchronized void finish(AnalyticsReportJob.State finalState, List<AnalyticsReportRow> result, String failure) {
+            if (state != AnalyticsReportJob.State.RUNNING) {
+                return;
+            }
+            state = finalState;
+            rows = result;
+            error = failure;
+            finishedAt = LocalDateTime.now();
+            AnalyticsReportJob snapshot = snapshot();
+            for (MultiEmitter<? super AnalyticsReportJob> listener : listeners) {
+                listener.emit(snapshot);
+                listener.complete();
+            }
+            listeners.clear();
+        }
+        
+        synchronized void listen(MultiEmitter<? super AnalyticsReportJob> emitter) {
+            emitter.emit(snapshot());
+            if (state != AnalyticsReportJob.State.RUNNING) {
+                emitter.complete();
+                return;
+            }
+            listeners.add(emitter);
+            emitter.onTermination(() -> listeners.remove(emitter));
+        }
+        
+        synchronized AnalyticsReportJob snapshot() {
+            AnalyticsReportJob snapshot = new AnalyticsReportJob();
+            snapshot.id = id;
+            snapshot.state = state;
+            snapshot.request = request;
+            snapshot.chunks = bounds.size() - 1;
+            snapshot.completedChunks = completedChunks;
+            snapshot.startedAt = startedAt;
+            snapshot.finishedAt = finishedAt;
+            snapshot.elapsedMillis = Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toMillis();
+            snapshot.error = error;
+            snapshot.rows = rows;
+            return snapshot;
+        }
+        
+        /** Pedidos, itens e receita em centavos de uma faixa. */
+        Map<List<Object>, long[]> aggregate(LocalDate from, LocalDate to) {
+            // O prazo da transação desfaz a consulta de uma faixa que não termina
+            int timeout = (int) Math.max(1, (chunkTimeout.toMillis() + 999) / 1000);
+            try {
+                queries.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+            List<Object[]> result;
+            try {
+                result = QuarkusTransaction.requiringNew().timeout(timeout).call(() ->
+                        orderRepository.aggregate(expressions, from.atStartOfDay(), to.atStartOfDay(),
+                                request.statuses == null ? List.of() : request.statuses, itemsByDate));
+            } finally {
+                queries.release();
+            }
+            Map<List<Object>, long[]> totals = new HashMap<>();
+            int values = groups.size();
+            for (Object[] row : result) {
+                long[] total = totals.computeIfAbsent(Arrays.asList(Arrays.copyOf(row, values)), key -> new long[3]);
+                total[0] += ((Number) row[values]).longValue();
+                total[1] += ((Number) row[values + 1]).longValue();
+                total[2] = Money.add(total[2], Money.toCents(toBigDecimal(row[values + 2])));
+            }
+            return totals;
+        }
+        
+        List<AnalyticsReportRow> toRows(Map<List<Object>, long[]> totals) {
+            List<List<Object>> keys = new ArrayList<>(totals.keySet());
+            keys.sort(Job::compareKeys);
+            List<AnalyticsReportRow> result = new ArrayList<>(keys.size());
+            for (List<Object> key : keys) {
+                long[] total = totals.get(key);
+                if (total[0] == 0) {
+                    // Sem agrupamento, a agregação devolve uma linha zerada para faixas sem pedidos
+                    continue;
+                }
+                AnalyticsReportRow row = new AnalyticsReportRow();
+                for (int i = 0; i < groups.size(); i++) {
+                    Object value = key.get(i);
+                    switch (groups.get(i)) {
+                        case "day" -> row.day = value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+                        case "month" -> {
+                            int month = ((Number) value).intValue();
+                            row.month = String.format("%04d-%02d", month / 100, month % 100);
+                        }
+                        case "state" -> row.state = (String) value;
+                        case "status" -> row.status = (Order.OrderStatus) value;
+                        case "customer" -> row.customerId = ((Number) value).longValue();
+                        case "product" -> row.productId = value == null ? null : ((Number) value).longValue();
+                    }
+                }
+                row.orderCount = total[0];
+                row.itemCount = total[1];
+                row.revenue = Money.fromCents(total[2]);
+                row.averageBasket = row.revenue.divide(BigDecimal.valueOf(total[0]), Money.SCALE, RoundingMode.HALF_UP);
+                row.averageItems = BigDecimal.valueOf(total[1]).divide(BigDecimal.valueOf(total[0]), 2, RoundingMode.HALF_UP);
+                result.add(row);
+            }
+            return result;
+        }
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static int compareKeys(List<Object> a, List<Object> b) {
+            Comparator<Comparable> values = Comparator.nullsLast(Comparator.naturalOrder());
+            for (int i = 0; i < a.size(); i++) {
+                int compared = values.compare((Comparable) a.get(i), (Comparable) b.get(i));
+                if (compared != 0) {
+                    return compared;
+                }
+            }
+            return 0;
+        }
+    }
+    
+    /**
+     * Faixas {@code [lo, hi)} de um relatório: divide ao meio até sobrar uma, que vira uma consulta.
+     * Cada pedido cai numa única faixa, então contagens e somas parciais podem ser somadas.
+     */
+    private static final class Chunk extends RecursiveTask<Map<List<Object>, long[]>> {
+        
+        private final Job job;
+        private final int lo;
+        private final int hi;
+        
+        Chunk(Job job, int lo, int hi) {
+            this.job = job;
+            this.lo = lo;
+            this.hi = hi;
+        }
+        
+        @Override
+        protected Map<List<Object>, long[]> compute() {
+            if (job.state != AnalyticsReportJob.State.RUNNING) {
+                throw new CancellationException();
+            }
+            if (hi - lo == 1) {
+                Map<List<Object>, long[]> totals = job.aggregate(job.bounds.get(lo), job.bounds.get(hi));
+                job.chunkCompleted();
+                return totals;
+            }
+            int mid = (lo + hi) >>> 1;
+            Chunk left = new Chunk(job, lo, mid);
+            left.fork();
+            Map<List<Object>, long[]> right = new Chunk(job, mid, hi).compute();
+            Map<List<Object>, long[]> merged = left.join();
+            if (merged.size() < right.size()) {
+                Map<List<Object>, long[]> swap = merged;
+                merged = right;
+                right = swap;
+            }
+            for (Map.Entry<List<Object>, long[]> entry : right.entrySet()) {
+                long[] total = merged.computeIfAbsent(entry.getKey(), key -> new long[3]);
+                total[0] += entry.getValue()[0];
+                total[1] += entry.getValue()[1];
+                total[2] = Money.add(total[2], entry.getValue()[2]);
+            }
+            return merged;
+        }
+    }
+    
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
\ No newline at end of file
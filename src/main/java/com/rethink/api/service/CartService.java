@@ -0,0 +1,148 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.Cart;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.Transactional;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ApplicationScoped
+public class CartService {
+    
+    @Inject
+    CartStore cartStore;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+    
+    public Cart findById(String id) {
+        return cartStore.find(id)
+                .orElseThrow(() -> new NotFoundException("Carrinho não encontrado com ID: " + id));
+    }
+    
+    public Cart create(Cart cart) {
+        cart.id = null;
+        List<Cart.CartItem> items = cart.items == null ? List.of() : cart.items;
+        // Um produto repetido no corpo vira um item só, como no addItem
+        cart.items = new ArrayList<>();
+        for (Cart.CartItem item : items) {
+            merge(cart, item.productId, item.quantity);
+        }
+        return cartStore.save(cart);
+    }
+    
+    public Cart addItem(String id, Long productId, Integer quantity) {
+        if (productId == null) {
+            throw new BadRequestException("ID do produto é obrigatório");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new BadRequestException("Quantidade deve ser maior que zero");
+        }
+        
+        Cart cart = findById(id);
+        synchronized (cart) {
+            merge(cart, productId, quantity);
+        }
+        return cartStore.save(cart);
+    }
+    
+    public Cart removeItem(String id, Long productId) {
+        Cart cart = findById(id);
+        synchronized (cart) {
+            Cart.CartItem item = cart.findItem(productId);
+            if (item == null) {
+                throw new NotFoundException("Item não encontrado no carrinho");
+            }
+            cart.items.remove(item);
+        }
+        return cartStore.save(cart);
+    }
+    
+    public void delete(String id) {
+        if (!cartStore.remove(id)) {
+            throw new NotFoundException("Carrinho não encontrado com ID: " + id);
+        }
+    }
+    
+    /**
+     * Fecha o carrinho como pedido. O carrinho é retirado do armazenamento antes de tudo, então
+     * um segundo checkout simultâneo não o encontra; se a transação não for confirmada ele volta.
+     */
+    @Transactional
+    public Order checkout(String id) {
+        Cart cart = cartStore.take(id)
+                .orElseThrow(() -> new NotFoundException("Carrinho não encontrado com ID: " + id));
+        
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    cartStore.save(cart);
+                }
+            }
+        });
+        
+        Order order = new Order();
+        List<OrderItem> items = new ArrayList<>();
+        synchronized (cart) {
+            if (cart.items.isEmpty()) {
+                throw new BadRequestException("Carrinho deve ter pelo menos um item");
+            }
+            
+            order.customer = new Customer();
+            order.customer.id = cart.customerId;
+            order.notes = cart.notes;
+            order.shippingAddress = cart.shippingAddress;
+            order.shippingCity = cart.shippingCity;
+            order.shippingState = cart.shippingState;
+            order.shippingZipCode = cart.shippingZipCode;
+            
+            // Os produtos são travados e carregados pelo create; carregá-los antes deixaria no
+            // contexto de persistência um estoque lido sem trava
+            for (Cart.CartItem cartItem : cart.items) {
+                OrderItem item = new OrderItem();
+                item.product = new Product();
+                item.product.id = cartItem.productId;
+                item.quantity = cartItem.quantity;
+                items.add(item);
+            }
+        }
+        
+        return orderService.create(order, items);
+    }
+    
+    private static void merge(Cart cart, Long productId, int quantity) {
+        Cart.CartItem existingItem = cart.findItem(productId);
+        if (existingItem == null) {
+            cart.items.add(new Cart.CartItem(productId, quantity));
+            return;
+        }
+        try {
+            existingItem.quantity = Math.addExact(existingItem.quantity, quantity);
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("Quantidade excede o limite para o produto " + productId);
+        }
+    }
+    
+    public int countCarts() {
+        return cartStore.size();
+    }
+}
\ No newline at end of file
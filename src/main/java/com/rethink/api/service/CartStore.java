@@ -0,0 +1,139 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.dto.Cart;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Armazena carrinhos em memória, limitado por tamanho e com expiração por inatividade.
+ * <p>
+ * O mapa é mantido em ordem de acesso, então os carrinhos expirados estão sempre no início
+ * e são removidos a cada operação sem varrer o restante. Opcionalmente o conteúdo é gravado
+ * em arquivo no desligamento e recarregado na inicialização.
+ */
+@ApplicationScoped
+public class CartStore {
+    
+    private static final Logger LOG = Logger.getLogger(CartStore.class);
+    
+    @ConfigProperty(name = "cart.ttl", defaultValue = "PT30M")
+    Duration ttl;
+    
+    @ConfigProperty(name = "cart.max-size", defaultValue = "10000")
+    int maxSize;
+    
+    @ConfigProperty(name = "cart.store-path")
+    Optional<String> storePath;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private final LinkedHashMap<String, Cart> carts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cart> eldest) {
+            return size() > maxSize;
+        }
+    };
+    
+    public synchronized Cart save(Cart cart) {
+        evictExpired();
+        if (cart.id == null) {
+            cart.id = UUID.randomUUID().toString();
+            cart.createdAt = LocalDateTime.now();
+        }
+        cart.updatedAt = LocalDateTime.now();
+        carts.put(cart.id, cart);
+        return cart;
+    }
+    
+    public synchronized Optional<Cart> find(String id) {
+        evictExpired();
+        Cart cart = carts.get(id);
+        if (cart != null) {
+            cart.updatedAt = LocalDateTime.now();
+        }
+        return Optional.ofNullable(cart);
+    }
+    
+    public synchronized boolean remove(String id) {
+        evictExpired();
+        return carts.remove(id) != null;
+    }
+    
+    /**
+     * Remove e devolve o carrinho numa única operação, de modo que só um chamador o obtém.
+     */
+    public synchronized Optional<Cart> take(String id) {
+        evictExpired();
+        return Optional.ofNullable(carts.remove(id));
+    }
+    
+    public synchronized int size() {
+        evictExpired();
+        return carts.size();
+    }
+    
+    private void evictExpired() {
+        LocalDateTime limit = LocalDateTime.now().minus(ttl);
+        Iterator<Cart> iterator = carts.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().updatedAt.isBefore(limit)) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+    
+    void onStart(@Observes StartupEvent event) {
+        if (storePath.isEmpty() || !Files.exists(Path.of(storePath.get()))) {
+            return;
+        }
+        try {
+            List<Cart> stored = objectMapper.readValue(Path.of(storePath.get()).toFile(),
+                    new TypeReference<List<Cart>>() {});
+            synchronized (this) {
+                stored.forEach(cart -> carts.put(cart.id, cart));
+                evictExpired();
+            }
+            LOG.infof("%d carrinhos carregados de %s", carts.size(), storePath.get());
+        } catch (IOException e) {
+            LOG.warnf(e, "Não foi possível carregar carrinhos de %s", storePath.get());
+        }
+    }
+    
+    void onStop(@Observes ShutdownEvent event) {
+        if (storePath.isEmpty()) {
+            return;
+        }
+        List<Cart> snapshot;
+        synchronized (this) {
+            evictExpired();
+            snapshot = new ArrayList<>(carts.values());
+        }
+        try {
+            objectMapper.writeValue(Path.of(storePath.get()).toFile(), snapshot);
+        } catch (IOException e) {
+            LOG.warnf(e, "Não foi possível gravar carrinhos em %s", storePath.get());
+        }
+    }
+}
\ No newline at end of file
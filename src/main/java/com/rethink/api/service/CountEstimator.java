@@ -0,0 +1,102 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * Contagens aproximadas a partir das estatísticas que o banco já mantém, sem ler as tabelas.
+ * <p>
+ * No PostgreSQL, o total vem de {@code pg_class.reltuples} (somado sobre as partições) e contagens
+ * com filtro vêm da estimativa de linhas do {@code EXPLAIN}; no H2, de
+ * {@code INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE}. Sem estatísticas (tabela nunca analisada
+ * ou outro banco) o resultado é vazio e quem chama faz a contagem exata.
+ */
+@ApplicationScoped
+public class CountEstimator {
+    
+    private static final Logger LOG = Logger.getLogger(CountEstimator.class);
+    
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+    
+    @Inject
+    EntityManager entityManager;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    /**
+     * Interpreta o parâmetro {@code mode} dos endpoints de contagem: {@code true} para
+     * {@code estimate}, {@code false} para {@code exact} ou ausente.
+     */
+    public static boolean isEstimate(String mode) {
+        if (mode == null || mode.isBlank() || "exact".equals(mode)) {
+            return false;
+        }
+        if ("estimate".equals(mode)) {
+            return true;
+        }
+        throw new BadRequestException("Modo de contagem inválido: " + mode + " (aceitos: exact, estimate)");
+    }
+    
+    /**
+     * Linhas da tabela segundo as estatísticas do banco.
+     */
+    public OptionalLong estimateRows(String table) {
+        Object[] row;
+        if ("postgresql".equals(dbKind)) {
+            row = (Object[]) entityManager
+                    .createNativeQuery("SELECT sum(greatest(c.reltuples, 0)), max(c.reltuples) FROM pg_class c "
+                            + "WHERE (c.oid = to_regclass(?1) AND c.relkind = 'r') "
+                            + "OR c.oid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = to_regclass(?1))")
+                    .setParameter(1, table)
+                    .getSingleResult();
+        } else if ("h2".equals(dbKind)) {
+            row = h2Estimate(table);
+        } else {
+            return OptionalLong.empty();
+        }
+        // reltuples = -1: nunca analisada
+        if (row[0] == null || ((Number) row[1]).doubleValue() < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Math.round(((Number) row[0]).doubleValue()));
+    }
+    
+    /**
+     * Linhas que o planejador do PostgreSQL espera para {@code select}, uma consulta fixa sem
+     * parâmetros.
+     */
+    public OptionalLong estimateMatching(String select) {
+        if (!"postgresql".equals(dbKind)) {
+            return OptionalLong.empty();
+        }
+        Object plan = entityManager.createNativeQuery("EXPLAIN (FORMAT JSON) " + select).getSingleResult();
+        try {
+            JsonNode rows = objectMapper.readTree(plan.toString()).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? OptionalLong.of(rows.asLong()) : OptionalLong.empty();
+        } catch (Exception e) {
+            LOG.warnf("Plano não interpretado para '%s': %s", select, e.toString());
+            return OptionalLong.empty();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object[] h2Estimate(String table) {
+        Stream<Object[]> rows = entityManager
+                .createNativeQuery("SELECT ROW_COUNT_ESTIMATE, 0 FROM INFORMATION_SCHEMA.TABLES "
+                        + "WHERE LOWER(TABLE_NAME) = LOWER(?1) AND TABLE_SCHEMA = CURRENT_SCHEMA")
+                .setParameter(1, table)
+                .getResultStream();
+        return rows.findFirst().orElse(new Object[]{null, null});
+    }
+}
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.rethink.api.service;
 
+import com.rethink.api.dto.CustomerSummary;
 import com.rethink.api.entity.Customer;
+import com.rethink.api.event.CustomerEvent;
 import com.rethink.api.repository.CustomerRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.BadRequestException;
@@ -17,10 +20,29 @@ public class CustomerService {
     @Inject
     CustomerRepository customerRepository;
     
+    @Inject
+    RecentActivity recentActivity;
+    
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    Event<CustomerEvent> customerEvents;
+    
+    @Inject
+    CountEstimator countEstimator;
+    
     public List<Customer> listAll() {
         return customerRepository.listAll();
     }
     
+    public List<CustomerSummary> listSummaries() {
+        return customerRepository.findAllSummaries();
+    }
+    
     public Customer findById(Long id) {
         return customerRepository.findByIdOptional(id)
                 .orElseThrow(() -> new NotFoundException("Cliente não encontrado com ID: " + id));
@@ -49,7 +71,20 @@ public class CustomerService {
     }
     
     public List<Customer> findRecentCustomers(int limit) {
-        return customerRepository.findRecentCustomers(limit);
+        if (!recentActivity.coversCustomers(limit)) {
+            return customerRepository.findRecentCustomers(limit);
+        }
+        return recentActivity.recentCustomers(limit);
+    }
+    
+    public List<CustomerSummary> findRecentSummaries(int limit) {
+        if (!recentActivity.coversCustomers(limit)) {
+            return customerRepository.findRecentSummaries(limit);
+        }
+        return recentActivity.recentCustomers(limit).stream()
+                .map(customer -> new CustomerSummary(customer.id, customer.name, customer.email, customer.city,
+                        customer.state))
+                .toList();
     }
     
     @Transactional
@@ -57,6 +92,7 @@ public class CustomerService {
         validateUniqueFields(customer, null);
         customer.createdAt = LocalDateTime.now();
         customerRepository.persist(customer);
+        customerEvents.fire(CustomerEvent.of(CustomerEvent.Type.CREATED, customer));
         return customer;
     }
     
@@ -74,17 +110,22 @@ public class CustomerService {
         entity.state = customer.state;
         entity.zipCode = customer.zipCode;
         entity.updatedAt = LocalDateTime.now();
+        // Os documentos dos pedidos trazem o cliente embutido
+        orderReadModel.writeCustomerOrders(id);
         
+        customerEvents.fire(CustomerEvent.of(CustomerEvent.Type.UPDATED, entity));
         return entity;
     }
     
     @Transactional
     public void delete(Long id) {
         Customer entity = findById(id);
-        if (!entity.orders.isEmpty()) {
+        // Pedidos arquivados continuam no histórico do cliente
+        if (!entity.orders.isEmpty() || orderArchive.hasCustomerOrders(id)) {
             throw new BadRequestException("Não é possível excluir cliente com pedidos vinculados");
         }
         customerRepository.delete(entity);
+        customerEvents.fire(CustomerEvent.of(CustomerEvent.Type.DELETED, entity));
     }
     
     private void validateUniqueFields(Customer customer, Long excludeId) {
@@ -102,4 +143,9 @@ public class CustomerService {
     public long countCustomers() {
         return customerRepository.count();
     }
+    
+    /** Total pelas estatísticas do banco; exato quando não há estatísticas. */
+    public long estimateCustomers() {
+        return countEstimator.estimateRows("customer").orElseGet(this::countCustomers);
+    }
 }
\ No newline at end of file
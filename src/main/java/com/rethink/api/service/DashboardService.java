@@ -0,0 +1,96 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.Dashboard;
+import com.rethink.api.entity.Order;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Monta o painel disparando todas as consultas em paralelo, cada uma na sua própria transação
+ * (e portanto na sua própria conexão). Cada parte tem {@code dashboard.timeout} para responder;
+ * as que falham ou estouram o prazo ficam de fora e o restante é devolvido mesmo assim.
+ */
+@ApplicationScoped
+public class DashboardService {
+    
+    private static final Logger LOG = Logger.getLogger(DashboardService.class);
+    
+    @ConfigProperty(name = "dashboard.timeout", defaultValue = "PT2S")
+    Duration timeout;
+    
+    @ConfigProperty(name = "dashboard.recent-limit", defaultValue = "5")
+    int recentLimit;
+    
+    @Inject
+    OrderStatistics orderStatistics;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    ProductService productService;
+    
+    @Inject
+    CustomerService customerService;
+    
+    public Uni<Dashboard> load() {
+        Dashboard dashboard = new Dashboard();
+        List<String> unavailable = Collections.synchronizedList(new ArrayList<>());
+        return Uni.combine().all().unis(
+                part("orders", unavailable, this::ordersByStatus),
+                part("products", unavailable, productService::countProducts),
+                part("availableProducts", unavailable, productService::countAvailableProducts),
+                part("customers", unavailable, customerService::countCustomers),
+                part("recentOrders", unavailable, () -> orderService.findRecentSummaries(recentLimit)),
+                part("recentCustomers", unavailable, () -> customerService.findRecentSummaries(recentLimit)))
+                .with((orders, products, availableProducts, customers, recentOrders, recentCustomers) -> {
+                    if (orders != null) {
+                        dashboard.ordersByStatus = orders;
+                        dashboard.totalOrders = orders.values().stream().mapToLong(Long::longValue).sum();
+                    }
+                    dashboard.totalProducts = products;
+                    dashboard.availableProducts = availableProducts;
+                    dashboard.totalCustomers = customers;
+                    dashboard.recentOrders = recentOrders;
+                    dashboard.recentCustomers = recentCustomers;
+                    synchronized (unavailable) {
+                        dashboard.unavailable = new ArrayList<>(unavailable);
+                    }
+                    return dashboard;
+                });
+    }
+    
+    private Map<Order.OrderStatus, Long> ordersByStatus() {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counts.put(status, orderStatistics.count(status));
+        }
+        return counts;
+    }
+    
+    private <T> Uni<T> part(String name, List<String> unavailable, Callable<T> query) {
+        // O timeout da transação desfaz a consulta que continuar rodando depois do prazo
+        int transactionTimeout = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        return Uni.createFrom().item(() -> QuarkusTransaction.requiringNew().timeout(transactionTimeout).call(query))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .ifNoItem().after(timeout).fail()
+                .onFailure().recoverWithItem(failure -> {
+                    LOG.warnf("Parte '%s' do painel indisponível: %s", name, failure.toString());
+                    unavailable.add(name);
+                    return null;
+                });
+    }
+}
\ No newline at end of file
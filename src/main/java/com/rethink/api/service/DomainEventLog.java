@@ -0,0 +1,177 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rethink.api.dto.EventLogBatch;
+import com.rethink.api.dto.EventLogRecord;
+import com.rethink.api.event.CustomerEvent;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.event.ProductEvent;
+import com.rethink.api.util.SegmentedLog;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava os eventos de pedido, produto e cliente confirmados num {@link SegmentedLog} local, de
+ * onde projeções consomem as mudanças sem consultar as tabelas transacionais.
+ * <p>
+ * Cada registro é o evento em JSON com o campo {@code entity} ({@code order}, {@code product} ou
+ * {@code customer}). O {@code fsync} é feito em lote por uma thread própria a cada
+ * {@code event-log.flush-interval} (o agendador do Quarkus não aceita menos de um segundo): uma
+ * queda da máquina perde no máximo esse intervalo, uma queda só do processo não perde nada.
+ */
+@ApplicationScoped
+public class DomainEventLog {
+    
+    private static final Logger LOG = Logger.getLogger(DomainEventLog.class);
+    
+    @ConfigProperty(name = "event-log.enabled", defaultValue = "true")
+    boolean enabled;
+    
+    @ConfigProperty(name = "event-log.directory", defaultValue = "data/event-log")
+    Path directory;
+    
+    @ConfigProperty(name = "event-log.segment-size", defaultValue = "64M")
+    MemorySize segmentSize;
+    
+    @ConfigProperty(name = "event-log.retention-size", defaultValue = "1G")
+    MemorySize retentionSize;
+    
+    @ConfigProperty(name = "event-log.max-batch", defaultValue = "1000")
+    int maxBatch;
+    
+    @ConfigProperty(name = "event-log.flush-interval", defaultValue = "PT0.2S")
+    Duration flushInterval;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private volatile SegmentedLog log;
+    private ScheduledExecutorService flusher;
+    
+    void onStart(@Observes StartupEvent event) throws IOException {
+        if (enabled) {
+            log = new SegmentedLog(directory, segmentSize.asBigInteger().intValueExact());
+            LOG.infof("Log de eventos aberto em %s, offsets %d a %d", directory, log.startOffset(), log.endOffset());
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-log-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    void onStop(@Observes ShutdownEvent event) throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        SegmentedLog current = log;
+        if (current != null) {
+            log = null;
+            current.close();
+        }
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        append("order", event);
+    }
+    
+    void onProductEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) ProductEvent event) {
+        append("product", event);
+    }
+    
+    void onCustomerEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) CustomerEvent event) {
+        append("customer", event);
+    }
+    
+    private void append(String entity, Object event) {
+        SegmentedLog current = log;
+        if (current == null) {
+            return;
+        }
+        try {
+            ObjectNode record = objectMapper.createObjectNode().put("entity", entity);
+            record.setAll((ObjectNode) objectMapper.valueToTree(event));
+            current.append(objectMapper.writeValueAsBytes(record));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // A transação já foi confirmada; o evento fica de fora do log, mas a operação não falha
+            LOG.errorf(e, "Falha ao gravar evento de %s no log", entity);
+        }
+    }
+    
+    void flush() {
+        SegmentedLog current = log;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.flush();
+            int removed = current.retain(retentionSize.asLongValue());
+            if (removed > 0) {
+                LOG.infof("Retenção removeu %d segmentos do log de eventos", removed);
+            }
+        } catch (RuntimeException e) {
+            // Uma exceção cancelaria as execuções seguintes do executor
+            LOG.errorf(e, "Falha ao gravar o log de eventos em disco");
+        }
+    }
+    
+    /**
+     * Próximos registros do consumidor, a partir do último offset que ele confirmou.
+     */
+    public EventLogBatch read(String consumer, int limit) {
+        if (limit <= 0 || limit > maxBatch) {
+            throw new BadRequestException("Limite deve estar entre 1 e " + maxBatch);
+        }
+        SegmentedLog current = requireLog();
+        long from;
+        try {
+            from = current.committed(consumer);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        List<EventLogRecord> records = current.read(from, limit).stream()
+                .map(r -> new EventLogRecord(r.offset(), new String(r.payload(), StandardCharsets.UTF_8)))
+                .toList();
+        long nextOffset = records.isEmpty() ? from : records.get(records.size() - 1).offset + 1;
+        return new EventLogBatch(consumer, records, nextOffset, current.endOffset());
+    }
+    
+    public void commit(String consumer, long offset) {
+        try {
+            requireLog().commit(consumer, offset);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+    
+    private SegmentedLog requireLog() {
+        SegmentedLog current = log;
+        if (current == null) {
+            throw new NotFoundException("Log de eventos desabilitado");
+        }
+        return current;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.BulkStatusUpdateResult;
+import com.rethink.api.dto.FulfillmentClaim;
+import com.rethink.api.entity.Order;
+import com.rethink.api.repository.OrderRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+@ApplicationScoped
+public class FulfillmentService {
+    
+    @ConfigProperty(name = "fulfillment.lease", defaultValue = "PT5M")
+    Duration lease;
+    
+    @ConfigProperty(name = "fulfillment.max-batch", defaultValue = "100")
+    int maxBatch;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Transactional
+    public FulfillmentClaim claim(String workerId, Order.OrderStatus status, int limit) {
+        if (workerId == null || workerId.isBlank()) {
+            throw new BadRequestException("ID do worker é obrigatório");
+        }
+        if (status == null) {
+            throw new BadRequestException("Status é obrigatório");
+        }
+        if (limit <= 0) {
+            throw new BadRequestException("Limite deve ser maior que zero");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseExpiresAt = now.plus(lease);
+        List<Long> ids = orderRepository.lockClaimableIds(status, now, Math.min(limit, maxBatch));
+        if (ids.isEmpty()) {
+            return new FulfillmentClaim(workerId, leaseExpiresAt, List.of());
+        }
+        
+        orderRepository.claim(ids, workerId, leaseExpiresAt);
+        List<Order> orders = orderRepository.findWithDetailsByIds(ids);
+        return new FulfillmentClaim(workerId, leaseExpiresAt, orders);
+    }
+    
+    @Transactional
+    public BulkStatusUpdateResult acknowledge(String workerId, List<Long> orderIds, Order.OrderStatus newStatus) {
+        if (newStatus == null) {
+            throw new BadRequestException("Status é obrigatório");
+        }
+        
+        Set<Long> rejected = new TreeSet<>(orderIds);
+        int updated = 0;
+        for (Order order : orderRepository.findClaimedBy(orderIds, workerId, LocalDateTime.now())) {
+            if (!OrderService.isValidTransition(order.status, newStatus)) {
+                continue;
+            }
+            orderService.updateStatus(order.id, newStatus);
+            order.claimedBy = null;
+            order.leaseExpiresAt = null;
+            rejected.remove(order.id);
+            updated++;
+        }
+        return new BulkStatusUpdateResult(newStatus, orderIds.size(), updated, new ArrayList<>(rejected));
+    }
+    
+    @Transactional
+    public int release(String workerId, List<Long> orderIds) {
+        List<Order> orders = orderRepository.findClaimedBy(orderIds, workerId, LocalDateTime.now());
+        for (Order order : orders) {
+            order.claimedBy = null;
+            order.leaseExpiresAt = null;
+        }
+        return orders.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,126 @@
+package com.rethink.api.service;
+
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.OrderItemRepository;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.repository.OrderViewRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Move pedidos entregues ou cancelados há mais de {@code order-archive.min-age} do banco para o
+ * {@link OrderArchive}. A idade conta a partir da entrega ou do cancelamento, não do pedido.
+ * <p>
+ * Cada lote é uma transação: trava os pedidos, grava o segmento com {@code fsync}, apaga pedidos,
+ * itens e linhas do modelo de leitura e, depois do commit, sela o segmento. Se o processo cair
+ * entre o commit e o selo, a recuperação na inicialização sela o segmento quando os pedidos não
+ * estão mais no banco e o descarta quando estão.
+ */
+@ApplicationScoped
+public class OrderArchivalJob {
+    
+    private static final Logger LOG = Logger.getLogger(OrderArchivalJob.class);
+    
+    private static final Set<Order.OrderStatus> ARCHIVABLE = Set.of(Order.OrderStatus.DELIVERED,
+            Order.OrderStatus.CANCELLED);
+    
+    @ConfigProperty(name = "order-archive.min-age", defaultValue = "P365D")
+    Duration minAge;
+    
+    @ConfigProperty(name = "order-archive.chunk-size", defaultValue = "1000")
+    int chunkSize;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderItemRepository orderItemRepository;
+    
+    @Inject
+    OrderViewRepository orderViewRepository;
+    
+    @Inject
+    Event<OrderEvent> orderEvents;
+    
+    void onStart(@Observes StartupEvent event) {
+        for (Path dataFile : orderArchive.pendingSegments()) {
+            List<Long> ids = Arrays.stream(OrderArchive.orderIdsOf(dataFile)).boxed().toList();
+            long remaining = QuarkusTransaction.requiringNew().call(() -> orderRepository.countByIds(ids));
+            if (remaining == 0) {
+                orderArchive.seal(dataFile);
+                LOG.infof("Segmento %s recuperado: %d pedidos arquivados", dataFile, ids.size());
+            } else {
+                orderArchive.discard(dataFile);
+                LOG.infof("Segmento %s descartado: o arquivamento não foi confirmado", dataFile);
+            }
+        }
+    }
+    
+    @Scheduled(every = "${order-archive.interval:off}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledArchive() {
+        long archived = archive(LocalDateTime.now().minus(minAge));
+        if (archived > 0) {
+            LOG.infof("%d pedidos arquivados", archived);
+        }
+    }
+    
+    /**
+     * Arquiva os pedidos entregues ou cancelados antes de {@code cutoff} e retorna quantos foram arquivados.
+     */
+    public long archive(LocalDateTime cutoff) {
+        long archived = 0;
+        int count;
+        while ((count = archiveChunk(cutoff)) > 0) {
+            archived += count;
+        }
+        return archived;
+    }
+    
+    private int archiveChunk(LocalDateTime cutoff) {
+        Path[] written = new Path[1];
+        int count;
+        try {
+            count = QuarkusTransaction.requiringNew().call(() -> {
+                List<Long> ids = orderRepository.lockArchivableIds(ARCHIVABLE, cutoff, chunkSize);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                List<Order> orders = orderRepository.findWithDetailsByIds(ids);
+                written[0] = orderArchive.write(orders);
+                
+                orderViewRepository.delete("orderId in ?1", ids);
+                orderItemRepository.deleteByOrderIds(ids);
+                orderRepository.delete("id in ?1", ids);
+                orders.forEach(order -> orderEvents.fire(OrderEvent.of(OrderEvent.Type.ARCHIVED, order)));
+                return ids.size();
+            });
+        } catch (RuntimeException e) {
+            if (written[0] != null) {
+                orderArchive.discard(written[0]);
+            }
+            throw e;
+        }
+        if (written[0] != null) {
+            orderArchive.seal(written[0]);
+        }
+        return count;
+    }
+}
\ No newline at end of file
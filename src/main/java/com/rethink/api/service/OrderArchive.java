@@ -0,0 +1,242 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Order;
+import com.rethink.api.util.Money;
+import com.rethink.api.util.OrderArchiveSegment;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Pedidos arquivados em {@link OrderArchiveSegment}s no disco, fora do banco.
+ * <p>
+ * Um segmento é gravado antes do commit que remove os pedidos do banco e só passa a ser lido
+ * quando selado, depois do commit; segmentos não selados ficam em {@link #pendingSegments()}
+ * para a recuperação decidir se o commit aconteceu. O JSON guardado é o do pedido no momento
+ * do arquivamento.
+ */
+@ApplicationScoped
+public class OrderArchive {
+    
+    private static final Logger LOG = Logger.getLogger(OrderArchive.class);
+    
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+    
+    @ConfigProperty(name = "order-archive.directory", defaultValue = "data/order-archive")
+    Path directory;
+    
+    @ConfigProperty(name = "order-archive.block-size", defaultValue = "64")
+    int blockSize;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private final List<OrderArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    
+    private long lastSequence;
+    
+    /**
+     * Abre os segmentos no primeiro uso: a reconciliação dos contadores e a recuperação do
+     * arquivamento, ambas na inicialização, já dependem deles.
+     */
+    @PostConstruct
+    void init() {
+        try {
+            Files.createDirectories(directory);
+            for (Path dataFile : dataFiles()) {
+                lastSequence = Math.max(lastSequence, sequenceOf(dataFile));
+                if (Files.exists(OrderArchiveSegment.indexFile(dataFile))) {
+                    segments.add(OrderArchiveSegment.open(dataFile));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!segments.isEmpty()) {
+            LOG.infof("Arquivo de pedidos aberto em %s: %d pedidos em %d segmentos", directory, size(),
+                    segments.size());
+        }
+    }
+    
+    void onStop(@Observes ShutdownEvent event) {
+        segments.forEach(OrderArchiveSegment::close);
+        segments.clear();
+    }
+    
+    public Optional<OrderArchiveSegment.Document> find(Long orderId) {
+        // Um pedido só é arquivado uma vez, mas uma recuperação pode repetir: o mais novo vale
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            OrderArchiveSegment.Document document = segments.get(i).find(orderId);
+            if (document != null) {
+                return Optional.of(document);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    public static Order.OrderStatus statusOf(OrderArchiveSegment.Document document) {
+        return STATUSES[document.status()];
+    }
+    
+    /**
+     * Documentos arquivados do cliente por ID do pedido.
+     */
+    public Map<Long, byte[]> findCustomerDocuments(Long customerId) {
+        Map<Long, byte[]> documents = new TreeMap<>();
+        for (OrderArchiveSegment segment : segments) {
+            for (OrderArchiveSegment.Document document : segment.findByCustomer(customerId)) {
+                documents.put(document.orderId(), document.json());
+            }
+        }
+        return documents;
+    }
+    
+    /**
+     * Se o cliente tem pedidos arquivados.
+     */
+    public boolean hasCustomerOrders(Long customerId) {
+        for (OrderArchiveSegment segment : segments) {
+            if (segment.containsCustomer(customerId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Documentos arquivados com data do pedido em {@code [from, to)}, por ID do pedido. Percorre
+     * as colunas de todos os segmentos; usado em reconstruções, não em consultas.
+     */
+    public Map<Long, OrderArchiveSegment.Document> findByOrderDate(LocalDateTime from, LocalDateTime to) {
+        Map<Long, OrderArchiveSegment.Document> documents = new TreeMap<>();
+        // Do segmento mais antigo ao mais novo: numa recuperação repetida, o mais novo vale
+        for (OrderArchiveSegment segment : segments) {
+            for (OrderArchiveSegment.Document document : segment.findByOrderDate(from.toEpochSecond(ZoneOffset.UTC),
+                    to.toEpochSecond(ZoneOffset.UTC))) {
+                documents.put(document.orderId(), document);
+            }
+        }
+        return documents;
+    }
+    
+    public Map<Order.OrderStatus, Long> countsByStatus() {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : STATUSES) {
+            long count = 0;
+            for (OrderArchiveSegment segment : segments) {
+                count += segment.statusCount((byte) status.ordinal());
+            }
+            if (count > 0) {
+                counts.put(status, count);
+            }
+        }
+        return counts;
+    }
+    
+    public long size() {
+        long size = 0;
+        for (OrderArchiveSegment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+    
+    public int segmentCount() {
+        return segments.size();
+    }
+    
+    /**
+     * Grava os pedidos (com cliente e itens carregados) num segmento ainda não selado.
+     */
+    public synchronized Path write(List<Order> orders) {
+        List<OrderArchiveSegment.Row> rows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            try {
+                rows.add(new OrderArchiveSegment.Row(order.id, order.customer.id, (byte) order.status.ordinal(),
+                        order.orderDate.toEpochSecond(ZoneOffset.UTC), Money.toCents(order.totalAmount),
+                        objectMapper.writeValueAsBytes(order)));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Path dataFile = directory.resolve(String.format("%020d.seg", ++lastSequence));
+        try {
+            OrderArchiveSegment.write(dataFile, rows, blockSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return dataFile;
+    }
+    
+    /**
+     * Torna o segmento visível para leitura. Chamado depois do commit que removeu os pedidos do banco.
+     */
+    public synchronized void seal(Path dataFile) {
+        try {
+            segments.add(OrderArchiveSegment.seal(dataFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Apaga um segmento não selado cujo commit não aconteceu.
+     */
+    public synchronized void discard(Path dataFile) {
+        try {
+            Files.deleteIfExists(dataFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public List<Path> pendingSegments() {
+        try {
+            return dataFiles().stream()
+                    .filter(dataFile -> !Files.exists(OrderArchiveSegment.indexFile(dataFile)))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static long[] orderIdsOf(Path dataFile) {
+        try {
+            return OrderArchiveSegment.readOrderIds(dataFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private List<Path> dataFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+    
+    private static long sequenceOf(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".seg".length()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.AnalyticsReportRow;
+import com.rethink.api.dto.OrderSnapshotReport;
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.Money;
+import com.rethink.api.util.OrderColumns;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Cópia em memória, em colunas, das linhas de pedidos ({@link OrderColumns}), para agrupamentos
+ * interativos que não passam pelo banco.
+ * <p>
+ * Carregada do banco na inicialização e atualizada a cada {@code order-columns.refresh-interval}
+ * com os pedidos alterados por transações confirmadas desde a última atualização, relidos do banco.
+ * Pedidos arquivados ou removidos com partições saem da cópia, como saem do banco.
+ */
+@ApplicationScoped
+public class OrderColumnSnapshot {
+    
+    private static final Logger LOG = Logger.getLogger(OrderColumnSnapshot.class);
+    
+    private static final Map<String, OrderColumns.Dimension> GROUPS = Map.of(
+            "day", OrderColumns.Dimension.DAY,
+            "month", OrderColumns.Dimension.MONTH,
+            "status", OrderColumns.Dimension.STATUS,
+            "state", OrderColumns.Dimension.STATE,
+            "city", OrderColumns.Dimension.CITY,
+            "customer", OrderColumns.Dimension.CUSTOMER,
+            "product", OrderColumns.Dimension.PRODUCT);
+    
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+    
+    private static final Comparator<AnalyticsReportRow> ROW_ORDER = Comparator
+            .comparing((AnalyticsReportRow row) -> row.day, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.month, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.status, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.state, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.city, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.customerId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(row -> row.productId, Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    @ConfigProperty(name = "order-columns.enabled", defaultValue = "true")
+    boolean enabled;
+    
+    @ConfigProperty(name = "order-columns.segment-size", defaultValue = "65536")
+    int segmentSize;
+    
+    @ConfigProperty(name = "order-columns.refresh-batch", defaultValue = "1000")
+    int refreshBatch;
+    
+    @ConfigProperty(name = "order-columns.load-timeout", defaultValue = "PT10M")
+    Duration loadTimeout;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    private volatile OrderColumns columns;
+    private volatile LocalDateTime refreshedAt;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            reload();
+        }
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        if (event.orderId != null) {
+            changed.add(event.orderId);
+        }
+    }
+    
+    /**
+     * Recarrega a cópia inteira do banco; as consultas seguem na anterior até a nova ficar pronta.
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        LocalDateTime loadedAt = LocalDateTime.now();
+        OrderColumns loaded = new OrderColumns(segmentSize);
+        int timeout = (int) Math.max(1, (loadTimeout.toMillis() + 999) / 1000);
+        QuarkusTransaction.requiringNew().timeout(timeout).run(() -> {
+            try (Stream<Object[]> rows = orderRepository.streamLines(refreshBatch)) {
+                List<OrderColumns.Line> batch = new ArrayList<>();
+                rows.map(OrderColumnSnapshot::toLine).forEach(line -> {
+                    // Um lote nunca separa as linhas de um pedido
+                    if (batch.size() >= refreshBatch && batch.get(batch.size() - 1).orderId() != line.orderId()) {
+                        loaded.apply(List.of(), batch);
+                        batch.clear();
+                    }
+                    batch.add(line);
+                });
+                loaded.apply(List.of(), batch);
+            }
+        });
+        columns = loaded;
+        refreshedAt = loadedAt;
+        LOG.infof("Snapshot colunar de pedidos carregado: %d pedidos, %d linhas em %d segmentos (%d ms)",
+                loaded.orderCount(), loaded.size(), loaded.segmentCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Relê do banco os pedidos alterados desde a última atualização; devolve quantos.
+     */
+    public synchronized int refresh() {
+        OrderColumns current = columns;
+        if (current == null || changed.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        try {
+            for (int from = 0; from < ids.size(); from += refreshBatch) {
+                List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + refreshBatch));
+                List<OrderColumns.Line> lines = QuarkusTransaction.requiringNew().call(() ->
+                        orderRepository.findLines(chunk).stream().map(OrderColumnSnapshot::toLine).toList());
+                current.apply(chunk, lines);
+            }
+        } catch (RuntimeException e) {
+            changed.addAll(ids);
+            throw e;
+        }
+        refreshedAt = startedAt;
+        return ids.size();
+    }
+    
+    @Scheduled(every = "${order-columns.refresh-interval:PT1S}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.warnf("Falha ao atualizar o snapshot colunar de pedidos: %s", e.toString());
+        }
+    }
+    
+    public OrderSnapshotReport query(LocalDate from, LocalDate to, Collection<Order.OrderStatus> statuses, String state,
+                                     String city, Long customerId, Long productId, String groupBy) {
+        OrderColumns current = columns;
+        if (current == null) {
+            throw new ServiceUnavailableException("Snapshot de pedidos indisponível");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("Data final deve ser posterior à inicial");
+        }
+        List<String> groups = new ArrayList<>();
+        if (groupBy != null && !groupBy.isBlank()) {
+            for (String group : groupBy.split(",")) {
+                String name = group.trim();
+                if (!GROUPS.containsKey(name)) {
+                    throw new BadRequestException("Agrupamento inválido: " + name + " (aceitos: "
+                            + GROUPS.keySet().stream().sorted().toList() + ")");
+                }
+                if (!groups.contains(name)) {
+                    groups.add(name);
+                }
+            }
+        }
+        long statusMask = 0;
+        for (Order.OrderStatus status : statuses == null || statuses.isEmpty() ? Arrays.asList(STATUSES) : statuses) {
+            statusMask |= 1L << status.ordinal();
+        }
+        
+        long start = System.nanoTime();
+        OrderColumns.Result result = current.query(new OrderColumns.Query(statusMask,
+                from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                to == null ? Integer.MAX_VALUE : (int) to.toEpochDay(),
+                state, city, customerId, productId, groups.stream().map(GROUPS::get).toList()));
+        
+        OrderSnapshotReport report = new OrderSnapshotReport();
+        report.refreshedAt = refreshedAt;
+        report.groupBy = groups;
+        report.rows = new ArrayList<>();
+        long totalCents = 0;
+        for (OrderColumns.Group group : result.groups()) {
+            AnalyticsReportRow row = toRow(groups, group);
+            report.rows.add(row);
+            report.orderCount += row.orderCount;
+            report.itemCount += row.itemCount;
+            totalCents = Money.add(totalCents, group.cents());
+        }
+        report.rows.sort(ROW_ORDER);
+        report.revenue = Money.fromCents(totalCents);
+        report.scannedLines = result.scannedLines();
+        report.elapsedMicros = (System.nanoTime() - start) / 1000;
+        return report;
+    }
+    
+    public boolean isLoaded() {
+        return columns != null;
+    }
+    
+    private static AnalyticsReportRow toRow(List<String> groups, OrderColumns.Group group) {
+        AnalyticsReportRow row = new AnalyticsReportRow();
+        for (int i = 0; i < groups.size(); i++) {
+            Object value = group.keys()[i];
+            switch (groups.get(i)) {
+                case "day" -> row.day = LocalDate.ofEpochDay((Integer) value);
+                case "month" -> {
+                    int month = (Integer) value;
+                    row.month = String.format("%04d-%02d", month / 12, month % 12 + 1);
+                }
+                case "status" -> row.status = STATUSES[(Byte) value];
+                case "state" -> row.state = (String) value;
+                case "city" -> row.city = (String) value;
+                case "customer" -> row.customerId = (Long) value;
+                case "product" -> {
+                    long productId = (Long) value;
+                    row.productId = productId == OrderColumns.NONE ? null : productId;
+                }
+            }
+        }
+        row.orderCount = group.orders();
+        row.itemCount = group.items();
+        row.revenue = Money.fromCents(group.cents());
+        if (row.orderCount > 0) {
+            row.averageBasket = row.revenue.divide(BigDecimal.valueOf(row.orderCount), Money.SCALE, RoundingMode.HALF_UP);
+            row.averageItems = BigDecimal.valueOf(row.itemCount).divide(BigDecimal.valueOf(row.orderCount), 2,
+                    RoundingMode.HALF_UP);
+        }
+        return row;
+    }
+    
+    private static OrderColumns.Line toLine(Object[] row) {
+        Long productId = (Long) row[2];
+        Integer quantity = (Integer) row[7];
+        BigDecimal subtotal = (BigDecimal) row[8];
+        return new OrderColumns.Line((Long) row[0], (Long) row[1], productId == null ? OrderColumns.NONE : productId,
+                (byte) ((Order.OrderStatus) row[3]).ordinal(), (int) ((LocalDateTime) row[4]).toLocalDate().toEpochDay(),
+                (String) row[5], (String) row[6], quantity == null ? 0 : quantity, Money.toCents(subtotal));
+    }
+}
\ No newline at end of file
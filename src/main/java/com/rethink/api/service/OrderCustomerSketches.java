@@ -0,0 +1,81 @@
+package com.rethink.api.service;
+
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.HyperLogLog;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Clientes distintos com pedidos por dia, em esboços {@link HyperLogLog}: a contagem de um período
+ * une os esboços dos dias, sem {@code COUNT(DISTINCT)} no banco.
+ * <p>
+ * Preenchidos do banco na inicialização e acrescidos pelos pedidos criados após o commit. Um
+ * esboço não esquece valores: clientes de pedidos excluídos ou arquivados continuam contados até
+ * o próximo início.
+ */
+@ApplicationScoped
+public class OrderCustomerSketches {
+    
+    @ConfigProperty(name = "customer-sketch.precision", defaultValue = "12")
+    int precision;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    private final NavigableMap<LocalDate, HyperLogLog> days = new TreeMap<>();
+    
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        NavigableMap<LocalDate, HyperLogLog> loaded = new TreeMap<>();
+        try (Stream<Object[]> rows = orderRepository.streamCustomerDays(1000)) {
+            rows.forEach(row -> loaded.computeIfAbsent((LocalDate) row[0], day -> new HyperLogLog(precision))
+                    .add((Long) row[1]));
+        }
+        synchronized (this) {
+            // Pedidos criados durante a carga já estão nos dois lados; a união não conta duas vezes
+            for (Map.Entry<LocalDate, HyperLogLog> day : days.entrySet()) {
+                loaded.computeIfAbsent(day.getKey(), key -> new HyperLogLog(precision)).merge(day.getValue());
+            }
+            days.clear();
+            days.putAll(loaded);
+        }
+    }
+    
+    synchronized void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        if (event.type != OrderEvent.Type.CREATED || event.customerId == null) {
+            return;
+        }
+        days.computeIfAbsent(event.orderDate.toLocalDate(), day -> new HyperLogLog(precision)).add(event.customerId);
+    }
+    
+    /**
+     * Clientes distintos com pedidos de {@code from} a {@code to} (inclusive); sem limite nos lados
+     * nulos.
+     */
+    public synchronized long estimate(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, HyperLogLog> period = days;
+        if (from != null) {
+            period = period.tailMap(from, true);
+        }
+        if (to != null) {
+            period = period.headMap(to, true);
+        }
+        HyperLogLog union = new HyperLogLog(precision);
+        for (HyperLogLog day : period.values()) {
+            union.merge(day);
+        }
+        return union.estimate();
+    }
+}
\ No newline at end of file
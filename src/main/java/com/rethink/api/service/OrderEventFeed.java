@@ -0,0 +1,191 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.OrderFeedEvent;
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.util.RingBuffer;
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Flow;
+
+/**
+ * Feed dos eventos de pedido confirmados, para assinantes SSE.
+ * <p>
+ * Cada evento recebe um ID sequencial e fica num buffer de replay, de onde um assinante que
+ * reconecta retoma a partir do último ID recebido. Cada assinante tem sua própria fila limitada:
+ * enquanto ele não pede mais itens, um evento novo de um pedido já na fila substitui o anterior
+ * (ou apenas o retira, se não passa no filtro), e com a fila cheia o mais antigo é descartado.
+ * Quem altera pedidos nunca espera por um assinante lento.
+ */
+@ApplicationScoped
+public class OrderEventFeed {
+    
+    @ConfigProperty(name = "order-feed.replay-size", defaultValue = "1000")
+    int replaySize;
+    
+    @ConfigProperty(name = "order-feed.subscriber-buffer", defaultValue = "256")
+    int subscriberBuffer;
+    
+    private RingBuffer<OrderFeedEvent> replay;
+    private long lastId;
+    private final Set<FeedSubscription> subscriptions = new CopyOnWriteArraySet<>();
+    
+    @PostConstruct
+    void init() {
+        replay = new RingBuffer<>(replaySize);
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        publish(event);
+    }
+    
+    void publish(OrderEvent event) {
+        OrderFeedEvent feedEvent;
+        synchronized (this) {
+            feedEvent = new OrderFeedEvent(++lastId, event);
+            replay.add(feedEvent);
+            for (FeedSubscription subscription : subscriptions) {
+                subscription.offer(feedEvent);
+            }
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.drain();
+        }
+    }
+    
+    /**
+     * Eventos a partir do próximo, filtrados por status atual e cliente quando informados. Com
+     * {@code lastEventId}, começa pelos eventos posteriores a ele ainda no buffer de replay.
+     */
+    public Multi<OrderFeedEvent> subscribe(Order.OrderStatus status, Long customerId, Long lastEventId) {
+        return Multi.createFrom().publisher(subscriber -> {
+            FeedSubscription subscription = new FeedSubscription(subscriber, status, customerId);
+            synchronized (this) {
+                if (lastEventId != null) {
+                    List<OrderFeedEvent> buffered = replay.newest(replay.size());
+                    for (int i = buffered.size() - 1; i >= 0; i--) {
+                        if (buffered.get(i).id > lastEventId) {
+                            subscription.offer(buffered.get(i));
+                        }
+                    }
+                }
+                subscriptions.add(subscription);
+            }
+            subscriber.onSubscribe(subscription);
+        });
+    }
+    
+    public synchronized long lastEventId() {
+        return lastId;
+    }
+    
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+    
+    private final class FeedSubscription implements Flow.Subscription {
+        
+        private final Flow.Subscriber<? super OrderFeedEvent> subscriber;
+        private final Order.OrderStatus status;
+        private final Long customerId;
+        // Por pedido, na ordem do evento mais recente; os valores substituídos somem da fila
+        private final LinkedHashMap<Long, OrderFeedEvent> pending = new LinkedHashMap<>();
+        private long requested;
+        private boolean draining;
+        private volatile boolean cancelled;
+        
+        FeedSubscription(Flow.Subscriber<? super OrderFeedEvent> subscriber, Order.OrderStatus status, Long customerId) {
+            this.subscriber = subscriber;
+            this.status = status;
+            this.customerId = customerId;
+        }
+        
+        synchronized void offer(OrderFeedEvent event) {
+            if (cancelled) {
+                return;
+            }
+            // O evento anterior do pedido ficou defasado mesmo que o novo não interesse ao assinante
+            pending.remove(event.orderId);
+            if ((status != null && status != event.status)
+                    || (customerId != null && !customerId.equals(event.customerId))) {
+                return;
+            }
+            pending.put(event.orderId, event);
+            if (pending.size() > subscriberBuffer) {
+                Iterator<OrderFeedEvent> eldest = pending.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Demanda deve ser positiva: " + n));
+                return;
+            }
+            synchronized (this) {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            drain();
+        }
+        
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                pending.clear();
+            }
+        }
+        
+        /**
+         * Entrega o que houver na fila até esgotar a demanda. Só uma thread entrega por vez, em ordem;
+         * as demais apenas marcam que há trabalho.
+         */
+        void drain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            while (true) {
+                List<OrderFeedEvent> batch;
+                synchronized (this) {
+                    if (cancelled || requested == 0 || pending.isEmpty()) {
+                        draining = false;
+                        return;
+                    }
+                    batch = new ArrayList<>();
+                    Iterator<OrderFeedEvent> iterator = pending.values().iterator();
+                    while (iterator.hasNext() && batch.size() < requested) {
+                        batch.add(iterator.next());
+                        iterator.remove();
+                    }
+                    if (requested != Long.MAX_VALUE) {
+                        requested -= batch.size();
+                    }
+                }
+                for (OrderFeedEvent event : batch) {
+                    if (cancelled) {
+                        break;
+                    }
+                    subscriber.onNext(event);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
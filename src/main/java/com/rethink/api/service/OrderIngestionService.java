@@ -0,0 +1,340 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rethink.api.dto.IngestionReport;
+import com.rethink.api.dto.MarketplaceOrderLine;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.IngestionCheckpoint;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.event.ProductEvent;
+import com.rethink.api.repository.CustomerRepository;
+import com.rethink.api.repository.IngestionCheckpointRepository;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.repository.ProductRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Importa pedidos de marketplaces a partir de NDJSON, um pedido por linha, em lotes de
+ * {@code ingestion.chunk-size} linhas.
+ * <p>
+ * Cada lote roda numa transação própria: os clientes são resolvidos numa única consulta, a
+ * demanda de estoque é somada por produto e reservada com um UPDATE por produto, e o checkpoint
+ * do job avança junto com os pedidos. Reenviar o mesmo arquivo com o mesmo job continua de onde
+ * parou.
+ */
+@ApplicationScoped
+public class OrderIngestionService {
+    
+    private static final Logger LOG = Logger.getLogger(OrderIngestionService.class);
+    
+    private static final int MAX_ERRORS = 100;
+    
+    @ConfigProperty(name = "ingestion.chunk-size", defaultValue = "1000")
+    int chunkSize;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    @Inject
+    CustomerRepository customerRepository;
+    
+    @Inject
+    ProductRepository productRepository;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    IngestionCheckpointRepository checkpointRepository;
+    
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    RevenueRollupService revenueRollups;
+    
+    @Inject
+    Event<OrderEvent> orderEvents;
+    
+    @Inject
+    Event<ProductEvent> productEvents;
+    
+    public IngestionCheckpoint findCheckpoint(String jobId) {
+        return QuarkusTransaction.requiringNew().call(() -> checkpointRepository.findByIdOptional(jobId))
+                .orElseThrow(() -> new NotFoundException("Importação não encontrada: " + jobId));
+    }
+    
+    public IngestionReport ingest(String jobId, InputStream input) {
+        if (jobId == null || jobId.isBlank()) {
+            throw new BadRequestException("ID da importação é obrigatório");
+        }
+        
+        long start = System.nanoTime();
+        IngestionReport report = new IngestionReport();
+        report.jobId = jobId;
+        report.resumedFrom = QuarkusTransaction.requiringNew().call(() -> checkpointRepository.findByIdOptional(jobId)
+                .map(checkpoint -> checkpoint.lineNumber)
+                .orElse(0L));
+        report.checkpoint = report.resumedFrom;
+        
+        ObjectReader reader = objectMapper.readerFor(MarketplaceOrderLine.class);
+        Chunk chunk = new Chunk();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= report.resumedFrom) {
+                    report.skipped++;
+                    continue;
+                }
+                report.linesRead++;
+                chunk.lastLine = lineNumber;
+                if (!line.isBlank()) {
+                    try {
+                        chunk.lines.add(new ParsedLine(lineNumber, reader.readValue(line)));
+                    } catch (JsonProcessingException e) {
+                        chunk.rejected++;
+                        addError(report, lineNumber, "JSON inválido");
+                    }
+                }
+                if (chunk.lines.size() >= chunkSize) {
+                    commit(jobId, chunk, report, start);
+                    chunk = new Chunk();
+                }
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Falha ao ler o arquivo de pedidos: " + e.getMessage());
+        }
+        if (chunk.lastLine > 0) {
+            commit(jobId, chunk, report, start);
+        }
+        
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        report.rowsPerSecond = rowsPerSecond(report.linesRead, System.nanoTime() - start);
+        LOG.infof("Importação %s concluída: %d linhas, %d pedidos, %d rejeitados, %.0f linhas/s",
+                jobId, report.linesRead, report.ordersCreated, report.rejected, report.rowsPerSecond);
+        return report;
+    }
+    
+    private void commit(String jobId, Chunk chunk, IngestionReport report, long start) {
+        int created = QuarkusTransaction.requiringNew().call(() -> ingestChunk(jobId, chunk, report));
+        report.ordersCreated += created;
+        report.rejected += chunk.rejected;
+        report.checkpoint = chunk.lastLine;
+        LOG.debugf("Importação %s: linha %d, %.0f linhas/s", jobId, chunk.lastLine,
+                rowsPerSecond(report.linesRead, System.nanoTime() - start));
+    }
+    
+    private int ingestChunk(String jobId, Chunk chunk, IngestionReport report) {
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(jobId, LockModeType.PESSIMISTIC_WRITE);
+        if (checkpoint != null && checkpoint.lineNumber >= chunk.lastLine) {
+            // Outra execução do mesmo job já confirmou estas linhas
+            return 0;
+        }
+        
+        Set<String> emails = new HashSet<>();
+        Set<String> cpfs = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (ParsedLine parsed : chunk.lines) {
+            if (parsed.line.customerEmail != null) {
+                emails.add(parsed.line.customerEmail);
+            }
+            if (parsed.line.customerCpf != null) {
+                cpfs.add(parsed.line.customerCpf);
+            }
+            if (parsed.line.items != null) {
+                for (MarketplaceOrderLine.Item item : parsed.line.items) {
+                    if (item.productId != null) {
+                        productIds.add(item.productId);
+                    }
+                }
+            }
+        }
+        
+        Map<String, Customer> customersByEmail = new HashMap<>();
+        Map<String, Customer> customersByCpf = new HashMap<>();
+        for (Customer customer : customerRepository.findByEmailsOrCpfs(emails, cpfs)) {
+            customersByEmail.put(customer.email, customer);
+            customersByCpf.put(customer.cpf, customer);
+        }
+        
+        // Travados em ordem de ID para que lotes concorrentes não entrem em deadlock
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Long> available = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product product : productRepository.lockByIds(productIds)) {
+                products.put(product.id, product);
+                available.put(product.id, (long) product.quantity);
+            }
+        }
+        
+        List<ParsedLine> accepted = new ArrayList<>();
+        Map<Long, Long> demand = new TreeMap<>();
+        for (ParsedLine parsed : chunk.lines) {
+            String error = reserve(parsed, customersByEmail, customersByCpf, products, available, demand);
+            if (error == null) {
+                accepted.add(parsed);
+            } else {
+                chunk.rejected++;
+                addError(report, parsed.lineNumber, error);
+            }
+        }
+        
+        // Um UPDATE por produto com a demanda somada de todo o lote
+        for (Map.Entry<Long, Long> entry : demand.entrySet()) {
+            productRepository.addStock(entry.getKey(), -entry.getValue());
+            productEvents.fire(ProductEvent.stockChanged(entry.getKey(), -entry.getValue()));
+        }
+        
+        List<Order> orders = new ArrayList<>(accepted.size());
+        for (ParsedLine parsed : accepted) {
+            Order order = toOrder(parsed, products);
+            orderRepository.persist(order);
+            orderReadModel.write(order);
+            orders.add(order);
+        }
+        revenueRollups.addAll(orders);
+        for (Order order : orders) {
+            orderEvents.fire(OrderEvent.created(order));
+        }
+        
+        boolean first = checkpoint == null;
+        if (first) {
+            checkpoint = new IngestionCheckpoint();
+            checkpoint.jobId = jobId;
+        }
+        checkpoint.lineNumber = chunk.lastLine;
+        checkpoint.ordersCreated += orders.size();
+        checkpoint.rejected += chunk.rejected;
+        checkpoint.updatedAt = LocalDateTime.now();
+        if (first) {
+            checkpointRepository.persist(checkpoint);
+        }
+        return orders.size();
+    }
+    
+    /**
+     * Valida a linha e desconta sua demanda do estoque disponível do lote. Retorna o motivo da
+     * rejeição, ou {@code null} se o pedido foi aceito.
+     */
+    private String reserve(ParsedLine parsed, Map<String, Customer> customersByEmail,
+                           Map<String, Customer> customersByCpf, Map<Long, Product> products,
+                           Map<Long, Long> available, Map<Long, Long> demand) {
+        parsed.customer = resolveCustomer(parsed.line, customersByEmail, customersByCpf);
+        if (parsed.customer == null) {
+            return "cliente não encontrado";
+        }
+        if (parsed.line.items == null || parsed.line.items.isEmpty()) {
+            return "pedido deve ter pelo menos um item";
+        }
+        
+        Map<Long, Long> lineDemand = new HashMap<>();
+        for (MarketplaceOrderLine.Item item : parsed.line.items) {
+            if (item.productId == null || !products.containsKey(item.productId)) {
+                return "produto não encontrado: " + item.productId;
+            }
+            if (item.quantity == null || item.quantity <= 0) {
+                return "quantidade deve ser maior que zero";
+            }
+            lineDemand.merge(item.productId, (long) item.quantity, Long::sum);
+        }
+        for (Map.Entry<Long, Long> entry : lineDemand.entrySet()) {
+            if (available.get(entry.getKey()) < entry.getValue()) {
+                return "estoque insuficiente para produto: " + products.get(entry.getKey()).name;
+            }
+        }
+        for (Map.Entry<Long, Long> entry : lineDemand.entrySet()) {
+            available.merge(entry.getKey(), -entry.getValue(), Long::sum);
+            demand.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+        return null;
+    }
+    
+    private Customer resolveCustomer(MarketplaceOrderLine line, Map<String, Customer> customersByEmail,
+                                     Map<String, Customer> customersByCpf) {
+        Customer customer = line.customerEmail != null ? customersByEmail.get(line.customerEmail) : null;
+        if (customer == null && line.customerCpf != null) {
+            customer = customersByCpf.get(line.customerCpf);
+        }
+        return customer;
+    }
+    
+    private Order toOrder(ParsedLine parsed, Map<Long, Product> products) {
+        MarketplaceOrderLine line = parsed.line;
+        Customer customer = parsed.customer;
+        
+        Order order = new Order(customer);
+        order.notes = line.notes;
+        if (line.shippingAddress != null) {
+            order.shippingAddress = line.shippingAddress;
+            order.shippingCity = line.shippingCity;
+            order.shippingState = line.shippingState;
+            order.shippingZipCode = line.shippingZipCode;
+        } else {
+            order.shippingAddress = customer.address;
+            order.shippingCity = customer.city;
+            order.shippingState = customer.state;
+            order.shippingZipCode = customer.zipCode;
+        }
+        for (MarketplaceOrderLine.Item item : line.items) {
+            Product product = products.get(item.productId);
+            order.addItem(new OrderItem(product, item.quantity, product.price));
+        }
+        return order;
+    }
+    
+    private void addError(IngestionReport report, long lineNumber, String message) {
+        if (report.errors.size() < MAX_ERRORS) {
+            report.errors.add("Linha " + lineNumber + ": " + message);
+        }
+    }
+    
+    private static double rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+    
+    private static class Chunk {
+        final List<ParsedLine> lines = new ArrayList<>();
+        long lastLine;
+        int rejected;
+    }
+    
+    private static class ParsedLine {
+        final long lineNumber;
+        final MarketplaceOrderLine line;
+        Customer customer;
+        
+        ParsedLine(long lineNumber, MarketplaceOrderLine line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+    }
+}
\ No newline at end of file
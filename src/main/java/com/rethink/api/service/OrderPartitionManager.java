@@ -0,0 +1,146 @@
+package com.rethink.api.service;
+
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.MonthlyPartitions;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mantém as partições mensais de {@code customer_order} e {@code orderitem} no PostgreSQL, quando
+ * as tabelas foram convertidas por {@code db/postgresql/partition-orders.sql}.
+ * <p>
+ * Garante partições do mês corrente até {@code order-partition.months-ahead} meses à frente e,
+ * com {@code order-partition.retention}, remove as partições inteiramente mais antigas que o
+ * prazo com {@code DETACH} e {@code DROP}, sem apagar linha a linha. Em outros bancos, ou com as
+ * tabelas ainda não particionadas, não faz nada.
+ */
+@ApplicationScoped
+public class OrderPartitionManager {
+    
+    private static final Logger LOG = Logger.getLogger(OrderPartitionManager.class);
+    
+    static final String ORDERS = "customer_order";
+    static final String ITEMS = "orderitem";
+    
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+    
+    @ConfigProperty(name = "order-partition.months-ahead", defaultValue = "3")
+    int monthsAhead;
+    
+    @ConfigProperty(name = "order-partition.retention")
+    Optional<Period> retention;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    TerminalOrderCache terminalOrderCache;
+    
+    @Inject
+    OrderStatistics orderStatistics;
+    
+    @Inject
+    OrderColumnSnapshot orderColumnSnapshot;
+    
+    void onStart(@Observes StartupEvent event) {
+        maintain();
+    }
+    
+    @Scheduled(every = "${order-partition.interval:PT12H}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledMaintain() {
+        maintain();
+    }
+    
+    void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        createPartitions(current, current.plusMonths(monthsAhead));
+        retention.ifPresent(period -> dropPartitionsBefore(YearMonth.from(LocalDate.now().minus(period))));
+    }
+    
+    public boolean isPartitioned() {
+        if (!"postgresql".equals(dbKind)) {
+            return false;
+        }
+        return QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager()
+                .createNativeQuery("SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass(?1)")
+                .setParameter(1, ORDERS)
+                .getSingleResult()).longValue() > 0);
+    }
+    
+    /**
+     * Cria as partições que faltam nas duas tabelas para os meses de {@code from} a {@code to}.
+     */
+    public void createPartitions(YearMonth from, YearMonth to) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (YearMonth month : MonthlyPartitions.range(from, to)) {
+                entityManager().createNativeQuery(MonthlyPartitions.createSql(ORDERS, month)).executeUpdate();
+                entityManager().createNativeQuery(MonthlyPartitions.createSql(ITEMS, month)).executeUpdate();
+            }
+        });
+    }
+    
+    /**
+     * Remove as partições de meses anteriores a {@code month} e retorna os meses removidos. Os
+     * pedidos somem sem eventos: as linhas do modelo de leitura são apagadas junto, o cache de
+     * pedidos terminais é esvaziado e os contadores são reconciliados.
+     */
+    public List<YearMonth> dropPartitionsBefore(YearMonth month) {
+        List<YearMonth> dropped = new ArrayList<>();
+        for (String partition : partitionsOf(ORDERS)) {
+            YearMonth partitionMonth = MonthlyPartitions.monthOf(ORDERS, partition);
+            if (partitionMonth == null || !partitionMonth.isBefore(month)) {
+                continue;
+            }
+            QuarkusTransaction.requiringNew().run(() -> {
+                entityManager().createNativeQuery("DELETE FROM order_view WHERE orderId IN (SELECT id FROM "
+                        + partition + ")").executeUpdate();
+                // Os itens referenciam os pedidos: a partição deles sai primeiro
+                String items = MonthlyPartitions.name(ITEMS, partitionMonth);
+                entityManager().createNativeQuery("DROP TABLE IF EXISTS " + items).executeUpdate();
+                entityManager().createNativeQuery(MonthlyPartitions.detachSql(ORDERS, partition)).executeUpdate();
+                entityManager().createNativeQuery("DROP TABLE " + partition).executeUpdate();
+            });
+            dropped.add(partitionMonth);
+        }
+        if (!dropped.isEmpty()) {
+            terminalOrderCache.evictAll();
+            orderStatistics.reconcile();
+            if (orderColumnSnapshot.isLoaded()) {
+                orderColumnSnapshot.reload();
+            }
+            LOG.infof("Partições de pedidos removidas: %s", dropped);
+        }
+        return dropped;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<String> partitionsOf(String table) {
+        return QuarkusTransaction.requiringNew().call(() -> (List<String>) entityManager()
+                .createNativeQuery("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = to_regclass(?1) ORDER BY c.relname")
+                .setParameter(1, table)
+                .getResultList());
+    }
+    
+    private EntityManager entityManager() {
+        return orderRepository.getEntityManager();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderView;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.repository.OrderViewRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Mantém {@link OrderView}, uma linha desnormalizada por pedido com o JSON completo.
+ * <p>
+ * As escritas acontecem dentro da transação de quem altera o pedido, então leitura e escrita
+ * nunca divergem. Produtos aparecem como estavam na última alteração do pedido. Na
+ * inicialização, pedidos sem linha (carga inicial, importações antigas) são preenchidos.
+ */
+@ApplicationScoped
+public class OrderReadModel {
+    
+    private static final Logger LOG = Logger.getLogger(OrderReadModel.class);
+    
+    private static final int BATCH_SIZE = 500;
+    
+    @Inject
+    OrderViewRepository orderViewRepository;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    public Optional<OrderView> find(Long orderId) {
+        return orderViewRepository.findByIdOptional(orderId);
+    }
+    
+    /**
+     * Pedidos do cliente como um array JSON, em ordem de ID, incluindo os arquivados.
+     */
+    public String findCustomerHistory(Long customerId) {
+        Map<Long, String> documents = orderViewRepository.findDocumentsByCustomerId(customerId);
+        Map<Long, byte[]> archived = orderArchive.findCustomerDocuments(customerId);
+        if (!archived.isEmpty()) {
+            documents = new TreeMap<>(documents);
+            for (Map.Entry<Long, byte[]> entry : archived.entrySet()) {
+                documents.putIfAbsent(entry.getKey(), new String(entry.getValue(), StandardCharsets.UTF_8));
+            }
+        }
+        return "[" + String.join(",", documents.values()) + "]";
+    }
+    
+    /**
+     * Regrava a linha do pedido. Precisa ser chamado na transação que alterou o pedido.
+     */
+    public void write(Order order) {
+        if (order.items.stream().anyMatch(item -> item.id == null)) {
+            // Itens novos só recebem ID no flush e o documento precisa deles
+            orderRepository.flush();
+        }
+        String document;
+        try {
+            document = objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        OrderView view = orderViewRepository.findById(order.id);
+        boolean created = view == null;
+        if (created) {
+            view = new OrderView();
+            view.orderId = order.id;
+        }
+        view.customerId = order.customer.id;
+        view.status = order.status;
+        view.document = document;
+        view.updatedAt = LocalDateTime.now();
+        if (created) {
+            orderViewRepository.persist(view);
+        }
+    }
+    
+    /**
+     * Regrava as linhas de pedidos alterados em lote, sem as entidades carregadas.
+     */
+    public void write(Collection<Long> orderIds) {
+        List<Long> ids = List.copyOf(orderIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            orderRepository.findWithDetailsByIds(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))
+                    .forEach(this::write);
+        }
+    }
+    
+    public void writeCustomerOrders(Long customerId) {
+        write(orderRepository.findOrderIdsByCustomerId(customerId));
+    }
+    
+    public void remove(Long orderId) {
+        orderViewRepository.deleteById(orderId);
+    }
+    
+    void onStart(@Observes StartupEvent event) {
+        long written = 0;
+        int batch;
+        // Cada lote na sua transação: as travas duram só o lote e o prazo vale por lote
+        while ((batch = QuarkusTransaction.requiringNew().call(this::writeMissingBatch)) > 0) {
+            written += batch;
+        }
+        if (written > 0) {
+            LOG.infof("Modelo de leitura de pedidos preenchido para %d pedidos", written);
+        }
+    }
+    
+    private int writeMissingBatch() {
+        List<Long> missing = orderViewRepository.findOrderIdsWithoutView(BATCH_SIZE);
+        if (!missing.isEmpty()) {
+            // Quem altera um pedido trava a linha dele antes; travando também, uma linha gravada
+            // nesse meio tempo (ex.: expiração agendada) é vista e atualizada em vez de duplicada
+            orderRepository.lockByIds(missing);
+            write(missing);
+        }
+        return missing.size();
+    }
+}
\ No newline at end of file
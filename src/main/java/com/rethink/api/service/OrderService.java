@@ -1,23 +1,51 @@
 package com.rethink.api.service;
 
+import com.rethink.api.dto.BulkStatusUpdateResult;
+import com.rethink.api.dto.OrderSearchCriteria;
+import com.rethink.api.dto.OrderSearchPage;
+import com.rethink.api.dto.OrderStatusView;
+import com.rethink.api.dto.OrderSummary;
 import com.rethink.api.entity.Customer;
 import com.rethink.api.entity.Order;
 import com.rethink.api.entity.OrderItem;
 import com.rethink.api.entity.Product;
+import com.rethink.api.event.OrderEvent;
 import com.rethink.api.repository.OrderItemRepository;
 import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.FieldSelection;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @ApplicationScoped
 public class OrderService {
     
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    @ConfigProperty(name = "order-search.max-range", defaultValue = "P31D")
+    Duration searchMaxRange;
+    
+    @ConfigProperty(name = "order-search.max-limit", defaultValue = "200")
+    int searchMaxLimit;
+    
     @Inject
     OrderRepository orderRepository;
     
@@ -30,8 +58,20 @@ public class OrderService {
     @Inject
     ProductService productService;
     
+    @Inject
+    Event<OrderEvent> orderEvents;
+    
+    @Inject
+    RecentActivity recentActivity;
+    
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    RevenueRollupService revenueRollups;
+    
     public List<Order> listAll() {
-        return orderRepository.listAll();
+        return orderRepository.findAllWithDetails();
     }
     
     public Order findById(Long id) {
@@ -39,6 +79,19 @@ public class OrderService {
                 .orElseThrow(() -> new NotFoundException("Pedido não encontrado com ID: " + id));
     }
     
+    /**
+     * Carrega o pedido travado para escrita. Toda alteração trava primeiro o pedido e depois os
+     * produtos em ordem de ID, evitando deadlocks entre operações concorrentes.
+     */
+    private Order findByIdForUpdate(Long id) {
+        return orderRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado com ID: " + id));
+    }
+    
+    private void lockProductsOf(Order order) {
+        productService.lockForUpdate(order.items.stream().map(item -> item.product.id).toList());
+    }
+    
     public List<Order> findByCustomerId(Long customerId) {
         return orderRepository.findByCustomerId(customerId);
     }
@@ -48,13 +101,124 @@ public class OrderService {
     }
     
     public List<Order> findRecentOrders(int limit) {
-        return orderRepository.findRecentOrders(limit);
+        if (!recentActivity.coversOrders(limit)) {
+            return orderRepository.findRecentOrders(limit);
+        }
+        // Os IDs vêm do buffer em memória; só os detalhes são buscados, pela chave primária
+        return orderRepository.findRecentByIds(recentActivity.recentOrders(limit).stream().map(OrderSummary::id).toList());
     }
     
     public List<Order> findPendingOrders() {
         return orderRepository.findPendingOrders();
     }
     
+    public List<OrderSummary> listSummaries() {
+        return orderRepository.findAllSummaries();
+    }
+    
+    public List<OrderSummary> findSummariesByCustomerId(Long customerId) {
+        return orderRepository.findSummariesByCustomerId(customerId);
+    }
+    
+    public List<OrderSummary> findSummariesByStatus(Order.OrderStatus status) {
+        return orderRepository.findSummariesByStatus(status);
+    }
+    
+    public List<OrderSummary> findRecentSummaries(int limit) {
+        if (!recentActivity.coversOrders(limit)) {
+            return orderRepository.findRecentSummaries(limit);
+        }
+        return recentActivity.recentOrders(limit);
+    }
+    
+    public List<OrderSummary> findPendingSummaries() {
+        return orderRepository.findPendingSummaries();
+    }
+    
+    /**
+     * Busca paginada por cursor. Cliente, UF de entrega e período lideram os índices de
+     * {@code customer_order}; status e faixa de total só filtram o que esses índices percorrem, então
+     * sozinhos exigem um período de no máximo {@code order-search.max-range}.
+     */
+    public OrderSearchPage search(OrderSearchCriteria criteria) {
+        if (criteria.limit <= 0 || criteria.limit > searchMaxLimit) {
+            throw new BadRequestException("Limite deve estar entre 1 e " + searchMaxLimit);
+        }
+        if (criteria.from != null && criteria.to != null && criteria.from.isAfter(criteria.to)) {
+            throw new BadRequestException("Data inicial deve ser anterior à data final");
+        }
+        if (criteria.minTotal != null && criteria.maxTotal != null && criteria.minTotal.compareTo(criteria.maxTotal) > 0) {
+            throw new BadRequestException("Total mínimo deve ser menor ou igual ao total máximo");
+        }
+        if (criteria.shippingState != null) {
+            criteria.shippingState = criteria.shippingState.trim().toUpperCase();
+        }
+        
+        boolean indexed = criteria.customerId != null || criteria.shippingState != null || isBoundedRange(criteria);
+        boolean filtered = criteria.status != null || criteria.minTotal != null || criteria.maxTotal != null;
+        if (filtered && !indexed) {
+            throw new BadRequestException("Filtros por status ou total exigem cliente, UF de entrega ou um período de até "
+                    + searchMaxRange.toDays() + " dias");
+        }
+        
+        LocalDateTime afterDate = null;
+        Long afterId = null;
+        if (criteria.cursor != null && !criteria.cursor.isBlank()) {
+            try {
+                String cursor = new String(Base64.getUrlDecoder().decode(criteria.cursor), StandardCharsets.UTF_8);
+                String[] parts = cursor.split("\\|");
+                afterDate = LocalDateTime.parse(parts[0]);
+                afterId = Long.valueOf(parts[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new BadRequestException("Cursor inválido");
+            }
+        }
+        
+        // Uma linha a mais indica se existe próxima página
+        List<OrderSummary> items = new ArrayList<>(orderRepository.search(criteria, afterDate, afterId, criteria.limit + 1));
+        String nextCursor = null;
+        if (items.size() > criteria.limit) {
+            items.remove(items.size() - 1);
+            OrderSummary last = items.get(items.size() - 1);
+            nextCursor = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((last.orderDate() + "|" + last.id()).getBytes(StandardCharsets.UTF_8));
+        }
+        return new OrderSearchPage(items, nextCursor);
+    }
+    
+    private boolean isBoundedRange(OrderSearchCriteria criteria) {
+        if (criteria.from == null) {
+            return false;
+        }
+        LocalDateTime to = criteria.to != null ? criteria.to : LocalDateTime.now();
+        return Duration.between(criteria.from, to).compareTo(searchMaxRange) <= 0;
+    }
+    
+    /**
+     * Valida os campos de {@code ?fields=}; retorna {@code null} quando nenhum foi pedido.
+     */
+    public FieldSelection selectFields(String fields) {
+        return FieldSelection.parse(fields, OrderRepository.FIELDS);
+    }
+    
+    public List<Map<String, Object>> listFields(FieldSelection fields) {
+        return orderRepository.findFields(fields, null);
+    }
+    
+    public Map<String, Object> findFieldsById(Long id, FieldSelection fields) {
+        return orderRepository.findFields(fields, "o.id = ?1", id).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado com ID: " + id));
+    }
+    
+    public List<Map<String, Object>> findFieldsByCustomerId(Long customerId, FieldSelection fields) {
+        return orderRepository.findFields(fields, "o.customer.id = ?1", customerId);
+    }
+    
+    public List<Map<String, Object>> findFieldsByStatus(Order.OrderStatus status, FieldSelection fields) {
+        return orderRepository.findFields(fields, "o.status = ?1", status);
+    }
+    
     @Transactional
     public Order create(Order order, List<OrderItem> items) {
         Customer customer = customerService.findById(order.customer.id);
@@ -64,7 +228,10 @@ public class OrderService {
             throw new BadRequestException("Pedido deve ter pelo menos um item");
         }
         
-        order.items.clear();
+        productService.lockForUpdate(items.stream().map(item -> item.product.id).toList());
+        
+        order.clearItems();
+        Map<Long, Long> stockDeltas = new TreeMap<>();
         for (OrderItem item : items) {
             Product product = productService.findById(item.product.id);
             
@@ -76,6 +243,7 @@ public class OrderService {
             order.addItem(orderItem);
             
             product.quantity -= item.quantity;
+            stockDeltas.merge(product.id, (long) -item.quantity, Long::sum);
         }
         
         if (order.shippingAddress == null) {
@@ -86,15 +254,21 @@ public class OrderService {
         }
         
         orderRepository.persist(order);
+        orderReadModel.write(order);
+        revenueRollups.add(order);
+        productService.stockChanged(stockDeltas);
+        orderEvents.fire(OrderEvent.created(order));
         return order;
     }
     
     @Transactional
     public Order updateStatus(Long id, Order.OrderStatus newStatus) {
-        Order order = findById(id);
+        Order order = findByIdForUpdate(id);
         
         validateStatusTransition(order.status, newStatus);
         
+        RevenueRollupService.Contribution previous = revenueRollups.contributionOf(order);
+        Order.OrderStatus previousStatus = order.status;
         order.status = newStatus;
         
         switch (newStatus) {
@@ -108,23 +282,31 @@ public class OrderService {
                 order.deliveryDate = LocalDateTime.now();
                 break;
             case CANCELLED:
+                order.cancellationDate = LocalDateTime.now();
+                lockProductsOf(order);
                 for (OrderItem item : order.items) {
                     item.product.quantity += item.quantity;
                 }
+                productService.stockChanged(quantitiesOf(order));
                 break;
         }
         
+        orderReadModel.write(order);
+        revenueRollups.replace(previous, order);
+        orderEvents.fire(OrderEvent.statusChanged(order, previousStatus));
         return order;
     }
     
     @Transactional
     public Order addItem(Long orderId, Long productId, Integer quantity) {
-        Order order = findById(orderId);
+        Order order = findByIdForUpdate(orderId);
         
         if (order.status != Order.OrderStatus.PENDING) {
             throw new BadRequestException("Só é possível adicionar itens a pedidos pendentes");
         }
+        RevenueRollupService.Contribution previous = revenueRollups.contributionOf(order);
         
+        productService.lockForUpdate(List.of(productId));
         Product product = productService.findById(productId);
         
         OrderItem existingItem = order.items.stream()
@@ -137,9 +319,9 @@ public class OrderService {
             if (product.quantity < additionalQty) {
                 throw new BadRequestException("Estoque insuficiente");
             }
-            existingItem.quantity += additionalQty;
-            existingItem.calculateSubtotal();
+            order.changeItemQuantity(existingItem, existingItem.quantity + additionalQty);
             product.quantity -= additionalQty;
+            productService.stockChanged(Map.of(productId, (long) -additionalQty));
         } else {
             if (product.quantity < quantity) {
                 throw new BadRequestException("Estoque insuficiente");
@@ -147,25 +329,30 @@ public class OrderService {
             OrderItem newItem = new OrderItem(product, quantity, product.price);
             order.addItem(newItem);
             product.quantity -= quantity;
+            productService.stockChanged(Map.of(productId, (long) -quantity));
         }
         
-        order.recalculateTotal();
+        orderReadModel.write(order);
+        revenueRollups.replace(previous, order);
+        orderEvents.fire(OrderEvent.of(OrderEvent.Type.ITEM_ADDED, order));
         return order;
     }
     
     @Transactional
     public Order removeItem(Long orderId, Long itemId) {
-        Order order = findById(orderId);
+        Order order = findByIdForUpdate(orderId);
         
         if (order.status != Order.OrderStatus.PENDING) {
             throw new BadRequestException("Só é possível remover itens de pedidos pendentes");
         }
+        RevenueRollupService.Contribution previous = revenueRollups.contributionOf(order);
         
         OrderItem item = order.items.stream()
                 .filter(i -> i.id.equals(itemId))
                 .findFirst()
                 .orElseThrow(() -> new NotFoundException("Item não encontrado no pedido"));
         
+        productService.lockForUpdate(List.of(item.product.id));
         item.product.quantity += item.quantity;
         
         order.removeItem(item);
@@ -174,37 +361,117 @@ public class OrderService {
         if (order.items.isEmpty()) {
             throw new BadRequestException("Pedido não pode ficar sem itens");
         }
+        productService.stockChanged(Map.of(item.product.id, (long) item.quantity));
         
+        orderReadModel.write(order);
+        revenueRollups.replace(previous, order);
+        orderEvents.fire(OrderEvent.of(OrderEvent.Type.ITEM_REMOVED, order));
         return order;
     }
     
     @Transactional
     public void delete(Long id) {
-        Order order = findById(id);
+        Order order = findByIdForUpdate(id);
         
         if (order.status != Order.OrderStatus.PENDING && order.status != Order.OrderStatus.CANCELLED) {
             throw new BadRequestException("Só é possível excluir pedidos pendentes ou cancelados");
         }
         
         if (order.status == Order.OrderStatus.PENDING) {
+            lockProductsOf(order);
             for (OrderItem item : order.items) {
                 item.product.quantity += item.quantity;
             }
+            productService.stockChanged(quantitiesOf(order));
         }
         
+        revenueRollups.remove(order);
         orderRepository.delete(order);
+        orderReadModel.remove(id);
+        orderEvents.fire(OrderEvent.of(OrderEvent.Type.DELETED, order));
     }
     
-    private void validateStatusTransition(Order.OrderStatus current, Order.OrderStatus newStatus) {
-        boolean valid = switch (current) {
+    @Transactional
+    public BulkStatusUpdateResult bulkUpdateStatus(List<Long> orderIds, Order.OrderStatus newStatus) {
+        List<Order.OrderStatus> sourceStatuses = Arrays.stream(Order.OrderStatus.values())
+                .filter(status -> isValidTransition(status, newStatus))
+                .toList();
+        return applyBulkTransition(orderIds, sourceStatuses, newStatus);
+    }
+    
+    @Transactional
+    public BulkStatusUpdateResult expirePendingOrders(List<Long> orderIds) {
+        return applyBulkTransition(orderIds, List.of(Order.OrderStatus.PENDING), Order.OrderStatus.CANCELLED);
+    }
+    
+    private BulkStatusUpdateResult applyBulkTransition(List<Long> orderIds, List<Order.OrderStatus> sourceStatuses,
+                                                       Order.OrderStatus newStatus) {
+        Set<Long> requested = new TreeSet<>(orderIds);
+        
+        List<OrderStatusView> eligible = new ArrayList<>();
+        if (!sourceStatuses.isEmpty()) {
+            for (List<Long> chunk : chunks(new ArrayList<>(requested))) {
+                eligible.addAll(orderRepository.lockByIdsAndStatus(chunk, sourceStatuses));
+            }
+        }
+        List<Long> eligibleIds = eligible.stream().map(view -> view.id).toList();
+        
+        int updated = 0;
+        if (!eligibleIds.isEmpty()) {
+            if (newStatus == Order.OrderStatus.CANCELLED) {
+                Map<Long, Long> quantitiesByProduct = new TreeMap<>();
+                for (List<Long> chunk : chunks(eligibleIds)) {
+                    orderItemRepository.sumQuantityByProductForOrders(chunk)
+                            .forEach((productId, quantity) -> quantitiesByProduct.merge(productId, quantity, Long::sum));
+                }
+                productService.restoreStock(quantitiesByProduct);
+            }
+            
+            LocalDateTime now = LocalDateTime.now();
+            for (List<Long> chunk : chunks(eligibleIds)) {
+                revenueRollups.moveAll(chunk, newStatus);
+                updated += orderRepository.updateStatus(chunk, sourceStatuses, newStatus, now);
+            }
+            orderReadModel.write(eligibleIds);
+            
+            for (OrderStatusView view : eligible) {
+                orderEvents.fire(new OrderEvent(OrderEvent.Type.STATUS_CHANGED, view.id, view.customerId,
+                        view.status, newStatus, view.orderDate));
+            }
+        }
+        
+        requested.removeAll(eligibleIds);
+        return new BulkStatusUpdateResult(newStatus, orderIds.size(), updated, new ArrayList<>(requested));
+    }
+    
+    private static Map<Long, Long> quantitiesOf(Order order) {
+        Map<Long, Long> quantities = new TreeMap<>();
+        for (OrderItem item : order.items) {
+            quantities.merge(item.product.id, (long) item.quantity, Long::sum);
+        }
+        return quantities;
+    }
+    
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+    
+    static boolean isValidTransition(Order.OrderStatus current, Order.OrderStatus newStatus) {
+        return switch (current) {
             case PENDING -> newStatus == Order.OrderStatus.CONFIRMED || newStatus == Order.OrderStatus.CANCELLED;
             case CONFIRMED -> newStatus == Order.OrderStatus.PROCESSING || newStatus == Order.OrderStatus.CANCELLED;
             case PROCESSING -> newStatus == Order.OrderStatus.SHIPPED || newStatus == Order.OrderStatus.CANCELLED;
             case SHIPPED -> newStatus == Order.OrderStatus.DELIVERED;
             case DELIVERED, CANCELLED -> false;
         };
-        
-        if (!valid) {
+    }
+    
+    private void validateStatusTransition(Order.OrderStatus current, Order.OrderStatus newStatus) {
+        if (!isValidTransition(current, newStatus)) {
             throw new BadRequestException(
                 String.format("Transição inválida de status: %s para %s", current, newStatus)
             );
@@ -218,4 +485,8 @@ public class OrderService {
     public long countByStatus(Order.OrderStatus status) {
         return orderRepository.countByStatus(status);
     }
+    
+    public long countDistinctCustomers(LocalDate from, LocalDate to) {
+        return orderRepository.countDistinctCustomers(from, to);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.rethink.api.service;
+
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.OrderRepository;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem de pedidos por status mantida em memória a partir dos eventos de pedido após o commit.
+ * Pedidos arquivados continuam contados.
+ * <p>
+ * A leitura não consulta o banco. Periodicamente os contadores são comparados com uma contagem
+ * agrupada no banco e a diferença é corrigida, cobrindo alterações feitas fora do serviço. Eventos
+ * em andamento durante a contagem não adiam a correção: os aplicados durante a contagem que não
+ * estavam em andamento no início são somados à contagem, e os ainda pendentes no fim cuja
+ * alteração o banco já mostra são descontados dela, porque serão aplicados depois. Pedidos já
+ * removidos do banco pelo arquivamento, mas com o segmento ainda não selado, são somados. Um
+ * evento confirmado no meio da contagem ainda pode ser contado errado, e o ciclo seguinte corrige.
+ */
+@ApplicationScoped
+public class OrderStatistics {
+    
+    private static final Logger LOG = Logger.getLogger(OrderStatistics.class);
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+    
+    private final Map<Order.OrderStatus, LongAdder> counters = new EnumMap<>(Order.OrderStatus.class);
+    
+    /** Eventos disparados cuja transação ainda não terminou ou cujo delta ainda não foi aplicado. */
+    private final Set<OrderEvent> inFlight = ConcurrentHashMap.newKeySet();
+    
+    /** Pedidos arquivados cujo segmento ainda não apareceu no arquivo. */
+    private final Set<OrderEvent> archivedUnsealed = ConcurrentHashMap.newKeySet();
+    
+    /** Eventos aplicados durante a reconciliação em curso; nulo fora dela. Protegido por {@code this}. */
+    private List<OrderEvent> appliedDuringReconcile;
+    
+    public OrderStatistics() {
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counters.put(status, new LongAdder());
+        }
+    }
+    
+    public long count(Order.OrderStatus status) {
+        return counters.get(status).sum();
+    }
+    
+    public long total() {
+        long total = 0;
+        for (LongAdder counter : counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+    
+    void onOrderFired(@Observes OrderEvent event) {
+        // Sem transação os observadores de fase são chamados na hora e não há janela a cobrir
+        if (transactionRegistry.getTransactionStatus() == Status.STATUS_ACTIVE) {
+            inFlight.add(event);
+        }
+    }
+    
+    void onOrderFailed(@Observes(during = TransactionPhase.AFTER_FAILURE) OrderEvent event) {
+        inFlight.remove(event);
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        try {
+            apply(event);
+        } finally {
+            inFlight.remove(event);
+        }
+    }
+    
+    private synchronized void apply(OrderEvent event) {
+        deltas(event).forEach((status, delta) -> counters.get(status).add(delta));
+        if (event.type == OrderEvent.Type.ARCHIVED) {
+            archivedUnsealed.add(event);
+        }
+        if (appliedDuringReconcile != null) {
+            appliedDuringReconcile.add(event);
+        }
+    }
+    
+    /** Quanto o evento muda cada status; arquivados continuam contados pelo arquivo. */
+    private static Map<Order.OrderStatus, Long> deltas(OrderEvent event) {
+        Map<Order.OrderStatus, Long> deltas = new EnumMap<>(Order.OrderStatus.class);
+        switch (event.type) {
+            case CREATED -> deltas.put(event.status, 1L);
+            case STATUS_CHANGED -> {
+                if (event.previousStatus != event.status) {
+                    deltas.put(event.previousStatus, -1L);
+                    deltas.put(event.status, 1L);
+                }
+            }
+            case DELETED -> deltas.put(event.status, -1L);
+            default -> {
+            }
+        }
+        return deltas;
+    }
+    
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        reconcileCounters();
+    }
+    
+    @Scheduled(every = "${order-stats.reconcile-interval:PT1M}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    @Transactional
+    void scheduledReconcile() {
+        reconcileCounters();
+    }
+    
+    /**
+     * Corrige os contadores pela contagem do banco e retorna a diferença absoluta corrigida.
+     */
+    @Transactional
+    public long reconcile() {
+        return reconcileCounters();
+    }
+    
+    private long reconcileCounters() {
+        Set<OrderEvent> before;
+        synchronized (this) {
+            before = Set.copyOf(inFlight);
+            appliedDuringReconcile = new ArrayList<>();
+        }
+        Map<Order.OrderStatus, Long> stored;
+        Set<OrderEvent> visiblePending = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            stored = new EnumMap<>(Order.OrderStatus.class);
+            stored.putAll(orderRepository.countGroupedByStatus());
+            orderArchive.countsByStatus().forEach((status, count) -> stored.merge(status, count, Long::sum));
+            for (OrderEvent event : archivedUnsealed) {
+                if (orderArchive.find(event.orderId).isPresent()) {
+                    archivedUnsealed.remove(event);
+                } else {
+                    stored.merge(event.status, 1L, Long::sum);
+                }
+            }
+            // Pendentes que o banco já mostra entram na contagem e ainda serão aplicados
+            List<OrderEvent> pending = List.copyOf(inFlight);
+            if (!pending.isEmpty()) {
+                Map<Long, Order.OrderStatus> current = orderRepository.findStatusesByIds(
+                        pending.stream().map(event -> event.orderId).filter(Objects::nonNull).distinct().toList());
+                for (OrderEvent event : pending) {
+                    if (event.type == OrderEvent.Type.ARCHIVED) {
+                        // Fora do banco e ainda fora do arquivo
+                        if (!current.containsKey(event.orderId)) {
+                            stored.merge(event.status, 1L, Long::sum);
+                        }
+                    } else if (isVisible(event, current)) {
+                        visiblePending.add(event);
+                        deltas(event).forEach((status, delta) -> stored.merge(status, -delta, Long::sum));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                appliedDuringReconcile = null;
+            }
+            throw e;
+        }
+        
+        synchronized (this) {
+            // Aplicados durante a contagem: os que já estavam em andamento no início são tidos como
+            // contados pelo banco; os descontados acima voltam, porque agora estão nos contadores
+            for (OrderEvent event : appliedDuringReconcile) {
+                if (!before.contains(event) || visiblePending.contains(event)) {
+                    deltas(event).forEach((status, delta) -> stored.merge(status, delta, Long::sum));
+                }
+            }
+            appliedDuringReconcile = null;
+            
+            Map<Order.OrderStatus, Long> drift = new EnumMap<>(Order.OrderStatus.class);
+            long corrected = 0;
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                long difference = stored.getOrDefault(status, 0L) - counters.get(status).sum();
+                drift.put(status, difference);
+                if (difference != 0) {
+                    counters.get(status).add(difference);
+                    corrected += Math.abs(difference);
+                }
+            }
+            if (corrected > 0) {
+                LOG.infof("Contadores de pedidos corrigidos pelo banco: %s", drift);
+            }
+            return corrected;
+        }
+    }
+    
+    private static boolean isVisible(OrderEvent event, Map<Long, Order.OrderStatus> current) {
+        return switch (event.type) {
+            case CREATED -> current.containsKey(event.orderId);
+            case STATUS_CHANGED -> current.get(event.orderId) == event.status;
+            case DELETED -> event.orderId != null && !current.containsKey(event.orderId);
+            default -> false;
+        };
+    }
+}
\ No newline at end of file
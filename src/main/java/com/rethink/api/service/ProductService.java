@@ -1,13 +1,19 @@
 package com.rethink.api.service;
 
+import com.rethink.api.dto.ProductSummary;
 import com.rethink.api.entity.Product;
+import com.rethink.api.event.ProductEvent;
 import com.rethink.api.repository.ProductRepository;
+import com.rethink.api.util.FieldSelection;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class ProductService {
@@ -15,6 +21,12 @@ public class ProductService {
     @Inject
     ProductRepository productRepository;
     
+    @Inject
+    Event<ProductEvent> productEvents;
+    
+    @Inject
+    CountEstimator countEstimator;
+    
     public List<Product> listAll() {
         return productRepository.listAll();
     }
@@ -32,9 +44,39 @@ public class ProductService {
         return productRepository.findAvailableProducts();
     }
     
+    public List<ProductSummary> listSummaries() {
+        return productRepository.findAllSummaries();
+    }
+    
+    public List<ProductSummary> listAvailableSummaries() {
+        return productRepository.findAvailableSummaries();
+    }
+    
+    /**
+     * Valida os campos de {@code ?fields=}; retorna {@code null} quando nenhum foi pedido.
+     */
+    public FieldSelection selectFields(String fields) {
+        return FieldSelection.parse(fields, ProductRepository.FIELDS);
+    }
+    
+    public List<Map<String, Object>> listFields(FieldSelection fields) {
+        return productRepository.findFields(fields, null);
+    }
+    
+    public List<Map<String, Object>> listAvailableFields(FieldSelection fields) {
+        return productRepository.findFields(fields, "p.quantity > 0");
+    }
+    
+    public Map<String, Object> findFieldsById(Long id, FieldSelection fields) {
+        return productRepository.findFields(fields, "p.id = ?1", id).stream()
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Produto não encontrado com ID: " + id));
+    }
+    
     @Transactional
     public Product create(Product product) {
         productRepository.persist(product);
+        productEvents.fire(ProductEvent.of(ProductEvent.Type.CREATED, product));
         return product;
     }
     
@@ -45,6 +87,7 @@ public class ProductService {
         entity.description = product.description;
         entity.price = product.price;
         entity.quantity = product.quantity;
+        productEvents.fire(ProductEvent.of(ProductEvent.Type.UPDATED, entity));
         return entity;
     }
     
@@ -52,6 +95,7 @@ public class ProductService {
     public void delete(Long id) {
         Product entity = findById(id);
         productRepository.delete(entity);
+        productEvents.fire(ProductEvent.of(ProductEvent.Type.DELETED, entity));
     }
     
     public long countProducts() {
@@ -61,4 +105,41 @@ public class ProductService {
     public long countAvailableProducts() {
         return productRepository.countAvailableProducts();
     }
+    
+    /** Total pelas estatísticas do banco; exato quando não há estatísticas. */
+    public long estimateProducts() {
+        return countEstimator.estimateRows("product").orElseGet(this::countProducts);
+    }
+    
+    public long estimateAvailableProducts() {
+        return countEstimator.estimateMatching("SELECT 1 FROM product WHERE quantity > 0")
+                .orElseGet(this::countAvailableProducts);
+    }
+    
+    @Transactional
+    public void restoreStock(Map<Long, Long> quantitiesByProduct) {
+        quantitiesByProduct.forEach(productRepository::addStock);
+        stockChanged(quantitiesByProduct);
+    }
+    
+    /**
+     * Publica a variação de estoque de cada produto, para quem acompanha os produtos pelos eventos.
+     */
+    public void stockChanged(Map<Long, Long> deltasByProduct) {
+        deltasByProduct.forEach((productId, delta) -> {
+            if (delta != 0) {
+                productEvents.fire(ProductEvent.stockChanged(productId, delta));
+            }
+        });
+    }
+    
+    /**
+     * Trava os produtos em ordem de ID até o fim da transação; chamado antes de ler o estoque
+     * para que alterações concorrentes não se percam.
+     */
+    public void lockForUpdate(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            productRepository.lockByIds(ids);
+        }
+    }
 }
\ No newline at end of file
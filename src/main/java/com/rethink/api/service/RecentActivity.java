@@ -0,0 +1,121 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.OrderSummary;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.event.CustomerEvent;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.CustomerRepository;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.RingBuffer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Últimos pedidos e clientes cadastrados, mantidos em buffers circulares a partir dos eventos
+ * após o commit e semeados do banco na inicialização.
+ * <p>
+ * Os buffers respondem enquanto o limite pedido couber neles; se ainda não encheram, contêm todos
+ * os registros existentes e respondem qualquer limite.
+ */
+@ApplicationScoped
+public class RecentActivity {
+    
+    @ConfigProperty(name = "recent.capacity", defaultValue = "100")
+    int capacity;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    CustomerRepository customerRepository;
+    
+    private RingBuffer<OrderSummary> orders;
+    private boolean ordersComplete;
+    
+    private RingBuffer<Customer> customers;
+    private boolean customersComplete;
+    
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        List<OrderSummary> recentOrders = orderRepository.findRecentSummaries(capacity);
+        List<Customer> recentCustomers = customerRepository.findRecentCustomers(capacity);
+        synchronized (this) {
+            orders = new RingBuffer<>(capacity);
+            for (int i = recentOrders.size() - 1; i >= 0; i--) {
+                orders.add(recentOrders.get(i));
+            }
+            ordersComplete = recentOrders.size() < capacity;
+            
+            customers = new RingBuffer<>(capacity);
+            for (int i = recentCustomers.size() - 1; i >= 0; i--) {
+                customers.add(CustomerEvent.of(CustomerEvent.Type.CREATED, recentCustomers.get(i)).customer);
+            }
+            customersComplete = recentCustomers.size() < capacity;
+        }
+    }
+    
+    public synchronized boolean coversOrders(int limit) {
+        return orders != null && (ordersComplete || limit <= orders.size());
+    }
+    
+    public synchronized List<OrderSummary> recentOrders(int limit) {
+        return orders.newest(limit);
+    }
+    
+    public synchronized boolean coversCustomers(int limit) {
+        return customers != null && (customersComplete || limit <= customers.size());
+    }
+    
+    public synchronized List<Customer> recentCustomers(int limit) {
+        return customers.newest(limit);
+    }
+    
+    synchronized void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        if (orders == null || event.orderId == null) {
+            return;
+        }
+        switch (event.type) {
+            case CREATED -> {
+                if (orders.add(new OrderSummary(event.orderId, event.customerId, event.customerName, event.status,
+                        event.totalAmount, event.orderDate)) != null) {
+                    ordersComplete = false;
+                }
+            }
+            case STATUS_CHANGED, ITEM_ADDED, ITEM_REMOVED -> orders.replaceAll(
+                    summary -> summary.id().equals(event.orderId),
+                    summary -> new OrderSummary(summary.id(), summary.customerId(), summary.customerName(),
+                            event.status, event.totalAmount != null ? event.totalAmount : summary.totalAmount(),
+                            summary.orderDate()));
+            case DELETED, ARCHIVED -> orders.removeIf(summary -> summary.id().equals(event.orderId));
+        }
+    }
+    
+    synchronized void onCustomerEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) CustomerEvent event) {
+        if (customers == null || event.customerId == null) {
+            return;
+        }
+        switch (event.type) {
+            case CREATED -> {
+                if (customers.add(event.customer) != null) {
+                    customersComplete = false;
+                }
+            }
+            case UPDATED -> {
+                customers.replaceAll(customer -> customer.id.equals(event.customerId), customer -> event.customer);
+                if (orders != null) {
+                    orders.replaceAll(summary -> event.customerId.equals(summary.customerId()),
+                            summary -> new OrderSummary(summary.id(), summary.customerId(), event.customer.name,
+                                    summary.status(), summary.totalAmount(), summary.orderDate()));
+                }
+            }
+            case DELETED -> customers.removeIf(customer -> customer.id.equals(event.customerId));
+        }
+    }
+}
\ No newline at end of file
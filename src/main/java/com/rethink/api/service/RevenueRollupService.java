@@ -0,0 +1,318 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.dto.RevenueReport;
+import com.rethink.api.dto.RevenueReportRow;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.repository.RevenueRollupRepository;
+import com.rethink.api.util.OrderArchiveSegment;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Mantém {@code revenue_rollup}, os totais de pedidos por dia, estado e status, e responde os
+ * relatórios de receita somando essas linhas em vez de varrer os pedidos.
+ * <p>
+ * As atualizações acontecem na transação de quem altera o pedido, como no modelo de leitura, e
+ * aplicam as chaves sempre na mesma ordem, para que transações concorrentes não travem as linhas
+ * em ordens opostas. Na inicialização, com a tabela vazia e pedidos no banco, as linhas são
+ * reconstruídas; fora isso, {@code POST /reports/revenue/rebuild} reconstrói um período.
+ * <p>
+ * Pedidos arquivados continuam somados: a reconstrução soma de volta os totais lidos do
+ * {@link OrderArchive}. Pedidos removidos com partições continuam somados até uma reconstrução
+ * do período, que os descarta.
+ */
+@ApplicationScoped
+public class RevenueRollupService {
+    
+    private static final Logger LOG = Logger.getLogger(RevenueRollupService.class);
+    
+    /** Grupos aceitos em {@code groupBy} e as expressões correspondentes sobre a rollup. */
+    private static final Map<String, String> GROUPS = new LinkedHashMap<>();
+    
+    static {
+        GROUPS.put("day", "r.orderDay");
+        GROUPS.put("month", "extract(year from r.orderDay) * 100 + extract(month from r.orderDay)");
+        GROUPS.put("state", "r.shippingState");
+        GROUPS.put("status", "r.status");
+    }
+    
+    /** Ordem em que as chaves são gravadas numa transação. */
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::day)
+            .thenComparing(Key::shippingState)
+            .thenComparing(Key::status);
+    
+    @Inject
+    RevenueRollupRepository rollupRepository;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    OrderPartitionManager orderPartitionManager;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    /** Contribuição de um pedido para a rollup, capturada antes de uma alteração. */
+    public record Contribution(LocalDate day, String shippingState, Order.OrderStatus status, BigDecimal revenue,
+                               long items) {
+        
+        Key key() {
+            return new Key(day, shippingState, status);
+        }
+    }
+    
+    private record Key(LocalDate day, String shippingState, Order.OrderStatus status) {
+    }
+    
+    private static final class Totals {
+        long orders;
+        BigDecimal revenue = BigDecimal.ZERO;
+        long items;
+        
+        void add(long orders, BigDecimal revenue, long items) {
+            this.orders += orders;
+            this.revenue = this.revenue.add(revenue);
+            this.items += items;
+        }
+    }
+    
+    public Contribution contributionOf(Order order) {
+        long items = 0;
+        for (OrderItem item : order.items) {
+            items += item.quantity;
+        }
+        return new Contribution(order.orderDate.toLocalDate(), Objects.requireNonNullElse(order.shippingState, ""),
+                order.status, order.totalAmount, items);
+    }
+    
+    /**
+     * Soma o pedido novo. Precisa ser chamado na transação que criou o pedido.
+     */
+    public void add(Order order) {
+        apply(contributionOf(order), 1);
+    }
+    
+    /**
+     * Soma pedidos novos em lote, com um comando por chave em vez de um por pedido.
+     */
+    public void addAll(Collection<Order> orders) {
+        Map<Key, Totals> deltas = new TreeMap<>(KEY_ORDER);
+        for (Order order : orders) {
+            Contribution contribution = contributionOf(order);
+            deltas.computeIfAbsent(contribution.key(), k -> new Totals())
+                    .add(1, contribution.revenue(), contribution.items());
+        }
+        applyAll(deltas);
+    }
+    
+    /**
+     * Substitui a contribuição capturada antes da alteração pela atual do pedido.
+     */
+    public void replace(Contribution previous, Order order) {
+        Contribution current = contributionOf(order);
+        if (current.equals(previous)) {
+            return;
+        }
+        if (sameKey(previous, current)) {
+            rollupRepository.addDelta(current.day(), current.shippingState(), current.status(), 0,
+                    current.revenue().subtract(previous.revenue()), current.items() - previous.items());
+            return;
+        }
+        Map<Key, Totals> deltas = new TreeMap<>(KEY_ORDER);
+        deltas.computeIfAbsent(previous.key(), k -> new Totals())
+                .add(-1, previous.revenue().negate(), -previous.items());
+        deltas.computeIfAbsent(current.key(), k -> new Totals())
+                .add(1, current.revenue(), current.items());
+        applyAll(deltas);
+    }
+    
+    public void remove(Order order) {
+        apply(contributionOf(order), -1);
+    }
+    
+    /**
+     * Move os pedidos para {@code newStatus}. Precisa ser chamado antes da atualização em lote,
+     * com os pedidos travados e ainda no status anterior.
+     */
+    public void moveAll(Collection<Long> orderIds, Order.OrderStatus newStatus) {
+        Map<Key, Totals> deltas = new TreeMap<>(KEY_ORDER);
+        for (Object[] row : rollupRepository.aggregateOrders(orderIds)) {
+            LocalDate day = toLocalDate(row[0]);
+            String state = (String) row[1];
+            Order.OrderStatus status = Order.OrderStatus.valueOf((String) row[2]);
+            long orders = ((Number) row[3]).longValue();
+            BigDecimal revenue = toBigDecimal(row[4]);
+            long items = ((Number) row[5]).longValue();
+            if (status == newStatus) {
+                continue;
+            }
+            deltas.computeIfAbsent(new Key(day, state, status), k -> new Totals()).add(-orders, revenue.negate(), -items);
+            deltas.computeIfAbsent(new Key(day, state, newStatus), k -> new Totals()).add(orders, revenue, items);
+        }
+        applyAll(deltas);
+    }
+    
+    /**
+     * Recalcula as linhas dos dias de {@code from} a {@code to} a partir dos pedidos no banco e
+     * dos arquivados, e retorna quantas linhas foram gravadas. Escritas concorrentes nos dias
+     * reconstruídos esperam pelas travas da reconstrução.
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        validatePeriod(from, to);
+        int rows = rollupRepository.rebuild(from, to, orderPartitionManager.isPartitioned());
+        for (Map.Entry<Key, Totals> entry : archivedTotals(from, to).entrySet()) {
+            Key key = entry.getKey();
+            Totals totals = entry.getValue();
+            if (rollupRepository.mergeRebuilt(key.day(), key.shippingState(), key.status(), totals.orders,
+                    totals.revenue, totals.items)) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+    
+    private Map<Key, Totals> archivedTotals(LocalDate from, LocalDate to) {
+        Map<Key, Totals> totals = new TreeMap<>(KEY_ORDER);
+        for (OrderArchiveSegment.Document document : orderArchive.findByOrderDate(from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay()).values()) {
+            try {
+                JsonNode order = objectMapper.readTree(document.json());
+                LocalDate day = objectMapper.treeToValue(order.get("orderDate"), LocalDateTime.class).toLocalDate();
+                String state = order.hasNonNull("shippingState") ? order.get("shippingState").asText() : "";
+                long items = 0;
+                for (JsonNode item : order.path("items")) {
+                    items += item.path("quantity").asLong();
+                }
+                totals.computeIfAbsent(new Key(day, state, OrderArchive.statusOf(document)), k -> new Totals())
+                        .add(1, order.get("totalAmount").decimalValue(), items);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return totals;
+    }
+    
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        Object[] range = rollupRepository.orderDayRange();
+        if (range[0] == null) {
+            return;
+        }
+        int rows = rebuild(toLocalDate(range[0]), toLocalDate(range[1]));
+        LOG.infof("Totais de receita reconstruídos: %d linhas de %s a %s", rows, range[0], range[1]);
+    }
+    
+    public RevenueReport report(LocalDate from, LocalDate to, String groupBy, List<Order.OrderStatus> statuses) {
+        validatePeriod(from, to);
+        List<String> groups = new ArrayList<>();
+        if (groupBy != null && !groupBy.isBlank()) {
+            for (String group : groupBy.split(",")) {
+                String name = group.trim();
+                if (!GROUPS.containsKey(name)) {
+                    throw new BadRequestException("Agrupamento inválido: " + name + " (aceitos: " + GROUPS.keySet() + ")");
+                }
+                if (!groups.contains(name)) {
+                    groups.add(name);
+                }
+            }
+        }
+        
+        RevenueReport report = new RevenueReport();
+        report.from = from;
+        report.to = to;
+        report.groupBy = groups;
+        report.rows = new ArrayList<>();
+        report.revenue = BigDecimal.ZERO.setScale(2);
+        List<Object[]> sums = rollupRepository.sum(groups.stream().map(GROUPS::get).toList(), from, to,
+                statuses == null ? List.of() : statuses);
+        for (Object[] sum : sums) {
+            int values = groups.size();
+            if (sum[values] == null) {
+                continue;
+            }
+            RevenueReportRow row = new RevenueReportRow();
+            for (int i = 0; i < values; i++) {
+                switch (groups.get(i)) {
+                    case "day" -> row.day = toLocalDate(sum[i]);
+                    case "month" -> {
+                        int month = ((Number) sum[i]).intValue();
+                        row.month = String.format("%04d-%02d", month / 100, month % 100);
+                    }
+                    case "state" -> row.state = (String) sum[i];
+                    case "status" -> row.status = (Order.OrderStatus) sum[i];
+                }
+            }
+            row.orderCount = ((Number) sum[values]).longValue();
+            row.revenue = toBigDecimal(sum[values + 1]).setScale(2);
+            row.itemCount = ((Number) sum[values + 2]).longValue();
+            if (row.orderCount == 0 && row.revenue.signum() == 0) {
+                continue;
+            }
+            report.rows.add(row);
+            report.orderCount += row.orderCount;
+            report.revenue = report.revenue.add(row.revenue);
+            report.itemCount += row.itemCount;
+        }
+        return report;
+    }
+    
+    private static void validatePeriod(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new BadRequestException("Período é obrigatório (from e to)");
+        }
+        if (to.isBefore(from)) {
+            throw new BadRequestException("Data final deve ser posterior à inicial");
+        }
+    }
+    
+    private void apply(Contribution contribution, int sign) {
+        BigDecimal revenue = sign < 0 ? contribution.revenue().negate() : contribution.revenue();
+        rollupRepository.addDelta(contribution.day(), contribution.shippingState(), contribution.status(), sign,
+                revenue, sign * contribution.items());
+    }
+    
+    private void applyAll(Map<Key, Totals> deltas) {
+        deltas.forEach((key, totals) -> rollupRepository.addDelta(key.day(), key.shippingState(), key.status(),
+                totals.orders, totals.revenue, totals.items));
+    }
+    
+    private static boolean sameKey(Contribution a, Contribution b) {
+        return a.day().equals(b.day()) && a.shippingState().equals(b.shippingState()) && a.status() == b.status();
+    }
+    
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+    
+    private static BigDecimal toBigDecimal(Object value) {
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.OrderStatusView;
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.util.TimingWheel;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Expira a reserva de estoque de pedidos pendentes após {@code order.hold.expiry}.
+ * <p>
+ * Os prazos ficam numa {@link TimingWheel} em memória, alimentada pelos eventos de pedido
+ * após o commit e reconstruída a partir do banco na inicialização. Sem a propriedade
+ * configurada a expiração fica desligada.
+ */
+@ApplicationScoped
+public class StockHoldService {
+    
+    private static final Logger LOG = Logger.getLogger(StockHoldService.class);
+    
+    private static final int WHEEL_SIZE = 64;
+    
+    @ConfigProperty(name = "order.hold.expiry")
+    Optional<Duration> expiry;
+    
+    @ConfigProperty(name = "order.hold.tick", defaultValue = "PT1S")
+    Duration tick;
+    
+    @ConfigProperty(name = "order.hold.batch-size", defaultValue = "500")
+    int batchSize;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderService orderService;
+    
+    private TimingWheel<Long> wheel;
+    
+    private final List<Long> overdue = new ArrayList<>();
+    
+    public boolean isEnabled() {
+        return expiry.isPresent();
+    }
+    
+    public synchronized int countHolds() {
+        return wheel == null ? 0 : wheel.size() + overdue.size();
+    }
+    
+    public synchronized boolean isHeld(Long orderId) {
+        return wheel != null && (wheel.contains(orderId) || overdue.contains(orderId));
+    }
+    
+    @Transactional
+    void onStart(@Observes StartupEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<OrderStatusView> pending = orderRepository.findStatusViewsByStatus(Order.OrderStatus.PENDING);
+        synchronized (this) {
+            wheel = new TimingWheel<>(tick.toMillis(), WHEEL_SIZE, System.currentTimeMillis());
+            for (OrderStatusView view : pending) {
+                schedule(view.id, view.orderDate);
+            }
+        }
+        LOG.infof("Reservas de estoque reconstruídas: %d pedidos pendentes", pending.size());
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        if (!isEnabled() || event.orderId == null) {
+            return;
+        }
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            if (event.type == OrderEvent.Type.CREATED) {
+                schedule(event.orderId, event.orderDate);
+            } else if (event.type == OrderEvent.Type.DELETED || event.status != Order.OrderStatus.PENDING) {
+                wheel.cancel(event.orderId);
+                overdue.remove(event.orderId);
+            }
+        }
+    }
+    
+    @Scheduled(every = "${order.hold.tick:PT1S}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void expireHolds() {
+        if (!isEnabled()) {
+            return;
+        }
+        List<Long> expired;
+        synchronized (this) {
+            if (wheel == null) {
+                return;
+            }
+            expired = new ArrayList<>(overdue);
+            overdue.clear();
+            expired.addAll(wheel.advance(System.currentTimeMillis()));
+        }
+        for (int from = 0; from < expired.size(); from += batchSize) {
+            List<Long> batch = expired.subList(from, Math.min(from + batchSize, expired.size()));
+            try {
+                int cancelled = orderService.expirePendingOrders(batch).updated;
+                LOG.infof("%d pedidos pendentes cancelados por expiração da reserva", cancelled);
+            } catch (RuntimeException e) {
+                LOG.errorf(e, "Falha ao expirar reservas de %d pedidos; nova tentativa no próximo ciclo", batch.size());
+                synchronized (this) {
+                    overdue.addAll(batch);
+                }
+            }
+        }
+    }
+    
+    private void schedule(Long orderId, LocalDateTime orderDate) {
+        LocalDateTime start = orderDate != null ? orderDate : LocalDateTime.now();
+        long deadline = start.plus(expiry.get()).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!wheel.schedule(orderId, deadline)) {
+            overdue.add(orderId);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Cache de pedidos em estado terminal ({@code DELIVERED} e {@code CANCELLED}), guardados já
+ * serializados em JSON com itens e produtos no estado em que foram lidos.
+ * <p>
+ * Como esses pedidos não mudam mais, a única invalidação é a exclusão. O cache é limitado por
+ * {@code order-cache.max-size} em bytes, removendo os menos acessados; com
+ * {@code order-cache.compressed} o JSON é guardado comprimido.
+ */
+@ApplicationScoped
+public class TerminalOrderCache {
+    
+    static final Set<Order.OrderStatus> TERMINAL = EnumSet.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+    
+    /** Custo estimado de cada entrada além do próprio array (chave, nó do mapa e cabeçalho do array). */
+    static final int ENTRY_OVERHEAD = 96;
+    
+    @ConfigProperty(name = "order-cache.max-size", defaultValue = "16M")
+    MemorySize maxSize;
+    
+    @ConfigProperty(name = "order-cache.compressed", defaultValue = "false")
+    boolean compressed;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private final LinkedHashMap<Long, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private long usedBytes;
+    
+    private long generation;
+    
+    public Optional<byte[]> find(Long id) {
+        byte[] stored;
+        synchronized (this) {
+            stored = entries.get(id);
+        }
+        if (stored == null) {
+            return Optional.empty();
+        }
+        return Optional.of(compressed ? inflate(stored) : stored);
+    }
+    
+    /**
+     * Valor a ser lido antes de carregar um pedido e repassado a {@link #offer}: se houve exclusão
+     * nesse intervalo o pedido carregado pode estar obsoleto e não é guardado.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+    
+    /**
+     * Guarda o pedido se estiver em estado terminal. Precisa ser chamado com a sessão aberta,
+     * já que a serialização percorre itens e produtos.
+     */
+    public void offer(Order order, long generation) {
+        if (order == null || !TERMINAL.contains(order.status)) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(order);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        offer(order.id, order.status, json, generation);
+    }
+    
+    /**
+     * Guarda o JSON já serializado de um pedido, se o status for terminal.
+     */
+    public void offer(Long id, Order.OrderStatus status, byte[] json, long generation) {
+        if (!TERMINAL.contains(status)) {
+            return;
+        }
+        byte[] stored = compressed ? deflate(json) : json;
+        long cost = stored.length + ENTRY_OVERHEAD;
+        if (cost > maxSize.asLongValue()) {
+            return;
+        }
+        
+        synchronized (this) {
+            if (generation != this.generation) {
+                return;
+            }
+            byte[] previous = entries.put(id, stored);
+            if (previous != null) {
+                usedBytes -= previous.length + ENTRY_OVERHEAD;
+            }
+            usedBytes += cost;
+            Iterator<byte[]> eldest = entries.values().iterator();
+            while (usedBytes > maxSize.asLongValue()) {
+                usedBytes -= eldest.next().length + ENTRY_OVERHEAD;
+                eldest.remove();
+            }
+        }
+    }
+    
+    public synchronized void evict(Long id) {
+        generation++;
+        byte[] previous = entries.remove(id);
+        if (previous != null) {
+            usedBytes -= previous.length + ENTRY_OVERHEAD;
+        }
+    }
+    
+    /**
+     * Esvazia o cache, para quando pedidos somem do banco sem eventos (ex.: partições removidas).
+     */
+    public synchronized void evictAll() {
+        generation++;
+        entries.clear();
+        usedBytes = 0;
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+    
+    void onOrderEvent(@Observes(during = TransactionPhase.AFTER_SUCCESS) OrderEvent event) {
+        if (event.orderId != null && event.type == OrderEvent.Type.DELETED) {
+            evict(event.orderId);
+        }
+    }
+    
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && inflater.needsInput()) {
+                    throw new IllegalStateException("Entrada do cache de pedidos corrompida");
+                }
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Entrada do cache de pedidos corrompida", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
\ No newline at end of file
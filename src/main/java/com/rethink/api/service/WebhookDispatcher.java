@@ -0,0 +1,352 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.WebhookMetrics;
+import com.rethink.api.entity.WebhookDelivery;
+import com.rethink.api.entity.WebhookEndpoint;
+import com.rethink.api.repository.WebhookDeliveryRepository;
+import com.rethink.api.util.CircuitBreaker;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Envia o outbox de webhooks fora das transações de pedido.
+ * <p>
+ * A cada ciclo, trava as entregas vencidas e as reserva por {@code webhook.lease} (se o processo
+ * cair, voltam a vencer e são reenviadas), agrupa por endpoint em lotes de até
+ * {@code webhook.batch-size} e envia com no máximo {@code webhook.max-concurrency} requisições
+ * simultâneas no total e {@code webhook.max-concurrency-per-endpoint} por endpoint. O ciclo não
+ * espera as respostas: cada lote é concluído na própria transação quando o parceiro responde, e
+ * endpoints sem vaga nem são consultados no ciclo seguinte, então um parceiro lento só atrasa as
+ * próprias entregas. Falhas voltam para a fila com backoff exponencial e jitter; cada endpoint tem
+ * um {@link CircuitBreaker}, e endpoints com o disjuntor aberto também ficam de fora.
+ * <p>
+ * Entregas concluídas ou que esgotaram as tentativas são removidas depois de
+ * {@code webhook.retention}.
+ */
+@ApplicationScoped
+public class WebhookDispatcher {
+    
+    private static final Logger LOG = Logger.getLogger(WebhookDispatcher.class);
+    
+    @ConfigProperty(name = "webhook.batch-size", defaultValue = "50")
+    int batchSize;
+    
+    @ConfigProperty(name = "webhook.max-claim", defaultValue = "500")
+    int maxClaim;
+    
+    @ConfigProperty(name = "webhook.max-concurrency", defaultValue = "8")
+    int maxConcurrency;
+    
+    @ConfigProperty(name = "webhook.max-concurrency-per-endpoint", defaultValue = "2")
+    int maxConcurrencyPerEndpoint;
+    
+    @ConfigProperty(name = "webhook.timeout", defaultValue = "PT5S")
+    Duration timeout;
+    
+    @ConfigProperty(name = "webhook.lease", defaultValue = "PT1M")
+    Duration lease;
+    
+    @ConfigProperty(name = "webhook.max-attempts", defaultValue = "8")
+    int maxAttempts;
+    
+    @ConfigProperty(name = "webhook.backoff", defaultValue = "PT1S")
+    Duration backoff;
+    
+    @ConfigProperty(name = "webhook.max-backoff", defaultValue = "PT5M")
+    Duration maxBackoff;
+    
+    @ConfigProperty(name = "webhook.circuit.failure-threshold", defaultValue = "5")
+    int failureThreshold;
+    
+    @ConfigProperty(name = "webhook.circuit.open-duration", defaultValue = "PT30S")
+    Duration openDuration;
+    
+    @ConfigProperty(name = "webhook.retention", defaultValue = "P7D")
+    Duration retention;
+    
+    @ConfigProperty(name = "webhook.purge-batch", defaultValue = "1000")
+    int purgeBatch;
+    
+    @Inject
+    WebhookService webhookService;
+    
+    @Inject
+    WebhookDeliveryRepository deliveryRepository;
+    
+    private HttpClient httpClient;
+    private Semaphore permits;
+    private final Map<Long, Semaphore> endpointPermits = new ConcurrentHashMap<>();
+    private final Map<Long, CircuitBreaker> circuits = new ConcurrentHashMap<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        permits = new Semaphore(maxConcurrency);
+    }
+    
+    @Scheduled(every = "${webhook.dispatch-interval:PT1S}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledDispatch() {
+        dispatchAsync();
+    }
+    
+    /**
+     * Um ciclo de envio, esperando as respostas. Retorna quantas entregas foram reservadas.
+     */
+    public int dispatch() {
+        return dispatchAsync().join();
+    }
+    
+    /**
+     * Inicia um ciclo de envio e retorna sem esperar os parceiros. O resultado, com quantas entregas
+     * foram reservadas, fica pronto quando todos os lotes do ciclo foram concluídos.
+     */
+    public CompletableFuture<Integer> dispatchAsync() {
+        if (permits.availablePermits() == 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+        Map<Long, WebhookEndpoint> endpoints = webhookService.listAll().stream()
+                .collect(Collectors.toMap(endpoint -> endpoint.id, endpoint -> endpoint));
+        List<Long> blocked = new ArrayList<>();
+        circuits.forEach((endpointId, circuit) -> {
+            if (circuit.isOpen() || circuit.state() == CircuitBreaker.State.HALF_OPEN) {
+                blocked.add(endpointId);
+            }
+        });
+        endpointPermits.forEach((endpointId, endpointSlots) -> {
+            if (endpointSlots.availablePermits() == 0) {
+                blocked.add(endpointId);
+            }
+        });
+        
+        List<WebhookDelivery> claimed = QuarkusTransaction.requiringNew().call(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = deliveryRepository.lockDueIds(now, blocked, maxClaim);
+            if (ids.isEmpty()) {
+                return List.<WebhookDelivery>of();
+            }
+            deliveryRepository.lease(ids, now.plus(lease));
+            return deliveryRepository.findByIds(ids);
+        });
+        if (claimed.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        Map<Long, List<WebhookDelivery>> byEndpoint = claimed.stream()
+                .collect(Collectors.groupingBy(delivery -> delivery.endpointId, LinkedHashMap::new, Collectors.toList()));
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        List<Outcome> skipped = new ArrayList<>();
+        byEndpoint.forEach((endpointId, deliveries) -> {
+            WebhookEndpoint endpoint = endpoints.get(endpointId);
+            CircuitBreaker circuit = circuits.computeIfAbsent(endpointId,
+                    id -> new CircuitBreaker(failureThreshold, openDuration, System::currentTimeMillis));
+            Semaphore endpointSlots = endpointPermits.computeIfAbsent(endpointId,
+                    id -> new Semaphore(maxConcurrencyPerEndpoint));
+            for (int from = 0; from < deliveries.size(); from += batchSize) {
+                List<WebhookDelivery> batch = deliveries.subList(from, Math.min(from + batchSize, deliveries.size()));
+                Outcome outcome = new Outcome(batch);
+                // Endpoint removido, disjuntor aberto ou sem vaga: devolve para a fila sem contar tentativa
+                if (endpoint == null || !acquire(endpointSlots)) {
+                    outcome.skipped = true;
+                    skipped.add(outcome);
+                    continue;
+                }
+                if (!circuit.allowRequest()) {
+                    release(endpointSlots);
+                    outcome.skipped = true;
+                    skipped.add(outcome);
+                    continue;
+                }
+                sends.add(send(endpoint, batch)
+                        .handle((status, error) -> {
+                            release(endpointSlots);
+                            outcome.error = error != null ? describe(error)
+                                    : status / 100 != 2 ? "HTTP " + status : null;
+                            if (outcome.error == null) {
+                                circuit.onSuccess();
+                            } else {
+                                circuit.onFailure();
+                            }
+                            return outcome;
+                        })
+                        .thenAccept(this::completeInTransaction));
+            }
+        });
+        if (!skipped.isEmpty()) {
+            completeInTransaction(skipped.toArray(Outcome[]::new));
+        }
+        
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> claimed.size());
+    }
+    
+    /** Reserva uma vaga do endpoint e uma do total, sem esperar. */
+    private boolean acquire(Semaphore endpointSlots) {
+        if (!endpointSlots.tryAcquire()) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            endpointSlots.release();
+            return false;
+        }
+        return true;
+    }
+    
+    private void release(Semaphore endpointSlots) {
+        permits.release();
+        endpointSlots.release();
+    }
+    
+    private void completeInTransaction(Outcome... outcomes) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> complete(List.of(outcomes)));
+        } catch (RuntimeException e) {
+            // As entregas continuam reservadas e voltam a vencer quando a reserva expirar
+            LOG.errorf(e, "Falha ao registrar o resultado de %d lotes de webhook", outcomes.length);
+        }
+    }
+    
+    /**
+     * Remove as entregas concluídas ou que esgotaram as tentativas há mais de {@code webhook.retention},
+     * em transações de até {@code webhook.purge-batch} linhas. Retorna quantas foram removidas.
+     */
+    public long purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long removed = 0;
+        int deleted;
+        do {
+            deleted = QuarkusTransaction.requiringNew().call(() -> deliveryRepository.deleteFinishedBefore(cutoff, purgeBatch));
+            removed += deleted;
+        } while (deleted == purgeBatch);
+        if (removed > 0) {
+            LOG.infof("%d entregas de webhook antigas removidas", removed);
+        }
+        return removed;
+    }
+    
+    @Scheduled(every = "${webhook.purge-interval:PT1H}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledPurge() {
+        purge();
+    }
+    
+    private CompletableFuture<Integer> send(WebhookEndpoint endpoint, List<WebhookDelivery> batch) {
+        String body = batch.stream()
+                .map(delivery -> "{\"deliveryId\":" + delivery.id + ",\"event\":" + delivery.payload + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.url))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-Webhook-Batch-Size", String.valueOf(batch.size()))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        batches.increment();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApply(HttpResponse::statusCode);
+    }
+    
+    private void complete(List<Outcome> outcomes) {
+        Map<Long, Outcome> outcomeByDelivery = new LinkedHashMap<>();
+        outcomes.forEach(outcome -> outcome.batch.forEach(delivery -> outcomeByDelivery.put(delivery.id, outcome)));
+        LocalDateTime now = LocalDateTime.now();
+        // Entregas removidas junto com o endpoint durante o envio simplesmente não voltam
+        for (WebhookDelivery delivery : deliveryRepository.findByIds(outcomeByDelivery.keySet())) {
+            Outcome outcome = outcomeByDelivery.get(delivery.id);
+            if (outcome.skipped) {
+                CircuitBreaker circuit = circuits.get(delivery.endpointId);
+                delivery.nextAttemptAt = circuit != null && circuit.isOpen()
+                        ? now.plus(Duration.ofMillis(Math.max(0, circuit.openUntil() - System.currentTimeMillis())))
+                        : now;
+            } else if (outcome.error == null) {
+                delivery.status = WebhookDelivery.Status.DELIVERED;
+                delivery.deliveredAt = now;
+                delivery.nextAttemptAt = null;
+                delivery.lastError = null;
+                delivery.attempts++;
+                delivered.increment();
+            } else {
+                delivery.attempts++;
+                delivery.lastError = outcome.error;
+                failedAttempts.increment();
+                if (delivery.attempts >= maxAttempts) {
+                    delivery.status = WebhookDelivery.Status.FAILED;
+                    delivery.nextAttemptAt = null;
+                    LOG.warnf("Webhook %d esgotou as tentativas para a entrega %d: %s",
+                            delivery.endpointId, delivery.id, outcome.error);
+                } else {
+                    delivery.nextAttemptAt = now.plus(backoff(delivery.attempts, backoff, maxBackoff,
+                            ThreadLocalRandom.current().nextDouble()));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Backoff exponencial a partir de {@code base}, limitado a {@code max}, com metade do valor
+     * sorteada para que as retentativas de vários parceiros não coincidam.
+     */
+    static Duration backoff(int attempts, Duration base, Duration max, double random) {
+        long exponential = base.toMillis() << Math.min(attempts - 1, 30);
+        long capped = exponential < 0 ? max.toMillis() : Math.min(exponential, max.toMillis());
+        return Duration.ofMillis(capped / 2 + (long) (random * (capped - capped / 2)));
+    }
+    
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        String message = cause.getClass().getSimpleName() + (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+    
+    public WebhookMetrics metrics() {
+        WebhookMetrics metrics = new WebhookMetrics();
+        metrics.delivered = delivered.sum();
+        metrics.failedAttempts = failedAttempts.sum();
+        metrics.batches = batches.sum();
+        QuarkusTransaction.requiringNew().run(() -> {
+            metrics.pending = deliveryRepository.countByStatus(WebhookDelivery.Status.PENDING);
+            metrics.failed = deliveryRepository.countByStatus(WebhookDelivery.Status.FAILED);
+        });
+        metrics.openCircuits = circuits.entrySet().stream()
+                .filter(entry -> entry.getValue().state() != CircuitBreaker.State.CLOSED)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        return metrics;
+    }
+    
+    private static final class Outcome {
+        
+        final List<WebhookDelivery> batch;
+        boolean skipped;
+        volatile String error;
+        
+        Outcome(List<WebhookDelivery> batch) {
+            this.batch = batch;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.dto.WebhookEvent;
+import com.rethink.api.entity.WebhookDelivery;
+import com.rethink.api.entity.WebhookEndpoint;
+import com.rethink.api.event.OrderEvent;
+import com.rethink.api.repository.WebhookDeliveryRepository;
+import com.rethink.api.repository.WebhookEndpointRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cadastro de endpoints de webhook e gravação do outbox.
+ * <p>
+ * As mudanças de status entram no outbox dentro da transação do pedido, então só eventos
+ * confirmados são entregues e nenhum se perde; o envio fica com o {@link WebhookDispatcher}. Os
+ * endpoints ficam em memória para que a gravação não custe uma consulta por evento.
+ */
+@ApplicationScoped
+public class WebhookService {
+    
+    @Inject
+    WebhookEndpointRepository endpointRepository;
+    
+    @Inject
+    WebhookDeliveryRepository deliveryRepository;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private volatile List<WebhookEndpoint> endpoints = List.of();
+    
+    void onStart(@Observes StartupEvent event) {
+        reloadEndpoints();
+    }
+    
+    public List<WebhookEndpoint> listAll() {
+        return endpoints;
+    }
+    
+    public WebhookEndpoint findById(Long id) {
+        return endpoints.stream()
+                .filter(endpoint -> endpoint.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new NotFoundException("Webhook não encontrado com ID: " + id));
+    }
+    
+    public WebhookEndpoint register(WebhookEndpoint endpoint) {
+        endpoint.createdAt = LocalDateTime.now();
+        QuarkusTransaction.requiringNew().run(() -> endpointRepository.persist(endpoint));
+        reloadEndpoints();
+        return endpoint;
+    }
+    
+    /**
+     * Remove o endpoint e as entregas que ainda estavam pendentes para ele.
+     */
+    public void delete(Long id) {
+        boolean deleted = QuarkusTransaction.requiringNew().call(() -> {
+            deliveryRepository.deleteByEndpointId(id);
+            return endpointRepository.deleteById(id);
+        });
+        if (!deleted) {
+            throw new NotFoundException("Webhook não encontrado com ID: " + id);
+        }
+        reloadEndpoints();
+    }
+    
+    private void reloadEndpoints() {
+        endpoints = QuarkusTransaction.requiringNew().call(() -> endpointRepository.list("ORDER BY id"));
+    }
+    
+    void onOrderEvent(@Observes OrderEvent event) {
+        if (event.type != OrderEvent.Type.STATUS_CHANGED) {
+            return;
+        }
+        String payload = null;
+        for (WebhookEndpoint endpoint : endpoints) {
+            if (endpoint.customerId != null && !endpoint.customerId.equals(event.customerId)) {
+                continue;
+            }
+            if (payload == null) {
+                try {
+                    payload = objectMapper.writeValueAsString(new WebhookEvent(event));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            WebhookDelivery delivery = new WebhookDelivery();
+            delivery.endpointId = endpoint.id;
+            delivery.orderId = event.orderId;
+            delivery.payload = payload;
+            delivery.createdAt = LocalDateTime.now();
+            delivery.nextAttemptAt = delivery.createdAt;
+            deliveryRepository.persist(delivery);
+        }
+    }
+}
\ No newline at end of file
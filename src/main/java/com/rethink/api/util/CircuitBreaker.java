@@ -0,0 +1,81 @@
+package com.rethink.api.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Disjuntor por destino: depois de {@code failureThreshold} falhas seguidas fica aberto por
+ * {@code openDuration}; passado o prazo, libera uma única tentativa (meio aberto), que fecha o
+ * disjuntor se der certo ou o reabre se falhar. Thread-safe.
+ */
+public class CircuitBreaker {
+    
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+    
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private int consecutiveFailures;
+    private long openUntil;
+    private State state = State.CLOSED;
+    
+    public CircuitBreaker(int failureThreshold, Duration openDuration, LongSupplier clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("failureThreshold deve ser positivo");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openDuration.toMillis();
+        this.clock = clock;
+    }
+    
+    /**
+     * Indica se uma tentativa pode ser feita agora; no estado meio aberto, só a primeira chamada
+     * recebe {@code true} até que o resultado dela seja registrado.
+     */
+    public synchronized boolean allowRequest() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false;
+            case OPEN -> {
+                if (clock.getAsLong() < openUntil) {
+                    yield false;
+                }
+                state = State.HALF_OPEN;
+                yield true;
+            }
+        };
+    }
+    
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+    
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openUntil = clock.getAsLong() + openMillis;
+        }
+    }
+    
+    /**
+     * Aberto e ainda dentro do prazo: nenhuma tentativa seria liberada.
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && clock.getAsLong() < openUntil;
+    }
+    
+    public synchronized State state() {
+        return state;
+    }
+    
+    /** Instante (no relógio do disjuntor) em que uma tentativa volta a ser liberada. */
+    public synchronized long openUntil() {
+        return openUntil;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.rethink.api.util;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Campos pedidos em {@code ?fields=}, validados contra uma lista de campos permitidos que mapeia
+ * o nome no JSON para o caminho JPQL. A consulta seleciona só esses caminhos e cada linha vira
+ * um mapa na ordem pedida, então o JSON também só contém esses campos.
+ */
+public final class FieldSelection {
+    
+    private final Map<String, String> paths;
+    
+    private FieldSelection(Map<String, String> paths) {
+        this.paths = paths;
+    }
+    
+    /**
+     * Retorna {@code null} quando nenhum campo foi pedido.
+     */
+    public static FieldSelection parse(String fields, Map<String, String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Map<String, String> paths = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String path = allowed.get(name);
+            if (path == null) {
+                throw new BadRequestException("Campo inválido: " + name + ". Campos permitidos: "
+                        + String.join(",", new TreeSet<>(allowed.keySet())));
+            }
+            paths.put(name, path);
+        }
+        if (paths.isEmpty()) {
+            return null;
+        }
+        return new FieldSelection(paths);
+    }
+    
+    public Set<String> names() {
+        return paths.keySet();
+    }
+    
+    public String selectClause() {
+        return String.join(", ", paths.values());
+    }
+    
+    public List<Map<String, Object>> toRows(List<?> results) {
+        List<Map<String, Object>> rows = new ArrayList<>(results.size());
+        for (Object result : results) {
+            rows.add(toRow(result));
+        }
+        return rows;
+    }
+    
+    public Map<String, Object> toRow(Object result) {
+        Object[] values = result instanceof Object[] array ? array : new Object[] {result};
+        Map<String, Object> row = new LinkedHashMap<>();
+        int i = 0;
+        for (String name : paths.keySet()) {
+            row.put(name, values[i++]);
+        }
+        return row;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.rethink.api.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Aritmética monetária em ponto fixo: valores são centavos em {@code long}.
+ * <p>
+ * {@link BigDecimal} fica restrito às bordas (colunas e JSON); somas e multiplicações internas
+ * não alocam e estouros lançam {@link ArithmeticException}.
+ */
+public final class Money {
+    
+    public static final int SCALE = 2;
+    
+    private Money() {
+    }
+    
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        if (amount.scale() == SCALE) {
+            return amount.unscaledValue().longValueExact();
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+    
+    public static long multiply(long cents, long quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+    
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+}
\ No newline at end of file
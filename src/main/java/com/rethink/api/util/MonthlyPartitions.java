@@ -0,0 +1,60 @@
+package com.rethink.api.util;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nomes e DDL das partições mensais por intervalo ({@code PARTITION BY RANGE}) do PostgreSQL.
+ * <p>
+ * A partição de um mês se chama {@code <tabela>_pAAAAMM} e cobre de
+ * {@code AAAA-MM-01 00:00} (inclusive) até o primeiro dia do mês seguinte (exclusive).
+ */
+public final class MonthlyPartitions {
+    
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private MonthlyPartitions() {
+    }
+    
+    public static String name(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+    
+    /**
+     * Mês de uma partição pelo nome, ou {@code null} se o nome não é de uma partição mensal da tabela.
+     */
+    public static YearMonth monthOf(String table, String partition) {
+        String prefix = table + "_p";
+        if (!partition.startsWith(prefix) || partition.length() != prefix.length() + 6) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    public static String createSql(String table, YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + name(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+    
+    public static String detachSql(String table, String partition) {
+        return "ALTER TABLE " + table + " DETACH PARTITION " + partition;
+    }
+    
+    /**
+     * Meses de {@code from} até {@code to}, inclusive.
+     */
+    public static List<YearMonth> range(YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,401 @@
+package com.rethink.api.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento imutável de pedidos arquivados: um arquivo {@code .seg} com os dados e um
+ * {@code .idx} mapeado em memória para as buscas.
+ * <p>
+ * O {@code .seg} guarda cada coluna (ID, cliente, status, data, total em centavos) comprimida
+ * separadamente, seguidas dos documentos JSON comprimidos em blocos de {@code blockSize}. O
+ * {@code .idx} tem duas listas de entradas de tamanho fixo, uma ordenada por ID e outra por
+ * cliente e ID, com a posição do bloco de cada pedido; uma busca é uma pesquisa binária seguida
+ * da descompressão de um único bloco.
+ * <p>
+ * O {@code .idx} é gravado por {@link #seal}, separado da escrita dos dados: um {@code .seg} sem
+ * {@code .idx} ainda não foi confirmado e não é lido.
+ */
+public final class OrderArchiveSegment implements Closeable {
+    
+    private static final int MAGIC = 0x4f415243;
+    private static final int VERSION = 1;
+    private static final int ENTRY = 24;
+    
+    private final Path dataFile;
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+    private final MappedByteBuffer index;
+    private final int count;
+    private final long[] statusCounts;
+    
+    /** Uma linha do arquivo; {@code status} é o código definido por quem grava. */
+    public record Row(long orderId, long customerId, byte status, long orderDate, long totalCents, byte[] document) {
+    }
+    
+    /** Documento encontrado, com o status da coluna correspondente. */
+    public record Document(long orderId, byte status, byte[] json) {
+    }
+    
+    private OrderArchiveSegment(Path dataFile, FileChannel data, FileChannel indexChannel, MappedByteBuffer index,
+                                long[] statusCounts) {
+        this.dataFile = dataFile;
+        this.data = data;
+        this.indexChannel = indexChannel;
+        this.index = index;
+        this.count = index.getInt(0);
+        this.statusCounts = statusCounts;
+    }
+    
+    public static Path indexFile(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - ".seg".length()) + ".idx");
+    }
+    
+    /**
+     * Grava as linhas em {@code dataFile} com {@code fsync}. O segmento só passa a ser lido depois de {@link #seal}.
+     */
+    public static void write(Path dataFile, List<Row> rows, int blockSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(rows.size());
+        header.writeInt(blockSize);
+        
+        writeBlock(out, column(rows, (row, column) -> column.writeLong(row.orderId())));
+        writeBlock(out, column(rows, (row, column) -> column.writeLong(row.customerId())));
+        writeBlock(out, column(rows, (row, column) -> column.writeByte(row.status())));
+        writeBlock(out, column(rows, (row, column) -> column.writeLong(row.orderDate())));
+        writeBlock(out, column(rows, (row, column) -> column.writeLong(row.totalCents())));
+        for (int from = 0; from < rows.size(); from += blockSize) {
+            writeBlock(out, column(rows.subList(from, Math.min(from + blockSize, rows.size())), (row, column) -> {
+                column.writeInt(row.document().length);
+                column.write(row.document());
+            }));
+        }
+        
+        Path temp = dataFile.resolveSibling(dataFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(out.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, dataFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Gera o {@code .idx} de um {@code .seg} gravado e abre o segmento para leitura.
+     */
+    public static OrderArchiveSegment seal(Path dataFile) throws IOException {
+        Columns columns = readColumns(dataFile);
+        int count = columns.orderIds.length;
+        if (columns.blockSize > Short.MAX_VALUE) {
+            throw new IOException("Tamanho de bloco acima do suportado: " + columns.blockSize);
+        }
+        Integer[] byId = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            byId[i] = i;
+        }
+        Integer[] byCustomer = byId.clone();
+        Arrays.sort(byId, Comparator.comparingLong(i -> columns.orderIds[i]));
+        Arrays.sort(byCustomer, Comparator.<Integer>comparingLong(i -> columns.customerIds[i])
+                .thenComparingLong(i -> columns.orderIds[i]));
+        
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 2 * count * ENTRY);
+        buffer.putInt(count);
+        for (Integer[] order : List.of(byId, byCustomer)) {
+            for (int i : order) {
+                buffer.putLong(columns.orderIds[i]);
+                buffer.putLong(columns.customerIds[i]);
+                buffer.putInt((int) columns.blockPositions[i / columns.blockSize]);
+                buffer.putShort((short) (i % columns.blockSize));
+                buffer.put(columns.statuses[i]);
+                buffer.put((byte) 0);
+            }
+        }
+        buffer.flip();
+        
+        Path indexFile = indexFile(dataFile);
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+        return open(dataFile);
+    }
+    
+    public static OrderArchiveSegment open(Path dataFile) throws IOException {
+        Columns columns = readColumns(dataFile);
+        long[] statusCounts = new long[256];
+        for (byte status : columns.statuses) {
+            statusCounts[status & 0xff]++;
+        }
+        FileChannel data = FileChannel.open(dataFile, StandardOpenOption.READ);
+        FileChannel indexChannel = FileChannel.open(indexFile(dataFile), StandardOpenOption.READ);
+        MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+        return new OrderArchiveSegment(dataFile, data, indexChannel, index, statusCounts);
+    }
+    
+    /**
+     * IDs gravados num {@code .seg}, selado ou não.
+     */
+    public static long[] readOrderIds(Path dataFile) throws IOException {
+        return readColumns(dataFile).orderIds;
+    }
+    
+    public Path dataFile() {
+        return dataFile;
+    }
+    
+    public int size() {
+        return count;
+    }
+    
+    /** Quantidade de pedidos por código de status. */
+    public long statusCount(byte status) {
+        return statusCounts[status & 0xff];
+    }
+    
+    /**
+     * Documentos com data do pedido (segundos UTC) em {@code [from, to)}, na ordem de gravação.
+     * Lê as colunas do arquivo e descomprime só os blocos com algum pedido do período.
+     */
+    public List<Document> findByOrderDate(long from, long to) {
+        try {
+            Columns columns = readColumns(dataFile);
+            List<Document> documents = new ArrayList<>();
+            byte[] block = null;
+            int blockIndex = -1;
+            for (int i = 0; i < columns.orderIds.length; i++) {
+                if (columns.orderDates[i] < from || columns.orderDates[i] >= to) {
+                    continue;
+                }
+                if (i / columns.blockSize != blockIndex) {
+                    blockIndex = i / columns.blockSize;
+                    block = readBlock(data, columns.blockPositions[blockIndex]);
+                }
+                documents.add(new Document(columns.orderIds[i], columns.statuses[i],
+                        slot(block, i % columns.blockSize)));
+            }
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public Document find(long orderId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = index.getLong(4 + mid * ENTRY);
+            if (id < orderId) {
+                low = mid + 1;
+            } else if (id > orderId) {
+                high = mid - 1;
+            } else {
+                return document(4 + mid * ENTRY);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Documentos do cliente em ordem de ID.
+     */
+    public List<Document> findByCustomer(long customerId) {
+        int base = 4 + count * ENTRY;
+        List<Document> documents = new ArrayList<>();
+        int first = firstOfCustomer(customerId);
+        for (int i = first; i < count && index.getLong(base + i * ENTRY + 8) == customerId; i++) {
+            documents.add(document(base + i * ENTRY));
+        }
+        return documents;
+    }
+    
+    /**
+     * Se há pedidos do cliente no segmento, só pelo índice.
+     */
+    public boolean containsCustomer(long customerId) {
+        int first = firstOfCustomer(customerId);
+        return first < count && index.getLong(4 + count * ENTRY + first * ENTRY + 8) == customerId;
+    }
+    
+    /** Primeira posição do índice por cliente com cliente maior ou igual ao informado. */
+    private int firstOfCustomer(long customerId) {
+        int base = 4 + count * ENTRY;
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.getLong(base + mid * ENTRY + 8) < customerId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            data.close();
+            indexChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Document document(int entry) {
+        long orderId = index.getLong(entry);
+        int blockPosition = index.getInt(entry + 16);
+        int slot = index.getShort(entry + 20);
+        byte status = index.get(entry + 22);
+        try {
+            return new Document(orderId, status, slot(readBlock(data, blockPosition), slot));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static byte[] slot(byte[] raw, int slot) throws IOException {
+        DataInputStream block = new DataInputStream(new ByteArrayInputStream(raw));
+        for (int i = 0; i < slot; i++) {
+            block.skipNBytes(block.readInt());
+        }
+        return block.readNBytes(block.readInt());
+    }
+    
+    private interface ColumnWriter {
+        void write(Row row, DataOutputStream column) throws IOException;
+    }
+    
+    private static byte[] column(List<Row> rows, ColumnWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream column = new DataOutputStream(bytes);
+        for (Row row : rows) {
+            writer.write(row, column);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static void writeBlock(ByteArrayOutputStream out, byte[] raw) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(chunk, 0, deflater.deflate(chunk));
+            }
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(raw.length);
+            header.writeInt(compressed.size());
+            compressed.writeTo(out);
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] readBlock(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        channel.read(header, position);
+        header.flip();
+        byte[] raw = new byte[header.getInt()];
+        ByteBuffer compressed = ByteBuffer.allocate(header.getInt());
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, position + 8 + compressed.position()) < 0) {
+                throw new IOException("Segmento truncado: " + position);
+            }
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed.array());
+            inflater.inflate(raw);
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Bloco corrompido na posição " + position, e);
+        } finally {
+            inflater.end();
+        }
+    }
+    
+    private static final class Columns {
+        int blockSize;
+        long[] orderIds;
+        long[] customerIds;
+        byte[] statuses;
+        long[] orderDates;
+        long[] blockPositions;
+    }
+    
+    private static Columns readColumns(Path dataFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Arquivo de arquivo morto inválido: " + dataFile);
+            }
+            Columns columns = new Columns();
+            int count = header.getInt();
+            columns.blockSize = header.getInt();
+            
+            long position = 16;
+            ByteBuffer[] blocks = new ByteBuffer[5];
+            for (int i = 0; i < blocks.length; i++) {
+                byte[] raw = readBlock(channel, position);
+                blocks[i] = ByteBuffer.wrap(raw);
+                position += 8 + compressedLength(channel, position);
+            }
+            columns.orderIds = new long[count];
+            columns.customerIds = new long[count];
+            columns.statuses = new byte[count];
+            columns.orderDates = new long[count];
+            for (int i = 0; i < count; i++) {
+                columns.orderIds[i] = blocks[0].getLong();
+                columns.customerIds[i] = blocks[1].getLong();
+                columns.statuses[i] = blocks[2].get();
+                columns.orderDates[i] = blocks[3].getLong();
+            }
+            
+            int blockCount = (count + columns.blockSize - 1) / columns.blockSize;
+            columns.blockPositions = new long[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                columns.blockPositions[i] = position;
+                position += 8 + compressedLength(channel, position);
+            }
+            return columns;
+        }
+    }
+    
+    private static int compressedLength(FileChannel channel, long position) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        channel.read(length, position + 4);
+        return length.flip().getInt();
+    }
+}
\ No newline at end of file
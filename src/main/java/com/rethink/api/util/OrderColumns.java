@@ -0,0 +1,533 @@
+package com.rethink.api.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Linhas de pedidos (uma por item, com os dados do pedido repetidos) em colunas de tipos
+ * primitivos, para agrupamentos e somas sem passar pelo banco.
+ * <p>
+ * As linhas ficam em segmentos de tamanho fixo e as de um mesmo pedido são sempre contíguas e no
+ * mesmo segmento; a primeira é marcada em {@code head}. Por isso cada grupo conta pedidos
+ * distintos guardando o último pedido que somou: um pedido filtrado pelo produto ou com o mesmo
+ * produto em mais de um item conta uma vez só. Estados e cidades são guardados como códigos de um
+ * dicionário. Um pedido alterado tem as linhas anteriores marcadas como removidas (status
+ * {@code -1}) e as novas acrescentadas ao fim; quando as removidas passam de um quarto do total,
+ * os segmentos são reescritos.
+ * <p>
+ * Uma consulta percorre os segmentos em paralelo, cada um em duas passadas: a primeira aplica os
+ * filtros coluna a coluna e monta a lista das linhas selecionadas, a segunda soma essas linhas.
+ * Consultas compartilham uma trava de leitura; alterações esperam as consultas em andamento.
+ */
+public final class OrderColumns {
+    
+    /** Status de uma linha removida. */
+    public static final byte REMOVED = -1;
+    
+    /** Sem estado ou cidade, ou sem produto num pedido sem itens. */
+    public static final int NONE = 0;
+    
+    public enum Dimension {
+        DAY, MONTH, STATUS, STATE, CITY, CUSTOMER, PRODUCT
+    }
+    
+    /** Uma linha a gravar; {@code status} é o código definido por quem grava (0 a 62). */
+    public record Line(long orderId, long customerId, long productId, byte status, int epochDay, String state,
+                       String city, int quantity, long cents) {
+    }
+    
+    /**
+     * Filtros e agrupamentos de uma consulta. Dias são inclusivos; {@code statusMask} tem um bit por
+     * código de status; nulos não filtram.
+     */
+    public record Query(long statusMask, int fromDay, int toDay, String state, String city, Long customerId,
+                        Long productId, List<Dimension> groupBy) {
+    }
+    
+    /**
+     * Totais de um grupo. {@code keys} traz, na ordem de {@code groupBy}, o dia (época), o mês
+     * ({@code ano * 12 + mês - 1}), o código de status, o estado ou cidade (texto, vazio sem valor), o
+     * cliente ou o produto ({@code 0} sem itens).
+     */
+    public record Group(Object[] keys, long orders, long lines, long items, long cents) {
+    }
+    
+    public record Result(List<Group> groups, long scannedLines) {
+    }
+    
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    // Pedido -> segmento (32 bits altos) e posição da primeira linha
+    private final Map<Long, Long> positions = new HashMap<>();
+    private final Dictionary states = new Dictionary();
+    private final Dictionary cities = new Dictionary();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long lines;
+    private long removedLines;
+    
+    public OrderColumns(int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do segmento deve ser positivo: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+    }
+    
+    /**
+     * Substitui as linhas dos pedidos informados pelas novas: pedidos em {@code orderIds} sem linhas
+     * em {@code newLines} são removidos. As linhas de cada pedido precisam vir contíguas.
+     */
+    public void apply(Collection<Long> orderIds, List<Line> newLines) {
+        lock.writeLock().lock();
+        try {
+            for (Long orderId : orderIds) {
+                remove(orderId);
+            }
+            int start = 0;
+            while (start < newLines.size()) {
+                long orderId = newLines.get(start).orderId();
+                int end = start + 1;
+                while (end < newLines.size() && newLines.get(end).orderId() == orderId) {
+                    end++;
+                }
+                remove(orderId);
+                append(newLines.subList(start, end));
+                start = end;
+            }
+            if (removedLines > lines / 4) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public Result query(Query query) {
+        lock.readLock().lock();
+        try {
+            int stateCode = query.state() == null ? -1 : states.find(query.state());
+            int cityCode = query.city() == null ? -1 : cities.find(query.city());
+            if ((query.state() != null && stateCode < 0) || (query.city() != null && cityCode < 0)) {
+                return new Result(List.of(), 0);
+            }
+            Filter filter = new Filter(query.statusMask(), query.fromDay(), query.toDay(), stateCode, cityCode,
+                    query.customerId(), query.productId());
+            Dimension[] dimensions = query.groupBy().toArray(new Dimension[0]);
+            GroupTable merged = segments.parallelStream()
+                    .map(segment -> segment.scan(filter, dimensions))
+                    .reduce(GroupTable::merge)
+                    .orElseGet(() -> new GroupTable(dimensions.length));
+            long scanned = 0;
+            for (Segment segment : segments) {
+                scanned += segment.size;
+            }
+            return new Result(merged.toGroups(dimensions, states, cities), scanned);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /** Linhas vivas. */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return lines - removedLines;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int orderCount() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void remove(long orderId) {
+        Long position = positions.remove(orderId);
+        if (position == null) {
+            return;
+        }
+        Segment segment = segments.get((int) (position >>> 32));
+        int offset = (int) (long) position;
+        int end = segment.runEnd(offset);
+        Arrays.fill(segment.status, offset, end, REMOVED);
+        removedLines += end - offset;
+    }
+    
+    private void append(List<Line> run) {
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.size + run.size() > segment.capacity) {
+            segment = new Segment(Math.max(segmentSize, run.size()));
+            segments.add(segment);
+        }
+        int offset = segment.size;
+        for (int i = 0; i < run.size(); i++) {
+            Line line = run.get(i);
+            int row = segment.size++;
+            segment.orderId[row] = line.orderId();
+            segment.customerId[row] = line.customerId();
+            segment.productId[row] = line.productId();
+            segment.status[row] = line.status();
+            segment.day[row] = line.epochDay();
+            segment.month[row] = monthOf(line.epochDay());
+            segment.state[row] = states.encode(line.state());
+            segment.city[row] = cities.encode(line.city());
+            segment.quantity[row] = line.quantity();
+            segment.cents[row] = line.cents();
+            segment.head[row] = (byte) (i == 0 ? 1 : 0);
+        }
+        positions.put(run.get(0).orderId(), ((long) (segments.size() - 1) << 32) | offset);
+        lines += run.size();
+    }
+    
+    /**
+     * Reescreve os segmentos só com as linhas vivas, mantendo a ordem.
+     */
+    private void compact() {
+        List<Segment> old = new ArrayList<>(segments);
+        segments.clear();
+        positions.clear();
+        lines = 0;
+        removedLines = 0;
+        for (Segment segment : old) {
+            int offset = 0;
+            while (offset < segment.size) {
+                int end = segment.runEnd(offset);
+                if (segment.status[offset] != REMOVED) {
+                    copyRun(segment, offset, end);
+                }
+                offset = end;
+            }
+        }
+    }
+    
+    private void copyRun(Segment from, int offset, int end) {
+        int length = end - offset;
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.size + length > segment.capacity) {
+            segment = new Segment(Math.max(segmentSize, length));
+            segments.add(segment);
+        }
+        int row = segment.size;
+        System.arraycopy(from.orderId, offset, segment.orderId, row, length);
+        System.arraycopy(from.customerId, offset, segment.customerId, row, length);
+        System.arraycopy(from.productId, offset, segment.productId, row, length);
+        System.arraycopy(from.status, offset, segment.status, row, length);
+        System.arraycopy(from.day, offset, segment.day, row, length);
+        System.arraycopy(from.month, offset, segment.month, row, length);
+        System.arraycopy(from.state, offset, segment.state, row, length);
+        System.arraycopy(from.city, offset, segment.city, row, length);
+        System.arraycopy(from.quantity, offset, segment.quantity, row, length);
+        System.arraycopy(from.cents, offset, segment.cents, row, length);
+        System.arraycopy(from.head, offset, segment.head, row, length);
+        segment.size += length;
+        positions.put(from.orderId[offset], ((long) (segments.size() - 1) << 32) | row);
+        lines += length;
+    }
+    
+    private static int monthOf(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+    
+    private record Filter(long statusMask, int fromDay, int toDay, int state, int city, Long customerId,
+                          Long productId) {
+    }
+    
+    private static final class Segment {
+        
+        final int capacity;
+        final long[] orderId;
+        final long[] customerId;
+        final long[] productId;
+        final byte[] status;
+        final int[] day;
+        final int[] month;
+        final int[] state;
+        final int[] city;
+        final int[] quantity;
+        final long[] cents;
+        final byte[] head;
+        int size;
+        
+        Segment(int capacity) {
+            this.capacity = capacity;
+            orderId = new long[capacity];
+            customerId = new long[capacity];
+            productId = new long[capacity];
+            status = new byte[capacity];
+            day = new int[capacity];
+            month = new int[capacity];
+            state = new int[capacity];
+            city = new int[capacity];
+            quantity = new int[capacity];
+            cents = new long[capacity];
+            head = new byte[capacity];
+        }
+        
+        /** Fim (exclusivo) das linhas do pedido que começa em {@code offset}. */
+        int runEnd(int offset) {
+            int end = offset + 1;
+            while (end < size && head[end] == 0) {
+                end++;
+            }
+            return end;
+        }
+        
+        GroupTable scan(Filter filter, Dimension[] dimensions) {
+            int n = size;
+            int[] selected = new int[n];
+            int count = 0;
+            // Passada 1: filtros sem desvios; linhas removidas (-1) caem no bit 63, sempre zerado
+            long statusMask = filter.statusMask() & Long.MAX_VALUE;
+            int fromDay = filter.fromDay();
+            int toDay = filter.toDay();
+            for (int i = 0; i < n; i++) {
+                int d = day[i];
+                boolean keep = ((statusMask >>> (status[i] & 63)) & 1) != 0 & d >= fromDay & d <= toDay;
+                selected[count] = i;
+                count += keep ? 1 : 0;
+            }
+            if (filter.state() >= 0) {
+                count = retain(selected, count, state, filter.state());
+            }
+            if (filter.city() >= 0) {
+                count = retain(selected, count, city, filter.city());
+            }
+            if (filter.customerId() != null) {
+                count = retain(selected, count, customerId, filter.customerId());
+            }
+            if (filter.productId() != null) {
+                count = retain(selected, count, productId, filter.productId());
+            }
+            
+            // Passada 2: somas
+            GroupTable table = new GroupTable(dimensions.length);
+            if (dimensions.length == 0) {
+                long orders = 0;
+                long items = 0;
+                long total = 0;
+                long lastOrder = 0;
+                for (int j = 0; j < count; j++) {
+                    int i = selected[j];
+                    orders += orderId[i] != lastOrder ? 1 : 0;
+                    lastOrder = orderId[i];
+                    items += quantity[i];
+                    total += cents[i];
+                }
+                if (count > 0) {
+                    table.add(new long[0], orders, count, items, total);
+                }
+                return table;
+            }
+            long[] key = new long[dimensions.length];
+            for (int j = 0; j < count; j++) {
+                int i = selected[j];
+                for (int k = 0; k < dimensions.length; k++) {
+                    key[k] = switch (dimensions[k]) {
+                        case DAY -> day[i];
+                        case MONTH -> month[i];
+                        case STATUS -> status[i];
+                        case STATE -> state[i];
+                        case CITY -> city[i];
+                        case CUSTOMER -> customerId[i];
+                        case PRODUCT -> productId[i];
+                    };
+                }
+                table.addLine(key, orderId[i], quantity[i], cents[i]);
+            }
+            return table;
+        }
+        
+        private static int retain(int[] selected, int count, int[] column, int value) {
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                int i = selected[j];
+                selected[kept] = i;
+                kept += column[i] == value ? 1 : 0;
+            }
+            return kept;
+        }
+        
+        private static int retain(int[] selected, int count, long[] column, long value) {
+            int kept = 0;
+            for (int j = 0; j < count; j++) {
+                int i = selected[j];
+                selected[kept] = i;
+                kept += column[i] == value ? 1 : 0;
+            }
+            return kept;
+        }
+    }
+    
+    /**
+     * Tabela hash de endereçamento aberto dos grupos: as chaves de cada grupo ficam lado a lado
+     * em {@code keys} e as somas em arrays paralelos.
+     */
+    private static final class GroupTable {
+        
+        private final int width;
+        private int[] slots = new int[16];
+        private long[] keys;
+        private long[] orders = new long[8];
+        private long[] lines = new long[8];
+        private long[] items = new long[8];
+        private long[] cents = new long[8];
+        // Último pedido somado em cada grupo (0 antes do primeiro)
+        private long[] lastOrder = new long[8];
+        private int size;
+        
+        GroupTable(int width) {
+            this.width = width;
+            this.keys = new long[8 * Math.max(1, width)];
+            Arrays.fill(slots, -1);
+        }
+        
+        void add(long[] key, long orderCount, long lineCount, long itemCount, long total) {
+            int group = find(key);
+            orders[group] += orderCount;
+            lines[group] += lineCount;
+            items[group] += itemCount;
+            cents[group] += total;
+        }
+        
+        void addLine(long[] key, long orderId, int quantity, long total) {
+            int group = find(key);
+            if (lastOrder[group] != orderId) {
+                lastOrder[group] = orderId;
+                orders[group]++;
+            }
+            lines[group]++;
+            items[group] += quantity;
+            cents[group] += total;
+        }
+        
+        GroupTable merge(GroupTable other) {
+            GroupTable into = size >= other.size ? this : other;
+            GroupTable from = into == this ? other : this;
+            long[] key = new long[width];
+            for (int g = 0; g < from.size; g++) {
+                System.arraycopy(from.keys, g * width, key, 0, width);
+                into.add(key, from.orders[g], from.lines[g], from.items[g], from.cents[g]);
+            }
+            return into;
+        }
+        
+        private int find(long[] key) {
+            int mask = slots.length - 1;
+            int slot = hash(key) & mask;
+            while (slots[slot] >= 0) {
+                int group = slots[slot];
+                if (Arrays.equals(keys, group * width, group * width + width, key, 0, width)) {
+                    return group;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int group = size++;
+            if (group == orders.length) {
+                int capacity = group * 2;
+                keys = Arrays.copyOf(keys, capacity * Math.max(1, width));
+                orders = Arrays.copyOf(orders, capacity);
+                lines = Arrays.copyOf(lines, capacity);
+                items = Arrays.copyOf(items, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+                lastOrder = Arrays.copyOf(lastOrder, capacity);
+            }
+            System.arraycopy(key, 0, keys, group * width, width);
+            slots[slot] = group;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return group;
+        }
+        
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            Arrays.fill(slots, -1);
+            int mask = slots.length - 1;
+            long[] key = new long[width];
+            for (int group = 0; group < size; group++) {
+                System.arraycopy(keys, group * width, key, 0, width);
+                int slot = hash(key) & mask;
+                while (slots[slot] >= 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = group;
+            }
+        }
+        
+        private static int hash(long[] key) {
+            long h = 0x9E3779B97F4A7C15L;
+            for (long value : key) {
+                h = (h ^ value) * 0xBF58476D1CE4E5B9L;
+                h ^= h >>> 31;
+            }
+            return (int) (h ^ (h >>> 32));
+        }
+        
+        List<Group> toGroups(Dimension[] dimensions, Dictionary states, Dictionary cities) {
+            List<Group> groups = new ArrayList<>(size);
+            for (int g = 0; g < size; g++) {
+                Object[] values = new Object[width];
+                for (int k = 0; k < width; k++) {
+                    long value = keys[g * width + k];
+                    values[k] = switch (dimensions[k]) {
+                        case DAY, MONTH -> (int) value;
+                        case STATUS -> (byte) value;
+                        case STATE -> states.decode((int) value);
+                        case CITY -> cities.decode((int) value);
+                        case CUSTOMER, PRODUCT -> value;
+                    };
+                }
+                groups.add(new Group(values, orders[g], lines[g], items[g], cents[g]));
+            }
+            return groups;
+        }
+    }
+    
+    /** Códigos de texto a partir de 1; {@link #NONE} para nulo ou vazio. */
+    private static final class Dictionary {
+        
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>(List.of(""));
+        
+        int encode(String value) {
+            if (value == null || value.isEmpty()) {
+                return NONE;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+        
+        int find(String value) {
+            if (value.isEmpty()) {
+                return NONE;
+            }
+            return codes.getOrDefault(value, -1);
+        }
+        
+        String decode(int code) {
+            return values.get(code);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.rethink.api.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Buffer circular de capacidade fixa: cheio, cada inserção sobrescreve o elemento mais antigo.
+ * Inserir e ler os N mais novos não alocam além da lista devolvida. Não é thread-safe.
+ */
+public class RingBuffer<T> {
+    
+    private final Object[] elements;
+    private int next;
+    private int size;
+    
+    public RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity deve ser positivo");
+        }
+        this.elements = new Object[capacity];
+    }
+    
+    /**
+     * Insere como elemento mais novo e retorna o elemento sobrescrito, ou {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public T add(T element) {
+        T evicted = (T) elements[next];
+        elements[next] = element;
+        next = (next + 1) % elements.length;
+        if (size < elements.length) {
+            size++;
+            return null;
+        }
+        return evicted;
+    }
+    
+    /**
+     * Até {@code limit} elementos, do mais novo para o mais antigo.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> newest(int limit) {
+        int count = Math.min(Math.max(limit, 0), size);
+        List<T> result = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            result.add((T) elements[index(i)]);
+        }
+        return result;
+    }
+    
+    /**
+     * Substitui no lugar os elementos que satisfazem {@code match}. Retorna {@code false} se nenhum satisfaz.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean replaceAll(Predicate<? super T> match, UnaryOperator<T> replacement) {
+        boolean replaced = false;
+        for (int i = 1; i <= size; i++) {
+            int index = index(i);
+            if (match.test((T) elements[index])) {
+                elements[index] = replacement.apply((T) elements[index]);
+                replaced = true;
+            }
+        }
+        return replaced;
+    }
+    
+    /**
+     * Remove os elementos que satisfazem {@code match}, preservando a ordem dos demais. Custa O(capacidade).
+     */
+    public boolean removeIf(Predicate<? super T> match) {
+        List<T> kept = newest(size);
+        if (!kept.removeIf(match)) {
+            return false;
+        }
+        clear();
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            add(kept.get(i));
+        }
+        return true;
+    }
+    
+    public void clear() {
+        Arrays.fill(elements, null);
+        next = 0;
+        size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int capacity() {
+        return elements.length;
+    }
+    
+    // i-ésimo mais novo, com i a partir de 1
+    private int index(int i) {
+        return Math.floorMod(next - i, elements.length);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,313 @@
+package com.rethink.api.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Log append-only em disco, dividido em segmentos de tamanho fixo mapeados em memória.
+ * <p>
+ * Cada registro recebe um offset sequencial e é gravado como {@code [tamanho][crc32][bytes]}; um
+ * tamanho zero marca o fim do segmento. Gravar é copiar para a página mapeada: o {@code fsync}
+ * fica para {@link #flush()}, chamado em lote. Ao reabrir, a leitura de cada segmento para no
+ * primeiro registro incompleto ou corrompido, descartando uma gravação interrompida.
+ * <p>
+ * Consumidores guardam o próximo offset a ler em arquivos próprios, em {@code consumers/}.
+ */
+public class SegmentedLog implements Closeable {
+    
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".log";
+    private static final Pattern CONSUMER = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    
+    private final Path directory;
+    private final Path consumers;
+    private final int segmentSize;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+    private long nextOffset;
+    
+    public SegmentedLog(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER * 2) {
+            throw new IllegalArgumentException("segmentSize muito pequeno: " + segmentSize);
+        }
+        this.directory = directory;
+        this.consumers = directory.resolve("consumers");
+        this.segmentSize = segmentSize;
+        Files.createDirectories(consumers);
+        
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                segments.put(base, Segment.open(file, base, segmentSize));
+            }
+        }
+        if (segments.isEmpty()) {
+            roll(0);
+        } else {
+            active = segments.lastEntry().getValue();
+            active.clearTail();
+            nextOffset = active.base + active.count;
+        }
+    }
+    
+    /**
+     * Acrescenta um registro e retorna seu offset. Fica em memória até o próximo {@link #flush()}.
+     */
+    public synchronized long append(byte[] payload) {
+        int length = HEADER + payload.length;
+        if (length > segmentSize) {
+            throw new IllegalArgumentException("Registro maior que o segmento: " + payload.length + " bytes");
+        }
+        if (active.position + length > segmentSize) {
+            active.force();
+            roll(nextOffset);
+        }
+        active.write(payload);
+        return nextOffset++;
+    }
+    
+    /**
+     * Até {@code maxRecords} registros a partir de {@code offset}; offsets já removidos pela
+     * retenção são pulados até o primeiro disponível.
+     */
+    public synchronized List<Record> read(long offset, int maxRecords) {
+        List<Record> records = new ArrayList<>();
+        long current = Math.max(offset, startOffset());
+        Map.Entry<Long, Segment> entry = segments.floorEntry(current);
+        while (entry != null && records.size() < maxRecords) {
+            Segment segment = entry.getValue();
+            for (int i = (int) (current - segment.base); i < segment.count && records.size() < maxRecords; i++) {
+                records.add(new Record(segment.base + i, segment.read(i)));
+            }
+            entry = segments.higherEntry(entry.getKey());
+            if (entry != null) {
+                current = entry.getKey();
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Grava em disco o que foi acrescentado desde a última chamada.
+     */
+    public synchronized void flush() {
+        for (Segment segment : segments.values()) {
+            segment.force();
+        }
+    }
+    
+    /**
+     * Remove os segmentos mais antigos enquanto o log passar de {@code maxBytes}; o segmento
+     * ativo nunca é removido. Retorna quantos segmentos foram removidos.
+     */
+    public synchronized int retain(long maxBytes) {
+        int removed = 0;
+        while (segments.size() > 1 && sizeBytes() > maxBytes) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            oldest.close();
+            try {
+                Files.deleteIfExists(oldest.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            removed++;
+        }
+        return removed;
+    }
+    
+    public synchronized long startOffset() {
+        return segments.firstKey();
+    }
+    
+    public synchronized long endOffset() {
+        return nextOffset;
+    }
+    
+    public synchronized long sizeBytes() {
+        return (long) segments.size() * segmentSize;
+    }
+    
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+    
+    /**
+     * Próximo offset a ser lido pelo consumidor; começa no início do log.
+     */
+    public long committed(String consumer) {
+        Path file = consumerFile(consumer);
+        if (!Files.exists(file)) {
+            return startOffset();
+        }
+        try {
+            return Math.max(Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()), startOffset());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Guarda o próximo offset a ser lido pelo consumidor, substituindo o arquivo atomicamente.
+     */
+    public void commit(String consumer, long offset) {
+        if (offset < 0 || offset > endOffset()) {
+            throw new IllegalArgumentException("Offset fora do log: " + offset);
+        }
+        Path file = consumerFile(consumer);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, Long.toString(offset), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        flush();
+        segments.values().forEach(Segment::close);
+    }
+    
+    private Path consumerFile(String consumer) {
+        if (consumer == null || !CONSUMER.matcher(consumer).matches()) {
+            throw new IllegalArgumentException("Nome de consumidor inválido: " + consumer);
+        }
+        return consumers.resolve(consumer + ".offset");
+    }
+    
+    private void roll(long base) {
+        try {
+            active = Segment.open(directory.resolve(String.format("%020d%s", base, SUFFIX)), base, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.put(base, active);
+        nextOffset = base;
+    }
+    
+    public record Record(long offset, byte[] payload) {
+    }
+    
+    private static final class Segment {
+        
+        final Path file;
+        final long base;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        // Posição de cada registro no segmento, pelo índice (offset - base)
+        int[] positions = new int[1024];
+        int count;
+        int position;
+        boolean dirty;
+        
+        private Segment(Path file, long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+        
+        static Segment open(Path file, long base, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            int size = (int) Math.max(channel.size(), segmentSize);
+            Segment segment = new Segment(file, base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            segment.scan();
+            return segment;
+        }
+        
+        private void scan() {
+            CRC32 crc = new CRC32();
+            while (position + HEADER <= buffer.capacity()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + HEADER + length > buffer.capacity()) {
+                    break;
+                }
+                crc.reset();
+                crc.update(buffer.slice(position + HEADER, length));
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                index(position);
+                position += HEADER + length;
+            }
+        }
+        
+        /**
+         * Zera o que sobrou depois do último registro válido, para que restos de uma gravação
+         * interrompida não sejam lidos depois de novos registros.
+         */
+        void clearTail() {
+            byte[] chunk = new byte[4096];
+            byte[] zeros = new byte[chunk.length];
+            for (int at = position; at < buffer.capacity(); at += chunk.length) {
+                int length = Math.min(chunk.length, buffer.capacity() - at);
+                buffer.get(at, chunk, 0, length);
+                if (!Arrays.equals(chunk, 0, length, zeros, 0, length)) {
+                    buffer.put(at, zeros, 0, length);
+                    dirty = true;
+                }
+            }
+        }
+        
+        void write(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.put(position + HEADER, payload);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            // O tamanho por último: até aqui o registro ainda parece o fim do segmento
+            buffer.putInt(position, payload.length);
+            index(position);
+            position += HEADER + payload.length;
+            dirty = true;
+        }
+        
+        byte[] read(int index) {
+            int at = positions[index];
+            byte[] payload = new byte[buffer.getInt(at)];
+            buffer.get(at + HEADER, payload);
+            return payload;
+        }
+        
+        void force() {
+            if (dirty) {
+                buffer.force();
+                dirty = false;
+            }
+        }
+        
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private void index(int at) {
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = at;
+        }
+    }
+}
\ No newline at end of file
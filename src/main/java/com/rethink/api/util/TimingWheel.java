@@ -0,0 +1,157 @@
+package com.rethink.api.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roda de temporização hierárquica: agendar, cancelar e expirar custam O(1) por chave.
+ * <p>
+ * Cada nível tem {@code wheelSize} posições; o tick de um nível é o intervalo total do nível
+ * abaixo. Entradas distantes ficam nos níveis superiores e descem quando sua posição vence.
+ * Não é thread-safe.
+ */
+public class TimingWheel<K> {
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Level<K> root;
+    private long currentTime;
+    
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis deve ser positivo e wheelSize maior que 1");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - startMillis % tickMillis;
+        this.root = new Level<>(tickMillis, wheelSize);
+    }
+    
+    /**
+     * Agenda (ou reagenda) a chave. O prazo é arredondado para cima até o próximo tick, então a chave
+     * nunca expira antes dele. Retorna {@code false} se o prazo já passou; nesse caso nada é guardado.
+     */
+    public boolean schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long expiration = (deadlineMillis + tickMillis - 1) / tickMillis * tickMillis;
+        Entry<K> entry = new Entry<>(key, expiration);
+        if (!insert(entry)) {
+            return false;
+        }
+        entries.put(key, entry);
+        return true;
+    }
+    
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+    
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Avança o relógio até {@code nowMillis} e devolve as chaves cujo prazo venceu.
+     */
+    public List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        List<Level<K>> levels = new ArrayList<>();
+        for (Level<K> level = root; level != null; level = level.overflow) {
+            levels.add(level);
+        }
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            if (entries.isEmpty()) {
+                currentTime = nowMillis - nowMillis % tickMillis;
+                break;
+            }
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                Level<K> level = levels.get(i);
+                if (currentTime % level.tick != 0) {
+                    continue;
+                }
+                Set<Entry<K>> bucket = level.buckets[level.index(currentTime)];
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                List<Entry<K>> due = new ArrayList<>(bucket);
+                bucket.clear();
+                for (Entry<K> entry : due) {
+                    if (!insert(entry)) {
+                        entries.remove(entry.key);
+                        expired.add(entry.key);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+    
+    private boolean insert(Entry<K> entry) {
+        long levelStart = currentTime;
+        for (Level<K> level = root; ; level = level.overflowOrCreate(wheelSize)) {
+            long start = levelStart - levelStart % level.tick;
+            if (level == root && entry.expiration <= start) {
+                return false;
+            }
+            if (entry.expiration < start + level.interval) {
+                entry.bucket = level.buckets[level.index(entry.expiration)];
+                entry.bucket.add(entry);
+                return true;
+            }
+        }
+    }
+    
+    private static final class Level<K> {
+        final long tick;
+        final long interval;
+        final Set<Entry<K>>[] buckets;
+        Level<K> overflow;
+        
+        @SuppressWarnings("unchecked")
+        Level(long tick, int wheelSize) {
+            this.tick = tick;
+            this.interval = tick * wheelSize;
+            this.buckets = new Set[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new LinkedHashSet<>();
+            }
+        }
+        
+        int index(long time) {
+            return (int) ((time / tick) % buckets.length);
+        }
+        
+        Level<K> overflowOrCreate(int wheelSize) {
+            if (overflow == null) {
+                overflow = new Level<>(interval, wheelSize);
+            }
+            return overflow;
+        }
+    }
+    
+    private static final class Entry<K> {
+        final K key;
+        final long expiration;
+        Set<Entry<K>> bucket;
+        
+        Entry(K key, long expiration) {
+            this.key = key;
+            this.expiration = expiration;
+        }
+    }
+}
\ No newline at end of file
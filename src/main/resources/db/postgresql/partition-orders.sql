@@ -0,0 +1,63 @@
+-- Converte customer_order e orderitem em tabelas particionadas por mês de orderDate (PostgreSQL 12+).
+--
+-- Executar uma vez, com a aplicação parada e depois de uma inicialização da versão que criou
+-- orderitem.orderDate. Cria as partições dos meses com dados até três meses à frente; as
+-- seguintes ficam com o OrderPartitionManager. A chave primária passa a incluir orderDate, exigência
+-- do particionamento; os IDs continuam únicos porque vêm das sequências.
+
+BEGIN;
+
+LOCK TABLE customer_order, orderitem IN ACCESS EXCLUSIVE MODE;
+
+UPDATE orderitem i SET orderDate = o.orderDate FROM customer_order o WHERE o.id = i.order_id AND i.orderDate IS NULL;
+
+ALTER TABLE orderitem RENAME TO orderitem_legacy;
+ALTER TABLE customer_order RENAME TO customer_order_legacy;
+ALTER TABLE customer_order_legacy RENAME CONSTRAINT customer_order_pkey TO customer_order_legacy_pkey;
+ALTER TABLE orderitem_legacy RENAME CONSTRAINT orderitem_pkey TO orderitem_legacy_pkey;
+ALTER INDEX idx_customer_order_customer_date RENAME TO idx_customer_order_legacy_customer_date;
+ALTER INDEX idx_customer_order_state_date RENAME TO idx_customer_order_legacy_state_date;
+ALTER INDEX idx_customer_order_date RENAME TO idx_customer_order_legacy_date;
+
+CREATE TABLE customer_order (LIKE customer_order_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (orderDate);
+ALTER TABLE customer_order ADD CONSTRAINT customer_order_pkey PRIMARY KEY (id, orderDate);
+ALTER TABLE customer_order ADD FOREIGN KEY (customer_id) REFERENCES customer (id);
+CREATE INDEX idx_customer_order_customer_date ON customer_order (customer_id, orderDate, id);
+CREATE INDEX idx_customer_order_state_date ON customer_order (shippingState, orderDate, id);
+CREATE INDEX idx_customer_order_date ON customer_order (orderDate, id);
+
+ALTER TABLE orderitem_legacy ALTER COLUMN orderDate SET NOT NULL;
+CREATE TABLE orderitem (LIKE orderitem_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (orderDate);
+ALTER TABLE orderitem ADD CONSTRAINT orderitem_pkey PRIMARY KEY (id, orderDate);
+ALTER TABLE orderitem ADD CONSTRAINT fk_orderitem_order
+    FOREIGN KEY (order_id, orderDate) REFERENCES customer_order (id, orderDate);
+ALTER TABLE orderitem ADD FOREIGN KEY (product_id) REFERENCES product (id);
+CREATE INDEX idx_orderitem_order ON orderitem (order_id);
+
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN
+        SELECT generate_series(
+            date_trunc('month', LEAST(coalesce(min(orderDate), localtimestamp), localtimestamp)),
+            date_trunc('month', GREATEST(coalesce(max(orderDate), localtimestamp), localtimestamp)) + interval '3 months',
+            interval '1 month')::date
+        FROM customer_order_legacy
+    LOOP
+        EXECUTE format('CREATE TABLE customer_order_p%s PARTITION OF customer_order FOR VALUES FROM (%L) TO (%L)',
+            to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        EXECUTE format('CREATE TABLE orderitem_p%s PARTITION OF orderitem FOR VALUES FROM (%L) TO (%L)',
+            to_char(month, 'YYYYMM'), month, month + interval '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO customer_order SELECT * FROM customer_order_legacy;
+INSERT INTO orderitem SELECT * FROM orderitem_legacy;
+
+DROP TABLE orderitem_legacy;
+DROP TABLE customer_order_legacy;
+
+COMMIT;
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.rethink.api.config;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+public class ReadOnlyGetFilterTest {
+    
+    private ReadOnlyGetFilter filter;
+    private ContainerRequestContext requestContext;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new ReadOnlyGetFilter();
+        filter.session = mock(Session.class);
+        requestContext = mock(ContainerRequestContext.class);
+    }
+    
+    @Test
+    void testGetUsesReadOnlySessionWithoutFlush() {
+        when(requestContext.getMethod()).thenReturn("GET");
+        
+        filter.markReadOnly(requestContext);
+        
+        verify(filter.session).setDefaultReadOnly(true);
+        verify(filter.session).setHibernateFlushMode(FlushMode.MANUAL);
+    }
+    
+    @Test
+    void testWritesKeepDefaultSession() {
+        when(requestContext.getMethod()).thenReturn("POST");
+        
+        filter.markReadOnly(requestContext);
+        
+        verifyNoInteractions(filter.session);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.rethink.api.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderTest {
+    
+    private OrderItem item(String unitPrice, int quantity) {
+        return new OrderItem(new Product(), quantity, new BigDecimal(unitPrice));
+    }
+    
+    @Test
+    void testTotalIsMaintainedOnAddAndRemove() {
+        Order order = new Order();
+        OrderItem first = item("1299.90", 2);
+        OrderItem second = item("0.10", 3);
+        
+        order.addItem(first);
+        order.addItem(second);
+        assertEquals(new BigDecimal("2600.10"), order.totalAmount);
+        
+        order.removeItem(first);
+        assertEquals(new BigDecimal("0.30"), order.totalAmount);
+        
+        order.removeItem(first);
+        assertEquals(new BigDecimal("0.30"), order.totalAmount);
+    }
+    
+    @Test
+    void testChangeItemQuantityAdjustsTotalAndSubtotal() {
+        Order order = new Order();
+        OrderItem item = item("89.90", 1);
+        order.addItem(item);
+        
+        order.changeItemQuantity(item, 4);
+        
+        assertEquals(4, item.quantity);
+        assertEquals(new BigDecimal("359.60"), item.subtotal);
+        assertEquals(new BigDecimal("359.60"), order.totalAmount);
+    }
+    
+    @Test
+    void testTotalFollowsExternallyAssignedAmount() {
+        Order order = new Order();
+        order.totalAmount = new BigDecimal("100.00");
+        
+        order.addItem(item("10.00", 1));
+        assertEquals(new BigDecimal("110.00"), order.totalAmount);
+        
+        order.recalculateTotal();
+        assertEquals(new BigDecimal("10.00"), order.totalAmount);
+        
+        order.clearItems();
+        assertEquals(new BigDecimal("0.00"), order.totalAmount);
+    }
+    
+    @Test
+    void testLargeOrderMatchesFullRecalculation() {
+        Order order = new Order();
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int i = 1; i <= 10000; i++) {
+            OrderItem item = item(i + ".99", i % 7 + 1);
+            order.addItem(item);
+            expected = expected.add(item.unitPrice.multiply(BigDecimal.valueOf(item.quantity)));
+        }
+        
+        assertEquals(0, expected.compareTo(order.totalAmount));
+        BigDecimal incremental = order.totalAmount;
+        order.recalculateTotal();
+        assertEquals(incremental, order.totalAmount);
+    }
+}
\ No newline at end of file
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -208,4 +209,15 @@ public class OrderItemRepositoryTest extends BaseRepositoryTest {
         
         assertEquals(new BigDecimal("999.90"), item.subtotal);
     }
+    
+    @Test
+    @Transactional
+    void testSumQuantityByProductForOrders() {
+        Map<Long, Long> quantities = orderItemRepository.sumQuantityByProductForOrders(
+                List.of(testOrder1.id, testOrder2.id));
+        
+        assertEquals(2, quantities.size());
+        assertEquals(3L, quantities.get(testProduct1.id));
+        assertEquals(2L, quantities.get(testProduct2.id));
+    }
 }
\ No newline at end of file
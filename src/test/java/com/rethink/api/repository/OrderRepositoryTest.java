@@ -1,5 +1,6 @@
 package com.rethink.api.repository;
 
+import com.rethink.api.dto.OrderStatusView;
 import com.rethink.api.entity.Customer;
 import com.rethink.api.entity.Order;
 import com.rethink.api.entity.OrderItem;
@@ -137,6 +138,34 @@ public class OrderRepositoryTest extends BaseRepositoryTest {
         assertTrue(recentOrders.get(0).orderDate.isAfter(recentOrders.get(1).orderDate));
     }
     
+    @Test
+    @Transactional
+    void testFindRecentOrdersBeyondRecentMonths() {
+        Order old = new Order(testCustomer2);
+        old.totalAmount = new BigDecimal("50.00");
+        old.orderDate = LocalDateTime.now().minusYears(2);
+        orderRepository.persist(old);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<Order> recentOrders = orderRepository.findRecentOrders(10);
+        
+        assertEquals(5, recentOrders.size());
+        assertEquals(old.id, recentOrders.get(4).id);
+        assertEquals(5, orderRepository.findRecentSummaries(10).size());
+        assertEquals(1, orderRepository.findRecentSummaries(1).size());
+    }
+    
+    @Test
+    @Transactional
+    void testItemsCopyOrderDate() {
+        List<Order> orders = orderRepository.findByCustomerId(testCustomer1.id);
+        
+        assertTrue(orders.stream().flatMap(o -> o.items.stream().map(i -> i.orderDate.equals(o.orderDate)))
+                .allMatch(Boolean::booleanValue));
+        assertFalse(orders.stream().allMatch(o -> o.items.isEmpty()));
+    }
+    
     @Test
     @Transactional
     void testFindPendingOrders() {
@@ -239,4 +268,45 @@ public class OrderRepositoryTest extends BaseRepositoryTest {
         
         assertEquals(4, orders.size());
     }
+    
+    @Test
+    @Transactional
+    void testLockByIdsAndStatus() {
+        List<Long> allIds = orderRepository.listAll().stream().map(o -> o.id).toList();
+        
+        List<OrderStatusView> locked = orderRepository.lockByIdsAndStatus(allIds,
+                List.of(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        
+        assertEquals(3, locked.size());
+        assertTrue(locked.get(0).id < locked.get(1).id);
+        assertNotNull(locked.get(0).customerId);
+        assertNotNull(locked.get(0).orderDate);
+    }
+    
+    @Test
+    @Transactional
+    void testFindStatusViewsByStatus() {
+        List<OrderStatusView> pending = orderRepository.findStatusViewsByStatus(Order.OrderStatus.PENDING);
+        
+        assertEquals(2, pending.size());
+        assertTrue(pending.stream().allMatch(v -> v.status == Order.OrderStatus.PENDING));
+        assertTrue(pending.stream().anyMatch(v -> v.customerId.equals(testCustomer1.id)));
+    }
+    
+    @Test
+    @Transactional
+    void testBulkUpdateStatus() {
+        List<Long> allIds = orderRepository.listAll().stream().map(o -> o.id).toList();
+        LocalDateTime now = LocalDateTime.now();
+        
+        int updated = orderRepository.updateStatus(allIds, List.of(Order.OrderStatus.PENDING),
+                Order.OrderStatus.CONFIRMED, now);
+        entityManager.clear();
+        
+        assertEquals(2, updated);
+        assertEquals(0L, orderRepository.countByStatus(Order.OrderStatus.PENDING));
+        assertEquals(3L, orderRepository.countByStatus(Order.OrderStatus.CONFIRMED));
+        assertTrue(orderRepository.findByStatus(Order.OrderStatus.CONFIRMED).stream()
+                .allMatch(o -> o.paymentDate != null));
+    }
 }
\ No newline at end of file
@@ -153,4 +153,16 @@ public class ProductRepositoryTest extends BaseRepositoryTest {
         
         assertEquals(3, products.size());
     }
+    
+    @Test
+    @Transactional
+    void testAddStock() {
+        Product product = productRepository.findByName("Test Product 2").get(0);
+        
+        int updated = productRepository.addStock(product.id, 7);
+        entityManager.clear();
+        
+        assertEquals(1, updated);
+        assertEquals(7, productRepository.findById(product.id).quantity);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class CartResourceTest {
+    
+    private String createCart(int customerId) {
+        String location = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":" + customerId + ",\"notes\":\"Carrinho de teste\"}")
+            .when().post("/carts")
+            .then()
+            .statusCode(201)
+            .body("customerId", is(customerId))
+            .body("items.size()", is(0))
+            .extract().header("Location");
+        return location.substring(location.lastIndexOf("/") + 1);
+    }
+    
+    @Test
+    public void testCreateAndGetEndpoint() {
+        String id = createCart(3);
+        
+        given()
+            .when().get("/carts/" + id)
+            .then()
+            .statusCode(200)
+            .body("id", is(id))
+            .body("notes", is("Carrinho de teste"));
+    }
+    
+    @Test
+    public void testCreateWithInvalidData() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":null}")
+            .when().post("/carts")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testCreateWithInvalidItems() {
+        for (String item : new String[]{"{\"quantity\":1}", "{\"productId\":1,\"quantity\":0}", "null"}) {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"customerId\":1,\"items\":[" + item + "]}")
+                .when().post("/carts")
+                .then()
+                .statusCode(400);
+        }
+    }
+    
+    @Test
+    public void testCreateMergesRepeatedProducts() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":1,\"items\":[{\"productId\":1,\"quantity\":2},{\"productId\":1,\"quantity\":3}]}")
+            .when().post("/carts")
+            .then()
+            .statusCode(201)
+            .body("items.size()", is(1))
+            .body("items[0].quantity", is(5));
+    }
+    
+    @Test
+    public void testGetByIdNotFound() {
+        given()
+            .when().get("/carts/inexistente")
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testAddAndRemoveItemEndpoints() {
+        String id = createCart(3);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 7)
+            .queryParam("quantity", 1)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(200)
+            .body("items.size()", is(1));
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 7)
+            .queryParam("quantity", 2)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(200)
+            .body("items.size()", is(1))
+            .body("items[0].quantity", is(3));
+        
+        given()
+            .when().delete("/carts/" + id + "/items/7")
+            .then()
+            .statusCode(200)
+            .body("items.size()", is(0));
+        
+        given()
+            .when().delete("/carts/" + id + "/items/7")
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testAddItemWithInvalidQuantity() {
+        String id = createCart(3);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 7)
+            .queryParam("quantity", 0)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testCheckoutEndpoint() {
+        String id = createCart(3);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 7)
+            .queryParam("quantity", 1)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(200);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 5)
+            .queryParam("quantity", 2)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(200);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/carts/" + id + "/checkout")
+            .then()
+            .statusCode(201)
+            .body("customer.id", is(3))
+            .body("status", is("PENDING"))
+            .body("items.size()", is(2))
+            .body("totalAmount", is(1020.0f));
+        
+        given()
+            .when().get("/carts/" + id)
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testCheckoutEmptyCart() {
+        String id = createCart(3);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/carts/" + id + "/checkout")
+            .then()
+            .statusCode(400);
+        
+        given()
+            .when().get("/carts/" + id)
+            .then()
+            .statusCode(200);
+    }
+    
+    @Test
+    public void testCheckoutWithInsufficientStockKeepsCart() {
+        String id = createCart(3);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("productId", 9)
+            .queryParam("quantity", 1000)
+            .when().post("/carts/" + id + "/items")
+            .then()
+            .statusCode(200);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/carts/" + id + "/checkout")
+            .then()
+            .statusCode(400);
+        
+        given()
+            .when().get("/carts/" + id)
+            .then()
+            .statusCode(200)
+            .body("items.size()", is(1));
+    }
+    
+    @Test
+    public void testDeleteEndpoint() {
+        String id = createCart(3);
+        
+        given()
+            .when().delete("/carts/" + id)
+            .then()
+            .statusCode(204);
+        
+        given()
+            .when().delete("/carts/" + id)
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testCountEndpoint() {
+        createCart(3);
+        
+        given()
+            .when().get("/carts/count")
+            .then()
+            .statusCode(200)
+            .body("total", greaterThan(0));
+    }
+}
\ No newline at end of file
@@ -20,6 +20,19 @@ public class CustomerResourceTest {
             .body("$.size()", greaterThan(0));
     }
     
+    @Test
+    public void testListSummaryView() {
+        given()
+            .queryParam("view", "summary")
+            .when().get("/customers")
+            .then()
+            .statusCode(200)
+            .body("find { it.id == 1 }.email", is("joao.silva@email.com"))
+            .body("find { it.id == 1 }.city", is("São Paulo"))
+            .body("find { it.id == 1 }.cpf", nullValue())
+            .body("find { it.id == 1 }.address", nullValue());
+    }
+    
     @Test
     public void testGetByIdEndpoint() {
         given()
@@ -182,4 +195,58 @@ public class CustomerResourceTest {
             .statusCode(200)
             .body("total", greaterThan(0));
     }
+    
+    @Test
+    public void testEstimatedCountEndpoint() {
+        given()
+            .queryParam("mode", "estimate")
+            .when().get("/customers/count")
+            .then()
+            .statusCode(200)
+            .body("total", greaterThan(0));
+    }
+    
+    @Test
+    public void testRecentFollowsCreateUpdateAndDelete() {
+        String body = "{\"name\":\"%s\",\"email\":\"recente@email.com\",\"phone\":\"(11) 97777-7777\",\"cpf\":\"222.333.444-55\",\"state\":\"SP\"}";
+        int id = given()
+            .contentType(ContentType.JSON)
+            .body(String.format(body, "Cliente Recente"))
+            .when().post("/customers")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        given()
+            .queryParam("limit", 1)
+            .when().get("/customers/recent")
+            .then()
+            .statusCode(200)
+            .body("id", contains(id))
+            .body("[0].name", is("Cliente Recente"));
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body(String.format(body, "Cliente Renomeado"))
+            .when().put("/customers/" + id)
+            .then()
+            .statusCode(200);
+        
+        given()
+            .queryParam("limit", 1)
+            .when().get("/customers/recent")
+            .then()
+            .body("[0].name", is("Cliente Renomeado"));
+        
+        given()
+            .when().delete("/customers/" + id)
+            .then()
+            .statusCode(204);
+        
+        given()
+            .queryParam("limit", 100)
+            .when().get("/customers/recent")
+            .then()
+            .body("id", not(hasItem(id)));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class DashboardResourceTest {
+    
+    @Test
+    public void testDashboardEndpoint() {
+        given()
+            .when().get("/dashboard")
+            .then()
+            .statusCode(200)
+            .body("totalOrders", greaterThan(0))
+            .body("ordersByStatus.DELIVERED", greaterThan(0))
+            .body("totalProducts", greaterThan(0))
+            .body("availableProducts", greaterThan(0))
+            .body("totalCustomers", greaterThan(0))
+            .body("recentOrders.size()", allOf(greaterThan(0), lessThanOrEqualTo(5)))
+            .body("recentCustomers.size()", allOf(greaterThan(0), lessThanOrEqualTo(5)))
+            .body("unavailable", empty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class EventLogResourceTest {
+    
+    /**
+     * Lê o consumidor até o fim do log, confirmando cada página, e retorna os eventos lidos.
+     */
+    private static List<Map<String, Object>> readToEnd(String consumer) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        while (true) {
+            ExtractableResponse<Response> page = given()
+                .queryParam("limit", 1000)
+                .when().get("/event-log/consumers/" + consumer)
+                .then()
+                .statusCode(200)
+                .extract();
+            events.addAll(page.path("records.event"));
+            long nextOffset = page.jsonPath().getLong("nextOffset");
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"offset\":" + nextOffset + "}")
+                .when().put("/event-log/consumers/" + consumer)
+                .then()
+                .statusCode(204);
+            if (nextOffset == page.jsonPath().getLong("endOffset")) {
+                return events;
+            }
+        }
+    }
+    
+    @Test
+    public void testConsumerReadsAndCommitsEvents() {
+        // O log fica em target/ entre execuções: cada execução usa um consumidor novo
+        String consumer = "test-consumer-" + UUID.randomUUID();
+        int productId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"Produto do Log\",\"description\":\"Evento\",\"price\":10.00,\"quantity\":3}")
+            .when().post("/products")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        // Um consumidor novo começa no início do log
+        List<Map<String, Object>> events = readToEnd(consumer);
+        assertTrue(events.stream().anyMatch(event -> "product".equals(event.get("entity"))
+                && "CREATED".equals(event.get("type"))
+                && Integer.valueOf(productId).equals(event.get("productId"))));
+        
+        int nextOffset = given()
+            .queryParam("limit", 1000)
+            .when().get("/event-log/consumers/" + consumer)
+            .then()
+            .statusCode(200)
+            .body("records", empty())
+            .extract().path("nextOffset");
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":1,\"items\":[{\"productId\":" + productId + ",\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201);
+        
+        given()
+            .when().get("/event-log/consumers/" + consumer)
+            .then()
+            .statusCode(200)
+            .body("records[0].offset", is(nextOffset));
+        List<Map<String, Object>> after = readToEnd(consumer);
+        assertTrue(after.stream().anyMatch(event -> "order".equals(event.get("entity"))
+                && "CREATED".equals(event.get("type"))));
+        // A baixa de estoque do pedido também chega ao log
+        assertTrue(after.stream().anyMatch(event -> "product".equals(event.get("entity"))
+                && "STOCK_CHANGED".equals(event.get("type"))
+                && Integer.valueOf(productId).equals(event.get("productId"))
+                && Integer.valueOf(-1).equals(event.get("quantityDelta"))));
+    }
+    
+    @Test
+    public void testInvalidConsumerOrOffset() {
+        given()
+            .when().get("/event-log/consumers/nome inválido")
+            .then()
+            .statusCode(400);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"offset\":-1}")
+            .when().put("/event-log/consumers/test-invalid")
+            .then()
+            .statusCode(400);
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"offset\":999999999}")
+            .when().put("/event-log/consumers/test-invalid")
+            .then()
+            .statusCode(400);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class FulfillmentResourceTest {
+    
+    @Test
+    public void testClaimAndAcknowledgeEndpoints() {
+        String location = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":2,\"items\":[{\"productId\":3,\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().header("Location");
+        int id = Integer.parseInt(location.substring(location.lastIndexOf("/") + 1));
+        
+        given()
+            .contentType(ContentType.JSON)
+            .queryParam("workerId", "worker-rest")
+            .queryParam("status", "PENDING")
+            .queryParam("limit", 50)
+            .when().post("/fulfillment/claims")
+            .then()
+            .statusCode(200)
+            .body("workerId", is("worker-rest"))
+            .body("leaseExpiresAt", notNullValue())
+            .body("orders.id", hasItem(id));
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"workerId\":\"worker-rest\",\"orderIds\":[" + id + "],\"status\":\"CONFIRMED\"}")
+            .when().post("/fulfillment/acks")
+            .then()
+            .statusCode(200)
+            .body("updated", is(1));
+        
+        given()
+            .when().get("/orders/" + id)
+            .then()
+            .statusCode(200)
+            .body("status", is("CONFIRMED"));
+    }
+    
+    @Test
+    public void testReleaseEndpoint() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"workerId\":\"worker-rest\",\"orderIds\":[999]}")
+            .when().post("/fulfillment/releases")
+            .then()
+            .statusCode(200)
+            .body("released", is(0));
+    }
+    
+    @Test
+    public void testClaimWithoutWorker() {
+        given()
+            .contentType(ContentType.JSON)
+            .when().post("/fulfillment/claims")
+            .then()
+            .statusCode(400);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+
+@QuarkusTest
+public class IngestionResourceTest {
+    
+    @Test
+    public void testIngestOrdersAndGetCheckpoint() {
+        int productId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"name\":\"Produto Marketplace\",\"price\":10.00,\"quantity\":5}")
+            .when().post("/products")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        String jobId = UUID.randomUUID().toString();
+        String body = "{\"customerEmail\":\"maria.santos@email.com\",\"items\":[{\"productId\":" + productId
+                + ",\"quantity\":1}]}\n"
+                + "{\"customerCpf\":\"000.000.000-00\",\"items\":[{\"productId\":" + productId
+                + ",\"quantity\":1}]}\n";
+        
+        given()
+            .contentType("application/x-ndjson")
+            .body(body.getBytes(StandardCharsets.UTF_8))
+            .when().post("/ingestions/orders/" + jobId)
+            .then()
+            .statusCode(200)
+            .body("jobId", is(jobId))
+            .body("linesRead", is(2))
+            .body("ordersCreated", is(1))
+            .body("rejected", is(1))
+            .body("checkpoint", is(2));
+        
+        given()
+            .when().get("/ingestions/orders/" + jobId)
+            .then()
+            .statusCode(200)
+            .body("lineNumber", is(2))
+            .body("ordersCreated", is(1));
+        
+        given()
+            .when().get("/products/" + productId)
+            .then()
+            .statusCode(200)
+            .body("quantity", is(4));
+    }
+    
+    @Test
+    public void testGetUnknownCheckpoint() {
+        given()
+            .when().get("/ingestions/orders/inexistente")
+            .then()
+            .statusCode(404);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.rethink.api.resource;
+
+import com.rethink.api.entity.Order;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderFetchPlanTest {
+    
+    @Inject
+    SessionFactory sessionFactory;
+    
+    private static boolean ordersCreated;
+    
+    @BeforeEach
+    void createOrders() {
+        if (ordersCreated) {
+            return;
+        }
+        for (int i = 0; i < 5; i++) {
+            given()
+                .contentType(ContentType.JSON)
+                .body("{\"customerId\":4,\"items\":[{\"productId\":4,\"quantity\":1},{\"productId\":5,\"quantity\":1}]}")
+                .when().post("/orders")
+                .then()
+                .statusCode(201);
+        }
+        ordersCreated = true;
+    }
+    
+    private long statementsFor(String path) {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .when().get(path)
+            .then()
+            .statusCode(200)
+            .body("size()", greaterThan(0))
+            .body("customer.name", everyItem(notNullValue()))
+            .body("items.flatten().product.name", everyItem(notNullValue()));
+        return statistics.getPrepareStatementCount();
+    }
+    
+    @Test
+    public void testListRunsInSingleStatement() {
+        assertEquals(1, statementsFor("/orders"));
+    }
+    
+    @Test
+    public void testListByCustomerRunsInSingleStatement() {
+        assertEquals(1, statementsFor("/orders/customer/4"));
+    }
+    
+    @Test
+    public void testListByStatusRunsInSingleStatement() {
+        assertEquals(1, statementsFor("/orders/status/PENDING"));
+        assertEquals(1, statementsFor("/orders/pending"));
+    }
+    
+    @Test
+    public void testRecentFetchesBufferedIdsInSingleStatement() {
+        assertEquals(1, statementsFor("/orders/recent?limit=3"));
+    }
+    
+    @Test
+    public void testRecentSummaryIsServedFromMemory() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .queryParam("view", "summary")
+            .queryParam("limit", 3)
+            .when().get("/orders/recent")
+            .then()
+            .statusCode(200)
+            .body("size()", is(3));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    public void testSummaryViewRunsInSingleStatement() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .queryParam("view", "summary")
+            .when().get("/orders/customer/4")
+            .then()
+            .statusCode(200)
+            .body("customerName", everyItem(is("Ana Costa")));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    public void testSparseFieldsSelectOnlyRequestedColumns() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .queryParam("fields", "id,status,totalAmount")
+            .when().get("/orders/customer/4")
+            .then()
+            .statusCode(200)
+            .body("customerName", everyItem(nullValue()))
+            .body("items", everyItem(nullValue()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    public void testTerminalOrderIsServedFromCache() {
+        String first = given()
+            .when().get("/orders/1")
+            .then()
+            .statusCode(200)
+            .body("status", is("DELIVERED"))
+            .extract().asString();
+        
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        String second = given()
+            .when().get("/orders/1")
+            .then()
+            .statusCode(200)
+            .contentType(ContentType.JSON)
+            .extract().asString();
+        assertEquals(first, second);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    public void testGetByIdIsServedFromReadModel() {
+        Integer id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":4,\"items\":[{\"productId\":7,\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .when().get("/orders/" + id)
+            .then()
+            .statusCode(200)
+            .body("status", is("PENDING"))
+            .body("customer.name", is("Ana Costa"))
+            .body("items.product.name", everyItem(notNullValue()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityStatistics(Order.class.getName()).getLoadCount());
+    }
+    
+    @Test
+    public void testCustomerHistoryIsServedFromReadModel() {
+        Statistics statistics = sessionFactory.getStatistics();
+        assertEquals(1, statementsFor("/orders/customer/4"));
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+    
+    @Test
+    public void testGetByIdUsesBatchFetching() {
+        // Pedido, cliente, itens e um lote para todos os produtos, independente do número de itens
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+            .when().get("/orders/1")
+            .then()
+            .statusCode(200)
+            .body("items.product.name", everyItem(notNullValue()));
+        assertTrue(statistics.getPrepareStatementCount() <= 4);
+    }
+}
\ No newline at end of file
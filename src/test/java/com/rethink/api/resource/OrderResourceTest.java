@@ -1,5 +1,6 @@
 package com.rethink.api.resource;
 
+import io.quarkus.test.common.http.TestHTTPResource;
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.Test;
@@ -13,9 +14,28 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.Order;
 import io.restassured.response.Response;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @QuarkusTest
 public class OrderResourceTest {
     
+    @TestHTTPResource("/orders/events")
+    URI eventsUri;
+    
     @Test
     public void testListAllEndpoint() {
         given()
@@ -25,6 +45,45 @@ public class OrderResourceTest {
             .body("$.size()", greaterThan(0));
     }
     
+    @Test
+    public void testListSummaryView() {
+        given()
+            .queryParam("view", "summary")
+            .when().get("/orders")
+            .then()
+            .statusCode(200)
+            .body("find { it.id == 1 }.customerId", is(1))
+            .body("find { it.id == 1 }.customerName", is("João Silva"))
+            .body("find { it.id == 1 }.status", is("DELIVERED"))
+            .body("find { it.id == 1 }.totalAmount", notNullValue())
+            .body("find { it.id == 1 }.items", nullValue())
+            .body("find { it.id == 1 }.shippingAddress", nullValue());
+        
+        given()
+            .queryParam("view", "summary")
+            .when().get("/orders/status/SHIPPED")
+            .then()
+            .statusCode(200)
+            .body("status", everyItem(is("SHIPPED")));
+        
+        given()
+            .queryParam("view", "summary")
+            .queryParam("limit", 2)
+            .when().get("/orders/recent")
+            .then()
+            .statusCode(200)
+            .body("$.size()", is(2));
+    }
+    
+    @Test
+    public void testInvalidViewIsRejected() {
+        given()
+            .queryParam("view", "compact")
+            .when().get("/orders")
+            .then()
+            .statusCode(400);
+    }
+    
     @Test
     public void testGetByIdEndpoint() {
         given()
@@ -164,6 +223,307 @@ public class OrderResourceTest {
             .statusCode(200)
             .body("total", greaterThan(0))
             .body("pending", greaterThanOrEqualTo(0))
-            .body("delivered", greaterThanOrEqualTo(0));
+            .body("delivered", greaterThanOrEqualTo(0))
+            .body("customers", nullValue());
+    }
+    
+    @Test
+    public void testCountDistinctCustomersInPeriod() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .when().get("/orders/count")
+            .then()
+            .statusCode(200)
+            .body("customers", is(5));
+        
+        given()
+            .queryParam("mode", "estimate")
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .when().get("/orders/count")
+            .then()
+            .statusCode(200)
+            .body("total", greaterThan(0))
+            .body("customers", is(5));
+    }
+    
+    @Test
+    public void testCountRejectsInvalidMode() {
+        given()
+            .queryParam("mode", "guess")
+            .when().get("/orders/count")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testCountRejectsInvertedPeriod() {
+        for (String mode : new String[]{"exact", "estimate"}) {
+            given()
+                .queryParam("mode", mode)
+                .queryParam("from", "2024-03-31")
+                .queryParam("to", "2024-03-01")
+                .when().get("/orders/count")
+                .then()
+                .statusCode(400);
+        }
+    }
+    
+    @Test
+    public void testBulkUpdateStatusEndpoint() {
+        String location = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":5,\"items\":[{\"productId\":6,\"quantity\":2}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().header("Location");
+        String id = location.substring(location.lastIndexOf("/") + 1);
+        int stockBefore = given().when().get("/products/6").then().extract().path("quantity");
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"orderIds\":[" + id + ",1],\"status\":\"CANCELLED\"}")
+            .when().put("/orders/status")
+            .then()
+            .statusCode(200)
+            .body("requested", is(2))
+            .body("updated", is(1))
+            .body("rejectedIds", contains(1));
+        
+        given()
+            .when().get("/orders/" + id)
+            .then()
+            .statusCode(200)
+            .body("status", is("CANCELLED"));
+        
+        given()
+            .when().get("/products/6")
+            .then()
+            .statusCode(200)
+            .body("quantity", is(stockBefore + 2));
+    }
+    
+    @Test
+    public void testBulkUpdateStatusWithInvalidData() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"orderIds\":[],\"status\":null}")
+            .when().put("/orders/status")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testSparseFields() {
+        given()
+            .queryParam("fields", "id,status,totalAmount")
+            .when().get("/orders/status/DELIVERED")
+            .then()
+            .statusCode(200)
+            .body("[0].keySet()", contains("id", "status", "totalAmount"))
+            .body("[0].id", is(1))
+            .body("[0].status", is("DELIVERED"));
+        
+        given()
+            .queryParam("fields", "customerName")
+            .when().get("/orders/1")
+            .then()
+            .statusCode(200)
+            .body("keySet()", contains("customerName"));
+        
+        given()
+            .queryParam("fields", "id")
+            .when().get("/orders/99999")
+            .then()
+            .statusCode(404);
+        
+        given()
+            .queryParam("fields", "items")
+            .when().get("/orders")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testDeletedCancelledOrderLeavesCache() {
+        int id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":5,\"items\":[{\"productId\":7,\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"orderIds\":[" + id + "],\"status\":\"CANCELLED\"}")
+            .when().put("/orders/status")
+            .then()
+            .statusCode(200)
+            .body("updated", is(1));
+        
+        given()
+            .when().get("/orders/" + id)
+            .then()
+            .statusCode(200)
+            .body("status", is("CANCELLED"));
+        
+        given()
+            .when().delete("/orders/" + id)
+            .then()
+            .statusCode(204);
+        
+        given()
+            .when().get("/orders/" + id)
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testSearchPagesWithCursor() {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = given()
+                .queryParam("from", "2024-03-01T00:00:00")
+                .queryParam("to", "2024-03-31T23:59:59")
+                .queryParam("limit", 2);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            var page = request
+                .when().get("/orders/search")
+                .then()
+                .statusCode(200)
+                .body("items.size()", lessThanOrEqualTo(2))
+                .extract();
+            ids.addAll(page.path("items.id"));
+            cursor = page.path("nextCursor");
+        } while (cursor != null);
+        
+        assertEquals(List.of(5, 4, 3, 2, 1), ids);
+    }
+    
+    @Test
+    public void testSearchCombinesCriteria() {
+        given()
+            .queryParam("customerId", 1)
+            .queryParam("status", "DELIVERED")
+            .when().get("/orders/search")
+            .then()
+            .statusCode(200)
+            .body("items.id", hasItem(1))
+            .body("items.customerId", everyItem(is(1)))
+            .body("nextCursor", nullValue());
+        
+        given()
+            .queryParam("shippingState", "sp")
+            .queryParam("minTotal", "4000")
+            .queryParam("maxTotal", "5000")
+            .when().get("/orders/search")
+            .then()
+            .statusCode(200)
+            .body("items.id", contains(1));
+    }
+    
+    @Test
+    public void testSearchRejectsUnindexedOrInvalidCriteria() {
+        given().queryParam("status", "PENDING")
+            .when().get("/orders/search")
+            .then().statusCode(400);
+        
+        given().queryParam("minTotal", "100")
+            .when().get("/orders/search")
+            .then().statusCode(400);
+        
+        given()
+            .queryParam("status", "PENDING")
+            .queryParam("from", "2024-01-01T00:00:00")
+            .queryParam("to", "2024-12-31T00:00:00")
+            .when().get("/orders/search")
+            .then().statusCode(400);
+        
+        given().queryParam("cursor", "invalido")
+            .when().get("/orders/search")
+            .then().statusCode(400);
+        
+        given().queryParam("limit", 0)
+            .when().get("/orders/search")
+            .then().statusCode(400);
+    }
+    
+    @Test
+    public void testRecentFollowsCreatedOrders() {
+        int id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":2,\"items\":[{\"productId\":8,\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        given()
+            .queryParam("limit", 1)
+            .queryParam("view", "summary")
+            .when().get("/orders/recent")
+            .then()
+            .statusCode(200)
+            .body("id", contains(id))
+            .body("[0].customerName", is("Maria Santos"))
+            .body("[0].status", is("PENDING"));
+        
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"orderIds\":[" + id + "],\"status\":\"CONFIRMED\"}")
+            .when().put("/orders/status")
+            .then()
+            .statusCode(200);
+        
+        given()
+            .queryParam("limit", 1)
+            .when().get("/orders/recent")
+            .then()
+            .statusCode(200)
+            .body("id", contains(id))
+            .body("[0].status", is("CONFIRMED"))
+            .body("[0].items.size()", is(1));
+    }
+    
+    @Test
+    public void testEventStreamResumesAndFiltersByCustomer() throws Exception {
+        int id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"customerId\":3,\"items\":[{\"productId\":8,\"quantity\":1}]}")
+            .when().post("/orders")
+            .then()
+            .statusCode(201)
+            .extract().path("id");
+        
+        // Retomando do início, o evento já publicado vem do buffer de replay
+        HttpRequest request = HttpRequest.newBuilder(URI.create(eventsUri + "?customerId=3"))
+                .header("Last-Event-ID", "0")
+                .build();
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        CompletableFuture<HttpResponse<Stream<String>>> response = HttpClient.newHttpClient()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        response.thenAccept(r -> r.body().forEach(lines::add));
+        try {
+            String line;
+            String event = null;
+            do {
+                line = lines.poll(10, TimeUnit.SECONDS);
+                assertNotNull(line, "evento do pedido " + id + " não recebido");
+                if (line.startsWith("event:")) {
+                    event = line.substring("event:".length()).trim();
+                }
+            } while (!(line.startsWith("data:") && line.contains("\"orderId\":" + id + ",")));
+            assertEquals("CREATED", event);
+            assertTrue(line.contains("\"customerId\":3"));
+        } finally {
+            response.cancel(true);
+            response.thenAccept(r -> r.body().close());
+        }
     }
 }
\ No newline at end of file
@@ -20,6 +20,43 @@ public class ProductResourceTest {
             .body("$.size()", greaterThan(0));
     }
     
+    @Test
+    public void testListSummaryView() {
+        given()
+            .queryParam("view", "summary")
+            .when().get("/products/available")
+            .then()
+            .statusCode(200)
+            .body("$.size()", greaterThan(0))
+            .body("name", everyItem(notNullValue()))
+            .body("description", everyItem(nullValue()))
+            .body("quantity", everyItem(greaterThan(0)));
+    }
+    
+    @Test
+    public void testSparseFields() {
+        given()
+            .queryParam("fields", "id,price,quantity")
+            .when().get("/products")
+            .then()
+            .statusCode(200)
+            .body("$.size()", greaterThan(0))
+            .body("[0].keySet()", contains("id", "price", "quantity"));
+        
+        given()
+            .queryParam("fields", "name")
+            .when().get("/products/1")
+            .then()
+            .statusCode(200)
+            .body("keySet()", contains("name"));
+        
+        given()
+            .queryParam("fields", "id,secret")
+            .when().get("/products")
+            .then()
+            .statusCode(400);
+    }
+    
     @Test
     public void testGetByIdEndpoint() {
         given()
@@ -126,4 +163,15 @@ public class ProductResourceTest {
             .body("total", greaterThan(0))
             .body("available", greaterThan(0));
     }
+    
+    @Test
+    public void testEstimatedCountEndpoint() {
+        given()
+            .queryParam("mode", "estimate")
+            .when().get("/products/count")
+            .then()
+            .statusCode(200)
+            .body("total", greaterThan(0))
+            .body("available", greaterThan(0));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@QuarkusTest
+public class ReportResourceTest {
+    
+    @Test
+    void testRevenueByState() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .queryParam("groupBy", "state")
+            .when().get("/reports/revenue")
+            .then()
+            .statusCode(200)
+            .body("groupBy", hasItems("state"))
+            .body("rows.state", hasItems("SP", "RJ", "MG", "PR", "RS"))
+            .body("rows.find { it.state == 'SP' }.revenue", is(4150.00f))
+            .body("orderCount", is(5));
+    }
+    
+    @Test
+    void testRevenueWithoutGroupsReturnsTotals() {
+        given()
+            .queryParam("from", "2024-03-10")
+            .queryParam("to", "2024-03-10")
+            .when().get("/reports/revenue")
+            .then()
+            .statusCode(200)
+            .body("rows.size()", is(1))
+            .body("orderCount", is(1))
+            .body("itemCount", is(10));
+    }
+    
+    @Test
+    void testRevenueRejectsInvalidGroup() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .queryParam("groupBy", "week")
+            .when().get("/reports/revenue")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    void testRebuildRevenue() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .when().post("/reports/revenue/rebuild")
+            .then()
+            .statusCode(200)
+            .body("orderCount", is(5))
+            .body("revenue", is(12170.00f));
+    }
+    
+    @Test
+    void testRebuildRevenueRequiresPeriod() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .when().post("/reports/revenue/rebuild")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    void testAnalyticsReportRunsInBackground() throws Exception {
+        String id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"from\": \"2024-03-01\", \"to\": \"2024-03-31\", \"groupBy\": [\"state\"], \"chunkDays\": 5}")
+            .when().post("/reports/analytics")
+            .then()
+            .statusCode(202)
+            .body("chunks", is(7))
+            .extract().path("id");
+        
+        String state = "RUNNING";
+        for (int i = 0; i < 100 && "RUNNING".equals(state); i++) {
+            Thread.sleep(50);
+            state = given().when().get("/reports/analytics/" + id).then().extract().path("state");
+        }
+        assertEquals("COMPLETED", state);
+        
+        given()
+            .when().get("/reports/analytics/" + id)
+            .then()
+            .statusCode(200)
+            .body("completedChunks", is(7))
+            .body("rows.state", hasItems("SP", "RJ", "MG", "PR", "RS"))
+            .body("rows.find { it.state == 'SP' }.revenue", is(4150.00f));
+    }
+    
+    @Test
+    void testAnalyticsReportRequiresPeriod() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"groupBy\": [\"state\"]}")
+            .when().post("/reports/analytics")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    void testCancelUnknownAnalyticsReport() {
+        given()
+            .when().delete("/reports/analytics/desconhecido")
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    void testSnapshotByMonthAndStatus() {
+        given()
+            .queryParam("from", "2024-03-01")
+            .queryParam("to", "2024-03-31")
+            .queryParam("status", "DELIVERED")
+            .queryParam("groupBy", "month,status")
+            .when().get("/reports/snapshot")
+            .then()
+            .statusCode(200)
+            .body("rows.size()", is(1))
+            .body("rows[0].month", is("2024-03"))
+            .body("rows[0].revenue", is(4150.00f))
+            .body("rows[0].averageBasket", is(4150.00f))
+            .body("orderCount", is(1));
+    }
+    
+    @Test
+    void testSnapshotRejectsInvalidGroup() {
+        given()
+            .queryParam("groupBy", "week")
+            .when().get("/reports/snapshot")
+            .then()
+            .statusCode(400);
+    }
+}
\ No newline at end of file
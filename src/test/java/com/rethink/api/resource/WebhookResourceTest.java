@@ -0,0 +1,66 @@
+package com.rethink.api.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+@QuarkusTest
+public class WebhookResourceTest {
+    
+    @Test
+    public void testRegisterListAndDelete() {
+        int id = given()
+            .contentType(ContentType.JSON)
+            .body("{\"url\":\"http://localhost:9/parceiro\",\"customerId\":1}")
+            .when().post("/webhooks")
+            .then()
+            .statusCode(201)
+            .body("url", is("http://localhost:9/parceiro"))
+            .body("createdAt", notNullValue())
+            .extract().path("id");
+        
+        given()
+            .when().get("/webhooks")
+            .then()
+            .statusCode(200)
+            .body("id", hasItem(id));
+        
+        given()
+            .when().delete("/webhooks/" + id)
+            .then()
+            .statusCode(204);
+        
+        given()
+            .when().get("/webhooks/" + id)
+            .then()
+            .statusCode(404);
+        
+        given()
+            .when().delete("/webhooks/" + id)
+            .then()
+            .statusCode(404);
+    }
+    
+    @Test
+    public void testRegisterWithInvalidUrl() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"url\":\"ftp://parceiro\"}")
+            .when().post("/webhooks")
+            .then()
+            .statusCode(400);
+    }
+    
+    @Test
+    public void testMetricsEndpoint() {
+        given()
+            .when().get("/webhooks/metrics")
+            .then()
+            .statusCode(200)
+            .body("pending", greaterThanOrEqualTo(0))
+            .body("openCircuits", notNullValue());
+    }
+}
\ No newline at end of file
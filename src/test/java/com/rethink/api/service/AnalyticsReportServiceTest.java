@@ -0,0 +1,199 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.AnalyticsReportJob;
+import com.rethink.api.dto.AnalyticsReportRequest;
+import com.rethink.api.dto.AnalyticsReportRow;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderItemRepository;
+import com.rethink.api.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class AnalyticsReportServiceTest {
+    
+    @Inject
+    AnalyticsReportService analyticsReportService;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderItemRepository orderItemRepository;
+    
+    private AnalyticsReportRequest march(Integer chunkDays, String... groupBy) {
+        AnalyticsReportRequest request = new AnalyticsReportRequest();
+        request.from = LocalDate.of(2024, 3, 1);
+        request.to = LocalDate.of(2024, 3, 31);
+        request.groupBy = List.of(groupBy);
+        request.chunkDays = chunkDays;
+        return request;
+    }
+    
+    private AnalyticsReportJob await(AnalyticsReportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        AnalyticsReportJob current = analyticsReportService.find(job.id);
+        while (current.state == AnalyticsReportJob.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            current = analyticsReportService.find(job.id);
+        }
+        return current;
+    }
+    
+    private static String describe(AnalyticsReportRow row) {
+        return row.month + "|" + row.state + "|" + row.orderCount + "|" + row.itemCount + "|" + row.revenue;
+    }
+    
+    @Test
+    void testMonthlyTotalsMatchAcrossChunkSizes() throws Exception {
+        AnalyticsReportJob daily = await(analyticsReportService.submit(march(1, "month", "state")));
+        AnalyticsReportJob whole = await(analyticsReportService.submit(march(31, "month", "state")));
+        
+        assertEquals(AnalyticsReportJob.State.COMPLETED, daily.state);
+        assertEquals(31, daily.chunks);
+        assertEquals(31, daily.completedChunks);
+        assertEquals(1, whole.chunks);
+        assertEquals(whole.rows.stream().map(AnalyticsReportServiceTest::describe).toList(),
+                daily.rows.stream().map(AnalyticsReportServiceTest::describe).toList());
+        
+        AnalyticsReportRow rj = daily.rows.stream().filter(row -> "RJ".equals(row.state)).findFirst().orElseThrow();
+        assertEquals("2024-03", rj.month);
+        assertEquals(1, rj.orderCount);
+        assertEquals(10, rj.itemCount);
+        assertEquals(new BigDecimal("3220.00"), rj.revenue);
+    }
+    
+    @Test
+    void testAverageBasket() throws Exception {
+        AnalyticsReportJob job = await(analyticsReportService.submit(march(7)));
+        
+        assertEquals(AnalyticsReportJob.State.COMPLETED, job.state);
+        assertEquals(5, job.chunks);
+        assertEquals(1, job.rows.size());
+        AnalyticsReportRow totals = job.rows.get(0);
+        assertEquals(5, totals.orderCount);
+        assertEquals(15, totals.itemCount);
+        assertEquals(new BigDecimal("12120.00"), totals.revenue);
+        assertEquals(new BigDecimal("2424.00"), totals.averageBasket);
+        assertEquals(new BigDecimal("3.00"), totals.averageItems);
+    }
+    
+    @Test
+    void testEmptyPeriodCompletesWithoutRows() throws Exception {
+        AnalyticsReportRequest request = march(7);
+        request.from = LocalDate.of(2010, 1, 1);
+        request.to = LocalDate.of(2010, 1, 31);
+        AnalyticsReportJob job = await(analyticsReportService.submit(request));
+        
+        assertEquals(AnalyticsReportJob.State.COMPLETED, job.state);
+        assertTrue(job.rows.isEmpty());
+    }
+    
+    @Test
+    void testCountsItemsWithoutOrderDate() throws Exception {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 3L;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = 7L;
+        item.quantity = 2;
+        Long id = orderService.create(order, List.of(item)).id;
+        // Itens gravados antes da coluna orderDate, num banco nunca particionado
+        LocalDateTime orderDate = LocalDateTime.of(2011, 4, 5, 10, 0);
+        QuarkusTransaction.requiringNew().run(() -> {
+            orderRepository.update("orderDate = ?1 where id = ?2", orderDate, id);
+            orderItemRepository.update("orderDate = null where order.id = ?1", id);
+        });
+        
+        AnalyticsReportRequest request = march(7);
+        request.from = LocalDate.of(2011, 4, 1);
+        request.to = LocalDate.of(2011, 4, 30);
+        AnalyticsReportJob job = await(analyticsReportService.submit(request));
+        
+        assertEquals(AnalyticsReportJob.State.COMPLETED, job.state);
+        assertEquals(1, job.rows.size());
+        assertEquals(1, job.rows.get(0).orderCount);
+        assertEquals(2, job.rows.get(0).itemCount);
+        assertEquals(new BigDecimal("640.00"), job.rows.get(0).revenue);
+        orderService.delete(id);
+    }
+    
+    @Test
+    void testRevenuePerProductFilteredByStatus() throws Exception {
+        AnalyticsReportRequest request = march(3, "product");
+        request.statuses = List.of(Order.OrderStatus.SHIPPED);
+        AnalyticsReportJob job = await(analyticsReportService.submit(request));
+        
+        assertEquals(List.of(6L, 7L, 8L), job.rows.stream().map(row -> row.productId).toList());
+        assertEquals(6, job.rows.get(0).itemCount);
+        assertEquals(new BigDecimal("1680.00"), job.rows.get(0).revenue);
+    }
+    
+    @Test
+    void testProgressStreamsUntilCompleted() {
+        AnalyticsReportJob job = analyticsReportService.submit(march(1, "day"));
+        
+        List<AnalyticsReportJob> progress = analyticsReportService.progress(job.id)
+                .collect().asList()
+                .await().atMost(Duration.ofSeconds(10));
+        
+        AnalyticsReportJob last = progress.get(progress.size() - 1);
+        assertEquals(AnalyticsReportJob.State.COMPLETED, last.state);
+        assertEquals(31, last.completedChunks);
+        assertEquals(5, last.rows.size());
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i).completedChunks >= progress.get(i - 1).completedChunks);
+        }
+    }
+    
+    @Test
+    void testCancelSkipsPendingChunks() throws Exception {
+        AnalyticsReportRequest request = new AnalyticsReportRequest();
+        request.from = LocalDate.of(2010, 1, 1);
+        request.to = LocalDate.of(2024, 12, 31);
+        request.chunkDays = 2;
+        AnalyticsReportJob job = analyticsReportService.submit(request);
+        
+        AnalyticsReportJob cancelled = analyticsReportService.cancel(job.id);
+        
+        assertEquals(AnalyticsReportJob.State.CANCELLED, cancelled.state);
+        assertNotNull(cancelled.finishedAt);
+        assertNull(cancelled.rows);
+        Thread.sleep(200);
+        assertTrue(analyticsReportService.find(job.id).completedChunks < job.chunks);
+    }
+    
+    @Test
+    void testInvalidRequests() {
+        assertThrows(BadRequestException.class, () -> analyticsReportService.submit(march(7, "week")));
+        
+        AnalyticsReportRequest reversed = march(7);
+        reversed.to = LocalDate.of(2024, 2, 1);
+        assertThrows(BadRequestException.class, () -> analyticsReportService.submit(reversed));
+        
+        AnalyticsReportRequest tooManyChunks = march(1);
+        tooManyChunks.from = LocalDate.of(1900, 1, 1);
+        assertThrows(BadRequestException.class, () -> analyticsReportService.submit(tooManyChunks));
+        
+        assertThrows(NotFoundException.class, () -> analyticsReportService.find("desconhecido"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,239 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.Cart;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.repository.ProductRepository;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+public class CartServiceTest {
+    
+    @Inject
+    CartService cartService;
+    
+    @InjectMock
+    OrderService orderService;
+    
+    @InjectMock
+    ProductRepository productRepository;
+    
+    private Cart newCart() {
+        Cart cart = new Cart();
+        cart.customerId = 1L;
+        return cartService.create(cart);
+    }
+    
+    @Test
+    void testCreate() {
+        Cart cart = newCart();
+        
+        assertNotNull(cart.id);
+        assertNotNull(cart.createdAt);
+        assertTrue(cart.items.isEmpty());
+        assertSame(cart, cartService.findById(cart.id));
+    }
+    
+    @Test
+    void testFindByIdNotFound() {
+        assertThrows(NotFoundException.class, () -> {
+            cartService.findById("inexistente");
+        });
+    }
+    
+    @Test
+    void testAddItemMergesQuantities() {
+        Cart cart = newCart();
+        
+        cartService.addItem(cart.id, 1L, 2);
+        cartService.addItem(cart.id, 2L, 1);
+        Cart result = cartService.addItem(cart.id, 1L, 3);
+        
+        assertEquals(2, result.items.size());
+        assertEquals(5, result.findItem(1L).quantity);
+        verifyNoInteractions(productRepository, orderService);
+    }
+    
+    @Test
+    void testAddItemRejectsOverflowingQuantity() {
+        Cart cart = newCart();
+        cartService.addItem(cart.id, 1L, Integer.MAX_VALUE);
+        
+        assertThrows(BadRequestException.class, () -> {
+            cartService.addItem(cart.id, 1L, 1);
+        });
+        assertEquals(Integer.MAX_VALUE, cartService.findById(cart.id).findItem(1L).quantity);
+    }
+    
+    @Test
+    void testAddItemWithInvalidQuantity() {
+        Cart cart = newCart();
+        
+        assertThrows(BadRequestException.class, () -> {
+            cartService.addItem(cart.id, 1L, -1);
+        });
+    }
+    
+    @Test
+    void testRemoveItem() {
+        Cart cart = newCart();
+        cartService.addItem(cart.id, 1L, 2);
+        
+        Cart result = cartService.removeItem(cart.id, 1L);
+        
+        assertTrue(result.items.isEmpty());
+        assertThrows(NotFoundException.class, () -> {
+            cartService.removeItem(cart.id, 1L);
+        });
+    }
+    
+    @Test
+    void testDelete() {
+        Cart cart = newCart();
+        
+        cartService.delete(cart.id);
+        
+        assertThrows(NotFoundException.class, () -> {
+            cartService.findById(cart.id);
+        });
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCheckout() {
+        Cart cart = newCart();
+        cart.shippingCity = "Campinas";
+        cartService.addItem(cart.id, 1L, 2);
+        cartService.addItem(cart.id, 2L, 1);
+        
+        Order order = new Order();
+        order.id = 10L;
+        when(orderService.create(any(Order.class), anyList())).thenReturn(order);
+        
+        Order result = cartService.checkout(cart.id);
+        
+        assertEquals(10L, result.id);
+        ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+        ArgumentCaptor<List<OrderItem>> itemsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, times(1)).create(orderCaptor.capture(), itemsCaptor.capture());
+        assertEquals(1L, orderCaptor.getValue().customer.id);
+        assertEquals("Campinas", orderCaptor.getValue().shippingCity);
+        assertEquals(2, itemsCaptor.getValue().size());
+        verifyNoInteractions(productRepository);
+        assertThrows(NotFoundException.class, () -> {
+            cartService.findById(cart.id);
+        });
+    }
+    
+    @Test
+    void testCheckoutEmptyCart() {
+        Cart cart = newCart();
+        
+        assertThrows(BadRequestException.class, () -> {
+            cartService.checkout(cart.id);
+        });
+        verifyNoInteractions(orderService);
+    }
+    
+    @Test
+    void testCheckoutFailureKeepsCart() {
+        Cart cart = newCart();
+        cartService.addItem(cart.id, 1L, 2);
+        when(orderService.create(any(Order.class), anyList()))
+                .thenThrow(new BadRequestException("Estoque insuficiente"));
+        
+        assertThrows(BadRequestException.class, () -> {
+            cartService.checkout(cart.id);
+        });
+        assertNotNull(cartService.findById(cart.id));
+    }
+    
+    @Test
+    void testCheckoutEmptyCartKeepsCart() {
+        Cart cart = newCart();
+        
+        assertThrows(BadRequestException.class, () -> {
+            cartService.checkout(cart.id);
+        });
+        assertNotNull(cartService.findById(cart.id));
+    }
+    
+    @Test
+    void testConcurrentCheckoutCreatesSingleOrder() throws Exception {
+        Cart cart = newCart();
+        cartService.addItem(cart.id, 1L, 2);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Order order = new Order();
+        order.id = 11L;
+        when(orderService.create(any(Order.class), anyList())).thenAnswer(invocation -> {
+            creating.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return order;
+        });
+        
+        CompletableFuture<Order> first = CompletableFuture.supplyAsync(() -> cartService.checkout(cart.id));
+        assertTrue(creating.await(10, TimeUnit.SECONDS));
+        try {
+            assertThrows(NotFoundException.class, () -> {
+                cartService.checkout(cart.id);
+            });
+        } finally {
+            release.countDown();
+        }
+        
+        assertEquals(11L, first.get(10, TimeUnit.SECONDS).id);
+        verify(orderService, times(1)).create(any(Order.class), anyList());
+        assertThrows(NotFoundException.class, () -> {
+            cartService.findById(cart.id);
+        });
+    }
+    
+    @Test
+    void testStoreEvictsExpiredCarts() {
+        CartStore store = new CartStore();
+        store.ttl = Duration.ofMinutes(30);
+        store.maxSize = 10;
+        
+        Cart cart = store.save(new Cart());
+        cart.updatedAt = LocalDateTime.now().minusHours(1);
+        
+        assertTrue(store.find(cart.id).isEmpty());
+        assertEquals(0, store.size());
+    }
+    
+    @Test
+    void testStoreEvictsLeastRecentlyUsedWhenFull() {
+        CartStore store = new CartStore();
+        store.ttl = Duration.ofMinutes(30);
+        store.maxSize = 2;
+        
+        Cart first = store.save(new Cart());
+        Cart second = store.save(new Cart());
+        store.find(first.id);
+        Cart third = store.save(new Cart());
+        
+        assertEquals(2, store.size());
+        assertTrue(store.find(first.id).isPresent());
+        assertTrue(store.find(second.id).isEmpty());
+        assertTrue(store.find(third.id).isPresent());
+    }
+}
\ No newline at end of file
@@ -31,6 +31,12 @@ public class CustomerServiceTest {
     @InjectMock
     CustomerRepository customerRepository;
     
+    @InjectMock
+    RecentActivity recentActivity;
+    
+    @InjectMock
+    OrderReadModel orderReadModel;
+    
     private Customer testCustomer;
     
     @BeforeEach
@@ -0,0 +1,93 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.CustomerSummary;
+import com.rethink.api.dto.Dashboard;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+public class DashboardServiceTest {
+    
+    @Inject
+    DashboardService dashboardService;
+    
+    @ConfigProperty(name = "dashboard.timeout")
+    Duration timeout;
+    
+    @InjectMock
+    ProductService productService;
+    
+    @InjectMock
+    CustomerService customerService;
+    
+    @BeforeEach
+    void setUp() {
+        when(productService.countAvailableProducts()).thenReturn(8L);
+        when(customerService.findRecentSummaries(anyInt()))
+                .thenReturn(List.of(new CustomerSummary(1L, "João Silva", "joao.silva@email.com", "São Paulo", "SP")));
+    }
+    
+    private long sleepThenReturn(long millis, long value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+    
+    @Test
+    void testPartsRunInParallel() {
+        long delay = timeout.toMillis() * 3 / 4;
+        when(productService.countProducts()).thenAnswer(invocation -> sleepThenReturn(delay, 10L));
+        when(customerService.countCustomers()).thenAnswer(invocation -> sleepThenReturn(delay, 5L));
+        
+        long start = System.nanoTime();
+        Dashboard dashboard = dashboardService.load().await().atMost(Duration.ofSeconds(10));
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        
+        assertEquals(10L, dashboard.totalProducts);
+        assertEquals(5L, dashboard.totalCustomers);
+        assertTrue(elapsed < delay * 2, "Partes executadas em sequência: " + elapsed + " ms");
+        assertTrue(dashboard.unavailable.isEmpty());
+    }
+    
+    @Test
+    void testSlowPartIsLeftOut() {
+        long delay = timeout.toMillis() * 2;
+        when(productService.countProducts()).thenReturn(10L);
+        when(customerService.countCustomers()).thenAnswer(invocation -> sleepThenReturn(delay, 5L));
+        
+        long start = System.nanoTime();
+        Dashboard dashboard = dashboardService.load().await().atMost(Duration.ofSeconds(10));
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        
+        assertNull(dashboard.totalCustomers);
+        assertEquals(List.of("customers"), dashboard.unavailable);
+        assertEquals(10L, dashboard.totalProducts);
+        assertEquals(8L, dashboard.availableProducts);
+        assertEquals(1, dashboard.recentCustomers.size());
+        assertNotNull(dashboard.totalOrders);
+        assertNotNull(dashboard.recentOrders);
+        assertTrue(elapsed < delay, "Painel esperou a parte lenta: " + elapsed + " ms");
+    }
+    
+    @Test
+    void testFailingPartIsLeftOut() {
+        when(productService.countProducts()).thenThrow(new IllegalStateException("banco indisponível"));
+        when(customerService.countCustomers()).thenReturn(5L);
+        
+        Dashboard dashboard = dashboardService.load().await().atMost(Duration.ofSeconds(10));
+        
+        assertNull(dashboard.totalProducts);
+        assertEquals(List.of("products"), dashboard.unavailable);
+        assertEquals(5L, dashboard.totalCustomers);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.BulkStatusUpdateResult;
+import com.rethink.api.dto.FulfillmentClaim;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class FulfillmentServiceTest {
+    
+    @Inject
+    FulfillmentService fulfillmentService;
+    
+    @Inject
+    OrderService orderService;
+    
+    private List<Long> createProcessingOrders(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.customer = new Customer();
+            order.customer.id = 2L;
+            OrderItem item = new OrderItem();
+            item.product = new Product();
+            item.product.id = 8L;
+            item.quantity = 1;
+            Long id = orderService.create(order, List.of(item)).id;
+            orderService.updateStatus(id, Order.OrderStatus.CONFIRMED);
+            orderService.updateStatus(id, Order.OrderStatus.PROCESSING);
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    private Set<Long> idsOf(FulfillmentClaim claim) {
+        return claim.orders.stream().map(o -> o.id).collect(Collectors.toSet());
+    }
+    
+    @Test
+    void testClaimAssignsLease() {
+        List<Long> created = createProcessingOrders(2);
+        
+        FulfillmentClaim claim = fulfillmentService.claim("worker-a", Order.OrderStatus.PROCESSING, 100);
+        
+        assertTrue(idsOf(claim).containsAll(created));
+        assertNotNull(claim.leaseExpiresAt);
+        assertTrue(claim.orders.stream().allMatch(o -> "worker-a".equals(o.claimedBy)));
+        
+        FulfillmentClaim second = fulfillmentService.claim("worker-b", Order.OrderStatus.PROCESSING, 100);
+        assertTrue(second.orders.stream().noneMatch(o -> created.contains(o.id)));
+    }
+    
+    @Test
+    void testConcurrentClaimsSkipLockedRows() throws Exception {
+        List<Long> created = createProcessingOrders(4);
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<Set<Long>> first = CompletableFuture.supplyAsync(() ->
+                QuarkusTransaction.requiringNew().call(() -> {
+                    Set<Long> ids = idsOf(fulfillmentService.claim("worker-a", Order.OrderStatus.PROCESSING, 2));
+                    claimed.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return ids;
+                }));
+        
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+        Set<Long> secondIds = idsOf(fulfillmentService.claim("worker-b", Order.OrderStatus.PROCESSING, 100));
+        release.countDown();
+        Set<Long> firstIds = first.get(10, TimeUnit.SECONDS);
+        
+        assertEquals(2, firstIds.size());
+        assertTrue(secondIds.stream().noneMatch(firstIds::contains));
+        assertTrue(created.stream().allMatch(id -> firstIds.contains(id) || secondIds.contains(id)));
+    }
+    
+    @Test
+    void testAcknowledgeAppliesStatusAndReleasesClaim() {
+        List<Long> created = createProcessingOrders(2);
+        fulfillmentService.claim("worker-a", Order.OrderStatus.PROCESSING, 100);
+        
+        BulkStatusUpdateResult result = fulfillmentService.acknowledge("worker-a", created, Order.OrderStatus.SHIPPED);
+        
+        assertEquals(2, result.updated);
+        assertTrue(result.rejectedIds.isEmpty());
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Long id : created) {
+                Order order = orderService.findById(id);
+                assertEquals(Order.OrderStatus.SHIPPED, order.status);
+                assertNotNull(order.shippingDate);
+                assertNull(order.claimedBy);
+            }
+        });
+    }
+    
+    @Test
+    void testAcknowledgeRejectsOrdersClaimedByAnotherWorker() {
+        List<Long> created = createProcessingOrders(1);
+        fulfillmentService.claim("worker-a", Order.OrderStatus.PROCESSING, 100);
+        
+        BulkStatusUpdateResult result = fulfillmentService.acknowledge("worker-b", created, Order.OrderStatus.SHIPPED);
+        
+        assertEquals(0, result.updated);
+        assertEquals(created, result.rejectedIds);
+    }
+    
+    @Test
+    void testReleaseMakesOrdersClaimableAgain() {
+        List<Long> created = createProcessingOrders(1);
+        fulfillmentService.claim("worker-a", Order.OrderStatus.PROCESSING, 100);
+        
+        assertEquals(1, fulfillmentService.release("worker-a", created));
+        
+        FulfillmentClaim claim = fulfillmentService.claim("worker-b", Order.OrderStatus.PROCESSING, 100);
+        assertTrue(idsOf(claim).containsAll(created));
+    }
+    
+    @Test
+    void testClaimWithoutWorker() {
+        assertThrows(BadRequestException.class, () -> {
+            fulfillmentService.claim(" ", Order.OrderStatus.CONFIRMED, 10);
+        });
+    }
+}
\ No newline at end of file
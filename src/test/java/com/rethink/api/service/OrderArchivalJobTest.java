@@ -0,0 +1,184 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderItemRepository;
+import com.rethink.api.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderArchivalJobTest {
+    
+    @Inject
+    OrderArchivalJob orderArchivalJob;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    CustomerService customerService;
+    
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    OrderStatistics orderStatistics;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderItemRepository orderItemRepository;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private Long createOrder(LocalDateTime orderDate, Order.OrderStatus... transitions) {
+        return createOrder(5L, orderDate, transitions);
+    }
+    
+    private Long createOrder(Long customerId, LocalDateTime orderDate, Order.OrderStatus... transitions) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = customerId;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = 7L;
+        item.quantity = 1;
+        Long id = orderService.create(order, List.of(item)).id;
+        for (Order.OrderStatus status : transitions) {
+            orderService.updateStatus(id, status);
+        }
+        // Entregue ou cancelado no mesmo dia do pedido
+        QuarkusTransaction.requiringNew().run(() -> {
+            orderRepository.update("orderDate = ?1 where id = ?2", orderDate, id);
+            orderRepository.update("deliveryDate = ?1 where id = ?2 and deliveryDate is not null", orderDate, id);
+            orderRepository.update("cancellationDate = ?1 where id = ?2 and cancellationDate is not null", orderDate, id);
+        });
+        return id;
+    }
+    
+    private boolean existsInDatabase(Long id) {
+        return QuarkusTransaction.requiringNew().call(() -> orderRepository.findByIdOptional(id).isPresent());
+    }
+    
+    private Path writeSegment(Long id) {
+        return QuarkusTransaction.requiringNew().call(() ->
+                orderArchive.write(orderRepository.findWithDetailsByIds(List.of(id))));
+    }
+    
+    @Test
+    void testArchivesOldTerminalOrders() throws Exception {
+        LocalDateTime orderDate = LocalDateTime.of(2001, 1, 10, 12, 0);
+        Long cancelled = createOrder(orderDate, Order.OrderStatus.CANCELLED);
+        Long pending = createOrder(orderDate);
+        orderStatistics.reconcile();
+        long cancelledCount = orderStatistics.count(Order.OrderStatus.CANCELLED);
+        
+        assertEquals(1, orderArchivalJob.archive(LocalDateTime.of(2001, 6, 1, 0, 0)));
+        
+        assertFalse(existsInDatabase(cancelled));
+        assertTrue(existsInDatabase(pending));
+        assertEquals(Order.OrderStatus.CANCELLED, OrderArchive.statusOf(orderArchive.find(cancelled).orElseThrow()));
+        assertEquals(cancelledCount, orderStatistics.count(Order.OrderStatus.CANCELLED));
+        assertEquals(0, orderStatistics.reconcile());
+        
+        given()
+                .when().get("/orders/" + cancelled)
+                .then()
+                .statusCode(200)
+                .body("status", is("CANCELLED"))
+                .body("items[0].product.id", is(7))
+                .body("customer.id", is(5));
+        
+        JsonNode history = objectMapper.readTree(
+                QuarkusTransaction.requiringNew().call(() -> orderReadModel.findCustomerHistory(5L)));
+        List<Long> ids = history.findValues("id").stream().map(JsonNode::asLong).toList();
+        assertTrue(ids.contains(cancelled));
+        assertTrue(ids.contains(pending));
+    }
+    
+    @Test
+    void testArchiveSkipsRecentOrders() {
+        Long delivered = createOrder(LocalDateTime.of(2002, 3, 1, 12, 0), Order.OrderStatus.CONFIRMED,
+                Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+        
+        assertEquals(0, orderArchivalJob.archive(LocalDateTime.of(2002, 2, 1, 0, 0)));
+        assertTrue(existsInDatabase(delivered));
+        assertTrue(orderArchive.find(delivered).isEmpty());
+    }
+    
+    @Test
+    void testArchiveCountsAgeFromTerminalStatus() {
+        Long delivered = createOrder(LocalDateTime.of(2005, 1, 10, 12, 0), Order.OrderStatus.CONFIRMED,
+                Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+        QuarkusTransaction.requiringNew().run(() ->
+                orderRepository.update("deliveryDate = ?1 where id = ?2", LocalDateTime.of(2005, 12, 1, 12, 0), delivered));
+        
+        // Pedido antigo, mas entregue depois do corte
+        orderArchivalJob.archive(LocalDateTime.of(2005, 6, 1, 0, 0));
+        assertTrue(existsInDatabase(delivered));
+        
+        orderArchivalJob.archive(LocalDateTime.of(2006, 1, 1, 0, 0));
+        assertFalse(existsInDatabase(delivered));
+    }
+    
+    @Test
+    void testCustomerWithArchivedOrdersCannotBeDeleted() {
+        Long customerId = customerService.create(new Customer("Cliente Arquivado", "arquivado@email.com",
+                "(41) 98765-1111", "963.852.741-00")).id;
+        createOrder(customerId, LocalDateTime.of(2004, 3, 1, 12, 0), Order.OrderStatus.CANCELLED);
+        
+        orderArchivalJob.archive(LocalDateTime.of(2004, 6, 1, 0, 0));
+        
+        assertTrue(orderArchive.hasCustomerOrders(customerId));
+        assertThrows(BadRequestException.class, () -> customerService.delete(customerId));
+    }
+    
+    @Test
+    void testRecoveryDiscardsUncommittedSegment() {
+        Long id = createOrder(LocalDateTime.of(2003, 1, 1, 12, 0), Order.OrderStatus.CANCELLED);
+        Path dataFile = writeSegment(id);
+        
+        orderArchivalJob.onStart(null);
+        
+        assertFalse(Files.exists(dataFile));
+        assertTrue(orderArchive.find(id).isEmpty());
+        assertTrue(existsInDatabase(id));
+    }
+    
+    @Test
+    void testRecoverySealsCommittedSegment() {
+        Long id = createOrder(LocalDateTime.of(2004, 1, 1, 12, 0), Order.OrderStatus.CANCELLED);
+        writeSegment(id);
+        // Queda depois do commit: os pedidos já saíram do banco, mas o segmento não foi selado
+        QuarkusTransaction.requiringNew().run(() -> {
+            orderItemRepository.deleteByOrderIds(List.of(id));
+            orderRepository.deleteById(id);
+        });
+        
+        orderArchivalJob.onStart(null);
+        
+        assertEquals(Order.OrderStatus.CANCELLED, OrderArchive.statusOf(orderArchive.find(id).orElseThrow()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.AnalyticsReportRow;
+import com.rethink.api.dto.OrderSnapshotReport;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderColumnSnapshotTest {
+    
+    private static final LocalDate SEED_FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate SEED_TO = LocalDate.of(2024, 3, 31);
+    
+    @Inject
+    OrderColumnSnapshot orderColumnSnapshot;
+    
+    @Inject
+    OrderService orderService;
+    
+    private Long createOrder(Long customerId, Long productId, int quantity) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = customerId;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = productId;
+        item.quantity = quantity;
+        return orderService.create(order, List.of(item)).id;
+    }
+    
+    /** Pedidos e itens de hoje do cliente 5 no status informado. */
+    private long[] today(Order.OrderStatus status) {
+        LocalDate today = LocalDate.now();
+        return orderColumnSnapshot.query(today, today, List.of(status), null, null, 5L, null, null).rows.stream()
+                .findFirst()
+                .map(row -> new long[]{row.orderCount, row.itemCount})
+                .orElse(new long[2]);
+    }
+    
+    private static void assertDelta(long[] before, long[] after, long orders, long items) {
+        assertEquals(orders, after[0] - before[0]);
+        assertEquals(items, after[1] - before[1]);
+    }
+    
+    @Test
+    void testSeedOrdersByState() {
+        OrderSnapshotReport report = orderColumnSnapshot.query(SEED_FROM, SEED_TO, null, null, null, null, null, "state");
+        
+        assertEquals(List.of("MG", "PR", "RJ", "RS", "SP"), report.rows.stream().map(row -> row.state).toList());
+        AnalyticsReportRow rj = report.rows.get(2);
+        assertEquals(1, rj.orderCount);
+        assertEquals(10, rj.itemCount);
+        assertEquals(new BigDecimal("3220.00"), rj.revenue);
+        assertEquals(5, report.orderCount);
+        assertEquals(new BigDecimal("12120.00"), report.revenue);
+        assertNotNull(report.refreshedAt);
+    }
+    
+    @Test
+    void testRevenuePerProductFilteredByStatus() {
+        OrderSnapshotReport report = orderColumnSnapshot.query(SEED_FROM, SEED_TO, List.of(Order.OrderStatus.SHIPPED),
+                null, null, null, null, "product");
+        
+        assertEquals(List.of(6L, 7L, 8L), report.rows.stream().map(row -> row.productId).toList());
+        assertEquals(6, report.rows.get(0).itemCount);
+        assertEquals(new BigDecimal("1680.00"), report.rows.get(0).revenue);
+        assertEquals(1, report.rows.get(0).orderCount);
+    }
+    
+    @Test
+    void testRefreshAppliesCommittedChanges() {
+        orderColumnSnapshot.refresh();
+        long[] pending = today(Order.OrderStatus.PENDING);
+        long[] cancelled = today(Order.OrderStatus.CANCELLED);
+        
+        Long id = createOrder(5L, 7L, 2);
+        orderService.addItem(id, 6L, 1);
+        orderColumnSnapshot.refresh();
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 1, 3);
+        
+        orderService.updateStatus(id, Order.OrderStatus.CANCELLED);
+        orderColumnSnapshot.refresh();
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 0, 0);
+        assertDelta(cancelled, today(Order.OrderStatus.CANCELLED), 1, 3);
+        
+        orderService.delete(id);
+        orderColumnSnapshot.refresh();
+        assertDelta(cancelled, today(Order.OrderStatus.CANCELLED), 0, 0);
+    }
+    
+    @Test
+    void testCountsOrdersOncePerProduct() {
+        LocalDate today = LocalDate.now();
+        List<Order.OrderStatus> pending = List.of(Order.OrderStatus.PENDING);
+        orderColumnSnapshot.refresh();
+        long filtered = orderColumnSnapshot.query(today, today, pending, null, null, 5L, 6L, null).orderCount;
+        long grouped = orderColumnSnapshot.query(today, today, pending, null, null, 5L, 6L, "product").orderCount;
+        
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 5L;
+        List<OrderItem> items = new ArrayList<>();
+        for (long productId : new long[]{7L, 6L, 6L}) {
+            OrderItem item = new OrderItem();
+            item.product = new Product();
+            item.product.id = productId;
+            item.quantity = 1;
+            items.add(item);
+        }
+        Long id = orderService.create(order, items).id;
+        orderColumnSnapshot.refresh();
+        
+        assertEquals(filtered + 1, orderColumnSnapshot.query(today, today, pending, null, null, 5L, 6L, null).orderCount);
+        assertEquals(grouped + 1,
+                orderColumnSnapshot.query(today, today, pending, null, null, 5L, 6L, "product").orderCount);
+        orderService.delete(id);
+    }
+    
+    @Test
+    void testInvalidQueries() {
+        assertThrows(BadRequestException.class, () ->
+                orderColumnSnapshot.query(SEED_FROM, SEED_TO, null, null, null, null, null, "week"));
+        assertThrows(BadRequestException.class, () ->
+                orderColumnSnapshot.query(SEED_TO, SEED_FROM, null, null, null, null, null, null));
+    }
+}
\ No newline at end of file
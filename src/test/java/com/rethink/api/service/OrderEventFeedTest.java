@@ -0,0 +1,129 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.OrderFeedEvent;
+import com.rethink.api.entity.Order;
+import com.rethink.api.event.OrderEvent;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderEventFeedTest {
+    
+    private OrderEventFeed feed(int replaySize, int subscriberBuffer) {
+        OrderEventFeed feed = new OrderEventFeed();
+        feed.replaySize = replaySize;
+        feed.subscriberBuffer = subscriberBuffer;
+        feed.init();
+        return feed;
+    }
+    
+    private OrderEvent event(long orderId, long customerId, Order.OrderStatus from, Order.OrderStatus to) {
+        return new OrderEvent(OrderEvent.Type.STATUS_CHANGED, orderId, customerId, from, to, LocalDateTime.now());
+    }
+    
+    private List<Long> ids(AssertSubscriber<OrderFeedEvent> subscriber) {
+        return subscriber.getItems().stream().map(e -> e.id).toList();
+    }
+    
+    @Test
+    void testDeliversLiveEventsMatchingFilters() {
+        OrderEventFeed feed = feed(10, 10);
+        AssertSubscriber<OrderFeedEvent> all = feed.subscribe(null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        AssertSubscriber<OrderFeedEvent> customer = feed.subscribe(null, 2L, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        AssertSubscriber<OrderFeedEvent> shipped = feed.subscribe(Order.OrderStatus.SHIPPED, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        
+        feed.publish(event(1, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(2, 2, Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED));
+        feed.publish(event(3, 1, Order.OrderStatus.PROCESSING, Order.OrderStatus.SHIPPED));
+        
+        assertEquals(List.of(1L, 2L, 3L), ids(all));
+        assertEquals(List.of(2L), ids(customer));
+        assertEquals(List.of(2L, 3L), ids(shipped));
+        assertEquals(Order.OrderStatus.PROCESSING, shipped.getItems().get(0).previousStatus);
+    }
+    
+    @Test
+    void testResumesFromReplayBuffer() {
+        OrderEventFeed feed = feed(3, 10);
+        for (long i = 1; i <= 5; i++) {
+            feed.publish(event(i, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        }
+        
+        AssertSubscriber<OrderFeedEvent> resumed = feed.subscribe(null, null, 3L)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        feed.publish(event(6, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        assertEquals(List.of(4L, 5L, 6L), ids(resumed));
+        
+        // O evento 2 já saiu do buffer: o salto de 1 para 3 é visível pelo assinante
+        AssertSubscriber<OrderFeedEvent> late = feed.subscribe(null, null, 1L)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(List.of(4L, 5L, 6L), ids(late));
+        
+        AssertSubscriber<OrderFeedEvent> fresh = feed.subscribe(null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertTrue(fresh.getItems().isEmpty());
+    }
+    
+    @Test
+    void testSlowSubscriberCoalescesAndDropsWithoutBlockingOthers() {
+        OrderEventFeed feed = feed(100, 3);
+        AssertSubscriber<OrderFeedEvent> slow = feed.subscribe(null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+        AssertSubscriber<OrderFeedEvent> fast = feed.subscribe(null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        
+        feed.publish(event(1, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(2, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(1, 1, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING));
+        feed.publish(event(3, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(4, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        
+        assertEquals(5, fast.getItems().size());
+        assertTrue(slow.getItems().isEmpty());
+        
+        // Evento 1 substituído pelo 3 (mesmo pedido); com a fila cheia, o 2 foi descartado
+        slow.request(10);
+        assertEquals(List.of(3L, 4L, 5L), ids(slow));
+        assertEquals(Order.OrderStatus.PROCESSING, slow.getItems().get(0).status);
+        
+        feed.publish(event(5, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids(slow));
+    }
+    
+    @Test
+    void testFilteredOutEventEvictsQueuedEventOfSameOrder() {
+        OrderEventFeed feed = feed(100, 10);
+        AssertSubscriber<OrderFeedEvent> confirmed = feed.subscribe(Order.OrderStatus.CONFIRMED, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+        
+        feed.publish(event(1, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(2, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        feed.publish(event(1, 1, Order.OrderStatus.CONFIRMED, Order.OrderStatus.CANCELLED));
+        
+        // O pedido 1 já não está confirmado: o evento 1 na fila não é mais entregue
+        confirmed.request(10);
+        assertEquals(List.of(2L), ids(confirmed));
+    }
+    
+    @Test
+    void testCancelledSubscriberIsRemoved() {
+        OrderEventFeed feed = feed(10, 10);
+        AssertSubscriber<OrderFeedEvent> subscriber = feed.subscribe(null, null, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(1, feed.subscriberCount());
+        
+        subscriber.cancel();
+        feed.publish(event(1, 1, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        
+        assertEquals(0, feed.subscriberCount());
+        assertTrue(subscriber.getItems().isEmpty());
+        assertEquals(1, feed.lastEventId());
+    }
+}
\ No newline at end of file
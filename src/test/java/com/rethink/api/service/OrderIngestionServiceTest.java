@@ -0,0 +1,134 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.IngestionReport;
+import com.rethink.api.entity.IngestionCheckpoint;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.repository.ProductRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderIngestionServiceTest {
+    
+    @Inject
+    OrderIngestionService ingestionService;
+    
+    @Inject
+    ProductRepository productRepository;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    private Long createProduct(int quantity) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Product product = new Product("Produto Marketplace", null, new BigDecimal("25.50"), quantity);
+            productRepository.persist(product);
+            return product.id;
+        });
+    }
+    
+    private int stockOf(Long productId) {
+        return QuarkusTransaction.requiringNew().call(() -> productRepository.findById(productId).quantity);
+    }
+    
+    private String line(String customerKey, String customerValue, Long productId, int quantity) {
+        return "{\"" + customerKey + "\":\"" + customerValue + "\",\"items\":[{\"productId\":" + productId
+                + ",\"quantity\":" + quantity + "}]}";
+    }
+    
+    private InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void testIngestResolvesCustomersAndReservesStock() {
+        Long productId = createProduct(10);
+        String jobId = UUID.randomUUID().toString();
+        
+        IngestionReport report = ingestionService.ingest(jobId, ndjson(
+                line("customerEmail", "pedro.oliveira@email.com", productId, 2),
+                line("customerCpf", "789.123.456-00", productId, 3)));
+        
+        assertEquals(2, report.linesRead);
+        assertEquals(2, report.ordersCreated);
+        assertEquals(0, report.rejected);
+        assertEquals(2, report.checkpoint);
+        assertTrue(report.rowsPerSecond > 0);
+        assertEquals(5, stockOf(productId));
+        
+        QuarkusTransaction.requiringNew().run(() -> {
+            List<Order> orders = orderRepository.list("select distinct o from Order o join o.items i "
+                    + "where i.product.id = ?1 order by o.id", productId);
+            assertEquals(2, orders.size());
+            assertEquals(3L, orders.get(0).customer.id);
+            assertEquals(new BigDecimal("51.00"), orders.get(0).totalAmount);
+            assertEquals("Belo Horizonte", orders.get(0).shippingCity);
+            assertEquals(4L, orders.get(1).customer.id);
+            assertEquals(Order.OrderStatus.PENDING, orders.get(1).status);
+        });
+    }
+    
+    @Test
+    void testInvalidLinesAreRejectedWithoutAbortingTheJob() {
+        Long productId = createProduct(4);
+        String jobId = UUID.randomUUID().toString();
+        
+        IngestionReport report = ingestionService.ingest(jobId, ndjson(
+                line("customerEmail", "pedro.oliveira@email.com", productId, 3),
+                line("customerEmail", "pedro.oliveira@email.com", productId, 3),
+                line("customerEmail", "ninguem@email.com", productId, 1),
+                "{nao e json",
+                "",
+                line("customerEmail", "ana.costa@email.com", productId, 1)));
+        
+        assertEquals(6, report.linesRead);
+        assertEquals(2, report.ordersCreated);
+        assertEquals(3, report.rejected);
+        assertEquals(3, report.errors.size());
+        assertTrue(report.errors.get(0).startsWith("Linha 4"));
+        assertTrue(report.errors.get(1).startsWith("Linha 2"));
+        assertEquals(0, stockOf(productId));
+    }
+    
+    @Test
+    void testIngestResumesFromCheckpoint() {
+        Long productId = createProduct(10);
+        String jobId = UUID.randomUUID().toString();
+        String first = line("customerEmail", "carlos.ferreira@email.com", productId, 1);
+        String second = line("customerEmail", "carlos.ferreira@email.com", productId, 2);
+        
+        ingestionService.ingest(jobId, ndjson(first));
+        IngestionReport report = ingestionService.ingest(jobId, ndjson(first, second));
+        
+        assertEquals(1, report.resumedFrom);
+        assertEquals(1, report.skipped);
+        assertEquals(1, report.linesRead);
+        assertEquals(1, report.ordersCreated);
+        assertEquals(7, stockOf(productId));
+        
+        IngestionCheckpoint checkpoint = ingestionService.findCheckpoint(jobId);
+        assertEquals(2, checkpoint.lineNumber);
+        assertEquals(2, checkpoint.ordersCreated);
+    }
+    
+    @Test
+    void testValidation() {
+        assertThrows(BadRequestException.class, () -> ingestionService.ingest(" ", ndjson()));
+        assertThrows(NotFoundException.class, () -> ingestionService.findCheckpoint("inexistente"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.OrderView;
+import com.rethink.api.entity.Product;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderReadModelTest {
+    
+    @Inject
+    OrderReadModel orderReadModel;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    CustomerService customerService;
+    
+    @Inject
+    ObjectMapper objectMapper;
+    
+    private Long createOrder(Long customerId, Long productId) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = customerId;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = productId;
+        item.quantity = 1;
+        return orderService.create(order, List.of(item)).id;
+    }
+    
+    private JsonNode document(Long orderId) throws Exception {
+        OrderView view = QuarkusTransaction.requiringNew().call(() -> orderReadModel.find(orderId)).orElseThrow();
+        return objectMapper.readTree(view.document);
+    }
+    
+    @Test
+    void testSeedOrdersAreBackfilled() throws Exception {
+        JsonNode order = document(1L);
+        assertEquals("DELIVERED", order.get("status").asText());
+        assertEquals("João Silva", order.get("customer").get("name").asText());
+        assertFalse(order.get("items").isEmpty());
+    }
+    
+    @Test
+    void testBackfillWritesMissingViews() throws Exception {
+        Long id = createOrder(3L, 7L);
+        QuarkusTransaction.requiringNew().run(() -> orderReadModel.remove(id));
+        
+        orderReadModel.onStart(null);
+        
+        assertEquals(id.longValue(), document(id).get("id").asLong());
+    }
+    
+    @Test
+    void testCreateAndAddItemRewriteDocument() throws Exception {
+        Long id = createOrder(3L, 7L);
+        JsonNode created = document(id);
+        assertEquals("PENDING", created.get("status").asText());
+        assertEquals(1, created.get("items").size());
+        
+        orderService.addItem(id, 6L, 2);
+        JsonNode updated = document(id);
+        assertEquals(2, updated.get("items").size());
+        for (JsonNode item : updated.get("items")) {
+            assertTrue(item.get("id").isNumber());
+        }
+        assertEquals(0, updated.get("totalAmount").decimalValue()
+                .compareTo(QuarkusTransaction.requiringNew().call(() -> orderService.findById(id).totalAmount)));
+    }
+    
+    @Test
+    void testBulkTransitionRewritesDocuments() throws Exception {
+        Long first = createOrder(3L, 7L);
+        Long second = createOrder(3L, 7L);
+        
+        orderService.bulkUpdateStatus(List.of(first, second), Order.OrderStatus.CANCELLED);
+        
+        assertEquals("CANCELLED", document(first).get("status").asText());
+        assertEquals("CANCELLED", document(second).get("status").asText());
+    }
+    
+    @Test
+    void testDeleteRemovesDocument() {
+        Long id = createOrder(3L, 7L);
+        
+        orderService.delete(id);
+        
+        assertTrue(QuarkusTransaction.requiringNew().call(() -> orderReadModel.find(id)).isEmpty());
+    }
+    
+    @Test
+    void testCustomerUpdateRewritesHistory() throws Exception {
+        Customer customer = new Customer("Cliente Leitura", "leitura@email.com", "(41) 98765-0000", "741.852.963-00");
+        Long customerId = customerService.create(customer).id;
+        Long id = createOrder(customerId, 7L);
+        
+        Customer changes = new Customer("Cliente Renomeado", "leitura@email.com", "(41) 98765-0000", "741.852.963-00");
+        customerService.update(customerId, changes);
+        
+        assertEquals("Cliente Renomeado", document(id).get("customer").get("name").asText());
+        JsonNode history = objectMapper.readTree(
+                QuarkusTransaction.requiringNew().call(() -> orderReadModel.findCustomerHistory(customerId)));
+        assertEquals(1, history.size());
+        assertEquals(id.longValue(), history.get(0).get("id").asLong());
+    }
+}
\ No newline at end of file
@@ -1,5 +1,10 @@
 package com.rethink.api.service;
 
+import com.rethink.api.dto.BulkStatusUpdateResult;
+import com.rethink.api.dto.OrderSearchCriteria;
+import com.rethink.api.dto.OrderSearchPage;
+import com.rethink.api.dto.OrderSummary;
+import com.rethink.api.dto.OrderStatusView;
 import com.rethink.api.entity.Customer;
 import com.rethink.api.entity.Order;
 import com.rethink.api.entity.OrderItem;
@@ -20,10 +25,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @QuarkusTest
@@ -35,6 +44,15 @@ public class OrderServiceTest {
     @InjectMock
     OrderRepository orderRepository;
     
+    @InjectMock
+    RecentActivity recentActivity;
+    
+    @InjectMock
+    OrderReadModel orderReadModel;
+    
+    @InjectMock
+    RevenueRollupService revenueRollups;
+    
     @InjectMock
     OrderItemRepository orderItemRepository;
     
@@ -69,12 +87,12 @@ public class OrderServiceTest {
     @Test
     void testListAll() {
         List<Order> orders = Arrays.asList(testOrder);
-        when(orderRepository.listAll()).thenReturn(orders);
+        when(orderRepository.findAllWithDetails()).thenReturn(orders);
         
         List<Order> result = orderService.listAll();
         
         assertEquals(1, result.size());
-        verify(orderRepository, times(1)).listAll();
+        verify(orderRepository, times(1)).findAllWithDetails();
     }
     
     @Test
@@ -201,7 +219,7 @@ public class OrderServiceTest {
     
     @Test
     void testUpdateStatus() {
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         Order result = orderService.updateStatus(1L, Order.OrderStatus.CONFIRMED);
         
@@ -212,7 +230,7 @@ public class OrderServiceTest {
     @Test
     void testUpdateStatusInvalidTransition() {
         testOrder.status = Order.OrderStatus.DELIVERED;
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         assertThrows(BadRequestException.class, () -> {
             orderService.updateStatus(1L, Order.OrderStatus.PENDING);
@@ -221,12 +239,13 @@ public class OrderServiceTest {
     
     @Test
     void testUpdateStatusToCancelled() {
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         int originalStock = testProduct.quantity;
         Order result = orderService.updateStatus(1L, Order.OrderStatus.CANCELLED);
         
         assertEquals(Order.OrderStatus.CANCELLED, result.status);
+        assertNotNull(result.cancellationDate);
         assertEquals(originalStock + 2, testProduct.quantity);
     }
     
@@ -235,7 +254,7 @@ public class OrderServiceTest {
         Product newProduct = new Product("New Product", "Description", new BigDecimal("50.00"), 5);
         newProduct.id = 2L;
         
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(productService.findById(2L)).thenReturn(newProduct);
         
         Order result = orderService.addItem(1L, 2L, 3);
@@ -247,7 +266,7 @@ public class OrderServiceTest {
     
     @Test
     void testAddItemToExistingProduct() {
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         when(productService.findById(1L)).thenReturn(testProduct);
         
         Order result = orderService.addItem(1L, 1L, 1);
@@ -260,7 +279,7 @@ public class OrderServiceTest {
     @Test
     void testAddItemToNonPendingOrder() {
         testOrder.status = Order.OrderStatus.CONFIRMED;
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         assertThrows(BadRequestException.class, () -> {
             orderService.addItem(1L, 2L, 1);
@@ -276,7 +295,7 @@ public class OrderServiceTest {
         secondItem.id = 2L;
         testOrder.addItem(secondItem);
         
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         doNothing().when(orderItemRepository).delete(any(OrderItem.class));
         
         int originalStock = testProduct.quantity;
@@ -290,7 +309,7 @@ public class OrderServiceTest {
     
     @Test
     void testRemoveLastItemFails() {
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         BadRequestException exception = assertThrows(BadRequestException.class, () -> {
             orderService.removeItem(1L, 1L);
@@ -302,7 +321,7 @@ public class OrderServiceTest {
     @Test
     void testRemoveItemFromNonPendingOrder() {
         testOrder.status = Order.OrderStatus.CONFIRMED;
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         assertThrows(BadRequestException.class, () -> {
             orderService.removeItem(1L, 1L);
@@ -311,7 +330,7 @@ public class OrderServiceTest {
     
     @Test
     void testDelete() {
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         doNothing().when(orderRepository).delete(any(Order.class));
         
         int originalStock = testProduct.quantity;
@@ -324,7 +343,7 @@ public class OrderServiceTest {
     @Test
     void testDeleteNonPendingOrder() {
         testOrder.status = Order.OrderStatus.CONFIRMED;
-        when(orderRepository.findByIdOptional(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testOrder));
         
         assertThrows(BadRequestException.class, () -> {
             orderService.delete(1L);
@@ -350,4 +369,99 @@ public class OrderServiceTest {
         assertEquals(5L, count);
         verify(orderRepository, times(1)).countByStatus(Order.OrderStatus.PENDING);
     }
+    
+    @Test
+    void testBulkUpdateStatus() {
+        when(orderRepository.lockByIdsAndStatus(anyCollection(), anyCollection())).thenReturn(List.of(
+                new OrderStatusView(1L, 1L, Order.OrderStatus.PENDING, LocalDateTime.now()),
+                new OrderStatusView(2L, 1L, Order.OrderStatus.PENDING, LocalDateTime.now())));
+        when(orderRepository.updateStatus(anyCollection(), anyCollection(), eq(Order.OrderStatus.CONFIRMED), any()))
+                .thenReturn(2);
+        
+        BulkStatusUpdateResult result = orderService.bulkUpdateStatus(List.of(3L, 2L, 1L), Order.OrderStatus.CONFIRMED);
+        
+        assertEquals(3, result.requested);
+        assertEquals(2, result.updated);
+        assertEquals(List.of(3L), result.rejectedIds);
+        verify(orderRepository, times(1)).lockByIdsAndStatus(List.of(1L, 2L, 3L), List.of(Order.OrderStatus.PENDING));
+        verify(productService, never()).restoreStock(anyMap());
+    }
+    
+    @Test
+    void testBulkUpdateStatusToCancelledRestoresStock() {
+        when(orderRepository.lockByIdsAndStatus(anyCollection(), anyCollection())).thenReturn(List.of(
+                new OrderStatusView(1L, 1L, Order.OrderStatus.PENDING, LocalDateTime.now()),
+                new OrderStatusView(2L, 1L, Order.OrderStatus.CONFIRMED, LocalDateTime.now())));
+        when(orderItemRepository.sumQuantityByProductForOrders(List.of(1L, 2L))).thenReturn(Map.of(1L, 5L, 2L, 1L));
+        when(orderRepository.updateStatus(anyCollection(), anyCollection(), eq(Order.OrderStatus.CANCELLED), any()))
+                .thenReturn(2);
+        
+        BulkStatusUpdateResult result = orderService.bulkUpdateStatus(List.of(1L, 2L), Order.OrderStatus.CANCELLED);
+        
+        assertEquals(2, result.updated);
+        assertTrue(result.rejectedIds.isEmpty());
+        verify(orderRepository, times(1)).lockByIdsAndStatus(List.of(1L, 2L),
+                List.of(Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PROCESSING));
+        verify(productService, times(1)).restoreStock(Map.of(1L, 5L, 2L, 1L));
+    }
+    
+    @Test
+    void testExpirePendingOrdersOnlyCancelsPending() {
+        when(orderRepository.lockByIdsAndStatus(anyCollection(), anyCollection())).thenReturn(List.of(
+                new OrderStatusView(1L, 1L, Order.OrderStatus.PENDING, LocalDateTime.now())));
+        when(orderItemRepository.sumQuantityByProductForOrders(List.of(1L))).thenReturn(Map.of(1L, 2L));
+        when(orderRepository.updateStatus(anyCollection(), anyCollection(), eq(Order.OrderStatus.CANCELLED), any()))
+                .thenReturn(1);
+        
+        BulkStatusUpdateResult result = orderService.expirePendingOrders(List.of(1L, 2L));
+        
+        assertEquals(1, result.updated);
+        assertEquals(List.of(2L), result.rejectedIds);
+        verify(orderRepository, times(1)).lockByIdsAndStatus(List.of(1L, 2L), List.of(Order.OrderStatus.PENDING));
+        verify(orderRepository, times(1)).updateStatus(eq(List.of(1L)), eq(List.of(Order.OrderStatus.PENDING)),
+                eq(Order.OrderStatus.CANCELLED), any());
+        verify(productService, times(1)).restoreStock(Map.of(1L, 2L));
+    }
+    
+    @Test
+    void testBulkUpdateStatusWithoutValidSource() {
+        BulkStatusUpdateResult result = orderService.bulkUpdateStatus(List.of(1L), Order.OrderStatus.PENDING);
+        
+        assertEquals(0, result.updated);
+        assertEquals(List.of(1L), result.rejectedIds);
+        verify(orderRepository, never()).lockByIdsAndStatus(anyCollection(), anyCollection());
+    }
+    
+    @Test
+    void testSearchReturnsCursorWhenMoreRowsExist() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.customerId = 1L;
+        criteria.limit = 1;
+        LocalDateTime date = LocalDateTime.of(2024, 3, 1, 10, 0);
+        when(orderRepository.search(criteria, null, null, 2)).thenReturn(List.of(
+                new OrderSummary(7L, 1L, "Test Customer", Order.OrderStatus.PENDING, BigDecimal.TEN, date),
+                new OrderSummary(6L, 1L, "Test Customer", Order.OrderStatus.PENDING, BigDecimal.TEN, date)));
+        
+        OrderSearchPage page = orderService.search(criteria);
+        
+        assertEquals(1, page.items.size());
+        assertNotNull(page.nextCursor);
+        
+        criteria.cursor = page.nextCursor;
+        when(orderRepository.search(criteria, date, 7L, 2)).thenReturn(List.of());
+        assertNull(orderService.search(criteria).nextCursor);
+        verify(orderRepository).search(criteria, date, 7L, 2);
+    }
+    
+    @Test
+    void testSearchRejectsStatusWithoutIndexedCriteria() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.status = Order.OrderStatus.PENDING;
+        
+        assertThrows(BadRequestException.class, () -> orderService.search(criteria));
+        
+        criteria.from = LocalDateTime.now().minusDays(7);
+        assertDoesNotThrow(() -> orderService.search(criteria));
+        verify(orderRepository, times(1)).search(any(), any(), any(), anyInt());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.rethink.api.service;
+
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class OrderStatisticsTest {
+    
+    @Inject
+    OrderStatistics orderStatistics;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderArchive orderArchive;
+    
+    @BeforeEach
+    void reconcile() {
+        assertTrue(orderStatistics.reconcile() >= 0);
+    }
+    
+    private Long createPendingOrder() {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 3L;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = 10L;
+        item.quantity = 1;
+        return orderService.create(order, List.of(item)).id;
+    }
+    
+    private void assertMatchesDatabase() {
+        // Pedidos arquivados saem do banco, mas continuam contados
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                assertEquals(orderRepository.countByStatus(status) + orderArchive.countsByStatus().getOrDefault(status, 0L),
+                        orderStatistics.count(status), status.name());
+            }
+            assertEquals(orderRepository.count() + orderArchive.size(), orderStatistics.total());
+        });
+    }
+    
+    @Test
+    void testCountersMatchDatabase() {
+        assertMatchesDatabase();
+    }
+    
+    @Test
+    void testCommittedChangesUpdateCounters() {
+        long pending = orderStatistics.count(Order.OrderStatus.PENDING);
+        long cancelled = orderStatistics.count(Order.OrderStatus.CANCELLED);
+        long total = orderStatistics.total();
+        
+        Long id = createPendingOrder();
+        assertEquals(pending + 1, orderStatistics.count(Order.OrderStatus.PENDING));
+        assertEquals(total + 1, orderStatistics.total());
+        
+        orderService.updateStatus(id, Order.OrderStatus.CANCELLED);
+        assertEquals(pending, orderStatistics.count(Order.OrderStatus.PENDING));
+        assertEquals(cancelled + 1, orderStatistics.count(Order.OrderStatus.CANCELLED));
+        
+        orderService.delete(id);
+        assertEquals(cancelled, orderStatistics.count(Order.OrderStatus.CANCELLED));
+        assertEquals(total, orderStatistics.total());
+        assertMatchesDatabase();
+    }
+    
+    @Test
+    void testReconcileCorrectsChangesMadeOutsideTheService() {
+        Long id = createPendingOrder();
+        QuarkusTransaction.requiringNew().run(() ->
+                orderRepository.update("status = ?1 where id = ?2", Order.OrderStatus.CONFIRMED, id));
+        
+        assertEquals(2, orderStatistics.reconcile());
+        assertMatchesDatabase();
+    }
+    
+    @Test
+    void testReconcileDiscountsEventsInFlight() {
+        long pending = orderStatistics.count(Order.OrderStatus.PENDING);
+        
+        QuarkusTransaction.requiringNew().run(() -> {
+            createPendingOrder();
+            // A contagem já enxerga o pedido, mas o evento só é aplicado depois do commit
+            assertEquals(0, orderStatistics.reconcile());
+            assertEquals(pending, orderStatistics.count(Order.OrderStatus.PENDING));
+        });
+        
+        assertEquals(pending + 1, orderStatistics.count(Order.OrderStatus.PENDING));
+        assertEquals(0, orderStatistics.reconcile());
+        assertMatchesDatabase();
+    }
+}
\ No newline at end of file
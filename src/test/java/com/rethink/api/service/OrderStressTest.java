@@ -0,0 +1,317 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.Cart;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderRepository;
+import com.rethink.api.repository.ProductRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispara create, checkout de carrinho, addItem, removeItem, updateStatus e delete de várias
+ * threads contra o H2 e confere os invariantes de estoque e de totais ao final.
+ * <p>
+ * Parâmetros (propriedades de sistema): {@code stress.threads}, {@code stress.operations} por
+ * thread, {@code stress.products}, {@code stress.hot-products}, {@code stress.hot-ratio} (fração
+ * das operações que vai para os produtos quentes), {@code stress.initial-stock} e
+ * {@code stress.max-retries}.
+ */
+@QuarkusTest
+@TestProfile(StressTestProfile.class)
+public class OrderStressTest {
+    
+    private static final Logger LOG = Logger.getLogger(OrderStressTest.class);
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    CartService cartService;
+    
+    @Inject
+    CartStore cartStore;
+    
+    @Inject
+    ProductRepository productRepository;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    private final int threads = setting("stress.threads", 8);
+    private final int operations = setting("stress.operations", 100);
+    private final int productCount = setting("stress.products", 20);
+    private final int hotProducts = setting("stress.hot-products", 2);
+    private final double hotRatio = ConfigProvider.getConfig()
+            .getOptionalValue("stress.hot-ratio", Double.class).orElse(0.8);
+    private final int initialStock = setting("stress.initial-stock", 300);
+    private final int maxRetries = setting("stress.max-retries", 10);
+    
+    private final List<Long> productIds = new ArrayList<>();
+    private final List<Long> orderIds = new CopyOnWriteArrayList<>();
+    private final Set<Long> createdIds = ConcurrentHashMap.newKeySet();
+    
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder deadlocks = new LongAdder();
+    private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+    
+    private static int setting(String name, int defaultValue) {
+        return ConfigProvider.getConfig().getOptionalValue(name, Integer.class).orElse(defaultValue);
+    }
+    
+    @Test
+    void testInvariantsHoldUnderContention() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < productCount; i++) {
+                Product product = new Product("Produto Stress " + i, null,
+                        new BigDecimal(String.format("%d.%02d", 10 + i, i % 100)), initialStock);
+                productRepository.persist(product);
+                productIds.add(product.id);
+            }
+        });
+        
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                long[] latencies = new long[operations];
+                for (int i = 0; i < operations; i++) {
+                    long begin = System.nanoTime();
+                    runWithRetry(this::randomOperation);
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return latencies;
+            }));
+        }
+        
+        long begin = System.nanoTime();
+        start.countDown();
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            latencies.add(result.get(5, TimeUnit.MINUTES));
+        }
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        
+        report(latencies, elapsed);
+        assertTrue(failures.isEmpty(), () -> "Falhas inesperadas: " + failures);
+        assertInvariants();
+    }
+    
+    private void randomOperation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 25 || orderIds.isEmpty()) {
+            create(random);
+        } else if (roll < 35) {
+            checkout(random);
+        } else if (roll < 55) {
+            orderService.addItem(randomOrder(random), randomProduct(random), 1 + random.nextInt(3));
+        } else if (roll < 65) {
+            removeItem(random);
+        } else if (roll < 90) {
+            updateStatus(random);
+        } else {
+            Long id = randomOrder(random);
+            orderService.delete(id);
+            orderIds.remove(id);
+        }
+    }
+    
+    private void create(ThreadLocalRandom random) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 1L + random.nextInt(5);
+        List<OrderItem> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem();
+            item.product = new Product();
+            item.product.id = randomProduct(random);
+            item.quantity = 1 + random.nextInt(3);
+            items.add(item);
+        }
+        Long id = orderService.create(order, items).id;
+        createdIds.add(id);
+        orderIds.add(id);
+    }
+    
+    private void checkout(ThreadLocalRandom random) {
+        Cart cart = new Cart();
+        cart.customerId = 1L + random.nextInt(5);
+        String cartId = cartService.create(cart).id;
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            cartService.addItem(cartId, randomProduct(random), 1 + random.nextInt(3));
+        }
+        try {
+            Long id = cartService.checkout(cartId).id;
+            createdIds.add(id);
+            orderIds.add(id);
+        } finally {
+            // Numa falha o carrinho volta ao armazenamento; a retentativa monta outro
+            cartStore.remove(cartId);
+        }
+    }
+    
+    private void removeItem(ThreadLocalRandom random) {
+        Long orderId = randomOrder(random);
+        List<Long> itemIds = QuarkusTransaction.requiringNew().call(() ->
+                orderService.findById(orderId).items.stream().map(item -> item.id).toList());
+        if (itemIds.size() > 1) {
+            orderService.removeItem(orderId, itemIds.get(random.nextInt(itemIds.size())));
+        }
+    }
+    
+    private void updateStatus(ThreadLocalRandom random) {
+        Long orderId = randomOrder(random);
+        Order.OrderStatus current = QuarkusTransaction.requiringNew().call(() -> orderService.findById(orderId).status);
+        List<Order.OrderStatus> next = Arrays.stream(Order.OrderStatus.values())
+                .filter(status -> OrderService.isValidTransition(current, status))
+                .toList();
+        if (!next.isEmpty()) {
+            orderService.updateStatus(orderId, next.get(random.nextInt(next.size())));
+        }
+    }
+    
+    private Long randomOrder(ThreadLocalRandom random) {
+        return orderIds.get(random.nextInt(orderIds.size()));
+    }
+    
+    private Long randomProduct(ThreadLocalRandom random) {
+        if (random.nextDouble() < hotRatio) {
+            return productIds.get(random.nextInt(hotProducts));
+        }
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+    
+    private void runWithRetry(Runnable operation) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                operation.run();
+                completed.increment();
+                return;
+            } catch (WebApplicationException e) {
+                // Regra de negócio: estoque insuficiente, transição inválida, pedido já excluído...
+                rejected.increment();
+                return;
+            } catch (IndexOutOfBoundsException e) {
+                // Pedido removido da lista por outra thread entre o sorteio e o acesso
+                rejected.increment();
+                return;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e) || attempt >= maxRetries) {
+                    failures.add(e);
+                    return;
+                }
+                if (isDeadlock(e)) {
+                    deadlocks.increment();
+                }
+                retries.increment();
+            }
+        }
+    }
+    
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PessimisticLockException || cause instanceof LockTimeoutException
+                    || cause instanceof OptimisticLockException || cause instanceof SQLTransactionRollbackException
+                    || cause instanceof org.hibernate.exception.LockAcquisitionException
+                    || cause instanceof org.hibernate.StaleStateException) {
+                return true;
+            }
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("40") || sql.getSQLState().equals("HYT00"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isDeadlock(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && "40001".equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void report(List<long[]> latencies, long elapsedNanos) {
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        LOG.infof("Stress: %d threads, %d operações em %.2fs (%.0f ops/s); p50 %.2fms, p99 %.2fms, máx %.2fms; "
+                        + "%d concluídas, %d rejeitadas, %d retentativas, %d deadlocks, %d falhas",
+                threads, all.length, seconds, all.length / seconds,
+                percentile(all, 0.50) / 1e6, percentile(all, 0.99) / 1e6, all[all.length - 1] / 1e6,
+                completed.sum(), rejected.sum(), retries.sum(), deadlocks.sum(), failures.size());
+    }
+    
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    
+    private void assertInvariants() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Map<Long, Long> reserved = new HashMap<>();
+            List<Order> orders = orderRepository.list("select distinct o from Order o left join fetch o.items "
+                    + "where o.id in ?1", createdIds);
+            for (Order order : orders) {
+                long subtotals = 0;
+                for (OrderItem item : order.items) {
+                    assertEquals(0, item.unitPrice.multiply(BigDecimal.valueOf(item.quantity)).compareTo(item.subtotal),
+                            "Subtotal divergente no item " + item.id);
+                    subtotals += item.subtotalCents();
+                    if (order.status != Order.OrderStatus.CANCELLED) {
+                        reserved.merge(item.product.id, (long) item.quantity, Long::sum);
+                    }
+                }
+                assertEquals(subtotals, order.totalCents(), "Total divergente no pedido " + order.id);
+            }
+            
+            for (Long productId : productIds) {
+                Product product = productRepository.findById(productId);
+                assertTrue(product.quantity >= 0, "Estoque negativo no produto " + productId);
+                assertEquals(initialStock, product.quantity + reserved.getOrDefault(productId, 0L),
+                        "Estoque + reservado diverge do inicial no produto " + productId);
+            }
+        });
+    }
+}
\ No newline at end of file
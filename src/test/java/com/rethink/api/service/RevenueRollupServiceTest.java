@@ -0,0 +1,187 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.RevenueReport;
+import com.rethink.api.dto.RevenueReportRow;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.repository.OrderItemRepository;
+import com.rethink.api.repository.OrderRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class RevenueRollupServiceTest {
+    
+    private static final LocalDate SEED_FROM = LocalDate.of(2024, 3, 1);
+    private static final LocalDate SEED_TO = LocalDate.of(2024, 3, 31);
+    
+    @Inject
+    RevenueRollupService revenueRollupService;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    OrderArchivalJob orderArchivalJob;
+    
+    @Inject
+    OrderRepository orderRepository;
+    
+    @Inject
+    OrderItemRepository orderItemRepository;
+    
+    private Long createOrder(Long productId, int quantity) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 4L;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = productId;
+        item.quantity = quantity;
+        return orderService.create(order, List.of(item)).id;
+    }
+    
+    private RevenueReportRow today(Order.OrderStatus status) {
+        LocalDate today = LocalDate.now();
+        return revenueRollupService.report(today, today, "state,status", null).rows.stream()
+                .filter(row -> "PR".equals(row.state) && row.status == status)
+                .findFirst()
+                .orElseGet(() -> {
+                    RevenueReportRow empty = new RevenueReportRow();
+                    empty.revenue = BigDecimal.ZERO.setScale(2);
+                    return empty;
+                });
+    }
+    
+    private static void assertDelta(RevenueReportRow before, RevenueReportRow after, long orders, String revenue,
+                                    long items) {
+        assertEquals(orders, after.orderCount - before.orderCount);
+        assertEquals(new BigDecimal(revenue), after.revenue.subtract(before.revenue));
+        assertEquals(items, after.itemCount - before.itemCount);
+    }
+    
+    @Test
+    void testCreateAndTransitionsMoveTotals() {
+        RevenueReportRow pending = today(Order.OrderStatus.PENDING);
+        RevenueReportRow confirmed = today(Order.OrderStatus.CONFIRMED);
+        RevenueReportRow processing = today(Order.OrderStatus.PROCESSING);
+        
+        Long id = createOrder(7L, 2);
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 1, "640.00", 2);
+        
+        orderService.addItem(id, 6L, 1);
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 1, "920.00", 3);
+        
+        orderService.updateStatus(id, Order.OrderStatus.CONFIRMED);
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 0, "0.00", 0);
+        assertDelta(confirmed, today(Order.OrderStatus.CONFIRMED), 1, "920.00", 3);
+        
+        orderService.bulkUpdateStatus(List.of(id), Order.OrderStatus.PROCESSING);
+        assertDelta(confirmed, today(Order.OrderStatus.CONFIRMED), 0, "0.00", 0);
+        assertDelta(processing, today(Order.OrderStatus.PROCESSING), 1, "920.00", 3);
+    }
+    
+    @Test
+    void testDeleteRemovesTotals() {
+        RevenueReportRow pending = today(Order.OrderStatus.PENDING);
+        Long id = createOrder(7L, 1);
+        
+        orderService.delete(id);
+        
+        assertDelta(pending, today(Order.OrderStatus.PENDING), 0, "0.00", 0);
+    }
+    
+    @Test
+    void testRebuildMatchesIncrementalTotals() {
+        RevenueReport incremental = revenueRollupService.report(SEED_FROM, SEED_TO, "day,state,status", null);
+        
+        revenueRollupService.rebuild(SEED_FROM, SEED_TO);
+        RevenueReport rebuilt = revenueRollupService.report(SEED_FROM, SEED_TO, "day,state,status", null);
+        
+        assertEquals(incremental.rows.size(), rebuilt.rows.size());
+        assertEquals(incremental.orderCount, rebuilt.orderCount);
+        assertEquals(incremental.revenue, rebuilt.revenue);
+        assertEquals(incremental.itemCount, rebuilt.itemCount);
+    }
+    
+    @Test
+    void testRebuildKeepsArchivedOrders() {
+        LocalDate day = LocalDate.of(2007, 5, 10);
+        Long id = createOrder(7L, 1);
+        orderService.updateStatus(id, Order.OrderStatus.CANCELLED);
+        QuarkusTransaction.requiringNew().run(() -> orderRepository.update(
+                "orderDate = ?1, cancellationDate = ?1 where id = ?2", day.atStartOfDay(), id));
+        revenueRollupService.rebuild(day, day);
+        revenueRollupService.rebuild(LocalDate.now(), LocalDate.now());
+        
+        assertEquals(1, orderArchivalJob.archive(LocalDateTime.of(2007, 6, 1, 0, 0)));
+        revenueRollupService.rebuild(day, day);
+        RevenueReport report = revenueRollupService.report(day, day, "state,status", null);
+        
+        assertEquals(1, report.rows.size());
+        assertEquals("PR", report.rows.get(0).state);
+        assertEquals(Order.OrderStatus.CANCELLED, report.rows.get(0).status);
+        assertEquals(1, report.orderCount);
+        assertEquals(new BigDecimal("320.00"), report.revenue);
+        assertEquals(1, report.itemCount);
+    }
+    
+    @Test
+    void testRebuildCountsItemsWithoutOrderDate() {
+        LocalDate day = LocalDate.of(2012, 7, 3);
+        Long id = createOrder(7L, 3);
+        // Itens gravados antes da coluna orderDate, num banco nunca particionado
+        QuarkusTransaction.requiringNew().run(() -> {
+            orderRepository.update("orderDate = ?1 where id = ?2", day.atStartOfDay(), id);
+            orderItemRepository.update("orderDate = null where order.id = ?1", id);
+        });
+        revenueRollupService.rebuild(LocalDate.now(), LocalDate.now());
+        
+        revenueRollupService.rebuild(day, day);
+        RevenueReport report = revenueRollupService.report(day, day, null, null);
+        
+        assertEquals(1, report.orderCount);
+        assertEquals(3, report.itemCount);
+        assertEquals(new BigDecimal("960.00"), report.revenue);
+        orderService.delete(id);
+    }
+    
+    @Test
+    void testRebuildValidatesPeriod() {
+        assertThrows(BadRequestException.class, () -> revenueRollupService.rebuild(SEED_FROM, null));
+        assertThrows(BadRequestException.class, () -> revenueRollupService.rebuild(SEED_TO, SEED_FROM));
+    }
+    
+    @Test
+    void testReportGroupsByMonthAndFiltersStatus() {
+        RevenueReport all = revenueRollupService.report(SEED_FROM, SEED_TO, "month", null);
+        RevenueReport delivered = revenueRollupService.report(SEED_FROM, SEED_TO, "month",
+                List.of(Order.OrderStatus.DELIVERED));
+        
+        assertEquals(1, all.rows.size());
+        assertEquals("2024-03", all.rows.get(0).month);
+        assertNull(all.rows.get(0).day);
+        assertEquals(5, all.orderCount);
+        assertEquals(new BigDecimal("12170.00"), all.revenue);
+        assertEquals(new BigDecimal("4150.00"), delivered.revenue);
+    }
+    
+    @Test
+    void testReportValidatesParameters() {
+        assertThrows(BadRequestException.class, () -> revenueRollupService.report(null, SEED_TO, null, null));
+        assertThrows(BadRequestException.class, () -> revenueRollupService.report(SEED_TO, SEED_FROM, null, null));
+        assertThrows(BadRequestException.class, () -> revenueRollupService.report(SEED_FROM, SEED_TO, "week", null));
+    }
+}
\ No newline at end of file
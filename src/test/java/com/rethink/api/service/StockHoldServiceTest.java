@@ -0,0 +1,89 @@
+package com.rethink.api.service;
+
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(StockHoldTestProfile.class)
+public class StockHoldServiceTest {
+    
+    @Inject
+    StockHoldService stockHoldService;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    ProductService productService;
+    
+    private Order createOrder(long productId, int quantity) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = 1L;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = productId;
+        item.quantity = quantity;
+        return orderService.create(order, List.of(item));
+    }
+    
+    private Order.OrderStatus statusOf(Long orderId) {
+        return QuarkusTransaction.requiringNew().call(() -> orderService.findById(orderId).status);
+    }
+    
+    private int stockOf(Long productId) {
+        return QuarkusTransaction.requiringNew().call(() -> productService.findById(productId).quantity);
+    }
+    
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long limit = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < limit) {
+            Thread.sleep(100);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+    
+    @Test
+    void testStalePendingOrderFromDatabaseIsExpired() throws InterruptedException {
+        assertTrue(stockHoldService.isEnabled());
+        
+        waitFor(() -> statusOf(5L) == Order.OrderStatus.CANCELLED);
+    }
+    
+    @Test
+    void testNewPendingOrderExpiresAndReleasesStock() throws InterruptedException {
+        int stockBefore = stockOf(7L);
+        
+        Order order = createOrder(7L, 3);
+        
+        assertTrue(stockHoldService.isHeld(order.id));
+        assertEquals(stockBefore - 3, stockOf(7L));
+        
+        waitFor(() -> statusOf(order.id) == Order.OrderStatus.CANCELLED);
+        assertFalse(stockHoldService.isHeld(order.id));
+        assertEquals(stockBefore, stockOf(7L));
+    }
+    
+    @Test
+    void testConfirmedOrderIsNotExpired() throws InterruptedException {
+        Order order = createOrder(8L, 1);
+        
+        orderService.updateStatus(order.id, Order.OrderStatus.CONFIRMED);
+        
+        assertFalse(stockHoldService.isHeld(order.id));
+        Thread.sleep(2500);
+        assertEquals(Order.OrderStatus.CONFIRMED, statusOf(order.id));
+    }
+}
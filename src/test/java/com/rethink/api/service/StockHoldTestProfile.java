@@ -0,0 +1,16 @@
+package com.rethink.api.service;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+public class StockHoldTestProfile implements QuarkusTestProfile {
+    
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+            "quarkus.hibernate-orm.database.generation", "drop-and-create",
+            "order.hold.expiry", "PT2S",
+            "order.hold.tick", "PT0.1S"
+        );
+    }
+}
\ No newline at end of file
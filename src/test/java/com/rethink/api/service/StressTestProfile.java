@@ -0,0 +1,16 @@
+package com.rethink.api.service;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+import java.util.Map;
+
+public class StressTestProfile implements QuarkusTestProfile {
+    
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+            "quarkus.hibernate-orm.database.generation", "drop-and-create",
+            "quarkus.datasource.jdbc.max-size", "32",
+            "quarkus.log.console.level", "INFO"
+        );
+    }
+}
\ No newline at end of file
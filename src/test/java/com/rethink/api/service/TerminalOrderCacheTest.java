@@ -0,0 +1,102 @@
+package com.rethink.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.event.OrderEvent;
+import io.quarkus.runtime.configuration.MemorySize;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TerminalOrderCacheTest {
+    
+    private TerminalOrderCache cache(long maxBytes, boolean compressed) {
+        TerminalOrderCache cache = new TerminalOrderCache();
+        cache.maxSize = new MemorySize(BigInteger.valueOf(maxBytes));
+        cache.compressed = compressed;
+        cache.objectMapper = new ObjectMapper().findAndRegisterModules();
+        return cache;
+    }
+    
+    private Order order(long id, Order.OrderStatus status) {
+        Order order = new Order();
+        order.id = id;
+        order.status = status;
+        order.customer = new Customer();
+        order.customer.id = 1L;
+        order.customer.name = "João Silva";
+        Product product = new Product();
+        product.id = 3L;
+        product.name = "Mouse";
+        order.addItem(new OrderItem(product, 2, new BigDecimal("89.90")));
+        return order;
+    }
+    
+    @Test
+    void testCachesOnlyTerminalOrders() {
+        TerminalOrderCache cache = cache(1 << 20, false);
+        
+        cache.offer(order(1, Order.OrderStatus.SHIPPED), cache.generation());
+        cache.offer(order(2, Order.OrderStatus.DELIVERED), cache.generation());
+        cache.offer(order(3, Order.OrderStatus.CANCELLED), cache.generation());
+        
+        assertTrue(cache.find(1L).isEmpty());
+        assertTrue(cache.find(2L).isPresent());
+        assertTrue(cache.find(3L).isPresent());
+    }
+    
+    @Test
+    void testCompressedFormReturnsSameJson() throws Exception {
+        TerminalOrderCache plain = cache(1 << 20, false);
+        TerminalOrderCache compressed = cache(1 << 20, true);
+        Order order = order(1, Order.OrderStatus.DELIVERED);
+        
+        plain.offer(order, plain.generation());
+        compressed.offer(order, compressed.generation());
+        
+        byte[] json = plain.find(1L).orElseThrow();
+        assertArrayEquals(json, compressed.find(1L).orElseThrow());
+        JsonNode node = new ObjectMapper().readTree(json);
+        assertEquals("Mouse", node.at("/items/0/product/name").asText());
+        assertEquals(0, new BigDecimal("179.80").compareTo(node.get("totalAmount").decimalValue()));
+    }
+    
+    @Test
+    void testEvictsLeastRecentlyUsedOverBudget() {
+        TerminalOrderCache cache = cache(1 << 20, false);
+        cache.offer(order(1, Order.OrderStatus.DELIVERED), cache.generation());
+        long entryCost = cache.usedBytes();
+        
+        cache = cache(entryCost * 2 + entryCost / 2, false);
+        cache.offer(order(1, Order.OrderStatus.DELIVERED), cache.generation());
+        cache.offer(order(2, Order.OrderStatus.DELIVERED), cache.generation());
+        cache.find(1L);
+        cache.offer(order(3, Order.OrderStatus.DELIVERED), cache.generation());
+        
+        assertEquals(2, cache.size());
+        assertTrue(cache.find(1L).isPresent());
+        assertTrue(cache.find(2L).isEmpty());
+        assertTrue(cache.usedBytes() <= entryCost * 2 + entryCost / 2);
+    }
+    
+    @Test
+    void testDeletionEvictsAndDiscardsConcurrentLoads() {
+        TerminalOrderCache cache = cache(1 << 20, false);
+        Order order = order(1, Order.OrderStatus.CANCELLED);
+        cache.offer(order, cache.generation());
+        
+        long generation = cache.generation();
+        cache.onOrderEvent(OrderEvent.of(OrderEvent.Type.DELETED, order));
+        cache.offer(order, generation);
+        
+        assertTrue(cache.find(1L).isEmpty());
+        assertEquals(0, cache.usedBytes());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.rethink.api.service;
+
+import com.rethink.api.dto.WebhookMetrics;
+import com.rethink.api.entity.Customer;
+import com.rethink.api.entity.Order;
+import com.rethink.api.entity.OrderItem;
+import com.rethink.api.entity.Product;
+import com.rethink.api.entity.WebhookDelivery;
+import com.rethink.api.entity.WebhookEndpoint;
+import com.rethink.api.repository.WebhookDeliveryRepository;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+public class WebhookDispatcherTest {
+    
+    @Inject
+    WebhookDispatcher webhookDispatcher;
+    
+    @Inject
+    WebhookService webhookService;
+    
+    @Inject
+    OrderService orderService;
+    
+    @Inject
+    WebhookDeliveryRepository deliveryRepository;
+    
+    private HttpServer server;
+    private final Queue<String> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final List<Long> endpoints = new ArrayList<>();
+    private final CountDownLatch slowRelease = new CountDownLatch(1);
+    
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/hook", exchange -> {
+            received.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                slowRelease.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+    
+    @AfterEach
+    void stopStub() {
+        slowRelease.countDown();
+        endpoints.forEach(webhookService::delete);
+        server.stop(0);
+    }
+    
+    private Long register(Long customerId) {
+        WebhookEndpoint endpoint = new WebhookEndpoint();
+        endpoint.url = "http://localhost:" + server.getAddress().getPort() + "/hook";
+        endpoint.customerId = customerId;
+        Long id = webhookService.register(endpoint).id;
+        endpoints.add(id);
+        return id;
+    }
+    
+    private Long confirmNewOrder(Long customerId) {
+        Order order = new Order();
+        order.customer = new Customer();
+        order.customer.id = customerId;
+        OrderItem item = new OrderItem();
+        item.product = new Product();
+        item.product.id = 6L;
+        item.quantity = 1;
+        Long id = orderService.create(order, List.of(item)).id;
+        orderService.updateStatus(id, Order.OrderStatus.CONFIRMED);
+        return id;
+    }
+    
+    private List<WebhookDelivery> deliveriesFor(Long endpointId) {
+        return QuarkusTransaction.requiringNew().call(() -> deliveryRepository.list("endpointId = ?1 ORDER BY id", endpointId));
+    }
+    
+    @Test
+    void testBatchesStatusChangesPerEndpoint() {
+        Long endpointId = register(2L);
+        Long first = confirmNewOrder(2L);
+        Long second = confirmNewOrder(2L);
+        confirmNewOrder(3L);
+        
+        assertEquals(2, webhookDispatcher.dispatch());
+        
+        assertEquals(1, received.size());
+        String body = received.peek();
+        assertTrue(body.contains("\"orderId\":" + first + ","));
+        assertTrue(body.contains("\"orderId\":" + second + ","));
+        assertTrue(body.contains("\"status\":\"CONFIRMED\""));
+        assertTrue(deliveriesFor(endpointId).stream().allMatch(d -> d.status == WebhookDelivery.Status.DELIVERED
+                && d.nextAttemptAt == null && d.attempts == 1));
+        assertEquals(0, webhookDispatcher.dispatch());
+    }
+    
+    @Test
+    void testFailuresRetryThenOpenCircuit() {
+        responseStatus.set(500);
+        Long endpointId = register(null);
+        Long orderId = confirmNewOrder(4L);
+        
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(1, webhookDispatcher.dispatch());
+            WebhookDelivery delivery = deliveriesFor(endpointId).get(0);
+            assertEquals(orderId, delivery.orderId);
+            assertEquals(WebhookDelivery.Status.PENDING, delivery.status);
+            assertEquals(i, delivery.attempts);
+            assertEquals("HTTP 500", delivery.lastError);
+        }
+        
+        // Três falhas seguidas abrem o disjuntor: o endpoint nem é consultado
+        assertEquals(0, webhookDispatcher.dispatch());
+        assertEquals(3, received.size());
+        WebhookMetrics metrics = webhookDispatcher.metrics();
+        assertTrue(metrics.openCircuits.contains(endpointId));
+        assertTrue(metrics.failedAttempts >= 3);
+        assertTrue(metrics.pending >= 1);
+    }
+    
+    @Test
+    void testUnreachableEndpointDoesNotBlockOthers() {
+        WebhookEndpoint down = new WebhookEndpoint();
+        down.url = "http://localhost:1/hook";
+        Long downId = webhookService.register(down).id;
+        endpoints.add(downId);
+        Long upId = register(5L);
+        confirmNewOrder(5L);
+        
+        assertEquals(2, webhookDispatcher.dispatch());
+        
+        assertEquals(WebhookDelivery.Status.DELIVERED, deliveriesFor(upId).get(0).status);
+        WebhookDelivery failed = deliveriesFor(downId).get(0);
+        assertEquals(WebhookDelivery.Status.PENDING, failed.status);
+        assertNotNull(failed.lastError);
+    }
+    
+    @Test
+    void testSlowEndpointDoesNotHoldTheCycle() throws Exception {
+        WebhookEndpoint slow = new WebhookEndpoint();
+        slow.url = "http://localhost:" + server.getAddress().getPort() + "/slow";
+        slow.customerId = 1L;
+        Long slowId = webhookService.register(slow).id;
+        endpoints.add(slowId);
+        confirmNewOrder(1L);
+        
+        CompletableFuture<Integer> slowCycle = webhookDispatcher.dispatchAsync();
+        assertFalse(slowCycle.isDone());
+        
+        // Com o lote do endpoint lento em andamento, ele fica de fora e os demais seguem
+        Long fastId = register(1L);
+        confirmNewOrder(1L);
+        assertEquals(1, webhookDispatcher.dispatch());
+        assertEquals(WebhookDelivery.Status.DELIVERED, deliveriesFor(fastId).get(0).status);
+        assertTrue(deliveriesFor(slowId).stream().anyMatch(d -> d.status == WebhookDelivery.Status.PENDING));
+        
+        slowRelease.countDown();
+        assertEquals(1, slowCycle.get(10, TimeUnit.SECONDS));
+        assertEquals(1, webhookDispatcher.dispatch());
+        assertTrue(deliveriesFor(slowId).stream().allMatch(d -> d.status == WebhookDelivery.Status.DELIVERED));
+    }
+    
+    @Test
+    void testPurgeRemovesOldFinishedDeliveries() {
+        Long endpointId = register(2L);
+        confirmNewOrder(2L);
+        confirmNewOrder(2L);
+        webhookDispatcher.dispatch();
+        Long old = deliveriesFor(endpointId).get(0).id;
+        QuarkusTransaction.requiringNew().run(() -> deliveryRepository.update("createdAt = ?1 where id = ?2",
+                LocalDateTime.now().minusDays(30), old));
+        confirmNewOrder(2L);
+        
+        assertTrue(webhookDispatcher.purge() >= 1);
+        
+        List<WebhookDelivery> remaining = deliveriesFor(endpointId);
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.stream().noneMatch(d -> d.id.equals(old)));
+        assertTrue(remaining.stream().anyMatch(d -> d.status == WebhookDelivery.Status.PENDING));
+    }
+    
+    @Test
+    void testBackoffGrowsWithJitterUpToLimit() {
+        Duration base = Duration.ofSeconds(1);
+        Duration max = Duration.ofSeconds(30);
+        
+        assertEquals(Duration.ofMillis(500), WebhookDispatcher.backoff(1, base, max, 0));
+        assertEquals(Duration.ofMillis(1000), WebhookDispatcher.backoff(1, base, max, 1));
+        assertEquals(Duration.ofMillis(4000), WebhookDispatcher.backoff(4, base, max, 0));
+        assertEquals(Duration.ofSeconds(30), WebhookDispatcher.backoff(20, base, max, 1));
+        assertEquals(Duration.ofSeconds(30), WebhookDispatcher.backoff(200, base, max, 1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    
+    private final AtomicLong now = new AtomicLong(1_000);
+    
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(3, Duration.ofSeconds(10), now::get);
+    }
+    
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = breaker();
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertTrue(breaker.allowRequest());
+        
+        breaker.onFailure();
+        
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.allowRequest());
+        assertEquals(11_000, breaker.openUntil());
+    }
+    
+    @Test
+    void testHalfOpenAllowsSingleTrial() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        now.addAndGet(10_000);
+        
+        assertFalse(breaker.isOpen());
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.allowRequest());
+        
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.allowRequest());
+    }
+    
+    @Test
+    void testFailedTrialReopens() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        now.addAndGet(10_000);
+        assertTrue(breaker.allowRequest());
+        
+        breaker.onFailure();
+        
+        assertTrue(breaker.isOpen());
+        assertEquals(21_000, breaker.openUntil());
+    }
+}
\ No newline at end of file
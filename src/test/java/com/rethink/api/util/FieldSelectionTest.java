@@ -0,0 +1,43 @@
+package com.rethink.api.util;
+
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldSelectionTest {
+    
+    private static final Map<String, String> ALLOWED = Map.of("id", "p.id", "price", "p.price", "name", "p.name");
+    
+    @Test
+    void testKeepsRequestedOrder() {
+        FieldSelection fields = FieldSelection.parse(" price, id ,", ALLOWED);
+        
+        assertEquals(List.of("price", "id"), List.copyOf(fields.names()));
+        assertEquals("p.price, p.id", fields.selectClause());
+        assertEquals(List.of("price", "id"), List.copyOf(fields.toRow(new Object[] {10, 1L}).keySet()));
+    }
+    
+    @Test
+    void testSingleColumnRows() {
+        FieldSelection fields = FieldSelection.parse("id", ALLOWED);
+        
+        assertEquals(List.of(Map.of("id", 1L), Map.of("id", 2L)), fields.toRows(List.of(1L, 2L)));
+    }
+    
+    @Test
+    void testBlankMeansNoSelection() {
+        assertNull(FieldSelection.parse(null, ALLOWED));
+        assertNull(FieldSelection.parse(" , ", ALLOWED));
+    }
+    
+    @Test
+    void testRejectsFieldOutsideWhitelist() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> FieldSelection.parse("id,password", ALLOWED));
+        assertTrue(e.getMessage().contains("password"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+    
+    @Test
+    void testSmallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        assertEquals(0, sketch.estimate());
+        for (long id = 1; id <= 50; id++) {
+            sketch.add(id);
+            sketch.add(id);
+        }
+        
+        assertEquals(50, sketch.estimate(), 1);
+    }
+    
+    @Test
+    void testLargeCardinalityWithinError() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long id = 1; id <= 200_000; id++) {
+            sketch.add(id);
+        }
+        
+        assertEquals(200_000, sketch.estimate(), 200_000 * 0.05);
+    }
+    
+    @Test
+    void testMergeEstimatesUnion() {
+        HyperLogLog first = new HyperLogLog(10);
+        HyperLogLog second = new HyperLogLog(10);
+        for (long id = 0; id < 30_000; id++) {
+            first.add(id);
+            second.add(id + 20_000);
+        }
+        
+        first.merge(second);
+        
+        assertEquals(50_000, first.estimate(), 50_000 * 0.1);
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(12)));
+    }
+    
+    @Test
+    void testRejectsInvalidPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+    
+    @Test
+    void testConvertsToAndFromCents() {
+        assertEquals(129990, Money.toCents(new BigDecimal("1299.90")));
+        assertEquals(500, Money.toCents(new BigDecimal("5")));
+        assertEquals(0, Money.toCents(null));
+        assertEquals(new BigDecimal("1299.90"), Money.fromCents(129990));
+    }
+    
+    @Test
+    void testRoundsExtraDecimalsHalfUp() {
+        assertEquals(1001, Money.toCents(new BigDecimal("10.005")));
+        assertEquals(1000, Money.toCents(new BigDecimal("10.004")));
+    }
+    
+    @Test
+    void testOverflowIsRejected() {
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE / 2, 3));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonthlyPartitionsTest {
+    
+    @Test
+    void testNameAndMonthRoundTrip() {
+        String name = MonthlyPartitions.name("customer_order", YearMonth.of(2026, 3));
+        
+        assertEquals("customer_order_p202603", name);
+        assertEquals(YearMonth.of(2026, 3), MonthlyPartitions.monthOf("customer_order", name));
+    }
+    
+    @Test
+    void testMonthOfIgnoresOtherTables() {
+        assertNull(MonthlyPartitions.monthOf("customer_order", "orderitem_p202603"));
+        assertNull(MonthlyPartitions.monthOf("customer_order", "customer_order_default"));
+        assertNull(MonthlyPartitions.monthOf("customer_order", "customer_order_p2026"));
+        assertNull(MonthlyPartitions.monthOf("customer_order", "customer_order_p202613"));
+    }
+    
+    @Test
+    void testCreateSqlCoversWholeMonth() {
+        assertEquals("CREATE TABLE IF NOT EXISTS orderitem_p202612 PARTITION OF orderitem "
+                        + "FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')",
+                MonthlyPartitions.createSql("orderitem", YearMonth.of(2026, 12)));
+    }
+    
+    @Test
+    void testRangeIsInclusive() {
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1)),
+                MonthlyPartitions.range(YearMonth.of(2026, 11), YearMonth.of(2027, 1)));
+        assertTrue(MonthlyPartitions.range(YearMonth.of(2026, 2), YearMonth.of(2026, 1)).isEmpty());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderArchiveSegmentTest {
+    
+    @TempDir
+    Path directory;
+    
+    private static List<OrderArchiveSegment.Row> rows(int count) {
+        List<OrderArchiveSegment.Row> rows = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            // IDs fora de ordem e clientes intercalados, como sai de uma ordenação por data
+            long orderId = (i * 7L) % 101;
+            rows.add(new OrderArchiveSegment.Row(orderId, i % 3, (byte) (i % 2), 1_700_000_000L + i, i * 100L,
+                    ("{\"id\":" + orderId + "}").getBytes(StandardCharsets.UTF_8)));
+        }
+        return rows;
+    }
+    
+    private static String json(OrderArchiveSegment.Document document) {
+        return new String(document.json(), StandardCharsets.UTF_8);
+    }
+    
+    @Test
+    void testFindsOrdersAcrossBlocks() throws Exception {
+        Path dataFile = directory.resolve("1.seg");
+        OrderArchiveSegment.write(dataFile, rows(50), 8);
+        
+        try (OrderArchiveSegment segment = OrderArchiveSegment.seal(dataFile)) {
+            assertEquals(50, segment.size());
+            for (OrderArchiveSegment.Row row : rows(50)) {
+                OrderArchiveSegment.Document document = segment.find(row.orderId());
+                assertEquals("{\"id\":" + row.orderId() + "}", json(document));
+                assertEquals(row.status(), document.status());
+            }
+            assertNull(segment.find(1000));
+        }
+    }
+    
+    @Test
+    void testFindsCustomerOrdersInIdOrder() throws Exception {
+        Path dataFile = directory.resolve("1.seg");
+        OrderArchiveSegment.write(dataFile, rows(30), 4);
+        
+        try (OrderArchiveSegment segment = OrderArchiveSegment.seal(dataFile)) {
+            List<Long> expected = rows(30).stream()
+                    .filter(row -> row.customerId() == 2)
+                    .map(OrderArchiveSegment.Row::orderId)
+                    .sorted()
+                    .toList();
+            List<Long> found = segment.findByCustomer(2).stream().map(OrderArchiveSegment.Document::orderId).toList();
+            
+            assertEquals(expected, found);
+            assertTrue(segment.findByCustomer(9).isEmpty());
+            assertTrue(segment.containsCustomer(2));
+            assertFalse(segment.containsCustomer(9));
+        }
+    }
+    
+    @Test
+    void testCountsByStatusAndReopens() throws Exception {
+        Path dataFile = directory.resolve("1.seg");
+        OrderArchiveSegment.write(dataFile, rows(9), 64);
+        OrderArchiveSegment.seal(dataFile).close();
+        
+        try (OrderArchiveSegment segment = OrderArchiveSegment.open(dataFile)) {
+            assertEquals(4, segment.statusCount((byte) 0));
+            assertEquals(5, segment.statusCount((byte) 1));
+            assertEquals("{\"id\":63}", json(segment.find(63)));
+        }
+    }
+    
+    @Test
+    void testUnsealedSegmentHasNoIndex() throws Exception {
+        Path dataFile = directory.resolve("1.seg");
+        OrderArchiveSegment.write(dataFile, rows(3), 64);
+        
+        assertFalse(Files.exists(OrderArchiveSegment.indexFile(dataFile)));
+        assertArrayEquals(new long[] {7, 14, 21}, OrderArchiveSegment.readOrderIds(dataFile));
+        
+        OrderArchiveSegment.seal(dataFile).close();
+        assertTrue(Files.exists(OrderArchiveSegment.indexFile(dataFile)));
+    }
+    
+    @Test
+    void testCompressesDocuments() throws Exception {
+        List<OrderArchiveSegment.Row> rows = new ArrayList<>();
+        byte[] document = ("{\"notes\":\"" + "entregar na portaria ".repeat(20) + "\"}").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 200; i++) {
+            rows.add(new OrderArchiveSegment.Row(i, 1, (byte) 0, 0, 0, document));
+        }
+        Path dataFile = directory.resolve("1.seg");
+        OrderArchiveSegment.write(dataFile, rows, 64);
+        
+        assertTrue(Files.size(dataFile) < 200L * document.length / 10);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderColumnsTest {
+    
+    private static final long ALL = -1L >>> 1;
+    private static final int DAY = 19800;
+    
+    private static OrderColumns.Line line(long orderId, long productId, int status, int day, String state,
+                                          int quantity, long cents) {
+        return new OrderColumns.Line(orderId, orderId * 10, productId, (byte) status, day, state, "Cidade " + state,
+                quantity, cents);
+    }
+    
+    private static OrderColumns.Query query(OrderColumns.Dimension... groupBy) {
+        return new OrderColumns.Query(ALL, Integer.MIN_VALUE, Integer.MAX_VALUE, null, null, null, null,
+                List.of(groupBy));
+    }
+    
+    /** Grupo -> pedidos, linhas, itens e centavos. */
+    private static Map<String, String> byKey(OrderColumns.Result result) {
+        Map<String, String> totals = new TreeMap<>();
+        for (OrderColumns.Group group : result.groups()) {
+            totals.put(Arrays.toString(group.keys()),
+                    group.orders() + "," + group.lines() + "," + group.items() + "," + group.cents());
+        }
+        return totals;
+    }
+    
+    @Test
+    void testGroupsAndCountsOrdersOncePerOrder() {
+        OrderColumns columns = new OrderColumns(4);
+        columns.apply(List.of(), List.of(
+                line(1, 100, 0, DAY, "SP", 2, 2000),
+                line(1, 101, 0, DAY, "SP", 1, 500),
+                line(2, 100, 1, DAY + 1, "RJ", 3, 3000),
+                line(3, 102, 1, DAY + 40, "SP", 1, 100)));
+        
+        Map<String, String> byState = byKey(columns.query(query(OrderColumns.Dimension.STATE)));
+        assertEquals("2,3,4,2600", byState.get("[SP]"));
+        assertEquals("1,1,3,3000", byState.get("[RJ]"));
+        
+        Map<String, String> byProduct = byKey(columns.query(query(OrderColumns.Dimension.PRODUCT)));
+        assertEquals("2,2,5,5000", byProduct.get("[100]"));
+        assertEquals("1,1,1,500", byProduct.get("[101]"));
+        
+        Map<String, String> byMonthAndStatus = byKey(columns.query(
+                query(OrderColumns.Dimension.MONTH, OrderColumns.Dimension.STATUS)));
+        assertEquals(3, byMonthAndStatus.size());
+        assertEquals(3, columns.orderCount());
+        assertEquals(4, columns.size());
+    }
+    
+    @Test
+    void testCountsDistinctOrdersOfFilteredLines() {
+        OrderColumns columns = new OrderColumns(8);
+        columns.apply(List.of(), List.of(
+                line(1, 100, 0, DAY, "SP", 2, 2000),
+                line(1, 101, 0, DAY, "SP", 1, 500),
+                line(1, 101, 0, DAY, "SP", 2, 1000),
+                line(2, 101, 0, DAY, "SP", 1, 500)));
+        
+        OrderColumns.Query product = new OrderColumns.Query(ALL, Integer.MIN_VALUE, Integer.MAX_VALUE, null, null,
+                null, 101L, List.of());
+        assertEquals("2,3,4,2000", byKey(columns.query(product)).get("[]"));
+        
+        Map<String, String> byProduct = byKey(columns.query(query(OrderColumns.Dimension.PRODUCT)));
+        assertEquals("1,1,2,2000", byProduct.get("[100]"));
+        assertEquals("2,3,4,2000", byProduct.get("[101]"));
+        
+        Map<String, String> byState = byKey(columns.query(query(OrderColumns.Dimension.STATE)));
+        assertEquals("2,4,6,4000", byState.get("[SP]"));
+    }
+    
+    @Test
+    void testFilters() {
+        OrderColumns columns = new OrderColumns(2);
+        columns.apply(List.of(), List.of(
+                line(1, 100, 0, DAY, "SP", 2, 2000),
+                line(2, 100, 1, DAY + 1, "RJ", 3, 3000),
+                line(3, 101, 2, DAY + 2, "SP", 1, 100)));
+        
+        OrderColumns.Query statuses = new OrderColumns.Query(0b110, Integer.MIN_VALUE, Integer.MAX_VALUE, null, null,
+                null, null, List.of());
+        assertEquals("2,2,4,3100", byKey(columns.query(statuses)).get("[]"));
+        
+        OrderColumns.Query days = new OrderColumns.Query(ALL, DAY + 1, DAY + 2, "SP", null, null, null, List.of());
+        assertEquals("1,1,1,100", byKey(columns.query(days)).get("[]"));
+        
+        OrderColumns.Query customer = new OrderColumns.Query(ALL, Integer.MIN_VALUE, Integer.MAX_VALUE, null,
+                "Cidade RJ", 20L, 100L, List.of());
+        assertEquals("1,1,3,3000", byKey(columns.query(customer)).get("[]"));
+        
+        OrderColumns.Query unknownState = new OrderColumns.Query(ALL, Integer.MIN_VALUE, Integer.MAX_VALUE, "AM",
+                null, null, null, List.of());
+        assertTrue(columns.query(unknownState).groups().isEmpty());
+    }
+    
+    @Test
+    void testApplyReplacesAndRemovesOrders() {
+        OrderColumns columns = new OrderColumns(3);
+        columns.apply(List.of(), List.of(
+                line(1, 100, 0, DAY, "SP", 2, 2000),
+                line(2, 100, 0, DAY, "RJ", 3, 3000),
+                line(3, 100, 0, DAY, "MG", 1, 100)));
+        
+        columns.apply(List.of(1L, 2L), List.of(
+                line(1, 100, 1, DAY, "SP", 2, 2000),
+                line(1, 101, 1, DAY, "SP", 4, 800)));
+        
+        Map<String, String> byStatus = byKey(columns.query(query(OrderColumns.Dimension.STATUS)));
+        assertEquals("1,1,1,100", byStatus.get("[0]"));
+        assertEquals("1,2,6,2800", byStatus.get("[1]"));
+        assertEquals(2, columns.orderCount());
+        assertEquals(3, columns.size());
+    }
+    
+    @Test
+    void testCompactionKeepsResults() {
+        OrderColumns columns = new OrderColumns(8);
+        List<OrderColumns.Line> lines = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            lines.add(line(id, 100 + id % 3, (int) (id % 2), DAY + (int) (id % 5), id % 2 == 0 ? "SP" : "RJ", 1, id));
+            lines.add(line(id, 200, (int) (id % 2), DAY + (int) (id % 5), id % 2 == 0 ? "SP" : "RJ", 2, 10));
+        }
+        columns.apply(List.of(), lines);
+        Map<String, String> before = byKey(columns.query(query(OrderColumns.Dimension.STATE, OrderColumns.Dimension.DAY)));
+        
+        // Regrava cada pedido com as mesmas linhas: as anteriores viram removidas e disparam compactações
+        for (long id = 1; id <= 100; id++) {
+            columns.apply(List.of(id), lines.subList((int) (id - 1) * 2, (int) id * 2));
+        }
+        
+        assertEquals(before, byKey(columns.query(query(OrderColumns.Dimension.STATE, OrderColumns.Dimension.DAY))),
+                "totais mudaram após compactação");
+        assertEquals(200, columns.size());
+        assertEquals(100, columns.orderCount());
+        assertTrue(columns.segmentCount() < 40);
+    }
+    
+    @Test
+    void testOrderLargerThanSegment() {
+        OrderColumns columns = new OrderColumns(2);
+        List<OrderColumns.Line> lines = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            lines.add(line(1, 100 + i, 0, DAY, "SP", 1, 10));
+        }
+        columns.apply(List.of(), lines);
+        
+        assertEquals("1,5,5,50", byKey(columns.query(query())).get("[]"));
+        columns.apply(List.of(1L), List.of());
+        assertTrue(columns.query(query()).groups().isEmpty());
+    }
+    
+    @Test
+    void testRejectsInvalidSegmentSize() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderColumns(0));
+    }
+}
\ No newline at end of file
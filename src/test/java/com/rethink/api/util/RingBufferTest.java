@@ -0,0 +1,45 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+    
+    @Test
+    void testKeepsNewestWhenFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertNull(buffer.add(1));
+        buffer.add(2);
+        buffer.add(3);
+        
+        assertEquals(1, buffer.add(4));
+        assertEquals(List.of(4, 3, 2), buffer.newest(10));
+        assertEquals(List.of(4, 3), buffer.newest(2));
+        assertEquals(3, buffer.size());
+    }
+    
+    @Test
+    void testReplaceAndRemovePreserveOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 1; i <= 6; i++) {
+            buffer.add(i);
+        }
+        
+        assertTrue(buffer.replaceAll(value -> value == 4, value -> 40));
+        assertFalse(buffer.replaceAll(value -> value == 1, value -> 10));
+        assertTrue(buffer.removeIf(value -> value == 5));
+        assertEquals(List.of(6, 40, 3), buffer.newest(4));
+        
+        buffer.add(7);
+        buffer.add(8);
+        assertEquals(List.of(8, 7, 6, 40), buffer.newest(4));
+    }
+    
+    @Test
+    void testRejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+    }
+}
\ No newline at end of file
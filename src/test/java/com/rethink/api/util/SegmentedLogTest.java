@@ -0,0 +1,131 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedLogTest {
+    
+    @TempDir
+    Path directory;
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static List<String> payloads(List<SegmentedLog.Record> records) {
+        return records.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList();
+    }
+    
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.toString().endsWith(".log")).count();
+        }
+    }
+    
+    @Test
+    void testAppendsAndReadsAcrossSegments() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, log.append(bytes("evento-" + i)));
+            }
+            
+            assertTrue(log.segmentCount() > 1);
+            assertEquals(log.segmentCount(), segmentFiles());
+            assertEquals(List.of("evento-3", "evento-4", "evento-5"), payloads(log.read(3, 3)));
+            assertEquals(10, log.read(0, 100).size());
+            assertTrue(log.read(10, 100).isEmpty());
+        }
+    }
+    
+    @Test
+    void testReopenKeepsRecordsAndDiscardsTornTail() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            log.append(bytes("primeiro"));
+            log.append(bytes("segundo"));
+        }
+        // Simula uma gravação interrompida: cabeçalho de um terceiro registro sem CRC válido
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(String.format("%020d.log", 0)).toFile(), "rw")) {
+            file.seek(2 * 8 + "primeiro".length() + "segundo".length());
+            file.writeInt(5);
+            file.writeInt(12345);
+            file.write(bytes("lixo!"));
+        }
+        
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            assertEquals(2, log.endOffset());
+            assertEquals(2, log.append(bytes("c")));
+            assertEquals(List.of("primeiro", "segundo", "c"), payloads(log.read(0, 10)));
+        }
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            assertEquals(3, log.endOffset());
+        }
+    }
+    
+    @Test
+    void testRetentionRemovesOldestSegments() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            for (int i = 0; i < 20; i++) {
+                log.append(bytes("evento-" + i));
+            }
+            int before = log.segmentCount();
+            
+            assertEquals(before - 2, log.retain(2 * 64));
+            assertEquals(2, log.segmentCount());
+            assertEquals(2, segmentFiles());
+            assertTrue(log.startOffset() > 0);
+            
+            // Offsets removidos são pulados até o primeiro disponível
+            assertEquals(log.startOffset(), log.read(0, 1).get(0).offset());
+            assertEquals(20, log.endOffset());
+        }
+    }
+    
+    @Test
+    void testConsumerOffsetsSurviveReopen() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            log.append(bytes("a"));
+            log.append(bytes("b"));
+            assertEquals(0, log.committed("analytics"));
+            
+            log.commit("analytics", 1);
+            
+            assertThrows(IllegalArgumentException.class, () -> log.commit("analytics", 3));
+            assertThrows(IllegalArgumentException.class, () -> log.commit("../fora", 1));
+        }
+        try (SegmentedLog log = new SegmentedLog(directory, 1024)) {
+            assertEquals(1, log.committed("analytics"));
+            assertEquals(0, log.committed("search"));
+        }
+    }
+    
+    @Test
+    void testRejectsRecordLargerThanSegment() throws Exception {
+        try (SegmentedLog log = new SegmentedLog(directory, 64)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(new byte[64]));
+        }
+    }
+    
+    @Test
+    void testManyAppendsWithBatchedFlush() throws Exception {
+        byte[] payload = new byte[200];
+        try (SegmentedLog log = new SegmentedLog(directory, 8 << 20)) {
+            for (int i = 0; i < 200_000; i++) {
+                log.append(payload);
+                if (i % 50_000 == 0) {
+                    log.flush();
+                }
+            }
+            assertEquals(200_000, log.endOffset());
+            assertEquals(199_999, log.read(199_999, 10).get(0).offset());
+        }
+    }
+}
\ No newline at end of file
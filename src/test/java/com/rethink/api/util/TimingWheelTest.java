@@ -0,0 +1,86 @@
+package com.rethink.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimingWheelTest {
+    
+    @Test
+    void testExpiresAtDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        
+        assertTrue(wheel.schedule("a", 35));
+        
+        assertTrue(wheel.advance(30).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(40));
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void testPastDeadlineIsRejected() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 100);
+        
+        assertFalse(wheel.schedule("a", 50));
+        assertFalse(wheel.schedule("b", 100));
+        assertTrue(wheel.schedule("c", 105));
+        assertFalse(wheel.contains("a"));
+        assertEquals(List.of("c"), wheel.advance(110));
+    }
+    
+    @Test
+    void testCancel() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 50);
+        wheel.schedule("b", 50);
+        
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        
+        assertEquals(List.of("b"), wheel.advance(100));
+    }
+    
+    @Test
+    void testRescheduleReplacesDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        wheel.schedule("a", 50);
+        wheel.schedule("a", 500);
+        
+        assertTrue(wheel.advance(100).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(510));
+    }
+    
+    @Test
+    void testCascadesFromUpperLevels() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0);
+        for (int i = 1; i <= 200; i++) {
+            assertTrue(wheel.schedule(i, i * 37L));
+        }
+        
+        List<Integer> expired = new ArrayList<>();
+        for (long now = 0; now <= 200 * 37L + 10; now += 7) {
+            for (Integer key : wheel.advance(now)) {
+                long deadline = key * 37L;
+                assertTrue(now >= deadline, "expirou antes do prazo: " + key);
+                assertTrue(now < deadline + 10 + 7, "expirou com atraso: " + key);
+                expired.add(key);
+            }
+        }
+        
+        assertEquals(200, expired.size());
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void testLargeJumpExpiresEverything() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 16, 0);
+        for (int i = 0; i < 1000; i++) {
+            wheel.schedule(i, 10 + i * 13L);
+        }
+        
+        assertEquals(1000, wheel.advance(1_000_000).size());
+    }
+}
@@ -46,30 +46,30 @@ VALUES (5, 5, 'PENDING', 450.00, '2024-03-20 09:30:00', null, null, null, null,
 
 -- Itens dos Pedidos
 -- Pedido 1 (Delivered)
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (1, 1, 1, 1, 3500.00, 3500.00);
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (2, 1, 3, 1, 650.00, 650.00);
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (1, 1, 1, 1, 3500.00, 3500.00, '2024-03-01 10:00:00');
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (2, 1, 3, 1, 650.00, 650.00, '2024-03-01 10:00:00');
 
 -- Pedido 2 (Shipped)
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (3, 2, 7, 2, 320.00, 640.00);
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (4, 2, 8, 2, 450.00, 900.00);
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (5, 2, 6, 6, 280.00, 1680.00);
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (3, 2, 7, 2, 320.00, 640.00, '2024-03-10 15:00:00');
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (4, 2, 8, 2, 450.00, 900.00, '2024-03-10 15:00:00');
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (5, 2, 6, 6, 280.00, 1680.00, '2024-03-10 15:00:00');
 
 -- Pedido 3 (Processing)
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (6, 3, 10, 1, 1500.00, 1500.00);
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (6, 3, 10, 1, 1500.00, 1500.00, '2024-03-15 11:00:00');
 
 -- Pedido 4 (Confirmed)
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (7, 4, 9, 1, 2800.00, 2800.00);
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (7, 4, 9, 1, 2800.00, 2800.00, '2024-03-18 16:00:00');
 
 -- Pedido 5 (Pending)
-INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal) 
-VALUES (8, 5, 2, 1, 450.00, 450.00);
+INSERT INTO orderitem (id, order_id, product_id, quantity, unitPrice, subtotal, orderDate) 
+VALUES (8, 5, 2, 1, 450.00, 450.00, '2024-03-20 09:30:00');
 
 -- Atualizar sequences para próximos IDs
 ALTER SEQUENCE product_seq RESTART WITH 11;